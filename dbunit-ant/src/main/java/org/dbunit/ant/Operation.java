@@ -22,10 +22,16 @@
 package org.dbunit.ant;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
 
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.types.FileSet;
@@ -37,6 +43,7 @@ import org.dbunit.dataset.FilteredDataSet;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ReplacementDataSet;
 import org.dbunit.ext.mssql.InsertIdentityOperation;
+import org.dbunit.operation.ChunkedCommitOperation;
 import org.dbunit.operation.DatabaseOperation;
 import org.dbunit.operation.TransactionOperation;
 import org.slf4j.Logger;
@@ -61,11 +68,19 @@ public class Operation extends AbstractStep {
 
     private static final String DEFAULT_FORMAT = FORMAT_FLAT;
 
+    private static final String PROGRESS_OPERATION_INDEX = "operationIndex";
+    private static final String PROGRESS_TABLE_INDEX = "tableIndex";
+    private static final String PROGRESS_TABLE_NAME = "tableName";
+    private static final String PROGRESS_ROW_COUNT = "rowCount";
+
     protected String _type = "CLEAN_INSERT";
     private String _format;
     private List<File> _sources = new ArrayList<>();
     private boolean _combine = false;
     private boolean _transaction = false;
+    private int _commitRows = 0;
+    private long _commitBytes = 0;
+    private File _progressFile;
     private DatabaseOperation _operation;
     private boolean _forwardOperation = true;
     private String _nullToken;
@@ -120,6 +135,44 @@ public class Operation extends AbstractStep {
         _transaction = transaction;
     }
 
+    public int getCommitRows() {
+        return _commitRows;
+    }
+
+    /**
+     * Commits every specified number of rows of each table, instead of running
+     * the operation in a single transaction. 0, the default, disables it.
+     */
+    public void setCommitRows(int commitRows) {
+        _commitRows = commitRows;
+    }
+
+    public long getCommitBytes() {
+        return _commitBytes;
+    }
+
+    /**
+     * Also commits every specified number of bytes of values, when
+     * <code>commitRows</code> is set. 0, the default, disables it.
+     */
+    public void setCommitBytes(long commitBytes) {
+        _commitBytes = commitBytes;
+    }
+
+    public File getProgressFile() {
+        return _progressFile;
+    }
+
+    /**
+     * File recording what was committed when <code>commitRows</code> is set. If
+     * the operation fails, the progress is written to this file and the next
+     * execution resumes from it. The file is deleted once the operation
+     * succeeds.
+     */
+    public void setProgressFile(File progressFile) {
+        _progressFile = progressFile;
+    }
+
     public String getNullToken() {
         return _nullToken;
     }
@@ -148,6 +201,9 @@ public class Operation extends AbstractStep {
         } else if ("REFRESH".equals(type)) {
             _operation = DatabaseOperation.REFRESH;
             _forwardOperation = true;
+        } else if ("UPSERT".equals(type)) {
+            _operation = DatabaseOperation.UPSERT;
+            _forwardOperation = true;
         } else if ("DELETE".equals(type)) {
             _operation = DatabaseOperation.DELETE;
             _forwardOperation = false;
@@ -171,7 +227,7 @@ public class Operation extends AbstractStep {
             _forwardOperation = true;
         } else {
             throw new IllegalArgumentException("Type must be one of: UPDATE, INSERT,"
-                    + " REFRESH, DELETE, DELETE_ALL, CLEAN_INSERT, MSSQL_INSERT, " + " or MSSQL_REFRESH but was: "
+                    + " REFRESH, UPSERT, DELETE, DELETE_ALL, CLEAN_INSERT, MSSQL_INSERT, " + " or MSSQL_REFRESH but was: "
                     + type);
         }
         _type = type;
@@ -194,7 +250,14 @@ public class Operation extends AbstractStep {
         }
 
         try {
-            DatabaseOperation operation = (_transaction ? new TransactionOperation(_operation) : _operation);
+            DatabaseOperation operation = _operation;
+            ChunkedCommitOperation chunkedOperation = null;
+            if (_commitRows > 0) {
+                chunkedOperation = new ChunkedCommitOperation(_operation, _commitRows, _commitBytes, readProgress());
+                operation = chunkedOperation;
+            } else if (_transaction) {
+                operation = new TransactionOperation(_operation);
+            }
             // TODO This is not very nice and the design should be reviewed but it works for
             // now (gommma)
             boolean useForwardOnly = _forwardOperation && !isOrdered();
@@ -217,12 +280,71 @@ public class Operation extends AbstractStep {
                         connection.createDataSet().getTableNames());
                 dataset = new FilteredDataSet(databaseSequenceFilter, dataset);
             }
-            operation.execute(connection, dataset);
+            try {
+                operation.execute(connection, dataset);
+            } catch (DatabaseUnitException | SQLException | RuntimeException e) {
+                if (chunkedOperation != null) {
+                    writeProgress(chunkedOperation.getProgress());
+                }
+                throw e;
+            }
+            if (_progressFile != null && chunkedOperation != null) {
+                _progressFile.delete();
+            }
         } catch (SQLException e) {
             throw new DatabaseUnitException(e);
         }
     }
 
+    /**
+     * Reads the progress of a failed execution from the progress file, if any.
+     */
+    private ChunkedCommitOperation.Progress readProgress() throws DatabaseUnitException {
+        if (_progressFile == null || !_progressFile.exists()) {
+            return ChunkedCommitOperation.Progress.START;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(_progressFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new DatabaseUnitException("Cannot read progress file " + _progressFile, e);
+        }
+        try {
+            ChunkedCommitOperation.Progress progress = new ChunkedCommitOperation.Progress(
+                    Integer.parseInt(properties.getProperty(PROGRESS_OPERATION_INDEX, "0")),
+                    Integer.parseInt(properties.getProperty(PROGRESS_TABLE_INDEX, "0")),
+                    properties.getProperty(PROGRESS_TABLE_NAME),
+                    Integer.parseInt(properties.getProperty(PROGRESS_ROW_COUNT, "0")));
+            logger.info("Resuming after {}", progress);
+            return progress;
+        } catch (NumberFormatException e) {
+            throw new DatabaseUnitException("Invalid progress file " + _progressFile, e);
+        }
+    }
+
+    /**
+     * Writes the progress of a failed execution to the progress file, if any.
+     * A failure to write is logged, so that it does not hide the failure of the
+     * operation.
+     */
+    private void writeProgress(ChunkedCommitOperation.Progress progress) {
+        if (_progressFile == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(PROGRESS_OPERATION_INDEX, String.valueOf(progress.getOperationIndex()));
+        properties.setProperty(PROGRESS_TABLE_INDEX, String.valueOf(progress.getTableIndex()));
+        if (progress.getTableName() != null) {
+            properties.setProperty(PROGRESS_TABLE_NAME, progress.getTableName());
+        }
+        properties.setProperty(PROGRESS_ROW_COUNT, String.valueOf(progress.getRowCount()));
+        try (OutputStream out = new FileOutputStream(_progressFile)) {
+            properties.store(out, "dbunit operation progress");
+        } catch (IOException e) {
+            logger.error("Cannot write progress file " + _progressFile + ", committed up to " + progress, e);
+        }
+    }
+
     @Override
     public String getLogMessage() {
         StringBuffer result = new StringBuffer();
@@ -249,6 +371,9 @@ public class Operation extends AbstractStep {
         result.append("]");
         result.append(", operation=").append(_operation);
         result.append(", nullToken=").append(_nullToken);
+        result.append(", commitRows=").append(_commitRows);
+        result.append(", commitBytes=").append(_commitBytes);
+        result.append(", progressFile=").append(_progressFile);
         result.append(", ordered=").append(super.isOrdered());
         return result.toString();
     }
@@ -13,6 +13,8 @@ import org.dbunit.database.statement.PreparedStatementFactory;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
 import org.dbunit.dataset.datatype.IDataTypeFactory;
 import org.dbunit.dataset.filter.IColumnFilter;
+import org.dbunit.operation.IOperationMonitor;
+import org.dbunit.util.jfr.DbUnitEvents;
 
 /**
  *
@@ -32,6 +34,9 @@ public class DatabaseConfig {
     private IColumnFilter primaryKeysFilter = null;
     private int batchSize = 100;
     private int fetchSize = 100;
+    private int insertRowsPerStatement = 1;
+    private int maxBindParameters = 2000;
+    private int preparedStatementCacheSize = 0;
     private IMetadataHandler metadataHandler = METADATA_HANDLER;
     private IColumnFilter identityFilter = null;
     private boolean allowCountMismatch = false;
@@ -41,7 +46,12 @@ public class DatabaseConfig {
     private boolean datatypeWarning = true;
     private boolean skipOracleRecycleBinTables = false;
     private boolean allowEmptyFields = false;
+    private boolean jfrEvents = false;
+    private boolean bulkMetadata = false;
+    private String metadataSnapshotDirectory = null;
+    private String metadataSnapshotVersion = null;
     private IgnoredTablePredicate ignoredTablePredicate = IgnoredTablePredicate.ALLOW_ALL;
+    private IOperationMonitor operationMonitor = IOperationMonitor.NONE;
 
     /**
      * Poor man's final
@@ -136,6 +146,42 @@ public class DatabaseConfig {
         this.fetchSize = fetchSize;
     }
 
+    public int getInsertRowsPerStatement() {
+        return insertRowsPerStatement;
+    }
+
+    public void setInsertRowsPerStatement(int insertRowsPerStatement) {
+        checkFrozen();
+        if (insertRowsPerStatement < 1) {
+            throw new IllegalArgumentException("insertRowsPerStatement must be positive");
+        }
+        this.insertRowsPerStatement = insertRowsPerStatement;
+    }
+
+    public int getMaxBindParameters() {
+        return maxBindParameters;
+    }
+
+    public void setMaxBindParameters(int maxBindParameters) {
+        checkFrozen();
+        if (maxBindParameters < 1) {
+            throw new IllegalArgumentException("maxBindParameters must be positive");
+        }
+        this.maxBindParameters = maxBindParameters;
+    }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+        checkFrozen();
+        if (preparedStatementCacheSize < 0) {
+            throw new IllegalArgumentException("preparedStatementCacheSize must not be negative");
+        }
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+
     public IMetadataHandler getMetadataHandler() {
         return metadataHandler;
     }
@@ -227,6 +273,77 @@ public class DatabaseConfig {
         this.allowEmptyFields = allowEmptyFields;
     }
 
+    public boolean isJfrEvents() {
+        return jfrEvents;
+    }
+
+    /**
+     * Enables the flight recorder events of the operations and metadata lookups
+     * of connections with this configuration. The events of dataset parsing and
+     * assertions are not tied to a configuration, they are enabled separately.
+     *
+     * @see DbUnitEvents
+     */
+    public void setJfrEvents(boolean jfrEvents) {
+        checkFrozen();
+        this.jfrEvents = jfrEvents;
+    }
+
+    public boolean isBulkMetadata() {
+        return bulkMetadata;
+    }
+
+    /**
+     * Loads the columns and primary keys of a whole schema at once, the first
+     * time a table of the schema needs them, instead of querying each table.
+     */
+    public void setBulkMetadata(boolean bulkMetadata) {
+        checkFrozen();
+        this.bulkMetadata = bulkMetadata;
+    }
+
+    public String getMetadataSnapshotDirectory() {
+        return metadataSnapshotDirectory;
+    }
+
+    /**
+     * Keeps the metadata in a snapshot file in the specified directory, read by
+     * the next JVMs instead of the database metadata. Disabled when
+     * <code>null</code>, the default.
+     *
+     * @see #setMetadataSnapshotVersion(String)
+     */
+    public void setMetadataSnapshotDirectory(String metadataSnapshotDirectory) {
+        checkFrozen();
+        this.metadataSnapshotDirectory = metadataSnapshotDirectory;
+    }
+
+    public String getMetadataSnapshotVersion() {
+        return metadataSnapshotVersion;
+    }
+
+    /**
+     * The version of the database structure, like the last applied migration,
+     * which must match for a metadata snapshot to be used. When
+     * <code>null</code>, the default, the snapshot is checked against the
+     * columns, primary keys and foreign keys of the default schema read from the
+     * database, and is not used when the schema is unknown.
+     */
+    public void setMetadataSnapshotVersion(String metadataSnapshotVersion) {
+        checkFrozen();
+        this.metadataSnapshotVersion = metadataSnapshotVersion;
+    }
+
+    public IOperationMonitor getOperationMonitor() {
+        return operationMonitor;
+    }
+
+    public void setOperationMonitor(IOperationMonitor operationMonitor) {
+        checkFrozen();
+        notNull(operationMonitor, "operationMonitor cannot be null");
+        this.operationMonitor = operationMonitor;
+    }
+
     private static void notNull(Object object, String message) {
         if (object == null) {
             throw new IllegalArgumentException(message);
@@ -242,6 +359,9 @@ public class DatabaseConfig {
         this.setPrimaryKeysFilter(source.getPrimaryKeysFilter());
         this.setBatchSize(source.getBatchSize());
         this.setFetchSize(source.getFetchSize());
+        this.setInsertRowsPerStatement(source.getInsertRowsPerStatement());
+        this.setMaxBindParameters(source.getMaxBindParameters());
+        this.setPreparedStatementCacheSize(source.getPreparedStatementCacheSize());
         this.setMetadataHandler(source.getMetadataHandler());
         this.setIdentityFilter(source.getIdentityFilter());
         this.setCaseSensitiveTableNames(source.isCaseSensitiveTableNames());
@@ -252,5 +372,10 @@ public class DatabaseConfig {
         this.setIgnoredTablePredicate(source.getIgnoredTablePredicate());
         this.setAllowEmptyFields(source.isAllowEmptyFields());
         this.setAllowCountMismatch(source.isAllowCountMismatch());
+        this.setOperationMonitor(source.getOperationMonitor());
+        this.setJfrEvents(source.isJfrEvents());
+        this.setBulkMetadata(source.isBulkMetadata());
+        this.setMetadataSnapshotDirectory(source.getMetadataSnapshotDirectory());
+        this.setMetadataSnapshotVersion(source.getMetadataSnapshotVersion());
     }
 }
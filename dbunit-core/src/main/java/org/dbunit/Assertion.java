@@ -70,6 +70,14 @@ public class Assertion {
         EQUALS_INSTANCE.assertEqualsIgnoreCols(expectedTable, actualTable, ignoreCols);
     }
 
+    /**
+     * @see DbUnitAssert#assertEqualsIgnoreColsAndRowOrder(ITable, ITable, String[])
+     */
+    public static void assertEqualsIgnoreColsAndRowOrder(final ITable expectedTable, final ITable actualTable,
+            final String[] ignoreCols) throws DatabaseUnitException {
+        EQUALS_INSTANCE.assertEqualsIgnoreColsAndRowOrder(expectedTable, actualTable, ignoreCols);
+    }
+
     /**
      * @see DbUnitAssert#assertEquals(IDataSet, IDataSet)
      */
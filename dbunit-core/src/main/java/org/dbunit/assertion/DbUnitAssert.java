@@ -75,6 +75,30 @@ public class DbUnitAssert extends DbUnitAssertBase {
         assertEquals(expectedTable, actualTable, excludedColumn);
     }
 
+    /**
+     * Compare the given tables ignoring specified columns and the order of the
+     * rows.
+     *
+     * @param expectedTable First table.
+     * @param actualTable   Second table.
+     * @param ignoreCols    Columns to be ignored in comparison.
+     * @throws org.dbunit.DatabaseUnitException If an error occurs.
+     * @see #assertEqualsIgnoreRowOrder(ITable, ITable, FailureHandler, Predicate)
+     */
+    public void assertEqualsIgnoreColsAndRowOrder(final ITable expectedTable, final ITable actualTable,
+            final String[] ignoreCols) throws DatabaseUnitException {
+        logger.debug("assertEqualsIgnoreColsAndRowOrder(expectedTable={}, actualTable={}, ignoreCols={}) - start",
+                expectedTable, actualTable, ignoreCols);
+
+        Predicate<Column> excludedColumn;
+        if (ignoreCols != null) {
+            excludedColumn = buildColumnMatcher(ignoreCols);
+        } else {
+            excludedColumn = (Predicate<Column>) c -> false;
+        }
+        assertEqualsIgnoreRowOrder(expectedTable, actualTable, null, excludedColumn);
+    }
+
     public static Predicate<Column> buildColumnMatcher(final String[] ignoreCols) {
         final PatternMatcher _excludeMatcher = new PatternMatcher();
         for (String columnName : ignoreCols) {
@@ -222,6 +246,38 @@ public class DbUnitAssert extends DbUnitAssertBase {
                 columnValueComparerSource);
     }
 
+    /**
+     * Asserts that the two specified tables contain the same rows, in any order.
+     * Rows are matched by a hash of their values instead of sorting both tables.
+     * Expected rows not found in the actual table and actual rows not matched are
+     * reported to the failure handler.
+     *
+     * @param expectedTable  Table containing all expected results.
+     * @param actualTable    Table containing all actual results.
+     * @param failureHandler The failure handler used if the assert fails. Can be
+     *                       <code>null</code>.
+     * @param excludedColumn Columns not compared.
+     * @throws DatabaseUnitException
+     */
+    public void assertEqualsIgnoreRowOrder(final ITable expectedTable, final ITable actualTable,
+            final FailureHandler failureHandler, Predicate<Column> excludedColumn) throws DatabaseUnitException {
+        MessageBuilder messageBuilder;
+        if (failureHandler instanceof DefaultFailureHandler) {
+            messageBuilder = ((DefaultFailureHandler) failureHandler).getMessageBuilder();
+        } else {
+            messageBuilder = new MessageBuilder(null);
+        }
+
+        final String expectedTableName = expectedTable.getTableMetaData().getTableName();
+
+        ColumnValueComparerSource columnValueComparerSource = new ColumnValueComparerSource(
+                ValueComparers.isActualEqualToExpectedWithEmptyFailMessage,
+                valueComparerDefaults.getDefaultColumnValueComparerMapForTable(expectedTableName));
+
+        assertWithValueComparerIgnoringRowOrder(expectedTable, actualTable, failureHandler, excludedColumn,
+                messageBuilder, columnValueComparerSource);
+    }
+
     /**
      * Represents a single column to be used for the comparison of table data. It
      * contains the {@link DataType} to be used for comparing the given column. This
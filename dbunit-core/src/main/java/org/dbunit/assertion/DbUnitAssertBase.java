@@ -21,6 +21,8 @@ import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.util.jfr.AssertionEvent;
+import org.dbunit.util.jfr.DbUnitEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -258,6 +260,41 @@ public class DbUnitAssertBase {
     public void assertWithValueComparer(final ITable expectedTable, final ITable actualTable,
             final FailureHandler failureHandler, Predicate<Column> excludedColumn, MessageBuilder messageBuilder,
             ColumnValueComparerSource columnValueComparerSource) throws Error, DataSetException, DatabaseUnitException {
+        assertWithValueComparer(expectedTable, actualTable, failureHandler, excludedColumn, messageBuilder,
+                columnValueComparerSource, false);
+    }
+
+    /**
+     * Same as
+     * {@link #assertWithValueComparer(ITable, ITable, FailureHandler, Predicate, MessageBuilder, ColumnValueComparerSource)}
+     * but the rows of the tables may be in any order. Expected rows are matched
+     * with actual rows by a hash of their values, without sorting the tables.
+     * Expected rows not found and actual rows not matched are reported to the
+     * failure handler.
+     *
+     * @param expectedTable             {@link ITable} containing all expected
+     *                                  results.
+     * @param actualTable               {@link ITable} containing all actual
+     *                                  results.
+     * @param failureHandler            The failure handler used if the assert
+     *                                  fails. Can be <code>null</code>.
+     * @param excludedColumn            Columns not compared.
+     * @param messageBuilder            Builder of the messages of the failures
+     *                                  reported before the rows are compared.
+     * @param columnValueComparerSource {@link ValueComparer}s of the columns.
+     * @throws DatabaseUnitException
+     */
+    public void assertWithValueComparerIgnoringRowOrder(final ITable expectedTable, final ITable actualTable,
+            final FailureHandler failureHandler, Predicate<Column> excludedColumn, MessageBuilder messageBuilder,
+            ColumnValueComparerSource columnValueComparerSource) throws Error, DataSetException, DatabaseUnitException {
+        assertWithValueComparer(expectedTable, actualTable, failureHandler, excludedColumn, messageBuilder,
+                columnValueComparerSource, true);
+    }
+
+    private void assertWithValueComparer(final ITable expectedTable, final ITable actualTable,
+            final FailureHandler failureHandler, Predicate<Column> excludedColumn, MessageBuilder messageBuilder,
+            ColumnValueComparerSource columnValueComparerSource, boolean ignoreRowOrder)
+            throws Error, DataSetException, DatabaseUnitException {
         // Do not continue if same instance
         if (expectedTable == actualTable) {
             log.debug("The given tables reference the same object." + " Skipping comparisons.");
@@ -276,33 +313,66 @@ public class DbUnitAssertBase {
         final ITableMetaData actualMetaData = actualTable.getTableMetaData();
         final String expectedTableName = expectedMetaData.getTableName();
 
-        final boolean isTablesEmpty = compareRowCounts(expectedTable, actualTable, validFailureHandler,
-                expectedTableName);
-        if (isTablesEmpty) {
-            return;
-        }
+        final AssertionEvent event = DbUnitEvents.isEnabled() ? AssertionEvent.start(expectedTableName) : null;
+        boolean passed = false;
+        int columnCount = 0;
+        try {
+            final boolean isTablesEmpty = compareRowCounts(expectedTable, actualTable, validFailureHandler,
+                    expectedTableName);
+            if (isTablesEmpty) {
+                passed = true;
+                return;
+            }
 
-        // Verify columns
-        columnComparer.compareColumns(expectedMetaData, actualMetaData, excludedColumn, validFailureHandler);
+            // Verify columns
+            columnComparer.compareColumns(expectedMetaData, actualMetaData, excludedColumn, validFailureHandler);
 
-        // Put the columns into the same order
-        final Column[] expectedColumns = filter(Columns.getSortedColumns(expectedMetaData), excludedColumn);
-        final Column[] actualColumns = filter(Columns.getSortedColumns(actualMetaData), excludedColumn);
-        final ComparisonColumn[] comparisonCols = new ComparisonColumn[expectedColumns.length];
+            // Put the columns into the same order
+            final Column[] expectedColumns = filter(Columns.getSortedColumns(expectedMetaData), excludedColumn);
+            final Column[] actualColumns = filter(Columns.getSortedColumns(actualMetaData), excludedColumn);
+            final ComparisonColumn[] comparisonCols = new ComparisonColumn[expectedColumns.length];
 
-        for (int j = 0; j < expectedColumns.length; j++) {
-            final Column expectedColumn = expectedColumns[j];
-            final Column actualColumn = actualColumns[j];
-            comparisonCols[j] = new ComparisonColumn(expectedTableName, expectedColumn, actualColumn,
-                    validFailureHandler);
-        }
+            for (int j = 0; j < expectedColumns.length; j++) {
+                final Column expectedColumn = expectedColumns[j];
+                final Column actualColumn = actualColumns[j];
+                comparisonCols[j] = new ComparisonColumn(expectedTableName, expectedColumn, actualColumn,
+                        validFailureHandler);
+            }
+            columnCount = comparisonCols.length;
+
+            // Get the datatypes to be used for comparing the sorted columns
 
-        // Get the datatypes to be used for comparing the sorted columns
+            // Finally compare the data
 
-        // Finally compare the data
+            if (ignoreRowOrder) {
+                compareRowsIgnoringOrder(expectedTable, actualTable, columnValueComparerSource, comparisonCols,
+                        validFailureHandler);
+            } else {
+                compareRows(expectedTable, actualTable, columnValueComparerSource, comparisonCols,
+                        validFailureHandler, messageBuilder);
+            }
+            passed = true;
+        } finally {
+            if (event != null) {
+                event.expectedRowCount = knownRowCount(expectedTable);
+                event.actualRowCount = knownRowCount(actualTable);
+                event.columnCount = columnCount;
+                event.passed = passed;
+                event.commit();
+            }
+        }
+    }
 
-        compareRows(expectedTable, actualTable, columnValueComparerSource, comparisonCols, validFailureHandler,
-                messageBuilder);
+    /**
+     * Returns the row count of the table, or -1 if the table can only be read
+     * forward.
+     */
+    private static int knownRowCount(ITable table) {
+        try {
+            return table.getRowCount();
+        } catch (final UnsupportedOperationException exception) {
+            return -1;
+        }
     }
 
     /**
@@ -320,29 +390,50 @@ public class DbUnitAssertBase {
             ColumnValueComparerSource columnValueComparerSource, final ComparisonColumn[] comparisonCols,
             final FailureHandler failureHandler, MessageBuilder messageBuilder)
             throws DataSetException, DatabaseUnitException {
+        // resolve columns and their comparers once, cells are then read by position
+        final int columnCount = comparisonCols.length;
+        final int[] expectedIndexes = new int[columnCount];
+        final int[] actualIndexes = new int[columnCount];
+        final ValueComparer[] valueComparers = new ValueComparer[columnCount];
+        for (int columnNum = 0; columnNum < columnCount; columnNum++) {
+            final String columnName = comparisonCols[columnNum].getColumnName();
+            expectedIndexes[columnNum] = expectedTable.getTableMetaData().getColumnIndex(columnName);
+            actualIndexes[columnNum] = actualTable.getTableMetaData().getColumnIndex(columnName);
+            valueComparers[columnNum] = columnValueComparerSource.selectValueComparer(columnName);
+        }
+
         // iterate over all rows
-        for (int rowNum = 0; rowNum < expectedTable.getRowCount(); rowNum++) {
+        final int rowCount = expectedTable.getRowCount();
+        for (int rowNum = 0; rowNum < rowCount; rowNum++) {
             // iterate over all columns of the current row
-            final int columnCount = comparisonCols.length;
             for (int columnNum = 0; columnNum < columnCount; columnNum++) {
                 final ComparisonColumn compareColumn = comparisonCols[columnNum];
-                final String columnName = compareColumn.getColumnName();
-                final DataType dataType = compareColumn.getDataType();
+                final Object expectedValue = expectedTable.getValue(rowNum, expectedIndexes[columnNum]);
+                final Object actualValue = actualTable.getValue(rowNum, actualIndexes[columnNum]);
 
-                compireColumnValue(expectedTable, actualTable, rowNum, columnName, columnValueComparerSource,
-                        failureHandler, messageBuilder, dataType);
+                compireColumnValue(expectedTable, actualTable, rowNum, compareColumn.getColumnName(),
+                        expectedValue, actualValue, valueComparers[columnNum], failureHandler, messageBuilder,
+                        compareColumn.getDataType());
             }
         }
     }
 
-    void compireColumnValue(final ITable expectedTable, final ITable actualTable, final int rowNum,
-            final String columnName, ColumnValueComparerSource columnValueComparerSource,
-            final FailureHandler failureHandler, MessageBuilder messageBuilder, final DataType dataType)
-            throws DataSetException, DatabaseUnitException {
-        final Object expectedValue = expectedTable.getValue(rowNum, columnName);
-        final Object actualValue = actualTable.getValue(rowNum, columnName);
-        final ValueComparer valueComparer = columnValueComparerSource.selectValueComparer(columnName);
+    void compareRowsIgnoringOrder(final ITable expectedTable, final ITable actualTable,
+            ColumnValueComparerSource columnValueComparerSource, final ComparisonColumn[] comparisonCols,
+            final FailureHandler failureHandler) throws DataSetException, DatabaseUnitException {
+        final ValueComparer[] valueComparers = new ValueComparer[comparisonCols.length];
+        for (int columnNum = 0; columnNum < comparisonCols.length; columnNum++) {
+            valueComparers[columnNum] = columnValueComparerSource
+                    .selectValueComparer(comparisonCols[columnNum].getColumnName());
+        }
+        new UnorderedRowComparer(expectedTable, actualTable, comparisonCols, valueComparers)
+                .compareRows(expectedTable, actualTable, failureHandler);
+    }
 
+    void compireColumnValue(final ITable expectedTable, final ITable actualTable, final int rowNum,
+            final String columnName, final Object expectedValue, final Object actualValue,
+            final ValueComparer valueComparer, final FailureHandler failureHandler, MessageBuilder messageBuilder,
+            final DataType dataType) throws DataSetException, DatabaseUnitException {
         final String failMessage = valueComparer.compare(dataType, expectedValue, actualValue);
         if (failMessage != null) {
             final String msg = messageBuilder.buildMessage(expectedTable, actualTable, rowNum, columnName, failMessage);
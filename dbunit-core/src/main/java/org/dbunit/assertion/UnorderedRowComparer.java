@@ -0,0 +1,212 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.assertion;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.assertion.DbUnitAssert.ComparisonColumn;
+import org.dbunit.assertion.comparer.value.IsActualEqualToExpectedValueComparer;
+import org.dbunit.assertion.comparer.value.IsActualEqualToExpectedWithEmptyFailMessageValueComparer;
+import org.dbunit.assertion.comparer.value.ValueComparer;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.RowOutOfBoundsException;
+import org.dbunit.dataset.datatype.AbstractDataType;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+import org.dbunit.dataset.datatype.UnknownDataType;
+
+/**
+ * Compares the rows of two tables ignoring their order. Expected rows are
+ * matched with actual rows as a multiset: rows are hashed on the columns
+ * compared for equality, and the {@link ValueComparer}s of all columns only
+ * run against actual rows with the same hash. The hash of a value is the one of
+ * the value cast by the column data type, so values equal for the data type
+ * have the same hash. Columns compared otherwise, or whose data type has its
+ * own comparison, are left out of the hash.
+ * <p>
+ * An expected row is matched with the first actual row with no failing column,
+ * so with comparers other than equality a match may be missed where another
+ * assignment of rows would succeed.
+ */
+class UnorderedRowComparer {
+
+    private final ComparisonColumn[] comparisonCols;
+    private final ValueComparer[] valueComparers;
+    private final int[] expectedIndexes;
+    private final int[] actualIndexes;
+    private final boolean[] hashedColumns;
+
+    UnorderedRowComparer(ITable expectedTable, ITable actualTable, ComparisonColumn[] comparisonCols,
+            ValueComparer[] valueComparers) throws DataSetException {
+        this.comparisonCols = comparisonCols;
+        this.valueComparers = valueComparers;
+        int columnCount = comparisonCols.length;
+        expectedIndexes = new int[columnCount];
+        actualIndexes = new int[columnCount];
+        hashedColumns = new boolean[columnCount];
+        for (int columnNum = 0; columnNum < columnCount; columnNum++) {
+            String columnName = comparisonCols[columnNum].getColumnName();
+            expectedIndexes[columnNum] = expectedTable.getTableMetaData().getColumnIndex(columnName);
+            actualIndexes[columnNum] = actualTable.getTableMetaData().getColumnIndex(columnName);
+            hashedColumns[columnNum] = isEquality(valueComparers[columnNum])
+                    && isHashable(comparisonCols[columnNum].getDataType());
+        }
+    }
+
+    /**
+     * Reports the expected rows not found in the actual table, then the actual
+     * rows not matched by an expected row.
+     */
+    void compareRows(ITable expectedTable, ITable actualTable, FailureHandler failureHandler)
+            throws DatabaseUnitException {
+        String tableName = expectedTable.getTableMetaData().getTableName();
+
+        List<Object[]> actualRows = readRows(actualTable, actualIndexes);
+        Map<Integer, LinkedList<Integer>> unmatchedRows = new HashMap<>();
+        for (int rowNum = 0; rowNum < actualRows.size(); rowNum++) {
+            unmatchedRows.computeIfAbsent(hash(actualRows.get(rowNum)), hash -> new LinkedList<>()).add(rowNum);
+        }
+
+        List<Object[]> expectedRows = readRows(expectedTable, expectedIndexes);
+        List<Integer> missingRows = new ArrayList<>();
+        for (int rowNum = 0; rowNum < expectedRows.size(); rowNum++) {
+            Object[] expectedRow = expectedRows.get(rowNum);
+            LinkedList<Integer> candidates = unmatchedRows.get(hash(expectedRow));
+            if (!removeMatch(candidates, expectedRow, actualRows)) {
+                missingRows.add(rowNum);
+            }
+        }
+
+        for (Integer rowNum : missingRows) {
+            failureHandler.handleFailure("missing row (table=" + tableName + ", row=" + rowNum + ")",
+                    toString(expectedRows.get(rowNum)), "");
+        }
+        if (!unmatchedRows.isEmpty()) {
+            List<Integer> unexpectedRows = new ArrayList<>();
+            for (LinkedList<Integer> rows : unmatchedRows.values()) {
+                unexpectedRows.addAll(rows);
+            }
+            unexpectedRows.sort(null);
+            for (Integer rowNum : unexpectedRows) {
+                failureHandler.handleFailure("unexpected row (table=" + tableName + ", row=" + rowNum + ")", "",
+                        toString(actualRows.get(rowNum)));
+            }
+        }
+    }
+
+    private boolean removeMatch(LinkedList<Integer> candidates, Object[] expectedRow, List<Object[]> actualRows)
+            throws DatabaseUnitException {
+        if (candidates == null) {
+            return false;
+        }
+        for (Iterator<Integer> iterator = candidates.iterator(); iterator.hasNext();) {
+            if (matches(expectedRow, actualRows.get(iterator.next()))) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(Object[] expectedRow, Object[] actualRow) throws DatabaseUnitException {
+        for (int columnNum = 0; columnNum < comparisonCols.length; columnNum++) {
+            DataType dataType = comparisonCols[columnNum].getDataType();
+            if (valueComparers[columnNum].compare(dataType, expectedRow[columnNum], actualRow[columnNum]) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the compared columns of all rows in one pass, so that tables read
+     * forward only are supported. Their rows are read until the end of the
+     * table is reached.
+     */
+    private static List<Object[]> readRows(ITable table, int[] columnIndexes) throws DataSetException {
+        int rowCount;
+        try {
+            rowCount = table.getRowCount();
+        } catch (UnsupportedOperationException e) {
+            rowCount = columnIndexes.length == 0 ? 0 : Integer.MAX_VALUE;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        try {
+            for (int rowNum = 0; rowNum < rowCount; rowNum++) {
+                Object[] row = new Object[columnIndexes.length];
+                for (int columnNum = 0; columnNum < columnIndexes.length; columnNum++) {
+                    row[columnNum] = table.getValue(rowNum, columnIndexes[columnNum]);
+                }
+                rows.add(row);
+            }
+        } catch (RowOutOfBoundsException e) {
+            // end of a table read forward only
+        }
+        return rows;
+    }
+
+    private int hash(Object[] row) {
+        int hash = 1;
+        for (int columnNum = 0; columnNum < row.length; columnNum++) {
+            if (hashedColumns[columnNum]) {
+                hash = 31 * hash + hashValue(comparisonCols[columnNum].getDataType(), row[columnNum]);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a hash equal for values equal for the data type.
+     */
+    private static int hashValue(DataType dataType, Object value) {
+        try {
+            Object key = dataType instanceof UnknownDataType ? DataType.asString(value) : dataType.typeCast(value);
+            if (key == null) {
+                return 0;
+            }
+            if (key instanceof BigDecimal) {
+                // compared regardless of the scale
+                BigDecimal decimal = (BigDecimal) key;
+                return decimal.signum() == 0 ? 0 : decimal.stripTrailingZeros().hashCode();
+            }
+            return key.hashCode();
+        } catch (TypeCastException e) {
+            // reported by the value comparer
+            return 0;
+        }
+    }
+
+    private static boolean isEquality(ValueComparer valueComparer) {
+        Class<?> type = valueComparer.getClass();
+        return type == IsActualEqualToExpectedValueComparer.class
+                || type == IsActualEqualToExpectedWithEmptyFailMessageValueComparer.class;
+    }
+
+    /**
+     * Unknown data types compare values as strings, other data types can be
+     * hashed when they compare the cast values by their natural order.
+     */
+    private static boolean isHashable(DataType dataType) {
+        return dataType instanceof UnknownDataType || AbstractDataType.isComparedByNaturalOrder(dataType);
+    }
+
+    private String toString(Object[] row) {
+        StringBuilder builder = new StringBuilder("{");
+        for (int columnNum = 0; columnNum < row.length; columnNum++) {
+            if (columnNum > 0) {
+                builder.append(", ");
+            }
+            builder.append(comparisonCols[columnNum].getColumnName()).append('=').append(row[columnNum]);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -29,11 +29,12 @@ import java.sql.Statement;
 import java.util.function.Predicate;
 
 import org.dbunit.DatabaseUnitRuntimeException;
-import org.dbunit.database.metadata.MetadataCrawlingTableFinder;
+import org.dbunit.database.metadata.MetadataLookupTableFinder;
 import org.dbunit.database.metadata.MetadataManager;
 import org.dbunit.database.metadata.TableFinder;
 import org.dbunit.database.metadata.TableMetadata;
 import org.dbunit.database.statement.IStatementFactory;
+import org.dbunit.database.statement.PreparedStatementCache;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.NoSuchTableException;
 import org.dbunit.util.QualifiedTableName;
@@ -62,11 +63,12 @@ public abstract class AbstractDatabaseConnection implements IDatabaseConnection
 
     private DatabaseDataSet _dataSet = null;
     final DatabaseConfig _databaseConfig;
+    private PreparedStatementCache statementCache = null;
 
     public AbstractDatabaseConnection(Connection jdbcConnection, DatabaseConfig config,
             MetadataManager metadataManager) {
         this.metadataManager = metadataManager;
-        tableFinder = new MetadataCrawlingTableFinder(metadataManager);
+        tableFinder = new MetadataLookupTableFinder(metadataManager);
         if (jdbcConnection == null) {
             throw new IllegalArgumentException("The parameter 'connection' must not be null");
         }
@@ -81,6 +83,20 @@ public abstract class AbstractDatabaseConnection implements IDatabaseConnection
         return metadataManager;
     }
 
+    /**
+     * Forgets the metadata of the database, also for the other connections
+     * sharing it, after the database structure changed. The statements cached
+     * by this connection are closed, since they may have been prepared against
+     * the previous structure.
+     */
+    public void invalidateMetadata() {
+        _dataSet = null;
+        if (metadataManager != null) {
+            metadataManager.getCache().invalidate();
+        }
+        clearStatementCache();
+    }
+
     public DatabaseDataSet createDataSet() throws SQLException, DataSetException {
         if (_dataSet == null) {
             _dataSet = new DatabaseDataSet(this, tableFinder);
@@ -168,6 +184,34 @@ public abstract class AbstractDatabaseConnection implements IDatabaseConnection
         return _databaseConfig.getStatementFactory();
     }
 
+    /**
+     * @return cache of prepared statements of this connection, or
+     *         <code>null</code> when the preparedStatementCacheSize property is 0
+     */
+    public synchronized PreparedStatementCache getStatementCache() {
+        int cacheSize = _databaseConfig.getPreparedStatementCacheSize();
+        if (statementCache == null && cacheSize > 0) {
+            statementCache = new PreparedStatementCache(jdbcConnection, cacheSize);
+        }
+        return statementCache;
+    }
+
+    /**
+     * Closes cached prepared statements. Called when the connection is closed,
+     * and by {@link #invalidateMetadata()} when tables were altered and
+     * statements prepared against the previous definition became invalid.
+     */
+    public synchronized void clearStatementCache() {
+        if (statementCache != null) {
+            try {
+                statementCache.clear();
+            } catch (SQLException exc) {
+                logger.warn("Closing cached statements failed", exc);
+            }
+            statementCache = null;
+        }
+    }
+
     public Object getMetadataStore() {
         return null;
     }
@@ -237,7 +281,6 @@ public abstract class AbstractDatabaseConnection implements IDatabaseConnection
      *
      */
     public void shutdown() {
-        // TODO Auto-generated method stub
-
+        clearStatementCache();
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Value of a multi-column primary key, used in a
+ * {@link PrimaryKeyFilter.PkTableMap} for tables with such keys. The values are
+ * in the order of the primary key columns of the table.
+ * <p>
+ * Numbers are compared by value, since the same column may be read as another
+ * number class by another query: they are normalized once when the key is
+ * built, so that {@link #equals(Object)}, {@link #hashCode()} and
+ * {@link #compareTo(CompositeKey)} agree.
+ */
+public final class CompositeKey implements Comparable<CompositeKey> {
+
+    private final Object[] values;
+    // the values with numbers as BigDecimals without trailing zeros
+    private final Object[] keys;
+
+    public CompositeKey(Object... values) {
+        this.values = values.clone();
+        this.keys = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            keys[i] = normalize(values[i]);
+        }
+    }
+
+    private static Object normalize(Object value) {
+        if (!(value instanceof Number)) {
+            return value;
+        }
+        BigDecimal decimal;
+        try {
+            decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            // not a finite number
+            return value;
+        }
+        return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public Object getValue(int index) {
+        return values[index];
+    }
+
+    Object[] getValues() {
+        return values.clone();
+    }
+
+    @Override
+    public int compareTo(CompositeKey other) {
+        int length = Math.min(keys.length, other.keys.length);
+        for (int i = 0; i < length; i++) {
+            int result = compareValues(keys[i], other.keys[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(keys.length, other.keys.length);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == null ? (value2 == null ? 0 : -1) : 1;
+        }
+        if (value1.getClass() == value2.getClass() && value1 instanceof Comparable) {
+            return ((Comparable) value1).compareTo(value2);
+        }
+        return value1.toString().compareTo(value2.toString());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompositeKey)) {
+            return false;
+        }
+        return Arrays.equals(keys, ((CompositeKey) obj).keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
@@ -30,6 +30,7 @@ import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.statement.IStatementFactory;
 import org.dbunit.dataset.datatype.IDataTypeFactory;
 import org.dbunit.dataset.filter.IColumnFilter;
+import org.dbunit.operation.IOperationMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,7 +60,13 @@ public class DatabaseConfig extends io.github.vasiliygagin.dbunit.jdbc.DatabaseC
     public static final String PROPERTY_PRIMARY_KEY_FILTER = "http://www.dbunit.org/properties/primaryKeyFilter";
     public static final String PROPERTY_BATCH_SIZE = "http://www.dbunit.org/properties/batchSize";
     public static final String PROPERTY_FETCH_SIZE = "http://www.dbunit.org/properties/fetchSize";
+    public static final String PROPERTY_INSERT_ROWS_PER_STATEMENT = "http://www.dbunit.org/properties/insertRowsPerStatement";
+    public static final String PROPERTY_MAX_BIND_PARAMETERS = "http://www.dbunit.org/properties/maxBindParameters";
+    public static final String PROPERTY_PREPARED_STATEMENT_CACHE_SIZE = "http://www.dbunit.org/properties/preparedStatementCacheSize";
     public static final String PROPERTY_METADATA_HANDLER = "http://www.dbunit.org/properties/metadataHandler";
+    public static final String PROPERTY_OPERATION_MONITOR = "http://www.dbunit.org/properties/operationMonitor";
+    public static final String PROPERTY_METADATA_SNAPSHOT_DIRECTORY = "http://www.dbunit.org/properties/metadataSnapshotDirectory";
+    public static final String PROPERTY_METADATA_SNAPSHOT_VERSION = "http://www.dbunit.org/properties/metadataSnapshotVersion";
     public static final String PROPERTY_ALLOW_VERIFYTABLEDEFINITION_EXPECTEDTABLE_COUNT_MISMATCH = "http://www.dbunit.org/properties/allowVerifytabledefinitionExpectedtableCountMismatch";
     public static final String PROPERTY_IDENTITY_COLUMN_FILTER = "http://www.dbunit.org/properties/mssql/identityColumnFilter";
 
@@ -69,6 +76,8 @@ public class DatabaseConfig extends io.github.vasiliygagin.dbunit.jdbc.DatabaseC
     public static final String FEATURE_DATATYPE_WARNING = "http://www.dbunit.org/features/datatypeWarning";
     public static final String FEATURE_SKIP_ORACLE_RECYCLEBIN_TABLES = "http://www.dbunit.org/features/skipOracleRecycleBinTables";
     public static final String FEATURE_ALLOW_EMPTY_FIELDS = "http://www.dbunit.org/features/allowEmptyFields";
+    public static final String FEATURE_JFR_EVENTS = "http://www.dbunit.org/features/jfrEvents";
+    public static final String FEATURE_BULK_METADATA = "http://www.dbunit.org/features/bulkMetadata";
 
     /**
      * A list of all properties as {@link ConfigProperty} objects. The objects
@@ -91,8 +100,20 @@ public class DatabaseConfig extends io.github.vasiliygagin.dbunit.jdbc.DatabaseC
                     DatabaseConfig::setBatchSize),
             new ConfigProperty<>(PROPERTY_FETCH_SIZE, Integer.class, false, DatabaseConfig::getFetchSize,
                     DatabaseConfig::setFetchSize),
+            new ConfigProperty<>(PROPERTY_INSERT_ROWS_PER_STATEMENT, Integer.class, false,
+                    DatabaseConfig::getInsertRowsPerStatement, DatabaseConfig::setInsertRowsPerStatement),
+            new ConfigProperty<>(PROPERTY_MAX_BIND_PARAMETERS, Integer.class, false,
+                    DatabaseConfig::getMaxBindParameters, DatabaseConfig::setMaxBindParameters),
+            new ConfigProperty<>(PROPERTY_PREPARED_STATEMENT_CACHE_SIZE, Integer.class, false,
+                    DatabaseConfig::getPreparedStatementCacheSize, DatabaseConfig::setPreparedStatementCacheSize),
             new ConfigProperty<>(PROPERTY_METADATA_HANDLER, IMetadataHandler.class, false,
                     DatabaseConfig::getMetadataHandler, DatabaseConfig::setMetadataHandler),
+            new ConfigProperty<>(PROPERTY_OPERATION_MONITOR, IOperationMonitor.class, false,
+                    DatabaseConfig::getOperationMonitor, DatabaseConfig::setOperationMonitor),
+            new ConfigProperty<>(PROPERTY_METADATA_SNAPSHOT_DIRECTORY, String.class, true,
+                    DatabaseConfig::getMetadataSnapshotDirectory, DatabaseConfig::setMetadataSnapshotDirectory),
+            new ConfigProperty<>(PROPERTY_METADATA_SNAPSHOT_VERSION, String.class, true,
+                    DatabaseConfig::getMetadataSnapshotVersion, DatabaseConfig::setMetadataSnapshotVersion),
             new ConfigProperty<>(PROPERTY_IDENTITY_COLUMN_FILTER, IColumnFilter.class, true,
                     DatabaseConfig::getIdentityFilter, DatabaseConfig::setIdentityFilter),
             new ConfigProperty<>(FEATURE_CASE_SENSITIVE_TABLE_NAMES, Boolean.class, false,
@@ -107,6 +128,10 @@ public class DatabaseConfig extends io.github.vasiliygagin.dbunit.jdbc.DatabaseC
                     DatabaseConfig::isSkipOracleRecycleBinTables, DatabaseConfig::setSkipOracleRecycleBinTables),
             new ConfigProperty<>(FEATURE_ALLOW_EMPTY_FIELDS, Boolean.class, false, DatabaseConfig::isAllowEmptyFields,
                     DatabaseConfig::setAllowEmptyFields),
+            new ConfigProperty<>(FEATURE_JFR_EVENTS, Boolean.class, false, DatabaseConfig::isJfrEvents,
+                    DatabaseConfig::setJfrEvents),
+            new ConfigProperty<>(FEATURE_BULK_METADATA, Boolean.class, false, DatabaseConfig::isBulkMetadata,
+                    DatabaseConfig::setBulkMetadata),
             new ConfigProperty<>(PROPERTY_ALLOW_VERIFYTABLEDEFINITION_EXPECTEDTABLE_COUNT_MISMATCH, Boolean.class,
                     false, DatabaseConfig::isAllowCountMismatch, DatabaseConfig::setAllowCountMismatch), //
     };
@@ -120,7 +145,7 @@ public class DatabaseConfig extends io.github.vasiliygagin.dbunit.jdbc.DatabaseC
     @Deprecated
     public static final String[] ALL_FEATURES = { FEATURE_CASE_SENSITIVE_TABLE_NAMES, FEATURE_QUALIFIED_TABLE_NAMES,
             FEATURE_BATCHED_STATEMENTS, FEATURE_DATATYPE_WARNING, FEATURE_SKIP_ORACLE_RECYCLEBIN_TABLES,
-            FEATURE_ALLOW_EMPTY_FIELDS };
+            FEATURE_ALLOW_EMPTY_FIELDS, FEATURE_JFR_EVENTS, FEATURE_BULK_METADATA };
 
     public DatabaseConfig() {
     }
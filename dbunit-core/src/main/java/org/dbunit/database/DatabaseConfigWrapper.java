@@ -6,6 +6,7 @@ package org.dbunit.database;
 import org.dbunit.database.statement.IStatementFactory;
 import org.dbunit.dataset.datatype.IDataTypeFactory;
 import org.dbunit.dataset.filter.IColumnFilter;
+import org.dbunit.operation.IOperationMonitor;
 
 import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
 
@@ -101,6 +102,46 @@ class DatabaseConfigWrapper extends org.dbunit.database.DatabaseConfig {
         delegate.setFetchSize(fetchSize);
     }
 
+    @Override
+    public int getInsertRowsPerStatement() {
+        return delegate.getInsertRowsPerStatement();
+    }
+
+    @Override
+    public void setInsertRowsPerStatement(int insertRowsPerStatement) {
+        delegate.setInsertRowsPerStatement(insertRowsPerStatement);
+    }
+
+    @Override
+    public int getMaxBindParameters() {
+        return delegate.getMaxBindParameters();
+    }
+
+    @Override
+    public void setMaxBindParameters(int maxBindParameters) {
+        delegate.setMaxBindParameters(maxBindParameters);
+    }
+
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return delegate.getPreparedStatementCacheSize();
+    }
+
+    @Override
+    public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+        delegate.setPreparedStatementCacheSize(preparedStatementCacheSize);
+    }
+
+    @Override
+    public IOperationMonitor getOperationMonitor() {
+        return delegate.getOperationMonitor();
+    }
+
+    @Override
+    public void setOperationMonitor(IOperationMonitor operationMonitor) {
+        delegate.setOperationMonitor(operationMonitor);
+    }
+
     @Override
     public IMetadataHandler getMetadataHandler() {
         return delegate.getMetadataHandler();
@@ -190,4 +231,44 @@ class DatabaseConfigWrapper extends org.dbunit.database.DatabaseConfig {
     public void setAllowEmptyFields(boolean allowEmptyFields) {
         delegate.setAllowEmptyFields(allowEmptyFields);
     }
+
+    @Override
+    public boolean isJfrEvents() {
+        return delegate.isJfrEvents();
+    }
+
+    @Override
+    public void setJfrEvents(boolean jfrEvents) {
+        delegate.setJfrEvents(jfrEvents);
+    }
+
+    @Override
+    public boolean isBulkMetadata() {
+        return delegate.isBulkMetadata();
+    }
+
+    @Override
+    public void setBulkMetadata(boolean bulkMetadata) {
+        delegate.setBulkMetadata(bulkMetadata);
+    }
+
+    @Override
+    public String getMetadataSnapshotDirectory() {
+        return delegate.getMetadataSnapshotDirectory();
+    }
+
+    @Override
+    public void setMetadataSnapshotDirectory(String metadataSnapshotDirectory) {
+        delegate.setMetadataSnapshotDirectory(metadataSnapshotDirectory);
+    }
+
+    @Override
+    public String getMetadataSnapshotVersion() {
+        return delegate.getMetadataSnapshotVersion();
+    }
+
+    @Override
+    public void setMetadataSnapshotVersion(String metadataSnapshotVersion) {
+        delegate.setMetadataSnapshotVersion(metadataSnapshotVersion);
+    }
 }
@@ -141,6 +141,7 @@ public class DatabaseConnection extends AbstractDatabaseConnection {
 
     @Override
     public void close() throws SQLException {
+        clearStatementCache();
     }
 
     /**
@@ -30,6 +30,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.dbunit.database.metadata.ColumnMetadata;
+import org.dbunit.database.metadata.MetadataManager;
 import org.dbunit.database.metadata.TableMetadata;
 import org.dbunit.dataset.AbstractTableMetaData;
 import org.dbunit.dataset.Column;
@@ -38,6 +40,7 @@ import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.datatype.IDataTypeFactory;
 import org.dbunit.dataset.filter.IColumnFilter;
+import org.dbunit.util.jfr.MetadataEvent;
 import org.dbunit.util.SQLHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +63,7 @@ public class DatabaseTableMetaData extends AbstractTableMetaData {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseTableMetaData.class);
 
     private final IDatabaseConnection _connection;
+    private final MetadataManager _metadataManager;
     private final boolean _caseSensitiveMetaData;
     private final String _originalTableName;
     private final TableMetadata tableMetadata;
@@ -89,6 +93,7 @@ public class DatabaseTableMetaData extends AbstractTableMetaData {
         }
 
         _connection = connection;
+        _metadataManager = connection.getMetadataManager();
         _caseSensitiveMetaData = caseSensitiveMetaData;
 
         try {
@@ -110,8 +115,31 @@ public class DatabaseTableMetaData extends AbstractTableMetaData {
         }
     }
 
+    /**
+     * Returns this table loaded with the metadata of its whole schema, or
+     * <code>null</code> if the metadata is not loaded in bulk.
+     */
+    private TableMetadata getBulkLoadedTable() throws SQLException {
+        if (!_connection.getDatabaseConfig().isBulkMetadata() || _metadataManager == null) {
+            return null;
+        }
+        return _metadataManager.getBulkLoadedTable(tableMetadata);
+    }
+
     private String[] getPrimaryKeyNames() throws SQLException {
 
+        TableMetadata bulkLoadedTable = getBulkLoadedTable();
+        if (bulkLoadedTable != null && bulkLoadedTable.getPrimaryKeys() != null) {
+            return bulkLoadedTable.getPrimaryKeys().clone();
+        }
+        List<Object> cacheKey = Arrays.asList(DatabaseTableMetaData.class, "primaryKeys",
+                tableMetadata.schemaMetadata, tableMetadata.tableName);
+        String[] cachedKeys = (String[]) getCachedMetadata(cacheKey);
+        if (cachedKeys != null) {
+            return cachedKeys.clone();
+        }
+
+        MetadataEvent event = _connection.getDatabaseConfig().isJfrEvents() ? MetadataEvent.start() : null;
         Connection connection = _connection.getConnection();
         DatabaseMetaData databaseMetaData = connection.getMetaData();
 
@@ -137,6 +165,11 @@ public class DatabaseTableMetaData extends AbstractTableMetaData {
             PrimaryKeyData data = (PrimaryKeyData) list.get(i);
             keys[i] = data.getName();
         }
+        if (event != null) {
+            event.commit(MetadataEvent.PRIMARY_KEYS, tableMetadata.schemaMetadata.schema, tableMetadata.tableName,
+                    keys.length);
+        }
+        putCachedMetadata(cacheKey, keys.clone());
 
         return keys;
     }
@@ -191,43 +224,29 @@ public class DatabaseTableMetaData extends AbstractTableMetaData {
 
         if (_columns == null) {
             try {
-                Connection jdbcConnection = _connection.getConnection();
-                DatabaseMetaData databaseMetaData = jdbcConnection.getMetaData();
-
-                IMetadataHandler metadataHandler = _connection.getDatabaseConfig().getMetadataHandler();
-                ResultSet resultSet = databaseMetaData.getColumns(
-                        metadataHandler.toCatalog(tableMetadata.schemaMetadata.schema),
-                        metadataHandler.toSchema(tableMetadata.schemaMetadata.schema), tableMetadata.tableName, "%");
-
-                try {
-                    IDataTypeFactory dataTypeFactory = super.getDataTypeFactory(_connection);
-                    boolean datatypeWarning = _connection.getDatabaseConfig().isDatatypeWarning();
-
-                    List columnList = new ArrayList();
-                    while (resultSet.next()) {
-                        // Check for exact table/schema name match because
-                        // databaseMetaData.getColumns() uses patterns for the lookup
-                        boolean match = metadataHandler.matches(resultSet, tableMetadata.schemaMetadata.schema,
-                                tableMetadata.tableName, _caseSensitiveMetaData);
-                        if (match) {
-                            Column column = SQLHelper.createColumn(resultSet, dataTypeFactory, datatypeWarning);
-                            if (column != null) {
-                                columnList.add(column);
-                            }
-                        } else {
-                            logger.debug("Skipping <schema.table> '" + resultSet.getString(2) + "."
-                                    + resultSet.getString(3) + "' because names do not exactly match.");
-                        }
-                    }
-
-                    if (columnList.size() == 0) {
-                        logger.warn("No columns found for table '" + tableMetadata.tableName
-                                + "' that are supported by dbunit. " + "Will return an empty column list");
-                    }
-
-                    _columns = (Column[]) columnList.toArray(new Column[0]);
-                } finally {
-                    resultSet.close();
+                TableMetadata bulkLoadedTable = getBulkLoadedTable();
+                if (bulkLoadedTable != null) {
+                    _columns = createColumns(bulkLoadedTable.getColumns());
+                    return _columns;
+                }
+            } catch (SQLException e) {
+                throw new DataSetException(e);
+            }
+
+            List<Object> cacheKey = Arrays.asList(DatabaseTableMetaData.class, "columns",
+                    tableMetadata.schemaMetadata, tableMetadata.tableName, _caseSensitiveMetaData);
+            MetadataEvent event = null;
+            try {
+                ColumnMetadata[] columnMetadatas = (ColumnMetadata[]) getCachedMetadata(cacheKey);
+                if (columnMetadatas == null) {
+                    event = _connection.getDatabaseConfig().isJfrEvents() ? MetadataEvent.start() : null;
+                    columnMetadatas = loadColumnMetadatas();
+                    putCachedMetadata(cacheKey, columnMetadatas);
+                }
+                _columns = createColumns(columnMetadatas);
+                if (event != null) {
+                    event.commit(MetadataEvent.COLUMNS, tableMetadata.schemaMetadata.schema, tableMetadata.tableName,
+                            _columns.length);
                 }
             } catch (SQLException e) {
                 throw new DataSetException(e);
@@ -236,6 +255,69 @@ public class DatabaseTableMetaData extends AbstractTableMetaData {
         return _columns;
     }
 
+    private ColumnMetadata[] loadColumnMetadatas() throws SQLException {
+        Connection jdbcConnection = _connection.getConnection();
+        DatabaseMetaData databaseMetaData = jdbcConnection.getMetaData();
+
+        IMetadataHandler metadataHandler = _connection.getDatabaseConfig().getMetadataHandler();
+        ResultSet resultSet = databaseMetaData.getColumns(
+                metadataHandler.toCatalog(tableMetadata.schemaMetadata.schema),
+                metadataHandler.toSchema(tableMetadata.schemaMetadata.schema), tableMetadata.tableName, "%");
+
+        try {
+            List<ColumnMetadata> columnList = new ArrayList<>();
+            while (resultSet.next()) {
+                // Check for exact table/schema name match because
+                // databaseMetaData.getColumns() uses patterns for the lookup
+                boolean match = metadataHandler.matches(resultSet, tableMetadata.schemaMetadata.schema,
+                        tableMetadata.tableName, _caseSensitiveMetaData);
+                if (match) {
+                    columnList.add(SQLHelper.createColumnMetadata(resultSet));
+                } else {
+                    logger.debug("Skipping <schema.table> '" + resultSet.getString(2) + "." + resultSet.getString(3)
+                            + "' because names do not exactly match.");
+                }
+            }
+            return columnList.toArray(new ColumnMetadata[columnList.size()]);
+        } finally {
+            resultSet.close();
+        }
+    }
+
+    /**
+     * Returns metadata of this table cached for all connections sharing the
+     * metadata cache, or <code>null</code>.
+     */
+    private Object getCachedMetadata(Object key) {
+        return _metadataManager == null ? null : _metadataManager.getCache().getDerived(key);
+    }
+
+    private void putCachedMetadata(Object key, Object value) {
+        if (_metadataManager != null) {
+            _metadataManager.getCache().putDerived(key, value);
+        }
+    }
+
+    private Column[] createColumns(ColumnMetadata[] columnMetadatas) throws SQLException, DataSetException {
+        IDataTypeFactory dataTypeFactory = super.getDataTypeFactory(_connection);
+        boolean datatypeWarning = _connection.getDatabaseConfig().isDatatypeWarning();
+
+        List<Column> columnList = new ArrayList<>();
+        for (ColumnMetadata columnMetadata : columnMetadatas) {
+            Column column = SQLHelper.createColumn(tableMetadata.tableName, columnMetadata, dataTypeFactory,
+                    datatypeWarning);
+            if (column != null) {
+                columnList.add(column);
+            }
+        }
+
+        if (columnList.size() == 0) {
+            logger.warn("No columns found for table '" + tableMetadata.tableName + "' that are supported by dbunit. "
+                    + "Will return an empty column list");
+        }
+        return columnList.toArray(new Column[0]);
+    }
+
     private boolean primaryKeyFilterChanged(IColumnFilter keyFilter) {
         return (keyFilter != lastKeyFilter);
     }
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITableCursor;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.RowOutOfBoundsException;
 
@@ -72,6 +73,11 @@ public class ForwardOnlyResultSetTable extends AbstractResultSetTable {
         if (logger.isDebugEnabled())
             logger.debug("getValue(row={}, columnName={}) - start", Integer.toString(row), columnName);
 
+        return getValue(row, getColumnIndex(columnName));
+    }
+
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
         try {
             // Move cursor forward up to specified row
             while (!_eot && row > _lastRow) {
@@ -89,7 +95,6 @@ public class ForwardOnlyResultSetTable extends AbstractResultSetTable {
                 throw new RowOutOfBoundsException(row + " > " + _lastRow);
             }
 
-            int columnIndex = getColumnIndex(columnName);
             Column column = _metaData.getColumns()[columnIndex];
             return column.getDataType().getSqlValue(columnIndex + 1, _resultSet);
         } catch (SQLException e) {
@@ -97,6 +102,50 @@ public class ForwardOnlyResultSetTable extends AbstractResultSetTable {
         }
     }
 
+    @Override
+    public ITableCursor cursor() {
+        return new ITableCursor() {
+
+            private int row = -1;
+
+            @Override
+            public boolean next() throws DataSetException {
+                int nextRow = row + 1;
+                try {
+                    // the row may already be current if it was read by position
+                    while (!_eot && nextRow > _lastRow) {
+                        _eot = !_resultSet.next();
+                        _lastRow++;
+                    }
+                } catch (SQLException e) {
+                    throw new DataSetException(e);
+                }
+
+                if (nextRow < _lastRow) {
+                    throw new UnsupportedOperationException("Cannot go backward!");
+                }
+
+                if (_eot) {
+                    // Proactively close the resultset
+                    close();
+                    return false;
+                }
+                row = nextRow;
+                return true;
+            }
+
+            @Override
+            public int getRow() {
+                return row;
+            }
+
+            @Override
+            public Object get(int columnIndex) throws DataSetException {
+                return getValue(row, columnIndex);
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -49,6 +49,14 @@ public class FullyLoadedTable implements IResultSetTable {
         return rowValues[getColumnIndex(column)];
     }
 
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        assertValidRowIndex(row);
+
+        Object[] rowValues = rowsData.get(row).getRowValues();
+        return rowValues[columnIndex];
+    }
+
     private void assertValidRowIndex(int row) throws DataSetException {
         assertValidRowIndex(row, getRowCount());
     }
@@ -115,6 +115,64 @@ public interface IMetadataHandler {
     public ResultSet getPrimaryKeys(DatabaseMetaData databaseMetaData, String schemaName, String tableName)
             throws SQLException;
 
+    /**
+     * Returns the primary keys of all tables of a schema at once, in the format
+     * of {@link DatabaseMetaData#getPrimaryKeys(String, String, String)}. Used
+     * when the metadata is loaded in bulk. The default implementation passes no
+     * table name, which most drivers accept; vendors can query their catalog
+     * instead.
+     *
+     * @param databaseMetaData The database meta data
+     * @param catalog          The catalog of the schema, as reported by the
+     *                         driver
+     * @param schema           The schema, as reported by the driver
+     * @return The primary keys of the tables of the schema
+     * @throws SQLException if the driver requires a table name, the primary keys
+     *                      are then looked up for each table
+     */
+    default ResultSet getSchemaPrimaryKeys(DatabaseMetaData databaseMetaData, String catalog, String schema)
+            throws SQLException {
+        return databaseMetaData.getPrimaryKeys(catalog, schema, null);
+    }
+
+    /**
+     * Returns the foreign keys of a table, in the format of
+     * {@link DatabaseMetaData#getImportedKeys(String, String, String)}. Used to
+     * order the tables when the foreign keys of a schema can not be loaded at
+     * once.
+     *
+     * @param databaseMetaData The database meta data
+     * @param schemaName       The schema name, mapped with
+     *                         {@link #toCatalog(String)} and
+     *                         {@link #toSchema(String)}
+     * @param tableName        The table name
+     * @return The foreign keys of the table
+     * @throws SQLException
+     */
+    default ResultSet getImportedKeys(DatabaseMetaData databaseMetaData, String schemaName, String tableName)
+            throws SQLException {
+        return databaseMetaData.getImportedKeys(toCatalog(schemaName), toSchema(schemaName), tableName);
+    }
+
+    /**
+     * Returns the foreign keys of all tables of a schema at once, in the format
+     * of {@link DatabaseMetaData#getImportedKeys(String, String, String)}. Used
+     * to order the tables by their dependencies. The default implementation
+     * passes no table name, which many drivers accept; vendors can query their
+     * catalog instead.
+     *
+     * @param databaseMetaData The database meta data
+     * @param catalog          The catalog of the schema, or <code>null</code>
+     * @param schema           The schema, or <code>null</code> for all schemas
+     * @return The foreign keys of the tables of the schema
+     * @throws SQLException if the driver requires a table name, the foreign keys
+     *                      are then looked up for each table
+     */
+    default ResultSet getSchemaImportedKeys(DatabaseMetaData databaseMetaData, String catalog, String schema)
+            throws SQLException {
+        return databaseMetaData.getImportedKeys(catalog, schema, null);
+    }
+
     public abstract String toCatalog(String schemaCatalog);
 
     public abstract String toSchema(String schemaCatalog);
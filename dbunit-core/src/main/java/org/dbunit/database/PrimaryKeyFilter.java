@@ -20,13 +20,11 @@
  */
 package org.dbunit.database;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +33,8 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import javax.sql.DataSource;
+
 import org.dbunit.database.search.ForeignKeyRelationshipEdge;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
@@ -42,19 +42,17 @@ import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableIterator;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.filter.AbstractTableFilter;
-import org.dbunit.util.SQLHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Filter a table given a map of the allowed rows based on primary key
  * values.<br>
- * It uses a depth-first algorithm (although not recursive - it might be
- * refactored in the future) to define which rows are allowed, as well which
- * rows are necessary (and hence allowed) because of dependencies with the
- * allowed rows.<br>
- * <strong>NOTE:</strong> multi-column primary keys are not supported at the
- * moment. TODO: test cases
+ * It defines which rows are allowed, as well which rows are necessary (and
+ * hence allowed) because of dependencies with the allowed rows. The rows are
+ * searched by {@link PrimaryKeySearch}, a chunk of keys per query; tables with
+ * multi-column primary keys take {@link CompositeKey} values.<br>
+ * TODO: test cases
  *
  * @author Felipe Leme (dbunit@felipeal.net)
  * @author Last changed by: $Author$
@@ -65,16 +63,15 @@ public class PrimaryKeyFilter extends AbstractTableFilter {
 
     private final IDatabaseConnection connection;
 
-    private final PkTableMap allowedPKsPerTable;
+    private PkTableMap allowedPKsPerTable;
     private final PkTableMap allowedPKsInput;
-    private final PkTableMap pksToScanPerTable;
 
     private final boolean reverseScan;
 
-    protected final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DataSource dataSource;
+    private final int connectionCount;
 
-    // cache the primary keys
-    private final Map pkColumnPerTable = new HashMap();
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final Map fkEdgesPerTable = new HashMap();
     private final Map fkReverseEdgesPerTable = new HashMap();
@@ -95,13 +92,36 @@ public class PrimaryKeyFilter extends AbstractTableFilter {
      *                          should also be allowed by the filter
      */
     public PrimaryKeyFilter(IDatabaseConnection connection, PkTableMap allowedPKs, boolean reverseDependency) {
+        this(connection, allowedPKs, reverseDependency, null, 1);
+    }
+
+    /**
+     * Creates a filter searching the rows concurrently, on connections obtained
+     * from the specified data source. These connections only see committed
+     * rows.
+     *
+     * @param connection        database connection
+     * @param allowedPKs        map of allowed rows, based on the primary keys (key
+     *                          is the name of a table; value is a Set with allowed
+     *                          primary keys for that table)
+     * @param reverseDependency flag indicating if the rows that depend on a row
+     *                          should also be allowed by the filter
+     * @param dataSource        the source of the connections searching the rows,
+     *                          or <code>null</code> to search them on the
+     *                          database connection
+     * @param connectionCount   the maximum number of queries run at the same
+     *                          time, and of connections opened
+     */
+    public PrimaryKeyFilter(IDatabaseConnection connection, PkTableMap allowedPKs, boolean reverseDependency,
+            DataSource dataSource, int connectionCount) {
+        if (connectionCount < 1) {
+            throw new IllegalArgumentException("connectionCount must be at least 1, got " + connectionCount);
+        }
         this.connection = connection;
-        this.allowedPKsPerTable = new PkTableMap();
         this.allowedPKsInput = allowedPKs;
         this.reverseScan = reverseDependency;
-
-        // we need a deep copy here
-        this.pksToScanPerTable = new PkTableMap(allowedPKs);
+        this.dataSource = dataSource;
+        this.connectionCount = connectionCount;
     }
 
     public void nodeAdded(Object node) {
@@ -136,10 +156,6 @@ public class PrimaryKeyFilter extends AbstractTableFilter {
         if (!edges.contains(edge)) {
             edges.add(edge);
         }
-
-        // finally, update the PKs cache
-        updatePkCache(to, edge);
-
     }
 
     /**
@@ -168,224 +184,22 @@ public class PrimaryKeyFilter extends AbstractTableFilter {
     private void searchPKs(IDataSet dataSet) throws DataSetException, SQLException {
         logger.debug("searchPKs(dataSet={}) - start", dataSet);
 
-        int counter = 0;
-        while (!this.pksToScanPerTable.isEmpty()) {
-            counter++;
-            if (this.logger.isDebugEnabled()) {
-                this.logger.debug("RUN # " + counter);
-            }
-
-            for (int i = this.tableNames.size() - 1; i >= 0; i--) {
-                String tableName = (String) this.tableNames.get(i);
-                // TODO: support multi-column PKs
-                String pkColumn = dataSet.getTable(tableName).getTableMetaData().getPrimaryKeys()[0].getColumnName();
-                Set tmpSet = this.pksToScanPerTable.get(tableName);
-                if (tmpSet != null && !tmpSet.isEmpty()) {
-                    Set pksToScan = new HashSet(tmpSet);
-                    if (this.logger.isDebugEnabled()) {
-                        this.logger.debug("before search: " + tableName + "=>" + pksToScan);
-                    }
-                    scanPKs(tableName, pkColumn, pksToScan);
-                    scanReversePKs(tableName, pksToScan);
-                    allowPKs(tableName, pksToScan);
-                    removePKsToScan(tableName, pksToScan);
-                } // if
-            } // for
-            removeScannedTables();
-        } // while
-        if (this.logger.isDebugEnabled()) {
-            this.logger.debug("Finished searchIds()");
-        }
-    }
-
-    private void removeScannedTables() {
-        logger.debug("removeScannedTables() - start");
-        this.pksToScanPerTable.retainOnly(this.tableNames);
-    }
-
-    private void allowPKs(String table, Set newAllowedPKs) {
-        logger.debug("allowPKs(table={}, newAllowedPKs={}) - start", table, newAllowedPKs);
-
-        // then, add the new IDs, but checking if it should be allowed to add them
-        Set forcedAllowedPKs = this.allowedPKsInput.get(table);
-        if (forcedAllowedPKs == null || forcedAllowedPKs.isEmpty()) {
-            allowedPKsPerTable.addAll(table, newAllowedPKs);
-        } else {
-            for (Object id : newAllowedPKs) {
-                if (forcedAllowedPKs.contains(id)) {
-                    allowedPKsPerTable.add(table, id);
-                } else {
-                    if (this.logger.isDebugEnabled()) {
-                        this.logger.debug(
-                                "Discarding id " + id + " of table " + table + " as it was not included in the input!");
-                    }
-                }
-            }
-        }
-    }
-
-    private void scanPKs(String table, String pkColumn, Set allowedIds) throws SQLException {
-        if (logger.isDebugEnabled()) {
-            logger.debug("scanPKs(table={}, pkColumn={}, allowedIds={}) - start", table, pkColumn, allowedIds);
-        }
-
-        Set fkEdges = (Set) this.fkEdgesPerTable.get(table);
-        if (fkEdges == null || fkEdges.isEmpty()) {
+        if (this.allowedPKsPerTable != null) {
             return;
         }
-        // we need a temporary list as there is no warranty about the set order...
-        List fkTables = new ArrayList(fkEdges.size());
-        StringBuffer colsBuffer = new StringBuffer();
-        for (Iterator iterator = fkEdges.iterator(); iterator.hasNext();) {
-            ForeignKeyRelationshipEdge edge = (ForeignKeyRelationshipEdge) iterator.next();
-            fkTables.add(edge.getTo());
-            colsBuffer.append(edge.getFKColumn());
-            if (iterator.hasNext()) {
-                colsBuffer.append(", ");
-            }
+        List<ForeignKeyRelationshipEdge> edges = new ArrayList<>();
+        for (Object tableEdges : this.fkEdgesPerTable.values()) {
+            edges.addAll((Set<ForeignKeyRelationshipEdge>) tableEdges);
         }
-        // NOTE: make sure the query below is compatible standard SQL
-        String sql = "SELECT " + colsBuffer + " FROM " + table + " WHERE " + pkColumn + " = ? ";
+        // sorted, so that columns of foreign keys without a name are grouped the
+        // same way every time
+        Collections.sort(edges);
+        PrimaryKeySearch search = new PrimaryKeySearch(this.connection, this.dataSource, this.connectionCount);
+        this.allowedPKsPerTable = search.search(dataSet, this.tableNames, edges, this.allowedPKsInput,
+                this.reverseScan);
         if (this.logger.isDebugEnabled()) {
-            this.logger.debug("SQL: " + sql);
-        }
-
-        scanPKs(table, sql, allowedIds, fkTables);
-    }
-
-    private void scanPKs(String table, String sql, Set allowedIds, List fkTables) throws SQLException {
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            pstmt = this.connection.getConnection().prepareStatement(sql);
-            for (Object pk : allowedIds) {
-                if (this.logger.isDebugEnabled()) {
-                    this.logger.debug("Executing sql for ? = " + pk);
-                }
-                pstmt.setObject(1, pk);
-                rs = pstmt.executeQuery();
-                while (rs.next()) {
-                    for (int i = 0; i < fkTables.size(); i++) {
-                        String newTable = (String) fkTables.get(i);
-                        Object fk = rs.getObject(i + 1);
-                        if (fk != null) {
-                            if (this.logger.isDebugEnabled()) {
-                                this.logger.debug("New ID: " + newTable + "->" + fk);
-                            }
-                            addPKToScan(newTable, fk);
-                        } else {
-                            this.logger.warn("Found null FK for relationship  " + table + "=>" + newTable);
-                        }
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("scanPKs()", e);
-        } finally {
-            // new in the finally block. has been in the catch only before
-            SQLHelper.close(rs, pstmt);
-        }
-    }
-
-    private void scanReversePKs(String table, Set pksToScan) throws SQLException {
-        logger.debug("scanReversePKs(table={}, pksToScan={}) - start", table, pksToScan);
-
-        if (!this.reverseScan) {
-            return;
-        }
-        Set fkReverseEdges = (Set) this.fkReverseEdgesPerTable.get(table);
-        if (fkReverseEdges == null || fkReverseEdges.isEmpty()) {
-            return;
-        }
-        Iterator iterator = fkReverseEdges.iterator();
-        while (iterator.hasNext()) {
-            ForeignKeyRelationshipEdge edge = (ForeignKeyRelationshipEdge) iterator.next();
-            addReverseEdge(edge, pksToScan);
-        }
-    }
-
-    private void addReverseEdge(ForeignKeyRelationshipEdge edge, Set idsToScan) throws SQLException {
-        logger.debug("addReverseEdge(edge={}, idsToScan=) - start", edge, idsToScan);
-
-        String fkTable = (String) edge.getFrom();
-        String fkColumn = edge.getFKColumn();
-        String pkColumn = getPKColumn(fkTable);
-        // NOTE: make sure the query below is compatible standard SQL
-        String sql = "SELECT " + pkColumn + " FROM " + fkTable + " WHERE " + fkColumn + " = ? ";
-
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            if (this.logger.isDebugEnabled()) {
-                this.logger.debug("Preparing SQL query '" + sql + "'");
-            }
-            pstmt = this.connection.getConnection().prepareStatement(sql);
-            for (Object pk : idsToScan) {
-                if (this.logger.isDebugEnabled()) {
-                    this.logger.debug("executing query '" + sql + "' for ? = " + pk);
-                }
-                pstmt.setObject(1, pk);
-                rs = pstmt.executeQuery();
-                while (rs.next()) {
-                    Object fk = rs.getObject(1);
-                    addPKToScan(fkTable, fk);
-                }
-            }
-        } finally {
-            SQLHelper.close(rs, pstmt);
-        }
-    }
-
-    private void updatePkCache(String table, ForeignKeyRelationshipEdge edge) {
-        logger.debug("updatePkCache(to={}, edge={}) - start", table, edge);
-
-        Object pkTo = this.pkColumnPerTable.get(table);
-        if (pkTo == null) {
-            String pkColumn = edge.getPKColumn();
-            this.pkColumnPerTable.put(table, pkColumn);
-        }
-    }
-
-    // TODO: support PKs with multiple values
-    private String getPKColumn(String table) throws SQLException {
-        logger.debug("getPKColumn(table={}) - start", table);
-
-        // Try to get the cached column
-        String pkColumn = (String) this.pkColumnPerTable.get(table);
-        if (pkColumn == null) {
-            // If the column has not been cached until now retrieve it from the database
-            // connection
-            pkColumn = SQLHelper.getPrimaryKeyColumn(this.connection.getConnection(), table);
-            this.pkColumnPerTable.put(table, pkColumn);
-        }
-        return pkColumn;
-    }
-
-    private void removePKsToScan(String table, Set ids) {
-        logger.debug("removePKsToScan(table={}, ids={}) - start", table, ids);
-
-        Set pksToScan = this.pksToScanPerTable.get(table);
-        if (pksToScan != null) {
-            if (pksToScan == ids) {
-                throw new RuntimeException("INTERNAL ERROR on removeIdsToScan() for table " + table);
-            } else {
-                pksToScan.removeAll(ids);
-            }
-        }
-    }
-
-    private void addPKToScan(String table, Object pk) {
-        logger.debug("addPKToScan(table={}, pk={}) - start", table, pk);
-
-        // first, check if it wasn't added yet
-        if (this.allowedPKsPerTable.contains(table, pk)) {
-            if (this.logger.isDebugEnabled()) {
-                this.logger.debug("Discarding already scanned id=" + pk + " for table " + table);
-            }
-            return;
+            this.logger.debug("Finished searchIds()");
         }
-
-        this.pksToScanPerTable.add(table, pk);
     }
 
     @Override
@@ -396,9 +210,8 @@ public class PrimaryKeyFilter extends AbstractTableFilter {
         sb.append(", allowedPKsPerTable=").append(allowedPKsPerTable);
         sb.append(", fkEdgesPerTable=").append(fkEdgesPerTable);
         sb.append(", fkReverseEdgesPerTable=").append(fkReverseEdgesPerTable);
-        sb.append(", pkColumnPerTable=").append(pkColumnPerTable);
-        sb.append(", pksToScanPerTable=").append(pksToScanPerTable);
         sb.append(", reverseScan=").append(reverseScan);
+        sb.append(", connectionCount=").append(connectionCount);
         sb.append(", connection=").append(connection);
         return sb.toString();
     }
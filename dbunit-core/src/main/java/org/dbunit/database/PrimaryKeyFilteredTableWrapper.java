@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableMetaData;
@@ -95,10 +96,14 @@ public class PrimaryKeyFilteredTableWrapper implements ITable {
         int allowedSize = allowedPKs.size();
         int fullSize = this.originalTable.getRowCount();
         List mapping = new ArrayList(allowedSize);
-        // TODO: support multi-columns PKs
-        String pkColumn = this.originalTable.getTableMetaData().getPrimaryKeys()[0].getColumnName();
+        ITableMetaData metaData = this.originalTable.getTableMetaData();
+        Column[] primaryKeys = metaData.getPrimaryKeys();
+        int[] pkColumnIndexes = new int[primaryKeys.length];
+        for (int i = 0; i < primaryKeys.length; i++) {
+            pkColumnIndexes[i] = metaData.getColumnIndex(primaryKeys[i].getColumnName());
+        }
         for (int row = 0; row < fullSize; row++) {
-            Object pk = this.originalTable.getValue(row, pkColumn);
+            Object pk = getPrimaryKey(row, pkColumnIndexes);
             if (allowedPKs.contains(pk)) {
                 if (this.logger.isDebugEnabled()) {
                     this.logger.debug("Adding row " + row + " (pk=" + pk + ")");
@@ -113,6 +118,21 @@ public class PrimaryKeyFilteredTableWrapper implements ITable {
         return mapping;
     }
 
+    /**
+     * Returns the primary key value of the row, a {@link CompositeKey} for a
+     * multi-column primary key.
+     */
+    private Object getPrimaryKey(int row, int[] pkColumnIndexes) throws DataSetException {
+        if (pkColumnIndexes.length == 1) {
+            return this.originalTable.getValue(row, pkColumnIndexes[0]);
+        }
+        Object[] values = new Object[pkColumnIndexes.length];
+        for (int i = 0; i < pkColumnIndexes.length; i++) {
+            values[i] = this.originalTable.getValue(row, pkColumnIndexes[i]);
+        }
+        return new CompositeKey(values);
+    }
+
     // ITable methods
 
     public ITableMetaData getTableMetaData() {
@@ -137,4 +157,14 @@ public class PrimaryKeyFilteredTableWrapper implements ITable {
         }
     }
 
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        int max = this.filteredRowsMapping.size();
+        if (row < 0 || row >= max) {
+            throw new RowOutOfBoundsException("tried to access row " + row + " but rowCount is " + max);
+        }
+        int realRow = ((Integer) this.filteredRowsMapping.get(row)).intValue();
+        return this.originalTable.getValue(realRow, columnIndex);
+    }
+
 }
@@ -0,0 +1,561 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.dbunit.database.PrimaryKeyFilter.PkTableMap;
+import org.dbunit.database.search.ForeignKeyRelationshipEdge;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.util.QualifiedTableName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the primary keys of a subset of the database: the rows with the
+ * specified keys, the rows they reference through foreign keys and,
+ * optionally, the rows referencing them, until no new row is found.
+ * <p>
+ * The search runs in rounds. Each round looks up the keys found by the
+ * previous one, in chunks of at most
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#getMaxBindParameters()}
+ * parameters, with one query per table and chunk for the referenced rows, and
+ * one query per foreign key and chunk for the referencing rows. The queries of
+ * a round are independent; when a <code>DataSource</code> is given they run
+ * concurrently on connections obtained from it, which only see committed rows.
+ * <p>
+ * Multi-column keys are matched with <code>(a = ? and b = ?) or (...)</code>
+ * since row value constructors are not supported by all databases.
+ */
+final class PrimaryKeySearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrimaryKeySearch.class);
+
+    private static final AtomicInteger searchNumber = new AtomicInteger();
+
+    private static final long WORKER_TERMINATION_TIMEOUT_SECONDS = 60;
+
+    private final IDatabaseConnection connection;
+    private final DataSource dataSource;
+    private final int connectionCount;
+
+    private ExecutorService executor;
+    private BlockingQueue<Connection> workers;
+    private List<Connection> opened;
+
+    /**
+     * @param connection      the connection running the queries, unless a
+     *                        data source is given
+     * @param dataSource      the source of the connections running the queries
+     *                        concurrently, can be <code>null</code>
+     * @param connectionCount the maximum number of queries run at the same time
+     */
+    PrimaryKeySearch(IDatabaseConnection connection, DataSource dataSource, int connectionCount) {
+        this.connection = connection;
+        this.dataSource = dataSource;
+        this.connectionCount = connectionCount;
+    }
+
+    /**
+     * Returns the keys of the rows to keep, by table. Tables where no row was
+     * found are not part of the result.
+     *
+     * @param dataSet    the dataset providing the primary keys of the tables
+     * @param tableNames the tables of the subset, in order of dependency
+     * @param edges      the foreign key columns between the tables
+     * @param input      the keys the search starts from; a table listed with
+     *                   keys only keeps these keys
+     * @param reverse    whether rows referencing the found rows are searched
+     */
+    PkTableMap search(IDataSet dataSet, List<String> tableNames, Collection<ForeignKeyRelationshipEdge> edges,
+            PkTableMap input, boolean reverse) throws DataSetException, SQLException {
+        logger.debug("search(dataSet={}, tableNames={}, input={}, reverse={}) - start", dataSet, tableNames, input,
+                reverse);
+
+        // tables referenced first, like the previous searches did
+        Map<String, TableKeys> tables = new LinkedHashMap<>();
+        for (int i = tableNames.size() - 1; i >= 0; i--) {
+            String tableName = tableNames.get(i);
+            Column[] primaryKeys = dataSet.getTableMetaData(tableName).getPrimaryKeys();
+            String[] keyColumns = new String[primaryKeys.length];
+            for (int j = 0; j < primaryKeys.length; j++) {
+                keyColumns[j] = primaryKeys[j].getColumnName();
+            }
+            tables.put(tableName, new TableKeys(tableName, keyColumns));
+        }
+        addForeignKeys(tables, edges);
+
+        for (String tableName : input.getTableNames()) {
+            TableKeys table = tables.get(tableName);
+            if (table == null) {
+                logger.warn("Discarding ids {} of table {} as this table has not been passed as input",
+                        input.get(tableName), tableName);
+                continue;
+            }
+            for (Object key : input.get(tableName)) {
+                Object[] keyValues = key instanceof CompositeKey ? ((CompositeKey) key).getValues()
+                        : new Object[] { key };
+                if (keyValues.length != table.keyColumns.length) {
+                    throw new DataSetException("Key " + key + " of table " + tableName
+                            + " does not match its primary key " + Arrays.toString(table.keyColumns));
+                }
+                table.add(keyValues);
+            }
+        }
+
+        Throwable thrown = null;
+        try {
+            int round = 0;
+            while (true) {
+                List<Query> queries = new ArrayList<>();
+                for (TableKeys table : tables.values()) {
+                    if (!table.pending.isEmpty()) {
+                        addQueries(queries, table, reverse);
+                        table.pending = new ArrayList<>();
+                    }
+                }
+                if (queries.isEmpty()) {
+                    break;
+                }
+                round++;
+                logger.debug("Round {}: running {} queries", round, queries.size());
+                for (Found found : run(queries)) {
+                    tables.get(found.tableName).add(found.keyValues);
+                }
+            }
+        } catch (Throwable e) {
+            thrown = e;
+            throw e;
+        } finally {
+            close(thrown);
+        }
+
+        PkTableMap allowed = new PkTableMap();
+        for (TableKeys table : tables.values()) {
+            SortedSet<Object> forcedKeys = input.get(table.tableName);
+            for (Object[] keyValues : table.found) {
+                Object key = keyValues.length == 1 ? keyValues[0] : new CompositeKey(keyValues);
+                if (forcedKeys == null || forcedKeys.isEmpty() || forcedKeys.contains(key)) {
+                    allowed.add(table.tableName, key);
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Discarding id " + key + " of table " + table.tableName
+                            + " as it was not included in the input!");
+                }
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Groups the foreign key columns into foreign keys. Columns of foreign keys
+     * without a name are assigned to the first key of the same tables that does
+     * not have their primary key column yet.
+     */
+    private static void addForeignKeys(Map<String, TableKeys> tables, Collection<ForeignKeyRelationshipEdge> edges) {
+        Map<List<String>, List<List<ForeignKeyRelationshipEdge>>> groups = new LinkedHashMap<>();
+        for (ForeignKeyRelationshipEdge edge : edges) {
+            if (!tables.containsKey(edge.getFrom()) || !tables.containsKey(edge.getTo())) {
+                continue;
+            }
+            List<String> groupKey = Arrays.asList((String) edge.getFrom(), (String) edge.getTo(), edge.getKeyName());
+            List<List<ForeignKeyRelationshipEdge>> candidates = groups.computeIfAbsent(groupKey,
+                    k -> new ArrayList<>());
+            List<ForeignKeyRelationshipEdge> group = null;
+            for (List<ForeignKeyRelationshipEdge> candidate : candidates) {
+                if (!containsPkColumn(candidate, edge.getPKColumn())) {
+                    group = candidate;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new ArrayList<>();
+                candidates.add(group);
+            }
+            group.add(edge);
+        }
+
+        for (List<List<ForeignKeyRelationshipEdge>> candidates : groups.values()) {
+            for (List<ForeignKeyRelationshipEdge> group : candidates) {
+                TableKeys fkTable = tables.get(group.get(0).getFrom());
+                TableKeys pkTable = tables.get(group.get(0).getTo());
+                String[] fkColumns = getFkColumns(group, pkTable.keyColumns);
+                if (fkColumns == null) {
+                    logger.warn("Ignoring foreign key {} as it does not reference the primary key {} of table {}",
+                            group, Arrays.toString(pkTable.keyColumns), pkTable.tableName);
+                    continue;
+                }
+                ForeignKey foreignKey = new ForeignKey(fkTable, pkTable, fkColumns);
+                fkTable.importedKeys.add(foreignKey);
+                pkTable.exportedKeys.add(foreignKey);
+            }
+        }
+    }
+
+    private static boolean containsPkColumn(List<ForeignKeyRelationshipEdge> group, String pkColumn) {
+        for (ForeignKeyRelationshipEdge edge : group) {
+            if (edge.getPKColumn().equalsIgnoreCase(pkColumn)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the foreign key columns in the order of the primary key columns
+     * they reference, or <code>null</code> if they do not reference exactly
+     * the primary key.
+     */
+    private static String[] getFkColumns(List<ForeignKeyRelationshipEdge> group, String[] keyColumns) {
+        if (group.size() != keyColumns.length) {
+            return null;
+        }
+        String[] fkColumns = new String[keyColumns.length];
+        for (ForeignKeyRelationshipEdge edge : group) {
+            for (int i = 0; i < keyColumns.length; i++) {
+                if (keyColumns[i].equalsIgnoreCase(edge.getPKColumn())) {
+                    fkColumns[i] = edge.getFKColumn();
+                }
+            }
+        }
+        for (String fkColumn : fkColumns) {
+            if (fkColumn == null) {
+                return null;
+            }
+        }
+        return fkColumns;
+    }
+
+    /**
+     * Adds the queries looking up the pending keys of the table.
+     */
+    private void addQueries(List<Query> queries, TableKeys table, boolean reverse) {
+        int chunkSize = getChunkSize(table.keyColumns.length);
+        List<Object[]> pending = table.pending;
+        for (int start = 0; start < pending.size(); start += chunkSize) {
+            List<Object[]> chunk = pending.subList(start, Math.min(pending.size(), start + chunkSize));
+
+            // rows referenced by the rows of the chunk
+            if (!table.importedKeys.isEmpty()) {
+                List<String> columns = new ArrayList<>();
+                List<TableKeys> targets = new ArrayList<>();
+                for (ForeignKey foreignKey : table.importedKeys) {
+                    columns.addAll(Arrays.asList(foreignKey.fkColumns));
+                    targets.add(foreignKey.pkTable);
+                }
+                String sql = getSelectSql(columns.toArray(new String[0]), table.tableName, table.keyColumns,
+                        chunk.size());
+                queries.add(new Query(sql, chunk, targets));
+            }
+
+            // rows referencing the rows of the chunk
+            if (reverse) {
+                for (ForeignKey foreignKey : table.exportedKeys) {
+                    TableKeys fkTable = foreignKey.fkTable;
+                    if (fkTable.keyColumns.length == 0) {
+                        logger.warn("Ignoring rows of table {} referencing table {}, it has no primary key",
+                                fkTable.tableName, table.tableName);
+                        continue;
+                    }
+                    String sql = getSelectSql(fkTable.keyColumns, fkTable.tableName, foreignKey.fkColumns,
+                            chunk.size());
+                    queries.add(new Query(sql, chunk, Arrays.asList(fkTable)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys looked up by a query.
+     */
+    int getChunkSize(int keyColumnCount) {
+        int maxBindParameters = connection.getDatabaseConfig().getMaxBindParameters();
+        return Math.max(1, maxBindParameters / Math.max(1, keyColumnCount));
+    }
+
+    /**
+     * Returns the query selecting the specified columns of the rows matching
+     * any of <code>keyCount</code> keys.
+     */
+    String getSelectSql(String[] columns, String tableName, String[] keyColumns, int keyCount) {
+        StringBuilder sqlBuffer = new StringBuilder(128 + keyCount * keyColumns.length * 16);
+        sqlBuffer.append("select ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append(getQualifiedName(null, columns[i]));
+        }
+        sqlBuffer.append(" from ");
+        sqlBuffer.append(getQualifiedName(connection.getSchema(), tableName));
+
+        sqlBuffer.append(" where ");
+        if (keyColumns.length == 1) {
+            sqlBuffer.append(getQualifiedName(null, keyColumns[0]));
+            sqlBuffer.append(" in (");
+            for (int i = 0; i < keyCount; i++) {
+                if (i > 0) {
+                    sqlBuffer.append(", ");
+                }
+                sqlBuffer.append("?");
+            }
+            sqlBuffer.append(")");
+        } else {
+            for (int i = 0; i < keyCount; i++) {
+                if (i > 0) {
+                    sqlBuffer.append(" or ");
+                }
+                sqlBuffer.append("(");
+                for (int j = 0; j < keyColumns.length; j++) {
+                    if (j > 0) {
+                        sqlBuffer.append(" and ");
+                    }
+                    sqlBuffer.append(getQualifiedName(null, keyColumns[j]));
+                    sqlBuffer.append(" = ?");
+                }
+                sqlBuffer.append(")");
+            }
+        }
+        return sqlBuffer.toString();
+    }
+
+    private String getQualifiedName(String prefix, String name) {
+        String escapePattern = connection.getDatabaseConfig().getEscapePattern();
+        return new QualifiedTableName(name, prefix, escapePattern).getQualifiedName();
+    }
+
+    /**
+     * Runs the queries of a round, returning the keys found in the order of the
+     * queries.
+     */
+    private List<Found> run(List<Query> queries) throws SQLException {
+        List<Found> found = new ArrayList<>();
+        if (dataSource == null) {
+            Connection jdbcConnection = connection.getConnection();
+            for (Query query : queries) {
+                query.execute(jdbcConnection, found);
+            }
+            return found;
+        }
+
+        if (executor == null) {
+            int number = searchNumber.incrementAndGet();
+            AtomicInteger threadNumber = new AtomicInteger();
+            workers = new ArrayBlockingQueue<>(connectionCount);
+            opened = new ArrayList<>(connectionCount);
+            executor = Executors.newFixedThreadPool(connectionCount, runnable -> {
+                Thread thread = new Thread(runnable,
+                        "dbunit-pk-search-" + number + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int i = 0; i < connectionCount; i++) {
+                Connection worker = dataSource.getConnection();
+                opened.add(worker);
+                workers.add(worker);
+            }
+        }
+
+        List<Future<List<Found>>> futures = new ArrayList<>(queries.size());
+        for (Query query : queries) {
+            futures.add(executor.submit(() -> {
+                List<Found> queryFound = new ArrayList<>();
+                Connection worker = workers.take();
+                try {
+                    query.execute(worker, queryFound);
+                } finally {
+                    workers.add(worker);
+                }
+                return queryFound;
+            }));
+        }
+        try {
+            for (Future<List<Found>> future : futures) {
+                found.addAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException("Exception while searching primary keys", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while searching primary keys", e);
+        } finally {
+            for (Future<List<Found>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stops the workers, then closes every connection opened, including those
+     * held by workers interrupted in a query. A failure to close is added to
+     * the exception already thrown, if any.
+     */
+    private void close(Throwable thrown) throws SQLException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(WORKER_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Workers still running after {} seconds, closing their connections",
+                        WORKER_TERMINATION_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        SQLException failure = null;
+        for (Connection worker : opened) {
+            try {
+                worker.close();
+            } catch (SQLException e) {
+                if (thrown != null) {
+                    thrown.addSuppressed(e);
+                } else if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        workers = null;
+        opened = null;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Keys of a table, and its foreign keys.
+     */
+    private static final class TableKeys {
+
+        final String tableName;
+        final String[] keyColumns;
+        final ScannedKeys scanned = new ScannedKeys();
+        final List<Object[]> found = new ArrayList<>();
+        List<Object[]> pending = new ArrayList<>();
+        final List<ForeignKey> importedKeys = new ArrayList<>();
+        final List<ForeignKey> exportedKeys = new ArrayList<>();
+
+        TableKeys(String tableName, String[] keyColumns) {
+            this.tableName = tableName;
+            this.keyColumns = keyColumns;
+        }
+
+        void add(Object[] keyValues) {
+            if (scanned.add(keyValues)) {
+                found.add(keyValues);
+                pending.add(keyValues);
+            }
+        }
+    }
+
+    /**
+     * Foreign key, with its columns in the order of the referenced primary key.
+     */
+    private static final class ForeignKey {
+
+        final TableKeys fkTable;
+        final TableKeys pkTable;
+        final String[] fkColumns;
+
+        ForeignKey(TableKeys fkTable, TableKeys pkTable, String[] fkColumns) {
+            this.fkTable = fkTable;
+            this.pkTable = pkTable;
+            this.fkColumns = fkColumns;
+        }
+    }
+
+    /**
+     * Query selecting the keys of the target tables, one after the other, for
+     * the rows matching a chunk of keys.
+     */
+    private static final class Query {
+
+        private final String sql;
+        private final List<Object[]> keys;
+        private final List<TableKeys> targets;
+
+        Query(String sql, List<Object[]> keys, List<TableKeys> targets) {
+            this.sql = sql;
+            this.keys = keys;
+            this.targets = targets;
+        }
+
+        void execute(Connection jdbcConnection, List<Found> found) throws SQLException {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Executing sql '" + sql + "' for " + keys.size() + " keys");
+            }
+            try (PreparedStatement statement = jdbcConnection.prepareStatement(sql)) {
+                int index = 1;
+                for (Object[] keyValues : keys) {
+                    for (Object value : keyValues) {
+                        statement.setObject(index++, value);
+                    }
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        int column = 1;
+                        for (TableKeys target : targets) {
+                            Object[] keyValues = new Object[target.keyColumns.length];
+                            boolean complete = true;
+                            for (int i = 0; i < keyValues.length; i++) {
+                                keyValues[i] = resultSet.getObject(column++);
+                                complete &= keyValues[i] != null;
+                            }
+                            // null foreign keys reference no row
+                            if (complete) {
+                                found.add(new Found(target.tableName, keyValues));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Found {
+
+        final String tableName;
+        final Object[] keyValues;
+
+        Found(String tableName, Object[] keyValues) {
+            this.tableName = tableName;
+            this.keyValues = keyValues;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.dbunit.util.SQLHelper;
+
+/**
+ * Primary keys already found for a table. Single column integral keys, the
+ * most common ones, are held in an open addressing table of primitive longs;
+ * other keys are held as values comparable with <code>equals()</code>, so that
+ * the same key read as another class is found.
+ */
+final class ScannedKeys {
+
+    private static final long FREE = Long.MIN_VALUE;
+
+    private long[] longs = new long[0];
+    private int longCount;
+    private boolean containsFree;
+
+    private final Set<Object> others = new HashSet<>();
+
+    /**
+     * Adds the key with the specified column values.
+     *
+     * @return true if the key was not found before
+     */
+    boolean add(Object[] keyValues) {
+        if (keyValues.length == 1) {
+            Object value = normalize(keyValues[0]);
+            if (value instanceof Long) {
+                return addLong((Long) value);
+            }
+            return others.add(value);
+        }
+        Object[] normalized = new Object[keyValues.length];
+        for (int i = 0; i < keyValues.length; i++) {
+            normalized[i] = normalize(keyValues[i]);
+        }
+        return others.add(Arrays.asList(normalized));
+    }
+
+    int size() {
+        return longCount + (containsFree ? 1 : 0) + others.size();
+    }
+
+    private boolean addLong(long value) {
+        if (value == FREE) {
+            boolean added = !containsFree;
+            containsFree = true;
+            return added;
+        }
+        if ((longCount + 1) * 2 > longs.length) {
+            rehash(Math.max(16, longs.length * 2));
+        }
+        int mask = longs.length - 1;
+        int index = mix(value) & mask;
+        while (longs[index] != FREE) {
+            if (longs[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        longs[index] = value;
+        longCount++;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldLongs = longs;
+        longs = new long[capacity];
+        Arrays.fill(longs, FREE);
+        int mask = capacity - 1;
+        for (long value : oldLongs) {
+            if (value != FREE) {
+                int index = mix(value) & mask;
+                while (longs[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                longs[index] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Returns whether the value is an integer fitting in a long.
+     */
+    private static boolean isIntegral(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return true;
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).bitLength() < 64;
+        }
+        return false;
+    }
+
+    /**
+     * Makes values read by different queries comparable with
+     * <code>equals()</code>.
+     */
+    private static Object normalize(Object value) {
+        if (isIntegral(value)) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+            if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19) {
+                return decimal.longValue();
+            }
+            return decimal;
+        }
+        if (value instanceof String) {
+            // CHAR columns are returned blank padded
+            return SQLHelper.trimTrailingWhitespace((String) value);
+        }
+        if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
+        }
+        return value;
+    }
+}
@@ -3,14 +3,25 @@
  */
 package org.dbunit.database.metadata;
 
+import java.io.Serializable;
+import java.sql.DatabaseMetaData;
+
+import org.dbunit.dataset.Column;
+
 /**
  *
  */
-public class ColumnMetadata {
+public class ColumnMetadata implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public final String columnName;
     public final int sqlType;
     public final String sqlTypeName;
+    public final int nullable;
+    public final String remarks;
+    public final String defaultValue;
+    public final String autoIncrement;
 
     /**
      * @param columnName
@@ -18,8 +29,29 @@ public class ColumnMetadata {
      * @param sqlTypeName
      */
     public ColumnMetadata(String columnName, int sqlType, String sqlTypeName) {
+        this(columnName, sqlType, sqlTypeName, DatabaseMetaData.columnNullableUnknown, null, null,
+                Column.AutoIncrement.NO.getKey());
+    }
+
+    /**
+     * @param columnName
+     * @param sqlType       the SQL type, the source type of distinct types
+     * @param sqlTypeName
+     * @param nullable      one of the <code>DatabaseMetaData.columnNull*</code>
+     *                      constants
+     * @param remarks
+     * @param defaultValue
+     * @param autoIncrement the <code>IS_AUTOINCREMENT</code> value of the JDBC
+     *                      metadata
+     */
+    public ColumnMetadata(String columnName, int sqlType, String sqlTypeName, int nullable, String remarks,
+            String defaultValue, String autoIncrement) {
         this.columnName = columnName;
         this.sqlType = sqlType;
         this.sqlTypeName = sqlTypeName;
+        this.nullable = nullable;
+        this.remarks = remarks;
+        this.defaultValue = defaultValue;
+        this.autoIncrement = autoIncrement;
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.metadata;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+/**
+ * Metadata of one database read by {@link MetadataManager}s: the schemas, the
+ * tables with their columns and primary keys, and values derived from them like
+ * the foreign key dependencies and the insertion order of tables.
+ * <p>
+ * A cache obtained with {@link #shared(Connection, String, DatabaseConfig)} is
+ * shared by all connections to the same database, user and schema in the JVM
+ * that list the same tables, so that the catalog is only crawled once for all
+ * tests, also when they run in parallel. Sharing is opt-in: the cache must be
+ * invalidated when the database structure changes, which SQL scripts with DDL
+ * statements run by dbUnit do automatically, but changes made by other tools
+ * require a call to {@link #invalidateAll()}.
+ * <p>
+ * The cache can also be kept on disk between JVMs, see
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#setMetadataSnapshotDirectory(String)}.
+ */
+public class MetadataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataCache.class);
+
+    private static final ConcurrentMap<Key, MetadataCache> SHARED = new ConcurrentHashMap<>();
+
+    volatile Set<SchemaMetadata> schemas;
+    final ConcurrentMap<SchemaMetadata, List<TableMetadata>> schemaTables = new ConcurrentHashMap<>();
+    final ConcurrentMap<SchemaMetadata, Map<String, TableMetadata>> bulkLoadedTables = new ConcurrentHashMap<>();
+    final ConcurrentMap<Object, Object> derived = new ConcurrentHashMap<>();
+
+    private volatile boolean snapshotChecked = false;
+    private MetadataSnapshot snapshot;
+
+    /**
+     * Returns the cache shared by all connections to the database of the
+     * specified connection, as identified by its URL and user, for the specified
+     * default schema. The cached tables depend on the table types and the
+     * ignored table predicate of the configuration, so connections only share a
+     * cache when they have the same table types and the same predicate instance.
+     *
+     * @param jdbcConnection
+     * @param schema         the default schema of the connections, can be
+     *                       <code>null</code>
+     * @param config         the configuration of the connections, its table
+     *                       settings must not be changed afterwards
+     * @return the shared cache
+     * @throws SQLException
+     */
+    public static MetadataCache shared(Connection jdbcConnection, String schema, DatabaseConfig config)
+            throws SQLException {
+        DatabaseMetaData databaseMetaData = jdbcConnection.getMetaData();
+        Key key = new Key(databaseMetaData.getURL(), databaseMetaData.getUserName(), schema,
+                config.getTableTypes(), config.getIgnoredTablePredicate());
+        return SHARED.computeIfAbsent(key, k -> new MetadataCache());
+    }
+
+    /**
+     * Invalidates all shared caches, for example after the structure of a
+     * database was changed outside of dbUnit.
+     */
+    public static void invalidateAll() {
+        LOGGER.debug("Invalidating all shared metadata caches");
+        for (MetadataCache cache : SHARED.values()) {
+            cache.invalidate();
+        }
+    }
+
+    /**
+     * Forgets all metadata, which is read again when next needed.
+     */
+    public synchronized void invalidate() {
+        if (snapshot != null) {
+            LOGGER.debug("Metadata changed, not writing snapshot {}", snapshot.getFile());
+            snapshot = null;
+        }
+        schemas = null;
+        schemaTables.clear();
+        bulkLoadedTables.clear();
+        derived.clear();
+    }
+
+    /**
+     * Returns a value derived from the metadata, or <code>null</code> if not
+     * cached.
+     *
+     * @param key identifies the value, its first element should be the class
+     *            computing it
+     */
+    public Object getDerived(Object key) {
+        return derived.get(key);
+    }
+
+    /**
+     * Caches a value derived from the metadata until the cache is invalidated.
+     * The value must not be modified afterwards.
+     */
+    public void putDerived(Object key, Object value) {
+        derived.put(key, value);
+    }
+
+    /**
+     * Fills the cache from the snapshot of its database in the specified
+     * directory on first call, and writes the snapshot when the JVM exits. The
+     * snapshot is not read again after the cache is invalidated.
+     *
+     * @param jdbcConnection
+     * @param schema         the default schema of the cache, can be
+     *                       <code>null</code>
+     * @param config         the configuration with the snapshot directory and
+     *                       version, and the table settings
+     */
+    public void useSnapshot(Connection jdbcConnection, String schema, DatabaseConfig config) {
+        if (snapshotChecked) {
+            return;
+        }
+        synchronized (this) {
+            if (snapshotChecked) {
+                return;
+            }
+            snapshotChecked = true;
+            try {
+                snapshot = MetadataSnapshot.of(jdbcConnection, schema, config);
+            } catch (SQLException exc) {
+                LOGGER.warn("Unable to compute the metadata fingerprint, not using a snapshot", exc);
+                return;
+            }
+            if (snapshot == null) {
+                return;
+            }
+            snapshot.read(this);
+            snapshot.writeOnExit(this);
+        }
+    }
+
+    /**
+     * Writes the cache to its snapshot, if it uses one and was not invalidated.
+     * Also done when the JVM exits.
+     */
+    public synchronized void writeSnapshot() {
+        if (snapshot != null) {
+            snapshot.write(this);
+        }
+    }
+
+    private static final class Key {
+
+        private final String url;
+        private final String user;
+        private final String schema;
+        private final List<String> tableTypes;
+        // compared by identity, like lambdas are
+        private final IgnoredTablePredicate ignoredTablePredicate;
+
+        Key(String url, String user, String schema, String[] tableTypes,
+                IgnoredTablePredicate ignoredTablePredicate) {
+            this.url = url;
+            this.user = user;
+            this.schema = schema;
+            this.tableTypes = tableTypes == null ? null : Arrays.asList(tableTypes.clone());
+            this.ignoredTablePredicate = ignoredTablePredicate;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, user, schema, tableTypes, ignoredTablePredicate);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            return Objects.equals(url, other.url) && Objects.equals(user, other.user)
+                    && Objects.equals(schema, other.schema) && Objects.equals(tableTypes, other.tableTypes)
+                    && ignoredTablePredicate == other.ignoredTablePredicate;
+        }
+    }
+}
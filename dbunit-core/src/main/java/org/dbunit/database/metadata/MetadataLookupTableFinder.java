@@ -0,0 +1,107 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.metadata;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.dbunit.database.AmbiguousTableNameException;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.NoSuchTableException;
+
+/**
+ * Finds tables by looking up their name in the metadata, instead of loading
+ * the tables of all schemas. The name is looked up as given, then upper and
+ * lower cased, like most databases store unquoted identifiers. Names not found
+ * that way, like mixed case names given in another case, are searched by
+ * crawling all schemas.
+ * <p>
+ * Resolved tables are kept in the metadata cache, by name and by upper cased
+ * name.
+ */
+public class MetadataLookupTableFinder extends MetadataCrawlingTableFinder {
+
+    private final MetadataManager metadataManager;
+
+    public MetadataLookupTableFinder(MetadataManager metadataManager) {
+        super(metadataManager);
+        this.metadataManager = metadataManager;
+    }
+
+    @Override
+    public TableMetadata nameToTable(String freeHandTableName) throws NoSuchTableException, DataSetException {
+        String[] parts = freeHandTableName.split("\\.");
+        if (parts.length > 3) {
+            throw new DataSetException("Invalid table name [" + freeHandTableName + "]");
+        }
+        String tableNamePart = parts[parts.length - 1];
+
+        MetadataCache cache = metadataManager.getCache();
+        List<Object> key = Arrays.asList(MetadataLookupTableFinder.class, freeHandTableName);
+        TableMetadata tableMetadata = (TableMetadata) cache.getDerived(key);
+        if (tableMetadata != null) {
+            return tableMetadata;
+        }
+        // same name, qualified in another case
+        String upperName = freeHandTableName.toUpperCase(Locale.ENGLISH);
+        List<Object> upperKey = Arrays.asList(MetadataLookupTableFinder.class, "upper", upperName);
+        tableMetadata = (TableMetadata) cache.getDerived(upperKey);
+        if (tableMetadata != null && tableMetadata.tableName.equals(tableNamePart)) {
+            cache.putDerived(key, tableMetadata);
+            return tableMetadata;
+        }
+
+        try {
+            List<TableMetadata> candidates = findCandidates(parts, tableNamePart);
+            if (candidates.isEmpty()) {
+                tableMetadata = super.nameToTable(freeHandTableName);
+            } else if (candidates.size() == 1) {
+                tableMetadata = candidates.get(0);
+                metadataManager.loadColumns(tableMetadata);
+            } else {
+                throw new AmbiguousTableNameException(freeHandTableName);
+            }
+        } catch (SQLException exc) {
+            throw new DataSetException("Exception while retrieving Table Metadata", exc);
+        }
+
+        cache.putDerived(key, tableMetadata);
+        cache.putDerived(upperKey, tableMetadata);
+        return tableMetadata;
+    }
+
+    /**
+     * Returns the tables with exactly the specified name, or else with the name
+     * in another case.
+     */
+    private List<TableMetadata> findCandidates(String[] parts, String tableNamePart) throws SQLException {
+        List<TableMetadata> exactTableNameCandidates = new ArrayList<>();
+        List<TableMetadata> wrongCaseCandidates = new ArrayList<>();
+
+        Set<String> lookups = new LinkedHashSet<>(Arrays.asList(tableNamePart,
+                tableNamePart.toUpperCase(Locale.ENGLISH), tableNamePart.toLowerCase(Locale.ENGLISH)));
+        for (String lookup : lookups) {
+            for (TableMetadata tableMetadata : metadataManager.findTables(lookup)) {
+                if (!schemaMatches(parts, tableMetadata.schemaMetadata)) {
+                    continue;
+                }
+                // the name is a pattern, and case insensitive for some databases
+                if (tableNamePart.equals(tableMetadata.tableName)) {
+                    exactTableNameCandidates.add(tableMetadata);
+                } else if (tableNamePart.equalsIgnoreCase(tableMetadata.tableName)) {
+                    wrongCaseCandidates.add(tableMetadata);
+                }
+            }
+            if (!exactTableNameCandidates.isEmpty() || !wrongCaseCandidates.isEmpty()) {
+                break;
+            }
+        }
+        return exactTableNameCandidates.isEmpty() ? wrongCaseCandidates : exactTableNameCandidates;
+    }
+}
@@ -8,15 +8,20 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 
 import org.dbunit.database.IMetadataHandler;
 import org.dbunit.dataset.datatype.DataTypeException;
+import org.dbunit.util.SQLHelper;
+import org.dbunit.util.jfr.MetadataEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,7 +41,7 @@ public class MetadataManager {
     final String defaultSchema;
 
     final SchemasManager schemasManager;
-    private Map<SchemaMetadata, List<TableMetadata>> schemaTables = new HashMap<>();
+    private final MetadataCache cache;
 
     private String[] tableTypes;
 
@@ -48,12 +53,25 @@ public class MetadataManager {
      */
     public MetadataManager(Connection jdbcConnectione, DatabaseConfig config, String defaultCatalog,
             String defaultSchema) {
+        this(jdbcConnectione, config, defaultCatalog, defaultSchema, new MetadataCache());
+    }
+
+    /**
+     * @param config
+     * @param defaultCatalog
+     * @param defaultSchema
+     * @param cache           where the metadata is kept, can be shared with
+     *                        other managers of the same database
+     */
+    public MetadataManager(Connection jdbcConnectione, DatabaseConfig config, String defaultCatalog,
+            String defaultSchema, MetadataCache cache) {
         this.jdbcConnectione = jdbcConnectione;
         this.config = config;
         this.metadataHandler = config.getMetadataHandler();
         this.defaultCatalog = defaultCatalog;
         this.defaultSchema = defaultSchema;
-        schemasManager = new SchemasManager(jdbcConnectione);
+        this.cache = cache;
+        schemasManager = new SchemasManager(jdbcConnectione, cache);
 
         // TODO: should not load it here, instead once somewhere outside.
 //        this.tableTypes = loadTableTypes(jdbcConnectione);
@@ -93,15 +111,21 @@ public class MetadataManager {
         return tableTypes;
     }
 
+    public MetadataCache getCache() {
+        useSnapshot();
+        return cache;
+    }
+
     public DatabaseMetaData getMetaData() throws SQLException {
         return jdbcConnectione.getMetaData();
     }
 
     public List<TableMetadata> getTables(SchemaMetadata schemaMetadata) throws SQLException {
+        useSnapshot();
         if (schemaMetadata == null) {
             Set<SchemaMetadata> allSchemas = schemasManager.getAllSchemas();
             Set<SchemaMetadata> schemasToLoad = new HashSet<>(allSchemas);
-            schemasToLoad.removeAll(schemaTables.keySet());
+            schemasToLoad.removeAll(cache.schemaTables.keySet());
 
             if (!schemasToLoad.isEmpty()) {
                 LOGGER.warn("Whole database metadata requested, could be very expensive");
@@ -111,13 +135,13 @@ public class MetadataManager {
             }
 
             List<TableMetadata> result = new ArrayList<>();
-            for (List<TableMetadata> tables : schemaTables.values()) {
+            for (List<TableMetadata> tables : cache.schemaTables.values()) {
                 result.addAll(tables);
             }
             return result;
         }
 
-        List<TableMetadata> tableMetadatas = schemaTables.get(schemaMetadata);
+        List<TableMetadata> tableMetadatas = cache.schemaTables.get(schemaMetadata);
         if (tableMetadatas != null) {
             return tableMetadatas;
         }
@@ -146,6 +170,7 @@ public class MetadataManager {
      * @throws SQLException
      */
     private List<TableMetadata> loadSchemaTables(SchemaMetadata schema) throws SQLException {
+        MetadataEvent event = config.isJfrEvents() ? MetadataEvent.start() : null;
         DatabaseMetaData databaseMetaData = jdbcConnectione.getMetaData();
         String[] tableTypes = config.getTableTypes();
         IgnoredTablePredicate ignoredTablePredicate = config.getIgnoredTablePredicate();
@@ -164,15 +189,79 @@ public class MetadataManager {
             resultSet.close();
         }
 
-        schemaTables.put(schema, tableMetadatas);
+        if (event != null) {
+            event.commit(MetadataEvent.TABLES, schema.schema, null, tableMetadatas.size());
+        }
+        // another connection sharing the cache may have loaded them meanwhile
+        List<TableMetadata> loaded = cache.schemaTables.putIfAbsent(schema, tableMetadatas);
+        return loaded != null ? loaded : tableMetadatas;
+    }
+
+    /**
+     * Looks up the tables with the specified name in all schemas, without
+     * loading the other tables. Tables of schemas already loaded are returned as
+     * cached.
+     *
+     * @param tableName the name of the tables, <code>_</code> and <code>%</code>
+     *                  are wildcards
+     * @return the tables matching the name, to be checked by the caller
+     * @throws SQLException
+     */
+    public List<TableMetadata> findTables(String tableName) throws SQLException {
+        useSnapshot();
+        MetadataEvent event = config.isJfrEvents() ? MetadataEvent.start() : null;
+        DatabaseMetaData databaseMetaData = jdbcConnectione.getMetaData();
+        IgnoredTablePredicate ignoredTablePredicate = config.getIgnoredTablePredicate();
+        Set<SchemaMetadata> allSchemas = schemasManager.getAllSchemas();
+
+        List<TableMetadata> tableMetadatas = new ArrayList<>();
+        try ( //
+                ResultSet resultSet = databaseMetaData.getTables(null, null, tableName, config.getTableTypes()); //
+        ) {
+            while (resultSet.next()) {
+                TableMetadata tableMetadata = toTableMetadata(resultSet);
+                if (!allSchemas.contains(tableMetadata.schemaMetadata)
+                        || ignoredTablePredicate.shouldIgnore(tableMetadata)) {
+                    continue;
+                }
+                tableMetadatas.add(getCachedTable(tableMetadata));
+            }
+        }
+
+        if (event != null) {
+            event.commit(MetadataEvent.TABLES, null, tableName, tableMetadatas.size());
+        }
         return tableMetadatas;
     }
 
+    /**
+     * Returns the instance of a looked up table already known, which may have
+     * its columns loaded.
+     */
+    private TableMetadata getCachedTable(TableMetadata tableMetadata) {
+        List<TableMetadata> tables = cache.schemaTables.get(tableMetadata.schemaMetadata);
+        if (tables != null) {
+            for (TableMetadata table : tables) {
+                if (table.tableName.equals(tableMetadata.tableName)) {
+                    return table;
+                }
+            }
+        }
+        List<Object> key = Arrays.asList(TableMetadata.class, tableMetadata.schemaMetadata, tableMetadata.tableName);
+        TableMetadata table = (TableMetadata) cache.getDerived(key);
+        if (table != null) {
+            return table;
+        }
+        cache.putDerived(key, tableMetadata);
+        return tableMetadata;
+    }
+
     /**
      * @param schema
      * @return
      */
     public SchemaMetadata findSchema(String schema) {
+        useSnapshot();
         return schemasManager.findSchema(schema);
     }
 
@@ -183,10 +272,18 @@ public class MetadataManager {
      */
     public void loadColumns(TableMetadata tableMetadata) throws SQLException, DataTypeException {
 
+        useSnapshot();
         if (tableMetadata.columns != null) {
             return;
         }
+        if (config.isBulkMetadata()) {
+            getBulkLoadedTable(tableMetadata);
+            if (tableMetadata.columns != null) {
+                return;
+            }
+        }
 
+        MetadataEvent event = config.isJfrEvents() ? MetadataEvent.start() : null;
         DatabaseMetaData databaseMetaData = jdbcConnectione.getMetaData();
 
         List<ColumnMetadata> columns = new ArrayList<>();
@@ -204,5 +301,131 @@ public class MetadataManager {
         }
 
         tableMetadata.columns = columns.toArray(new ColumnMetadata[columns.size()]);
+        if (event != null) {
+            event.commit(MetadataEvent.COLUMNS, tableMetadata.schemaMetadata.schema, tableMetadata.tableName,
+                    columns.size());
+        }
+    }
+
+    /**
+     * Returns the cached metadata of the specified table with its columns and
+     * primary keys, which are loaded for the whole schema of the table on first
+     * use.
+     *
+     * @param tableMetadata
+     * @return the loaded table, or <code>null</code> if it is not one of the
+     *         tables listed for its schema
+     * @throws SQLException
+     */
+    public TableMetadata getBulkLoadedTable(TableMetadata tableMetadata) throws SQLException {
+        useSnapshot();
+        SchemaMetadata schema = tableMetadata.schemaMetadata;
+        Map<String, TableMetadata> tables = cache.bulkLoadedTables.get(schema);
+        if (tables == null) {
+            // loaded once for all connections sharing the cache
+            synchronized (cache) {
+                tables = cache.bulkLoadedTables.get(schema);
+                if (tables == null) {
+                    tables = new HashMap<>();
+                    for (TableMetadata table : getTables(schema)) {
+                        tables.put(table.tableName, table);
+                    }
+                    loadSchemaColumns(schema, tables);
+                    loadSchemaPrimaryKeys(schema, tables);
+                    cache.bulkLoadedTables.put(schema, tables);
+                }
+            }
+        }
+        return tables.get(tableMetadata.tableName);
+    }
+
+    private void loadSchemaColumns(SchemaMetadata schema, Map<String, TableMetadata> tables) throws SQLException {
+        MetadataEvent event = config.isJfrEvents() ? MetadataEvent.start() : null;
+        DatabaseMetaData databaseMetaData = jdbcConnectione.getMetaData();
+
+        Map<String, List<ColumnMetadata>> tableColumns = new HashMap<>();
+        int rowCount = 0;
+        try ( //
+                ResultSet rs = databaseMetaData.getColumns(schema.catalog, schema.schema, "%", "%"); //
+        ) {
+            while (rs.next()) {
+                TableMetadata table = tables.get(rs.getString(3));
+                if (table == null || !inSchema(rs, schema)) {
+                    continue;
+                }
+                tableColumns.computeIfAbsent(table.tableName, name -> new ArrayList<>())
+                        .add(SQLHelper.createColumnMetadata(rs));
+                rowCount++;
+            }
+        }
+
+        for (TableMetadata table : tables.values()) {
+            List<ColumnMetadata> columns = tableColumns.getOrDefault(table.tableName, new ArrayList<>());
+            table.columns = columns.toArray(new ColumnMetadata[columns.size()]);
+        }
+        if (event != null) {
+            event.commit(MetadataEvent.COLUMNS, schema.schema, null, rowCount);
+        }
+    }
+
+    private void loadSchemaPrimaryKeys(SchemaMetadata schema, Map<String, TableMetadata> tables)
+            throws SQLException {
+        MetadataEvent event = config.isJfrEvents() ? MetadataEvent.start() : null;
+        DatabaseMetaData databaseMetaData = jdbcConnectione.getMetaData();
+
+        Map<String, SortedMap<Integer, String>> tableKeys = new HashMap<>();
+        int rowCount = 0;
+        ResultSet rs;
+        try {
+            rs = metadataHandler.getSchemaPrimaryKeys(databaseMetaData, schema.catalog, schema.schema);
+        } catch (SQLException exc) {
+            LOGGER.debug("Primary keys of schema {} can not be loaded at once, looking them up per table",
+                    schema.schema, exc);
+            return;
+        }
+        try {
+            while (rs.next()) {
+                TableMetadata table = tables.get(rs.getString(3));
+                if (table == null || !inSchema(rs, schema)) {
+                    continue;
+                }
+                tableKeys.computeIfAbsent(table.tableName, name -> new TreeMap<>()).put(rs.getInt(5),
+                        rs.getString(4));
+                rowCount++;
+            }
+        } finally {
+            rs.close();
+        }
+
+        // some drivers silently return nothing without a table name
+        if (tableKeys.isEmpty()) {
+            return;
+        }
+        for (TableMetadata table : tables.values()) {
+            SortedMap<Integer, String> keys = tableKeys.getOrDefault(table.tableName, new TreeMap<>());
+            table.primaryKeys = keys.values().toArray(new String[keys.size()]);
+        }
+        if (event != null) {
+            event.commit(MetadataEvent.PRIMARY_KEYS, schema.schema, null, rowCount);
+        }
+    }
+
+    /**
+     * Fills the cache from the metadata snapshot, when configured, before the
+     * first lookup.
+     */
+    private void useSnapshot() {
+        if (config.getMetadataSnapshotDirectory() != null) {
+            cache.useSnapshot(jdbcConnectione, defaultSchema, config);
+        }
+    }
+
+    /**
+     * Checks the schema of a metadata row, the schema name is a pattern in the
+     * lookup.
+     */
+    private static boolean inSchema(ResultSet rs, SchemaMetadata schema) throws SQLException {
+        return (schema.catalog == null || schema.catalog.equals(rs.getString(1)))
+                && (schema.schema == null || schema.schema.equals(rs.getString(2)));
     }
 }
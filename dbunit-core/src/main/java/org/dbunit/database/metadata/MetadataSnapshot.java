@@ -0,0 +1,385 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dbunit.database.DatabaseSequenceFilter;
+import org.dbunit.database.DatabaseTableMetaData;
+import org.dbunit.database.IMetadataHandler;
+import org.dbunit.database.search.ForeignKeyGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+/**
+ * File keeping the content of a {@link MetadataCache} between JVMs, so that
+ * every test JVM of a build does not crawl the same metadata again.
+ * <p>
+ * The snapshot is only read when its fingerprint matches the database. The
+ * fingerprint is computed from the table settings of the configuration, the
+ * tables kept by its ignored table predicate, and a user supplied version of the
+ * database structure, like the last applied migration, or else from the columns,
+ * primary keys and foreign keys of the schema, read by one metadata query each.
+ * Snapshots are written when the JVM exits.
+ */
+final class MetadataSnapshot {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataSnapshot.class);
+
+    /**
+     * Changed whenever the content of the snapshots changes.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final Map<File, MetadataCache> TO_WRITE = new ConcurrentHashMap<>();
+
+    /**
+     * The classes of the cached metadata and of the keys of derived values,
+     * including the classes identifying the derived values.
+     */
+    private static final Set<String> SNAPSHOT_CLASSES = new HashSet<>(Arrays.asList( //
+            String.class.getName(), Boolean.class.getName(), Number.class.getName(), Integer.class.getName(), //
+            ArrayList.class.getName(), HashMap.class.getName(), HashSet.class.getName(), //
+            SchemaMetadata.class.getName(), TableMetadata.class.getName(), ColumnMetadata.class.getName(),
+            ForeignKeyGraph.class.getName(), //
+            MetadataManager.class.getName(), MetadataLookupTableFinder.class.getName(),
+            DatabaseTableMetaData.class.getName(), DatabaseSequenceFilter.class.getName()));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(MetadataSnapshot::writeAll, "dbunit-metadata-snapshot"));
+    }
+
+    private final File file;
+    private final String fingerprint;
+
+    MetadataSnapshot(File file, String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the snapshot of the database of the specified connection.
+     *
+     * @param schema the default schema of the cache, can be <code>null</code>
+     *               for the current schema of the connection
+     * @param config the configuration with the snapshot directory and version,
+     *               and the table settings
+     * @return the snapshot, or <code>null</code> if no version is configured
+     *         and the schema is unknown, the fingerprint would require the
+     *         metadata of the whole database
+     */
+    static MetadataSnapshot of(Connection jdbcConnection, String schema, DatabaseConfig config)
+            throws SQLException {
+        DatabaseMetaData databaseMetaData = jdbcConnection.getMetaData();
+        String name = hash(databaseMetaData.getURL(), databaseMetaData.getUserName(), schema).substring(0, 16);
+        File file = new File(config.getMetadataSnapshotDirectory(), "dbunit-metadata-" + name + ".snapshot");
+        String cachedSchema = schema != null ? schema : jdbcConnection.getSchema();
+        String version = config.getMetadataSnapshotVersion();
+        if (cachedSchema == null && version == null) {
+            LOGGER.info("No metadata snapshot version configured and the schema is unknown, not using {}", file);
+            return null;
+        }
+
+        MessageDigest digest = newDigest();
+        update(digest, Integer.toString(FORMAT_VERSION));
+        update(digest, Arrays.toString(config.getTableTypes()));
+        update(digest, version);
+        if (cachedSchema != null) {
+            updateTables(digest, databaseMetaData, cachedSchema, config);
+        }
+        if (version == null) {
+            try ( //
+                    ResultSet rs = databaseMetaData.getColumns(null, cachedSchema, "%", "%"); //
+            ) {
+                update(digest, rs, 7);
+            }
+            IMetadataHandler metadataHandler = config.getMetadataHandler();
+            try ( //
+                    ResultSet rs = metadataHandler.getSchemaPrimaryKeys(databaseMetaData, null, cachedSchema); //
+            ) {
+                update(digest, rs, 6);
+            }
+            try ( //
+                    ResultSet rs = metadataHandler.getSchemaImportedKeys(databaseMetaData, null, cachedSchema); //
+            ) {
+                update(digest, rs, 9);
+            }
+        }
+        return new MetadataSnapshot(file, toHex(digest.digest()));
+    }
+
+    /**
+     * Adds the tables of the schema kept by the ignored table predicate, which
+     * can not be compared otherwise.
+     */
+    private static void updateTables(MessageDigest digest, DatabaseMetaData databaseMetaData, String schema,
+            DatabaseConfig config) throws SQLException {
+        IgnoredTablePredicate ignoredTablePredicate = config.getIgnoredTablePredicate();
+        try ( //
+                ResultSet rs = databaseMetaData.getTables(null, schema, "%", config.getTableTypes()); //
+        ) {
+            while (rs.next()) {
+                TableMetadata table = new TableMetadata(new SchemaMetadata(rs.getString(1), rs.getString(2)),
+                        rs.getString(3), rs.getString(4));
+                if (!ignoredTablePredicate.shouldIgnore(table)) {
+                    update(digest, table.schemaMetadata.catalog);
+                    update(digest, table.schemaMetadata.schema);
+                    update(digest, table.tableName);
+                    update(digest, table.tableType);
+                }
+            }
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Fills the cache with the snapshot, if it exists and matches the database.
+     *
+     * @return whether the cache was filled
+     */
+    boolean read(MetadataCache cache) {
+        if (!file.isFile()) {
+            LOGGER.debug("No metadata snapshot {}", file);
+            return false;
+        }
+        try ( //
+                ObjectInputStream in = new SnapshotInputStream(new BufferedInputStream(new FileInputStream(file))); //
+        ) {
+            if (in.readInt() != FORMAT_VERSION || !fingerprint.equals(in.readUTF())) {
+                LOGGER.info("Metadata snapshot {} is outdated, reading the metadata from the database", file);
+                return false;
+            }
+            Set<SchemaMetadata> schemas = readObject(in);
+            Map<SchemaMetadata, List<TableMetadata>> schemaTables = readObject(in);
+            Map<SchemaMetadata, Map<String, TableMetadata>> bulkLoadedTables = readObject(in);
+            Map<Object, Object> derived = readObject(in);
+
+            if (cache.schemas == null && schemas != null) {
+                cache.schemas = Collections.unmodifiableSet(schemas);
+            }
+            schemaTables.forEach(cache.schemaTables::putIfAbsent);
+            bulkLoadedTables.forEach(cache.bulkLoadedTables::putIfAbsent);
+            derived.forEach(cache.derived::putIfAbsent);
+            LOGGER.debug("Read metadata snapshot {}", file);
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException exc) {
+            LOGGER.warn("Unable to read metadata snapshot {}, reading the metadata from the database", file, exc);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the content of the cache to the snapshot when the JVM exits.
+     */
+    void writeOnExit(MetadataCache cache) {
+        TO_WRITE.put(file, cache);
+    }
+
+    private static void writeAll() {
+        for (MetadataCache cache : TO_WRITE.values()) {
+            cache.writeSnapshot();
+        }
+    }
+
+    /**
+     * Writes the content of the cache, replacing the snapshot at once so that
+     * JVMs reading it concurrently see either the old or the new one.
+     */
+    void write(MetadataCache cache) {
+        Set<SchemaMetadata> schemas = cache.schemas;
+        if (schemas == null && cache.schemaTables.isEmpty() && cache.derived.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            File tmpFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            try {
+                try ( //
+                        ObjectOutputStream out = new ObjectOutputStream(
+                                new BufferedOutputStream(new FileOutputStream(tmpFile))); //
+                ) {
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(fingerprint);
+                    out.writeObject(schemas == null ? null : new HashSet<>(schemas));
+                    Map<SchemaMetadata, List<TableMetadata>> schemaTables = new HashMap<>();
+                    cache.schemaTables.forEach((schema, tables) -> schemaTables.put(schema, new ArrayList<>(tables)));
+                    out.writeObject(schemaTables);
+                    Map<SchemaMetadata, Map<String, TableMetadata>> bulkLoadedTables = new HashMap<>();
+                    cache.bulkLoadedTables
+                            .forEach((schema, tables) -> bulkLoadedTables.put(schema, new HashMap<>(tables)));
+                    out.writeObject(bulkLoadedTables);
+                    out.writeObject(snapshotEntries(cache.derived));
+                }
+                try {
+                    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException exc) {
+                    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                LOGGER.debug("Wrote metadata snapshot {}", file);
+            } finally {
+                Files.deleteIfExists(tmpFile.toPath());
+            }
+        } catch (IOException exc) {
+            LOGGER.warn("Unable to write metadata snapshot {}", file, exc);
+        }
+    }
+
+    /**
+     * Derived values are written only if they and their keys are made of the
+     * classes a snapshot can contain, values of other classes are computed
+     * again. Lists are written as {@link ArrayList}s, which are equal to them.
+     */
+    private static Map<Object, Object> snapshotEntries(Map<Object, Object> derived) {
+        Map<Object, Object> entries = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : derived.entrySet()) {
+            if (isSnapshotValue(entry.getKey()) && isSnapshotValue(entry.getValue())) {
+                entries.put(toArrayLists(entry.getKey()), toArrayLists(entry.getValue()));
+            } else {
+                LOGGER.debug("Not writing {} to the metadata snapshot", entry.getKey());
+            }
+        }
+        return entries;
+    }
+
+    private static boolean isSnapshotValue(Object value) {
+        if (value == null) {
+            return true;
+        }
+        if (value instanceof Class) {
+            return SNAPSHOT_CLASSES.contains(((Class<?>) value).getName());
+        }
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (!isSnapshotValue(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        Class<?> type = value.getClass();
+        return SNAPSHOT_CLASSES.contains(type.isArray() ? type.getComponentType().getName() : type.getName());
+    }
+
+    private static Object toArrayLists(Object value) {
+        if (!(value instanceof List)) {
+            return value;
+        }
+        List<Object> list = new ArrayList<>();
+        for (Object element : (List<?>) value) {
+            list.add(toArrayLists(element));
+        }
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        return (T) in.readObject();
+    }
+
+    private static String hash(String... values) {
+        MessageDigest digest = newDigest();
+        for (String value : values) {
+            update(digest, value);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exc) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    private static void update(MessageDigest digest, ResultSet rs, int columnCount) throws SQLException {
+        while (rs.next()) {
+            for (int i = 1; i <= columnCount; i++) {
+                update(digest, rs.getString(i));
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Only reads the classes written to snapshots, a snapshot is not trusted
+     * more than any other file.
+     */
+    private static final class SnapshotInputStream extends ObjectInputStream {
+
+        SnapshotInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            int start = 0;
+            while (start < name.length() && name.charAt(start) == '[') {
+                start++;
+            }
+            if (start > 0 && name.endsWith(";")) {
+                // array of objects
+                name = name.substring(start + 1, name.length() - 1);
+            } else if (start > 0) {
+                // array of primitives
+                return super.resolveClass(desc);
+            }
+            if (SNAPSHOT_CLASSES.contains(name)) {
+                return super.resolveClass(desc);
+            }
+            throw new InvalidClassException(desc.getName(), "not allowed in a metadata snapshot");
+        }
+    }
+}
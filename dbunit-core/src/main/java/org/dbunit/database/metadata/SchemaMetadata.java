@@ -3,12 +3,15 @@
  */
 package org.dbunit.database.metadata;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * Stores Jdbc Schema id
  */
-public class SchemaMetadata {
+public class SchemaMetadata implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public final String catalog;
     public final String schema;
@@ -10,7 +10,9 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.dbunit.DatabaseUnitRuntimeException;
@@ -21,10 +23,13 @@ import org.dbunit.DatabaseUnitRuntimeException;
 public class SchemasManager {
 
     final Connection jdbcConnectione;
+    private final MetadataCache cache;
     // TODO: this needs to be coming from DB config
     private Set<SchemaMetadata> systemSchemas = new HashSet<>(
             asList(new SchemaMetadata(null, "INFORMATION_SCHEMA"), new SchemaMetadata(null, "SYSTEM_LOBS")));
     private Set<SchemaMetadata> allSchemas;
+    private Map<String, SchemaMetadata> schemasByName;
+    private Map<String, SchemaMetadata> schemasByCatalog;
 
     private static enum NameCase {
         UPPER, LOWER, MIXED;
@@ -36,11 +41,22 @@ public class SchemasManager {
      * @param jdbcConnectione
      */
     public SchemasManager(Connection jdbcConnectione) {
+        this(jdbcConnectione, new MetadataCache());
+    }
+
+    /**
+     * @param jdbcConnectione
+     * @param cache           where the schemas are kept, can be shared with other
+     *                        managers of the same database
+     */
+    public SchemasManager(Connection jdbcConnectione, MetadataCache cache) {
         this.jdbcConnectione = jdbcConnectione;
+        this.cache = cache;
     }
 
-    public Set<SchemaMetadata> getAllSchemas() {
-        if (allSchemas == null) {
+    public synchronized Set<SchemaMetadata> getAllSchemas() {
+        Set<SchemaMetadata> cachedSchemas = cache.schemas;
+        if (cachedSchemas == null) {
             Set<SchemaMetadata> schemas = new HashSet<>();
             try {
                 DatabaseMetaData databaseMetaData = jdbcConnectione.getMetaData();
@@ -56,8 +72,22 @@ public class SchemasManager {
             } catch (SQLException exc) {
                 throw new RuntimeException(exc);
             }
-            allSchemas = unmodifiableSet(schemas);
+            cachedSchemas = unmodifiableSet(schemas);
+            cache.schemas = cachedSchemas;
+        }
+        if (cachedSchemas != allSchemas) {
+            allSchemas = cachedSchemas;
             schemaNamesCase = calculateSchemaNameCase();
+            schemasByName = new HashMap<>();
+            schemasByCatalog = new HashMap<>();
+            for (SchemaMetadata schemaMetadata : allSchemas) {
+                if (schemaMetadata.schema != null) {
+                    schemasByName.putIfAbsent(schemaMetadata.schema, schemaMetadata);
+                }
+                if (schemaMetadata.catalog != null) {
+                    schemasByCatalog.putIfAbsent(schemaMetadata.catalog, schemaMetadata);
+                }
+            }
         }
         return allSchemas;
     }
@@ -122,15 +152,14 @@ public class SchemasManager {
         return name;
     }
 
-    public SchemaMetadata findSchema(String catalog, String schema) {
+    public synchronized SchemaMetadata findSchema(String catalog, String schema) {
+        Set<SchemaMetadata> schemas = getAllSchemas();
         catalog = adjustName(catalog);
         schema = adjustName(schema);
         SchemaMetadata candidate = new SchemaMetadata(catalog, schema);
 
-        for (SchemaMetadata schemaMetadata : getAllSchemas()) {
-            if (candidate.equals(schemaMetadata)) {
-                return schemaMetadata;
-            }
+        if (schemas.contains(candidate)) {
+            return candidate;
         }
 
         throw new DatabaseUnitRuntimeException("Unable to find schema=[" + schema + "], catalog=[" + catalog + "]");
@@ -140,19 +169,16 @@ public class SchemasManager {
      * @param schema
      * @return
      */
-    public SchemaMetadata findSchema(String schema) {
+    public synchronized SchemaMetadata findSchema(String schema) {
+        getAllSchemas();
         schema = adjustName(schema);
 
-        for (SchemaMetadata schemaMetadata : getAllSchemas()) {
-            if (schema.equals(schemaMetadata.schema)) {
-                return schemaMetadata;
-            }
+        SchemaMetadata schemaMetadata = schemasByName.get(schema);
+        if (schemaMetadata == null) {
+            schemaMetadata = schemasByCatalog.get(schema);
         }
-
-        for (SchemaMetadata schemaMetadata : getAllSchemas()) {
-            if (schema.equals(schemaMetadata.catalog)) {
-                return schemaMetadata;
-            }
+        if (schemaMetadata != null) {
+            return schemaMetadata;
         }
 
         throw new DatabaseUnitRuntimeException("Unable to find schema=[" + schema + "]");
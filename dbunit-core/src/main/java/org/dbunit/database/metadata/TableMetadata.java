@@ -3,13 +3,18 @@
  */
 package org.dbunit.database.metadata;
 
-public class TableMetadata {
+import java.io.Serializable;
+
+public class TableMetadata implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public final SchemaMetadata schemaMetadata;
     public final String tableName;
     public final String tableType;
 
-    ColumnMetadata[] columns;
+    volatile ColumnMetadata[] columns;
+    volatile String[] primaryKeys;
 
     public TableMetadata(SchemaMetadata schema, String tableName, String tableType) {
         this.schemaMetadata = schema;
@@ -20,4 +25,12 @@ public class TableMetadata {
     public ColumnMetadata[] getColumns() {
         return columns;
     }
+
+    /**
+     * Returns the primary key column names in key order, or <code>null</code> if
+     * not loaded.
+     */
+    public String[] getPrimaryKeys() {
+        return primaryKeys;
+    }
 }
@@ -231,7 +231,7 @@ public abstract class AbstractMetaDataBasedSearchCallback extends AbstractNodesF
      * @param pkColumn name of the primary key column
      * @return edge representing the relationship between the 2 tables, according to
      *         the type
-     * @throws SearchException not thrown in this method (but might on sub-classes)
+     * @throws SearchException if the name of the foreign key can not be read
      */
     protected static ForeignKeyRelationshipEdge createFKEdge(ResultSet rs, int type, String from, String to,
             String fkColumn, String pkColumn) throws SearchException {
@@ -240,8 +240,14 @@ public abstract class AbstractMetaDataBasedSearchCallback extends AbstractNodesF
                     String.valueOf(type), from, to, fkColumn, pkColumn);
         }
 
-        return type == IMPORT ? new ForeignKeyRelationshipEdge(from, to, fkColumn, pkColumn)
-                : new ForeignKeyRelationshipEdge(to, from, fkColumn, pkColumn);
+        String keyName;
+        try {
+            keyName = rs.getString(12);
+        } catch (SQLException e) {
+            throw new SearchException(e);
+        }
+        return type == IMPORT ? new ForeignKeyRelationshipEdge(from, to, fkColumn, pkColumn, keyName)
+                : new ForeignKeyRelationshipEdge(to, from, fkColumn, pkColumn, keyName);
     }
 
     /**
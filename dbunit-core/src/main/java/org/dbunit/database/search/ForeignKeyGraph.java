@@ -0,0 +1,435 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.search;
+
+import java.io.Serializable;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.dbunit.database.CyclicTablesDependencyException;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.database.IMetadataHandler;
+import org.dbunit.util.QualifiedTableName;
+import org.dbunit.util.jfr.MetadataEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+/**
+ * Foreign key dependencies between tables, with the tables numbered and the
+ * dependencies of each table stored in one array. The tables are named like
+ * in the datasets, qualified with their schema if
+ * {@link DatabaseConfig#isQualifiedTableNames()}.
+ * <p>
+ * The graph of a schema is loaded with a single metadata query, see
+ * {@link IMetadataHandler#getSchemaImportedKeys(DatabaseMetaData, String, String)}.
+ */
+public class ForeignKeyGraph implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(ForeignKeyGraph.class);
+
+    private final String[] tableNames;
+    private final Map<String, Integer> indexes;
+    // the tables table i depends on are dependsOn[dependsOnStart[i]] to
+    // dependsOn[dependsOnStart[i + 1] - 1]
+    private final int[] dependsOnStart;
+    private final int[] dependsOn;
+    private final boolean complete;
+
+    private ForeignKeyGraph(String[] tableNames, Map<String, Integer> indexes, int[] dependsOnStart,
+            int[] dependsOn, boolean complete) {
+        this.tableNames = tableNames;
+        this.indexes = indexes;
+        this.dependsOnStart = dependsOnStart;
+        this.dependsOn = dependsOn;
+        this.complete = complete;
+    }
+
+    /**
+     * Loads the foreign keys of all tables of a schema. If the driver does not
+     * return them without a table name, only the foreign keys of the specified
+     * tables are looked up, one table at a time.
+     *
+     * @param connection
+     * @param schema     the schema, or <code>null</code> for all schemas
+     * @param tableNames the tables of the schema to order
+     * @return the graph
+     * @throws SQLException
+     */
+    public static ForeignKeyGraph load(IDatabaseConnection connection, String schema, Collection<String> tableNames)
+            throws SQLException {
+        logger.debug("load(connection={}, schema={}) - start", connection, schema);
+
+        DatabaseConfig config = connection.getDatabaseConfig();
+        MetadataEvent event = config.isJfrEvents() ? MetadataEvent.start() : null;
+        DatabaseMetaData metaData = connection.getConnection().getMetaData();
+        IMetadataHandler metadataHandler = config.getMetadataHandler();
+        Builder builder = new Builder();
+        int rowCount = 0;
+        boolean loadedAtOnce = false;
+        try ( //
+                ResultSet rs = metadataHandler.getSchemaImportedKeys(metaData, null, schema); //
+        ) {
+            while (rs.next()) {
+                // the schema is a pattern
+                if (schema == null || schema.equals(rs.getString(6))) {
+                    builder.addForeignKey(rs, config);
+                    rowCount++;
+                }
+            }
+            loadedAtOnce = true;
+        } catch (SQLException exc) {
+            logger.debug("Foreign keys of schema {} can not be loaded at once, looking them up per table", schema,
+                    exc);
+        }
+        // some drivers silently return nothing without a table name, the keys
+        // are then looked up per table; a schema without foreign keys is
+        // complete when no table has any either
+        boolean complete = loadedAtOnce;
+        if (builder.isEmpty()) {
+            int tableRowCount = 0;
+            for (String tableName : tableNames) {
+                QualifiedTableName qualifiedTableName = new QualifiedTableName(tableName, schema);
+                try ( //
+                        ResultSet rs = metadataHandler.getImportedKeys(metaData, qualifiedTableName.getSchema(),
+                                qualifiedTableName.getTable()); //
+                ) {
+                    while (rs.next()) {
+                        builder.addForeignKey(rs, config);
+                        tableRowCount++;
+                    }
+                }
+            }
+            complete &= tableRowCount == 0;
+            rowCount += tableRowCount;
+        }
+
+        if (event != null) {
+            event.commit(MetadataEvent.FOREIGN_KEYS, schema, null, rowCount);
+        }
+        return builder.build(complete);
+    }
+
+    /**
+     * Returns whether all foreign keys of the schema were loaded, not only those
+     * of some tables.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns a graph with the tables and foreign keys of all specified graphs.
+     */
+    public static ForeignKeyGraph merge(Collection<ForeignKeyGraph> graphs) {
+        if (graphs.size() == 1) {
+            return graphs.iterator().next();
+        }
+        Builder builder = new Builder();
+        boolean complete = true;
+        for (ForeignKeyGraph graph : graphs) {
+            for (int table = 0; table < graph.tableNames.length; table++) {
+                builder.addTable(graph.tableNames[table]);
+                for (int i = graph.dependsOnStart[table]; i < graph.dependsOnStart[table + 1]; i++) {
+                    builder.addForeignKey(graph.tableNames[table], graph.tableNames[graph.dependsOn[i]]);
+                }
+            }
+            complete &= graph.complete;
+        }
+        return builder.build(complete);
+    }
+
+    /**
+     * Orders the specified tables so that every table comes after the tables it
+     * depends on, also through tables not in the list. Tables without
+     * dependencies between them keep their order. Tables the graph does not know
+     * have no dependencies.
+     *
+     * @param tableNames    the tables to order
+     * @param caseSensitive whether the table names are compared case sensitive
+     * @return the ordered table names
+     * @throws CyclicTablesDependencyException if tables of the list depend on
+     *                                         each other, the message lists the
+     *                                         tables of the cycle
+     */
+    public String[] sort(String[] tableNames, boolean caseSensitive) throws CyclicTablesDependencyException {
+        int graphSize = this.tableNames.length;
+        Map<String, Integer> upperIndexes = null;
+        if (!caseSensitive) {
+            upperIndexes = new HashMap<>();
+            for (int table = 0; table < graphSize; table++) {
+                upperIndexes.putIfAbsent(this.tableNames[table].toUpperCase(Locale.ENGLISH), table);
+            }
+        }
+
+        // tables unknown to the graph are added after its tables
+        int nodeCount = graphSize;
+        int[] inputNodes = new int[tableNames.length];
+        for (int input = 0; input < tableNames.length; input++) {
+            Integer node = indexes.get(tableNames[input]);
+            if (node == null && upperIndexes != null) {
+                node = upperIndexes.get(tableNames[input].toUpperCase(Locale.ENGLISH));
+            }
+            inputNodes[input] = node != null ? node : nodeCount++;
+        }
+
+        int[] components = findComponents(nodeCount);
+        int componentCount = 0;
+        for (int component : components) {
+            componentCount = Math.max(componentCount, component + 1);
+        }
+
+        // the first listed table of each component, it is ordered by that
+        int[] priorities = new int[componentCount];
+        Arrays.fill(priorities, Integer.MAX_VALUE);
+        int[] sizes = new int[componentCount];
+        for (int node = 0; node < nodeCount; node++) {
+            sizes[components[node]]++;
+        }
+        for (int input = tableNames.length - 1; input >= 0; input--) {
+            priorities[components[inputNodes[input]]] = input;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            if (sizes[component] > 1 && priorities[component] != Integer.MAX_VALUE) {
+                throw new CyclicTablesDependencyException(tableNames[priorities[component]],
+                        getComponentTables(components, component));
+            }
+        }
+
+        // Kahn's algorithm on the acyclic graph of the components
+        int[] pending = new int[componentCount];
+        int[] dependentsStart = new int[componentCount + 1];
+        for (int node = 0; node < graphSize; node++) {
+            for (int i = dependsOnStart[node]; i < dependsOnStart[node + 1]; i++) {
+                int component = components[node];
+                int dependsOnComponent = components[dependsOn[i]];
+                if (component != dependsOnComponent) {
+                    pending[component]++;
+                    dependentsStart[dependsOnComponent + 1]++;
+                }
+            }
+        }
+        for (int component = 0; component < componentCount; component++) {
+            dependentsStart[component + 1] += dependentsStart[component];
+        }
+        int[] dependents = new int[dependentsStart[componentCount]];
+        int[] dependentsEnd = Arrays.copyOf(dependentsStart, componentCount);
+        for (int node = 0; node < graphSize; node++) {
+            for (int i = dependsOnStart[node]; i < dependsOnStart[node + 1]; i++) {
+                int component = components[node];
+                int dependsOnComponent = components[dependsOn[i]];
+                if (component != dependsOnComponent) {
+                    dependents[dependentsEnd[dependsOnComponent]++] = component;
+                }
+            }
+        }
+
+        // listed tables of each component, in list order
+        int[] firstInputs = new int[componentCount];
+        Arrays.fill(firstInputs, -1);
+        int[] nextInputs = new int[tableNames.length];
+        for (int input = tableNames.length - 1; input >= 0; input--) {
+            int component = components[inputNodes[input]];
+            nextInputs[input] = firstInputs[component];
+            firstInputs[component] = input;
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>(
+                (c1, c2) -> priorities[c1] != priorities[c2] ? Integer.compare(priorities[c1], priorities[c2])
+                        : Integer.compare(c1, c2));
+        for (int component = 0; component < componentCount; component++) {
+            if (pending[component] == 0) {
+                ready.add(component);
+            }
+        }
+        String[] sortedTableNames = new String[tableNames.length];
+        int sortedCount = 0;
+        while (!ready.isEmpty()) {
+            int component = ready.poll();
+            for (int input = firstInputs[component]; input >= 0; input = nextInputs[input]) {
+                sortedTableNames[sortedCount++] = tableNames[input];
+            }
+            for (int i = dependentsStart[component]; i < dependentsStart[component + 1]; i++) {
+                if (--pending[dependents[i]] == 0) {
+                    ready.add(dependents[i]);
+                }
+            }
+        }
+        return sortedTableNames;
+    }
+
+    /**
+     * Finds the strongly connected components with Tarjan's algorithm, without
+     * recursion.
+     *
+     * @return the component of each node, the tables of a component with more
+     *         than one table depend on each other
+     */
+    private int[] findComponents(int nodeCount) {
+        int graphSize = tableNames.length;
+        int[] components = new int[nodeCount];
+        int[] order = new int[nodeCount];
+        int[] lowLinks = new int[nodeCount];
+        Arrays.fill(order, -1);
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+        int[] callNodes = new int[nodeCount];
+        int[] callEdges = new int[nodeCount];
+        int nextOrder = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (order[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNodes[0] = root;
+            callEdges[0] = root < graphSize ? dependsOnStart[root] : 0;
+            order[root] = lowLinks[root] = nextOrder++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int node = callNodes[depth];
+                int end = node < graphSize ? dependsOnStart[node + 1] : 0;
+                if (callEdges[depth] < end) {
+                    int next = dependsOn[callEdges[depth]++];
+                    if (order[next] < 0) {
+                        depth++;
+                        callNodes[depth] = next;
+                        callEdges[depth] = dependsOnStart[next];
+                        order[next] = lowLinks[next] = nextOrder++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                    } else if (onStack[next]) {
+                        lowLinks[node] = Math.min(lowLinks[node], order[next]);
+                    }
+                    continue;
+                }
+
+                if (lowLinks[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = componentCount;
+                    } while (member != node);
+                    componentCount++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int caller = callNodes[depth];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[node]);
+                }
+            }
+        }
+        return components;
+    }
+
+    private Set<String> getComponentTables(int[] components, int component) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int node = 0; node < tableNames.length; node++) {
+            if (components[node] == component) {
+                result.add(tableNames[node]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[tables=" + tableNames.length + ", foreignKeys=" + dependsOn.length
+                + ", complete=" + complete + "]";
+    }
+
+    /**
+     * Collects the tables and foreign keys of a graph.
+     */
+    static class Builder {
+
+        private final List<String> tableNames = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final Set<Long> foreignKeys = new HashSet<>();
+        private int[] edges = new int[32];
+        private int edgeCount = 0;
+
+        int addTable(String tableName) {
+            Integer index = indexes.get(tableName);
+            if (index == null) {
+                index = tableNames.size();
+                tableNames.add(tableName);
+                indexes.put(tableName, index);
+            }
+            return index;
+        }
+
+        /**
+         * Adds the foreign key of a row of
+         * {@link DatabaseMetaData#getImportedKeys(String, String, String)}.
+         */
+        void addForeignKey(ResultSet rs, DatabaseConfig config) throws SQLException {
+            String pkTableName = new QualifiedTableName(rs.getString(3), rs.getString(2))
+                    .getQualifiedNameIfEnabled(config);
+            String fkTableName = new QualifiedTableName(rs.getString(7), rs.getString(6))
+                    .getQualifiedNameIfEnabled(config);
+            addForeignKey(fkTableName, pkTableName);
+        }
+
+        /**
+         * Adds a dependency, once for all columns of the key. A table referencing
+         * itself does not depend on itself.
+         */
+        void addForeignKey(String fkTableName, String pkTableName) {
+            int from = addTable(fkTableName);
+            int to = addTable(pkTableName);
+            if (from == to || !foreignKeys.add(((long) from << 32) | to)) {
+                return;
+            }
+            if (edgeCount * 2 == edges.length) {
+                edges = Arrays.copyOf(edges, edges.length * 2);
+            }
+            edges[edgeCount * 2] = from;
+            edges[edgeCount * 2 + 1] = to;
+            edgeCount++;
+        }
+
+        boolean isEmpty() {
+            return tableNames.isEmpty();
+        }
+
+        ForeignKeyGraph build(boolean complete) {
+            int tableCount = tableNames.size();
+            int[] dependsOnStart = new int[tableCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                dependsOnStart[edges[i * 2] + 1]++;
+            }
+            for (int table = 0; table < tableCount; table++) {
+                dependsOnStart[table + 1] += dependsOnStart[table];
+            }
+            int[] dependsOn = new int[edgeCount];
+            int[] ends = Arrays.copyOf(dependsOnStart, tableCount);
+            for (int i = 0; i < edgeCount; i++) {
+                dependsOn[ends[edges[i * 2]]++] = edges[i * 2 + 1];
+            }
+            return new ForeignKeyGraph(tableNames.toArray(new String[tableCount]), new HashMap<>(indexes),
+                    dependsOnStart, dependsOn, complete);
+        }
+    }
+}
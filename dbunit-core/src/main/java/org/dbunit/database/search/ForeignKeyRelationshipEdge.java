@@ -31,7 +31,8 @@ import org.slf4j.LoggerFactory;
  * <code>to</code> node is the table with the PK. In other words, the edge A->B
  * means FK(A) = PK(B).<br>
  * 
- * <strong>NOTE:</strong> only single-column PKs are supported at this moment
+ * An edge holds a single column: the edges of a multi-column FK share the same
+ * key name.
  * 
  * @author Felipe Leme (dbunit@felipeal.net)
  * @author Last changed by: $Author$
@@ -43,6 +44,7 @@ public class ForeignKeyRelationshipEdge extends Edge {
 
     private String fkColumn;
     private String pkColumn;
+    private String keyName;
 
     /**
      * Creates an edge representing a FK.
@@ -59,6 +61,21 @@ public class ForeignKeyRelationshipEdge extends Edge {
         this.pkColumn = pkColumn;
     }
 
+    /**
+     * Creates an edge representing a column of a named FK.
+     * 
+     * @param tableFrom table that has the FK
+     * @param tableTo   table that has the PK
+     * @param fkColumn  name of the FK column on tableFrom
+     * @param pkColumn  name of the PK column on tableTo
+     * @param keyName   name of the FK, can be <code>null</code>
+     */
+    public ForeignKeyRelationshipEdge(String tableFrom, String tableTo, String fkColumn, String pkColumn,
+            String keyName) {
+        this(tableFrom, tableTo, fkColumn, pkColumn);
+        this.keyName = keyName;
+    }
+
     /**
      * Gets the name of the foreign key column in the relationship.
      * 
@@ -77,6 +94,15 @@ public class ForeignKeyRelationshipEdge extends Edge {
         return pkColumn;
     }
 
+    /**
+     * Gets the name of the foreign key the column belongs to.
+     * 
+     * @return name of the foreign key, or <code>null</code> if unknown
+     */
+    public String getKeyName() {
+        return keyName;
+    }
+
     public String toString() {
         return getFrom() + "(" + getFKColumn() + ")->" + getTo() + "(" + getPKColumn() + ")";
     }
@@ -23,6 +23,8 @@ package org.dbunit.database.search;
 
 import java.sql.ResultSet;
 
+import javax.sql.DataSource;
+
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.database.PrimaryKeyFilter;
 import org.dbunit.database.PrimaryKeyFilter.PkTableMap;
@@ -63,6 +65,25 @@ public class ImportedKeysSearchCallbackFilteredByPKs extends ImportedKeysSearchC
         this.pksFilter = new PrimaryKeyFilter(connection, allowedPKs, false);
     }
 
+    /**
+     * Creates a callback whose filter searches the rows concurrently.
+     * 
+     * @param connection      database connection
+     * @param allowedPKs      map of allowed rows, based on the primary keys (key
+     *                        is the name of a table; value is a Set with allowed
+     *                        primary keys for that table)
+     * @param dataSource      the source of the connections searching the rows
+     * @param connectionCount the maximum number of connections searching the
+     *                        rows at the same time
+     * @see PrimaryKeyFilter#PrimaryKeyFilter(IDatabaseConnection, PkTableMap,
+     *      boolean, DataSource, int)
+     */
+    public ImportedKeysSearchCallbackFilteredByPKs(IDatabaseConnection connection, PkTableMap allowedPKs,
+            DataSource dataSource, int connectionCount) {
+        super(connection);
+        this.pksFilter = new PrimaryKeyFilter(connection, allowedPKs, false, dataSource, connectionCount);
+    }
+
     /**
      * Get the primary key filter associated with the call back
      * 
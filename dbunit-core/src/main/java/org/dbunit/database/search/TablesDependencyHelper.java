@@ -23,6 +23,8 @@ package org.dbunit.database.search;
 import java.sql.SQLException;
 import java.util.Set;
 
+import javax.sql.DataSource;
+
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.database.PrimaryKeyFilter.PkTableMap;
@@ -33,6 +35,7 @@ import org.dbunit.dataset.filter.ITableFilter;
 import org.dbunit.dataset.filter.SequenceTableFilter;
 import org.dbunit.util.CollectionsHelper;
 import org.dbunit.util.search.DepthFirstSearch;
+import org.dbunit.util.search.ISearchCallback;
 import org.dbunit.util.search.SearchException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -171,7 +174,33 @@ public class TablesDependencyHelper {
 
         ImportedKeysSearchCallbackFilteredByPKs callback = new ImportedKeysSearchCallbackFilteredByPKs(connection,
                 rootTables);
-        ITableFilter filter = callback.getFilter();
+        return getDataset(connection, rootTables, callback, callback.getFilter());
+    }
+
+    /**
+     * Returns the rows with the specified primary keys and the rows they depend
+     * on, searching the rows concurrently on connections obtained from the
+     * specified data source. These connections only see committed rows.
+     *
+     * @param connection      database connection
+     * @param rootTables      primary keys of the rows, by table
+     * @param dataSource      the source of the connections searching the rows
+     * @param connectionCount the maximum number of connections searching the rows
+     *                        at the same time
+     * @return dataset with the rows
+     */
+    public static IDataSet getDataset(AbstractDatabaseConnection connection, PkTableMap rootTables,
+            DataSource dataSource, int connectionCount) throws SearchException, SQLException, DataSetException {
+        logger.debug("getDataset(connection={}, rootTables={}, dataSource={}, connectionCount={}) - start",
+                connection, rootTables, dataSource, connectionCount);
+
+        ImportedKeysSearchCallbackFilteredByPKs callback = new ImportedKeysSearchCallbackFilteredByPKs(connection,
+                rootTables, dataSource, connectionCount);
+        return getDataset(connection, rootTables, callback, callback.getFilter());
+    }
+
+    private static IDataSet getDataset(AbstractDatabaseConnection connection, PkTableMap rootTables,
+            ISearchCallback callback, ITableFilter filter) throws SearchException, SQLException, DataSetException {
         DepthFirstSearch search = new DepthFirstSearch();
         String[] tableNames = rootTables.getTableNames();
         Set tmpTables = search.search(tableNames, callback);
@@ -189,16 +218,30 @@ public class TablesDependencyHelper {
 
         ImportedAndExportedKeysSearchCallbackFilteredByPKs callback = new ImportedAndExportedKeysSearchCallbackFilteredByPKs(
                 connection, rootTables);
-        ITableFilter filter = callback.getFilter();
-        DepthFirstSearch search = new DepthFirstSearch();
-        String[] tableNames = rootTables.getTableNames();
-        Set tmpTables = search.search(tableNames, callback);
-        String[] dependentTables = CollectionsHelper.setToStrings(tmpTables);
-        boolean caseSensitiveTableNames = connection.getDatabaseConfig().isCaseSensitiveTableNames();
-        SequenceTableFilter filter1 = new SequenceTableFilter(dependentTables, caseSensitiveTableNames);
-        FilteredDataSet tmpDataset = new FilteredDataSet(filter1, connection.createDataSet());
-        FilteredDataSet dataset = new FilteredDataSet(filter, tmpDataset);
-        return dataset;
+        return getDataset(connection, rootTables, callback, callback.getFilter());
+    }
+
+    /**
+     * Returns the rows with the specified primary keys, the rows they depend on
+     * and the rows depending on them, searching the rows concurrently on
+     * connections obtained from the specified data source. These connections
+     * only see committed rows.
+     *
+     * @param connection      database connection
+     * @param rootTables      primary keys of the rows, by table
+     * @param dataSource      the source of the connections searching the rows
+     * @param connectionCount the maximum number of connections searching the rows
+     *                        at the same time
+     * @return dataset with the rows
+     */
+    public static IDataSet getAllDataset(AbstractDatabaseConnection connection, PkTableMap rootTables,
+            DataSource dataSource, int connectionCount) throws SearchException, SQLException, DataSetException {
+        logger.debug("getAllDataset(connection={}, rootTables={}, dataSource={}, connectionCount={}) - start",
+                connection, rootTables, dataSource, connectionCount);
+
+        ImportedAndExportedKeysSearchCallbackFilteredByPKs callback = new ImportedAndExportedKeysSearchCallbackFilteredByPKs(
+                connection, rootTables, dataSource, connectionCount);
+        return getDataset(connection, rootTables, callback, callback.getFilter());
     }
 
     /**
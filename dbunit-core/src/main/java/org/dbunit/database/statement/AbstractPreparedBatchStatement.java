@@ -41,14 +41,37 @@ public abstract class AbstractPreparedBatchStatement implements IPreparedBatchSt
     private static final Logger logger = LoggerFactory.getLogger(AbstractPreparedBatchStatement.class);
 
     protected final PreparedStatement _statement;
+    private final String _sql;
+    private final PreparedStatementCache _cache;
 
     AbstractPreparedBatchStatement(String sql, Connection connection) throws SQLException {
         _statement = connection.prepareStatement(sql);
+        _sql = sql;
+        _cache = null;
+    }
+
+    /**
+     * Borrows the statement from the cache, {@link #close()} gives it back.
+     */
+    AbstractPreparedBatchStatement(String sql, PreparedStatementCache cache) throws SQLException {
+        _statement = cache.borrow(sql);
+        _sql = sql;
+        _cache = cache;
     }
 
     public void close() throws SQLException {
         logger.debug("close() - start");
 
-        _statement.close();
+        if (_cache == null) {
+            _statement.close();
+            return;
+        }
+        try {
+            clearBatch();
+        } catch (SQLException e) {
+            _statement.close();
+            return;
+        }
+        _cache.release(_sql, _statement);
     }
 }
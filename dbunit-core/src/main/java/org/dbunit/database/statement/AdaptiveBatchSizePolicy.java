@@ -0,0 +1,153 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.statement;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the number of rows executed per JDBC batch, separately for each
+ * statement, from the measured execution time and the size of the values of
+ * the previous batches. The size moves toward the number of rows executed in
+ * the target latency, without exceeding the memory budget, and stays within
+ * the configured bounds.
+ * <p>
+ * A policy is shared by all the statements created by an
+ * {@link AdaptivePreparedStatementFactory}, and may be used from several
+ * threads.
+ */
+public class AdaptiveBatchSizePolicy {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBatchSizePolicy.class);
+
+    private final long _targetLatencyNanos;
+    private final long _maxBatchBytes;
+    private final int _minBatchSize;
+    private final int _maxBatchSize;
+
+    private final ConcurrentMap<String, BatchSize> _batchSizes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a policy.
+     *
+     * @param targetLatencyMillis the execution time of a batch to aim for, in
+     *                            milliseconds
+     * @param maxBatchBytes       the estimated size of the values of a batch not
+     *                            to exceed, or 0 for no limit
+     * @param minBatchSize        the minimum number of rows per batch
+     * @param maxBatchSize        the maximum number of rows per batch
+     */
+    public AdaptiveBatchSizePolicy(long targetLatencyMillis, long maxBatchBytes, int minBatchSize,
+            int maxBatchSize) {
+        if (targetLatencyMillis <= 0) {
+            throw new IllegalArgumentException("targetLatencyMillis must be positive, got " + targetLatencyMillis);
+        }
+        if (maxBatchBytes < 0) {
+            throw new IllegalArgumentException("maxBatchBytes must not be negative, got " + maxBatchBytes);
+        }
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException(
+                    "Invalid batch size bounds, min=" + minBatchSize + ", max=" + maxBatchSize);
+        }
+        _targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        _maxBatchBytes = maxBatchBytes;
+        _minBatchSize = minBatchSize;
+        _maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxBatchBytes() {
+        return _maxBatchBytes;
+    }
+
+    /**
+     * Returns the number of rows to execute in the next batch of the specified
+     * statement.
+     *
+     * @param sql              the SQL of the statement
+     * @param initialBatchSize the size to start from if no batch of this statement
+     *                         was executed yet
+     */
+    public int getBatchSize(String sql, int initialBatchSize) {
+        return _batchSizes.computeIfAbsent(sql, key -> new BatchSize(clamp(initialBatchSize))).get();
+    }
+
+    /**
+     * Records the execution of a batch which reached the size returned by
+     * {@link #getBatchSize(String, int)} or the memory budget, and adjusts the
+     * size of the next batches of the statement.
+     *
+     * @param sql      the SQL of the statement
+     * @param rowCount the number of rows of the batch
+     * @param bytes    the estimated size of the values of the batch
+     * @param nanos    the execution time of the batch
+     */
+    public void batchExecuted(String sql, int rowCount, long bytes, long nanos) {
+        BatchSize batchSize = _batchSizes.get(sql);
+        if (batchSize == null || rowCount == 0) {
+            return;
+        }
+
+        long ideal = nanos > 0 ? rowCount * _targetLatencyNanos / nanos : _maxBatchSize;
+        if (_maxBatchBytes > 0 && bytes > 0) {
+            ideal = Math.min(ideal, rowCount * _maxBatchBytes / bytes);
+        }
+        batchSize.adjust(ideal);
+    }
+
+    /**
+     * Returns the current batch size of each statement, by SQL.
+     */
+    public Map<String, Integer> getBatchSizes() {
+        Map<String, Integer> batchSizes = new TreeMap<>();
+        _batchSizes.forEach((sql, batchSize) -> batchSizes.put(sql, batchSize.get()));
+        return batchSizes;
+    }
+
+    void logBatchSize(String sql) {
+        BatchSize batchSize = _batchSizes.get(sql);
+        if (batchSize != null) {
+            logger.debug("Batch size of '{}' is {}", sql, batchSize.get());
+        }
+    }
+
+    private int clamp(long batchSize) {
+        return (int) Math.max(_minBatchSize, Math.min(_maxBatchSize, batchSize));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[_targetLatencyNanos=" + _targetLatencyNanos + ", _maxBatchBytes="
+                + _maxBatchBytes + ", _minBatchSize=" + _minBatchSize + ", _maxBatchSize=" + _maxBatchSize + "]";
+    }
+
+    private class BatchSize {
+
+        private int _size;
+
+        BatchSize(int size) {
+            _size = size;
+        }
+
+        synchronized int get() {
+            return _size;
+        }
+
+        /**
+         * Moves halfway toward the ideal size, to smooth out the measurement noise.
+         */
+        synchronized void adjust(long ideal) {
+            int delta = clamp(ideal) - _size;
+            _size += (delta + Integer.signum(delta)) / 2;
+        }
+    }
+}
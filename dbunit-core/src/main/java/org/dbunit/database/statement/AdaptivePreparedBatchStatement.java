@@ -0,0 +1,119 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.statement;
+
+import java.sql.SQLException;
+
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the batch of the decorated statement each time it reaches the size
+ * chosen by an {@link AdaptiveBatchSizePolicy}, or the memory budget of the
+ * policy, and reports the execution time of each such batch to the policy.
+ */
+public class AdaptivePreparedBatchStatement implements IPreparedBatchStatement {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePreparedBatchStatement.class);
+
+    private final IPreparedBatchStatement _statement;
+    private final String _sql;
+    private final AdaptiveBatchSizePolicy _policy;
+    private final int _initialBatchSize;
+    private int _batchCount = 0;
+    private long _batchBytes = 0;
+    private int _result = 0;
+
+    /**
+     * @param statement        the decorated statement
+     * @param sql              the SQL of the statement, identifying it in the
+     *                         policy
+     * @param policy           the policy choosing the batch size
+     * @param initialBatchSize the batch size to start from if the policy does not
+     *                         know the statement yet
+     */
+    public AdaptivePreparedBatchStatement(IPreparedBatchStatement statement, String sql,
+            AdaptiveBatchSizePolicy policy, int initialBatchSize) {
+        _statement = statement;
+        _sql = sql;
+        _policy = policy;
+        _initialBatchSize = initialBatchSize;
+    }
+
+    /**
+     * Returns a rough estimate of the memory held by the specified value until
+     * the batch is executed.
+     */
+    public static int estimateSize(Object value) {
+        if (value instanceof String) {
+            return 2 * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        return 8;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // IPreparedBatchStatement interface
+
+    @Override
+    public void addValue(Object value, DataType dataType) throws TypeCastException, SQLException {
+        logger.debug("addValue(value={}, dataType={}) - start", value, dataType);
+
+        _statement.addValue(value, dataType);
+        _batchBytes += estimateSize(value);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        logger.debug("addBatch() - start");
+
+        _statement.addBatch();
+        _batchCount++;
+
+        long maxBatchBytes = _policy.getMaxBatchBytes();
+        if (_batchCount >= _policy.getBatchSize(_sql, _initialBatchSize)
+                || maxBatchBytes > 0 && _batchBytes >= maxBatchBytes) {
+            long start = System.nanoTime();
+            _result += _statement.executeBatch();
+            _policy.batchExecuted(_sql, _batchCount, _batchBytes, System.nanoTime() - start);
+            _batchCount = 0;
+            _batchBytes = 0;
+        }
+    }
+
+    @Override
+    public int executeBatch() throws SQLException {
+        logger.debug("executeBatch() - start");
+
+        // the last batch is usually partial, its execution time is not recorded
+        _result += _statement.executeBatch();
+        _batchCount = 0;
+        _batchBytes = 0;
+        return _result;
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        logger.debug("clearBatch() - start");
+
+        _statement.clearBatch();
+        _batchCount = 0;
+        _batchBytes = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        logger.debug("close() - start");
+
+        _policy.logBatchSize(_sql);
+        _statement.close();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.statement;
+
+import java.sql.SQLException;
+
+import org.dbunit.database.IDatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statement factory executing prepared statement batches of the size chosen by
+ * an {@link AdaptiveBatchSizePolicy}, instead of the fixed batch size of the
+ * configuration. The configured batch size is the size each statement starts
+ * from. Install it with
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#setStatementFactory(IStatementFactory)}.
+ */
+public class AdaptivePreparedStatementFactory extends PreparedStatementFactory {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePreparedStatementFactory.class);
+
+    private final AdaptiveBatchSizePolicy _policy;
+
+    public AdaptivePreparedStatementFactory(AdaptiveBatchSizePolicy policy) {
+        _policy = policy;
+    }
+
+    public AdaptiveBatchSizePolicy getPolicy() {
+        return _policy;
+    }
+
+    @Override
+    public IPreparedBatchStatement createPreparedBatchStatement(String sql, IDatabaseConnection connection)
+            throws SQLException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("createPreparedBatchStatement(sql={}, connection={}) - start", sql, connection);
+        }
+
+        int batchSize = connection.getDatabaseConfig().getBatchSize();
+        if (!supportBatchStatement(connection)) {
+            // each row is executed on its own, there is no batch to size
+            return new AutomaticPreparedBatchStatement(createPreparedStatement(sql, connection), batchSize);
+        }
+        return new AdaptivePreparedBatchStatement(createPreparedStatement(sql, connection), sql, _policy, batchSize);
+    }
+}
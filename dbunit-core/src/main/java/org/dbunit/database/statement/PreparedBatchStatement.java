@@ -50,6 +50,11 @@ public class PreparedBatchStatement extends AbstractPreparedBatchStatement {
         _index = 0;
     }
 
+    PreparedBatchStatement(String sql, PreparedStatementCache cache) throws SQLException {
+        super(sql, cache);
+        _index = 0;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // IPreparedBatchStatement interface
 
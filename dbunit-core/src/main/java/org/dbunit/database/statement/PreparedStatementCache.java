@@ -0,0 +1,115 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.statement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepared statements of a connection kept open for reuse, keyed by SQL text.
+ * A statement is borrowed while used, and returned instead of being closed.
+ * When more than <code>maxSize</code> statements are returned, the least
+ * recently used one is closed.
+ */
+public class PreparedStatementCache {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    public PreparedStatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a cached statement for the sql, or prepares a new one. The caller
+     * owns the statement until it is given back with {@link #release}.
+     */
+    public synchronized PreparedStatement borrow(String sql) throws SQLException {
+        PreparedStatement statement = statements.remove(sql);
+        if (statement != null && !statement.isClosed()) {
+            logger.debug("borrow(sql={}) - reused", sql);
+            return statement;
+        }
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Puts the statement back into the cache, or closes it if it can not be
+     * reused.
+     */
+    public synchronized void release(String sql, PreparedStatement statement) throws SQLException {
+        if (statement.isClosed()) {
+            return;
+        }
+        if (statements.containsKey(sql)) {
+            // same sql was borrowed twice, keep the one already returned
+            statement.close();
+            return;
+        }
+        try {
+            statement.clearBatch();
+            statement.clearParameters();
+        } catch (SQLException exc) {
+            logger.debug("Statement can not be reset, closing it", exc);
+            statement.close();
+            return;
+        }
+        statements.put(sql, statement);
+
+        if (statements.size() > maxSize) {
+            Iterator<PreparedStatement> iterator = statements.values().iterator();
+            PreparedStatement eldest = iterator.next();
+            iterator.remove();
+            eldest.close();
+        }
+    }
+
+    /**
+     * Closes all cached statements.
+     */
+    public synchronized void clear() throws SQLException {
+        List<PreparedStatement> closing = new ArrayList<>(statements.values());
+        statements.clear();
+
+        SQLException exception = null;
+        for (PreparedStatement statement : closing) {
+            try {
+                statement.close();
+            } catch (SQLException exc) {
+                if (exception == null) {
+                    exception = exc;
+                } else {
+                    exception.addSuppressed(exc);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -23,6 +23,7 @@ package org.dbunit.database.statement;
 
 import java.sql.SQLException;
 
+import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,13 +60,28 @@ public class PreparedStatementFactory extends AbstractStatementFactory {
         }
 
         int batchSize = connection.getDatabaseConfig().getBatchSize();
+        return new AutomaticPreparedBatchStatement(createPreparedStatement(sql, connection), batchSize);
+    }
+
+    /**
+     * Creates the statement executing the specified SQL, batched if the database
+     * supports it, without automatic execution of the batch.
+     */
+    protected IPreparedBatchStatement createPreparedStatement(String sql, IDatabaseConnection connection)
+            throws SQLException {
+        PreparedStatementCache cache = null;
+        if (connection instanceof AbstractDatabaseConnection) {
+            cache = ((AbstractDatabaseConnection) connection).getStatementCache();
+        }
 
         IPreparedBatchStatement statement = null;
         if (supportBatchStatement(connection)) {
-            statement = new PreparedBatchStatement(sql, connection.getConnection());
+            statement = cache == null ? new PreparedBatchStatement(sql, connection.getConnection())
+                    : new PreparedBatchStatement(sql, cache);
         } else {
-            statement = new SimplePreparedStatement(sql, connection.getConnection());
+            statement = cache == null ? new SimplePreparedStatement(sql, connection.getConnection())
+                    : new SimplePreparedStatement(sql, cache);
         }
-        return new AutomaticPreparedBatchStatement(statement, batchSize);
+        return statement;
     }
 }
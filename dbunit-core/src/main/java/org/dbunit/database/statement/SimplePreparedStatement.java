@@ -52,6 +52,12 @@ public class SimplePreparedStatement extends AbstractPreparedBatchStatement {
         _result = 0;
     }
 
+    public SimplePreparedStatement(String sql, PreparedStatementCache cache) throws SQLException {
+        super(sql, cache);
+        _index = 0;
+        _result = 0;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // IPreparedBatchStatement interface
 
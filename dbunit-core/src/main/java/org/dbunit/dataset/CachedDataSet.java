@@ -82,6 +82,36 @@ public class CachedDataSet extends AbstractDataSet implements IDataSetConsumer {
         producer.produce(this);
     }
 
+    /**
+     * Converts the values of all tables to the data types of the same named
+     * tables of the specified dataset, typically the {@link IDataSet} of a
+     * database connection. Values read from text based formats like flat XML or
+     * CSV are then parsed once, instead of each time they are bound to a
+     * statement or compared. Tables which are not a {@link DefaultTable} are
+     * replaced by a converted copy.
+     *
+     * @param metaDataSet The dataset providing the table metadata
+     * @throws NoSuchTableException if a table does not exist in the specified
+     *                              dataset
+     * @throws DataSetException     if a value cannot be converted
+     * @see DefaultTable#typeCast(ITableMetaData)
+     */
+    public void typeCast(IDataSet metaDataSet) throws DataSetException {
+        logger.debug("typeCast(metaDataSet={}) - start", metaDataSet);
+
+        for (ITable table : _orderedTableNameMap.orderedValues()) {
+            String tableName = table.getTableMetaData().getTableName();
+            DefaultTable defaultTable;
+            if (table instanceof DefaultTable) {
+                defaultTable = (DefaultTable) table;
+            } else {
+                defaultTable = new CachedTable(table);
+                _orderedTableNameMap.update(tableName, defaultTable);
+            }
+            defaultTable.typeCast(metaDataSet.getTableMetaData(tableName));
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // AbstractDataSet class
 
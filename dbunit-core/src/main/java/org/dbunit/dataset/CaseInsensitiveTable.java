@@ -76,4 +76,14 @@ public class CaseInsensitiveTable implements ITable {
 
         return _table.getValue(row, getInternalColumnName(column));
     }
+
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        return _table.getValue(row, columnIndex);
+    }
+
+    @Override
+    public ITableCursor cursor() throws DataSetException {
+        return _table.cursor();
+    }
 }
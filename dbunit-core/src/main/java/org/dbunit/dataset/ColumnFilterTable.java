@@ -49,6 +49,11 @@ public class ColumnFilterTable implements ITable {
      */
     private final ITableMetaData tableMetaData;
 
+    /**
+     * Positions of the filtered columns in the original table
+     */
+    private final int[] originalColumnIndexes;
+
     /**
      * @param table        The table from which some columns should be filtered
      * @param columnFilter The filter defining which columns to be filtered
@@ -64,6 +69,12 @@ public class ColumnFilterTable implements ITable {
 
         this.tableMetaData = new FilteredTableMetaData(table.getTableMetaData(), columnFilter);
         this.originalTable = table;
+
+        Column[] columns = tableMetaData.getColumns();
+        originalColumnIndexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            originalColumnIndexes[i] = table.getTableMetaData().getColumnIndex(columns[i].getColumnName());
+        }
     }
 
     @Override
@@ -86,6 +97,33 @@ public class ColumnFilterTable implements ITable {
         return this.originalTable.getValue(row, column);
     }
 
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        return this.originalTable.getValue(row, originalColumnIndexes[columnIndex]);
+    }
+
+    @Override
+    public ITableCursor cursor() throws DataSetException {
+        final ITableCursor cursor = this.originalTable.cursor();
+        return new ITableCursor() {
+
+            @Override
+            public boolean next() throws DataSetException {
+                return cursor.next();
+            }
+
+            @Override
+            public int getRow() {
+                return cursor.getRow();
+            }
+
+            @Override
+            public Object get(int columnIndex) throws DataSetException {
+                return cursor.get(originalColumnIndexes[columnIndex]);
+            }
+        };
+    }
+
     public ITableMetaData getOriginalMetaData() {
         logger.debug("getOriginalMetaData() - start");
         return this.originalTable.getTableMetaData();
@@ -41,6 +41,11 @@ public class CompositeTable extends AbstractTable {
     private final ITableMetaData _metaData;
     private final ITable[] _tables;
 
+    /**
+     * Positions of the composite columns in each table, resolved on first use
+     */
+    private final int[][] _columnIndexes;
+
     /**
      * Creates a composite table that combines the specified metadata with the
      * specified table.
@@ -48,6 +53,7 @@ public class CompositeTable extends AbstractTable {
     public CompositeTable(ITableMetaData metaData, ITable table) {
         _metaData = metaData;
         _tables = new ITable[] { table };
+        _columnIndexes = new int[_tables.length][];
     }
 
     /**
@@ -57,6 +63,7 @@ public class CompositeTable extends AbstractTable {
     public CompositeTable(ITableMetaData metaData, ITable[] tables) {
         _metaData = metaData;
         _tables = tables;
+        _columnIndexes = new int[_tables.length][];
     }
 
     /**
@@ -66,6 +73,7 @@ public class CompositeTable extends AbstractTable {
     public CompositeTable(ITable table1, ITable table2) {
         _metaData = table1.getTableMetaData();
         _tables = new ITable[] { table1, table2 };
+        _columnIndexes = new int[_tables.length][];
     }
 
     /**
@@ -76,6 +84,7 @@ public class CompositeTable extends AbstractTable {
         ITableMetaData metaData = table.getTableMetaData();
         _metaData = new DefaultTableMetaData(newName, metaData.getColumns(), metaData.getPrimaryKeys());
         _tables = new ITable[] { table };
+        _columnIndexes = new int[_tables.length][];
     }
 
     // //////////////////////////////////////////////////////////////////////////
@@ -120,6 +129,91 @@ public class CompositeTable extends AbstractTable {
         throw new RowOutOfBoundsException(row + " > " + totalCount);
     }
 
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        if (row < 0) {
+            throw new RowOutOfBoundsException(row + " < 0 ");
+        }
+
+        int totalCount = 0;
+        for (int i = 0; i < _tables.length; i++) {
+            int count = _tables[i].getRowCount();
+            if (totalCount + count > row) {
+                return getTableValue(i, row - totalCount, columnIndex);
+            }
+            totalCount += count;
+        }
+
+        throw new RowOutOfBoundsException(row + " > " + totalCount);
+    }
+
+    @Override
+    public ITableCursor cursor() throws DataSetException {
+        return new ITableCursor() {
+
+            private int tableIndex = -1;
+            private ITableCursor cursor = null;
+            private int row = -1;
+
+            @Override
+            public boolean next() throws DataSetException {
+                while (cursor == null || !cursor.next()) {
+                    if (tableIndex + 1 >= _tables.length) {
+                        cursor = null;
+                        return false;
+                    }
+                    cursor = _tables[++tableIndex].cursor();
+                }
+                row++;
+                return true;
+            }
+
+            @Override
+            public int getRow() {
+                return row;
+            }
+
+            @Override
+            public Object get(int columnIndex) throws DataSetException {
+                if (cursor == null) {
+                    throw new RowOutOfBoundsException(row + " is not a current row");
+                }
+                int index = getColumnIndexes(tableIndex)[columnIndex];
+                if (index < 0) {
+                    return getTableValue(tableIndex, cursor.getRow(), columnIndex);
+                }
+                return cursor.get(index);
+            }
+        };
+    }
+
+    private Object getTableValue(int tableIndex, int row, int columnIndex) throws DataSetException {
+        int index = getColumnIndexes(tableIndex)[columnIndex];
+        if (index < 0) {
+            // let the table report the missing column
+            return _tables[tableIndex].getValue(row, _metaData.getColumns()[columnIndex].getColumnName());
+        }
+        return _tables[tableIndex].getValue(row, index);
+    }
+
+    private int[] getColumnIndexes(int tableIndex) throws DataSetException {
+        int[] columnIndexes = _columnIndexes[tableIndex];
+        if (columnIndexes == null) {
+            Column[] columns = _metaData.getColumns();
+            ITableMetaData tableMetaData = _tables[tableIndex].getTableMetaData();
+            columnIndexes = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                try {
+                    columnIndexes[i] = tableMetaData.getColumnIndex(columns[i].getColumnName());
+                } catch (NoSuchColumnException e) {
+                    columnIndexes[i] = -1;
+                }
+            }
+            _columnIndexes[tableIndex] = columnIndexes;
+        }
+        return columnIndexes;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -24,6 +24,8 @@ package org.dbunit.dataset;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.UnknownDataType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +43,7 @@ public class DefaultTable extends AbstractTable {
      */
     private static final Logger logger = LoggerFactory.getLogger(DefaultTable.class);
 
-    private final ITableMetaData _metaData;
+    private ITableMetaData _metaData;
     private final List _rowList;
 
     /**
@@ -116,25 +118,27 @@ public class DefaultTable extends AbstractTable {
     public void addTableRows(ITable table) throws DataSetException {
         logger.debug("addTableRows(table={}) - start", table);
 
-        try {
-            Column[] columns = _metaData.getColumns();
-            if (columns.length <= 0) {
-                logger.warn("The table '" + table
-                        + "' does not have any columns. Cannot add table rows. This should never happen...");
-                return;
-            }
+        Column[] columns = _metaData.getColumns();
+        if (columns.length <= 0) {
+            logger.warn("The table '" + table
+                    + "' does not have any columns. Cannot add table rows. This should never happen...");
+            return;
+        }
 
-            for (int i = 0;; i++) {
-                Object[] rowValues = new Object[columns.length];
-                for (int j = 0; j < columns.length; j++) {
-                    Column column = columns[j];
-                    rowValues[j] = table.getValue(i, column.getColumnName());
-                }
-                _rowList.add(rowValues);
+        // source columns are resolved by name once, then read by position
+        ITableMetaData sourceMetaData = table.getTableMetaData();
+        int[] sourceIndexes = new int[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            sourceIndexes[j] = sourceMetaData.getColumnIndex(columns[j].getColumnName());
+        }
+
+        ITableCursor cursor = table.cursor();
+        while (cursor.next()) {
+            Object[] rowValues = new Object[columns.length];
+            for (int j = 0; j < columns.length; j++) {
+                rowValues[j] = cursor.get(sourceIndexes[j]);
             }
-        } catch (RowOutOfBoundsException e) {
-            // end of table
-            // ignore error.
+            _rowList.add(rowValues);
         }
     }
 
@@ -165,6 +169,61 @@ public class DefaultTable extends AbstractTable {
         return oldValue;
     }
 
+    /**
+     * Converts the values of this table to the data types of the same named
+     * columns of the specified metadata, usually the metadata of the database
+     * table. Each value is cast once here, so that binding or comparing it later
+     * does not parse it again. The columns of this table take the data types of
+     * the specified metadata. Columns missing from it, or having an unknown data
+     * type there, are left as they are.
+     *
+     * @param metaData The metadata providing the column data types
+     * @throws org.dbunit.dataset.datatype.TypeCastException if a value cannot be
+     *                                                       converted
+     * @throws DataSetException                              if an unexpected error
+     *                                                       occurs
+     */
+    public void typeCast(ITableMetaData metaData) throws DataSetException {
+        logger.debug("typeCast(metaData={}) - start", metaData);
+
+        Column[] columns = _metaData.getColumns();
+        Column[] typedColumns = columns.clone();
+        DataType[] dataTypes = new DataType[columns.length];
+        boolean typed = false;
+        for (Column typedColumn : metaData.getColumns()) {
+            int columnIndex;
+            try {
+                columnIndex = _metaData.getColumnIndex(typedColumn.getColumnName());
+            } catch (NoSuchColumnException e) {
+                continue;
+            }
+            DataType dataType = typedColumn.getDataType();
+            if (dataType instanceof UnknownDataType) {
+                continue;
+            }
+            Column column = columns[columnIndex];
+            typedColumns[columnIndex] = new Column(column.getColumnName(), dataType, typedColumn.getSqlTypeName(),
+                    typedColumn.getNullable(), typedColumn.getDefaultValue(), typedColumn.getRemarks(),
+                    typedColumn.getAutoIncrement());
+            dataTypes[columnIndex] = dataType;
+            typed = true;
+        }
+        if (!typed) {
+            return;
+        }
+
+        for (Object row : _rowList) {
+            Object[] rowValues = (Object[]) row;
+            for (int j = 0; j < dataTypes.length; j++) {
+                Object value = rowValues[j];
+                if (dataTypes[j] != null && value != null && value != ITable.NO_VALUE) {
+                    rowValues[j] = dataTypes[j].typeCast(value);
+                }
+            }
+        }
+        _metaData = new DefaultTableMetaData(_metaData.getTableName(), typedColumns, _metaData.getPrimaryKeys());
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // ITable interface
 
@@ -186,6 +245,47 @@ public class DefaultTable extends AbstractTable {
         return rowValues[getColumnIndex(column)];
     }
 
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        assertValidRowIndex(row);
+
+        Object[] rowValues = (Object[]) _rowList.get(row);
+        return rowValues[columnIndex];
+    }
+
+    @Override
+    public ITableCursor cursor() {
+        return new ITableCursor() {
+
+            private int row = -1;
+            private Object[] rowValues;
+
+            @Override
+            public boolean next() {
+                if (row + 1 >= _rowList.size()) {
+                    row = _rowList.size();
+                    rowValues = null;
+                    return false;
+                }
+                rowValues = (Object[]) _rowList.get(++row);
+                return true;
+            }
+
+            @Override
+            public int getRow() {
+                return row;
+            }
+
+            @Override
+            public Object get(int columnIndex) throws DataSetException {
+                if (rowValues == null) {
+                    assertValidRowIndex(row);
+                }
+                return rowValues[columnIndex];
+            }
+        };
+    }
+
     public String toString() {
         StringBuffer sb = new StringBuffer();
         sb.append(getClass().getName()).append("[");
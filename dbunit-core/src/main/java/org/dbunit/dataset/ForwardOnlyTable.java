@@ -64,4 +64,14 @@ public class ForwardOnlyTable implements ITable {
         _lastRow = row;
         return _table.getValue(row, column);
     }
+
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        if (row < _lastRow) {
+            throw new UnsupportedOperationException("Cannot go backward!");
+        }
+
+        _lastRow = row;
+        return _table.getValue(row, columnIndex);
+    }
 }
@@ -54,4 +54,29 @@ public interface ITable {
      *                                 or greater than <code>getRowCount</code>
      */
     public Object getValue(int row, String column) throws DataSetException;
+
+    /**
+     * Returns this table value for the specified row and column position. Unlike
+     * {@link #getValue(int, String)} it does not resolve the column by name.
+     *
+     * @param row         The row index, starting with 0
+     * @param columnIndex The index of the column in
+     *                    {@link ITableMetaData#getColumns()}
+     * @return The value
+     *
+     * @throws RowOutOfBoundsException if specified row is less than zero or equals
+     *                                 or greater than <code>getRowCount</code>
+     */
+    public default Object getValue(int row, int columnIndex) throws DataSetException {
+        return getValue(row, getTableMetaData().getColumns()[columnIndex].getColumnName());
+    }
+
+    /**
+     * Returns a cursor positioned before the first row of this table. The end of
+     * the table is reported by {@link ITableCursor#next()} returning
+     * <code>false</code>.
+     */
+    public default ITableCursor cursor() throws DataSetException {
+        return new TableCursor(this);
+    }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.dataset;
+
+/**
+ * Forward only cursor over the rows of a {@link ITable}, values are accessed
+ * by column position.
+ */
+public interface ITableCursor {
+
+    /**
+     * Moves to the next row.
+     *
+     * @return <code>false</code> if there are no more rows
+     */
+    boolean next() throws DataSetException;
+
+    /**
+     * @return index of the current row, starting with 0
+     */
+    int getRow();
+
+    /**
+     * Returns the value of the current row for the column position.
+     *
+     * @param columnIndex The index of the column in
+     *                    {@link ITableMetaData#getColumns()}
+     */
+    Object get(int columnIndex) throws DataSetException;
+}
@@ -215,8 +215,37 @@ public class ReplacementTable implements ITable {
         if (logger.isDebugEnabled())
             logger.debug("getValue(row={}, columnName={}) - start", Integer.toString(row), column);
 
-        Object value = _table.getValue(row, column);
+        return replace(_table.getValue(row, column));
+    }
+
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        return replace(_table.getValue(row, columnIndex));
+    }
+
+    @Override
+    public ITableCursor cursor() throws DataSetException {
+        final ITableCursor cursor = _table.cursor();
+        return new ITableCursor() {
+
+            @Override
+            public boolean next() throws DataSetException {
+                return cursor.next();
+            }
+
+            @Override
+            public int getRow() {
+                return cursor.getRow();
+            }
+
+            @Override
+            public Object get(int columnIndex) throws DataSetException {
+                return replace(cursor.get(columnIndex));
+            }
+        };
+    }
 
+    private Object replace(Object value) throws DataSetException {
         // Object replacement
         if (_objectMap.containsKey(value)) {
             return _objectMap.get(value);
@@ -136,6 +136,16 @@ public class RowFilterTable implements ITable, IRowValueProvider {
         }
     }
 
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
+        int max = this.filteredRowIndexes.size();
+        if (row < 0 || row >= max) {
+            throw new RowOutOfBoundsException("tried to access row " + row + " but rowCount is " + max);
+        }
+        int realRow = ((Integer) this.filteredRowIndexes.get(row)).intValue();
+        return this.originalTable.getValue(realRow, columnIndex);
+    }
+
     /**
      * Returns the column value for the column with the given name of the currently
      * processed row
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.dataset;
+
+import java.util.concurrent.RecursiveAction;
+
+import org.dbunit.DatabaseUnitRuntimeException;
+import org.dbunit.dataset.datatype.AbstractDataType;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+
+/**
+ * Sorts the rows of a table the same way as
+ * {@link SortedTable.RowComparatorByString} or {@link SortedTable.RowComparator}
+ * do, without calling them for every comparison. The values of the sort
+ * columns are read once into key arrays: strings for the string comparison,
+ * primitive longs or values cast by their data type for the comparison by
+ * data type. Row indexes are then sorted with a stable merge sort, forked over
+ * several threads for large tables.
+ */
+final class RowSorter {
+
+    /**
+     * Tables with more rows are sorted in parallel, in parts of this size.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    // categories of a value, ordered as the comparators order them; null
+    // values are 0
+    private static final byte CAST_NULL = 1;
+    private static final byte VALUE = 2;
+
+    private final ColumnKeys[] columnKeys;
+
+    private RowSorter(ColumnKeys[] columnKeys) {
+        this.columnKeys = columnKeys;
+    }
+
+    /**
+     * Returns the indexes of the rows of the table, in sorted order.
+     *
+     * @param useComparable whether values are compared by data type, as with
+     *                      {@link SortedTable#setUseComparable(boolean)}, or as
+     *                      strings
+     */
+    static int[] sort(ITable table, Column[] sortColumns, boolean useComparable) throws DataSetException {
+        ITableMetaData metaData = table.getTableMetaData();
+        int rowCount = table.getRowCount();
+        ColumnKeys[] columnKeys = new ColumnKeys[sortColumns.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            int columnIndex = metaData.getColumnIndex(sortColumns[i].getColumnName());
+            Object[] values = new Object[rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                values[row] = table.getValue(row, columnIndex);
+            }
+            columnKeys[i] = useComparable ? getComparableKeys(sortColumns[i].getDataType(), values)
+                    : getStringKeys(values);
+        }
+
+        int[] indexes = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            indexes[row] = row;
+        }
+        RowSorter sorter = new RowSorter(columnKeys);
+        try {
+            if (rowCount > PARALLEL_THRESHOLD) {
+                new SortTask(sorter, indexes, new int[rowCount], 0, rowCount).invoke();
+            } else {
+                sorter.mergeSort(indexes, new int[rowCount], 0, rowCount);
+            }
+        } catch (RuntimeException e) {
+            // the fork join framework may wrap the exception of another thread
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof DatabaseUnitRuntimeException && cause.getCause() instanceof DataSetException) {
+                    throw (DataSetException) cause.getCause();
+                }
+            }
+            throw e;
+        }
+        return indexes;
+    }
+
+    private static ColumnKeys getStringKeys(Object[] values) throws TypeCastException {
+        byte[] categories = new byte[values.length];
+        String[] keys = new String[values.length];
+        for (int row = 0; row < values.length; row++) {
+            if (values[row] != null) {
+                categories[row] = VALUE;
+                keys[row] = DataType.asString(values[row]);
+            }
+        }
+        return new ObjectKeys(categories, keys);
+    }
+
+    /**
+     * Casts the values once when the data type compares cast values by their
+     * natural order, and they all have the same class. Otherwise values are
+     * compared by the data type.
+     */
+    private static ColumnKeys getComparableKeys(DataType dataType, Object[] values) {
+        if (!AbstractDataType.isComparedByNaturalOrder(dataType)) {
+            return new DataTypeKeys(dataType, values);
+        }
+        byte[] categories = new byte[values.length];
+        Object[] keys = new Object[values.length];
+        Class<?> keyClass = null;
+        for (int row = 0; row < values.length; row++) {
+            if (values[row] == null) {
+                continue;
+            }
+            try {
+                keys[row] = dataType.typeCast(values[row]);
+            } catch (TypeCastException e) {
+                // reported if the value is compared
+                return new DataTypeKeys(dataType, values);
+            }
+            if (keys[row] == null) {
+                categories[row] = CAST_NULL;
+                continue;
+            }
+            categories[row] = VALUE;
+            if (keyClass == null) {
+                keyClass = keys[row].getClass();
+            } else if (keyClass != keys[row].getClass()) {
+                return new DataTypeKeys(dataType, values);
+            }
+        }
+        if (keyClass == Long.class || keyClass == Integer.class || keyClass == Short.class
+                || keyClass == Byte.class) {
+            long[] longKeys = new long[values.length];
+            for (int row = 0; row < values.length; row++) {
+                if (categories[row] == VALUE) {
+                    longKeys[row] = ((Number) keys[row]).longValue();
+                }
+            }
+            return new LongKeys(categories, longKeys);
+        }
+        if (keyClass != null && !Comparable.class.isAssignableFrom(keyClass)) {
+            return new DataTypeKeys(dataType, values);
+        }
+        return new ObjectKeys(categories, keys);
+    }
+
+    private int compare(int row1, int row2) {
+        for (ColumnKeys keys : columnKeys) {
+            int result = keys.compare(row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stable merge sort of <code>indexes[from, to)</code>, using
+     * <code>buffer</code> over the same range.
+     */
+    void mergeSort(int[] indexes, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int index = indexes[i];
+                int j = i - 1;
+                while (j >= from && compare(indexes[j], index) > 0) {
+                    indexes[j + 1] = indexes[j];
+                    j--;
+                }
+                indexes[j + 1] = index;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(indexes, buffer, from, middle);
+        mergeSort(indexes, buffer, middle, to);
+        merge(indexes, buffer, from, middle, to);
+    }
+
+    void merge(int[] indexes, int[] buffer, int from, int middle, int to) {
+        if (compare(indexes[middle - 1], indexes[middle]) <= 0) {
+            // already in order
+            return;
+        }
+        System.arraycopy(indexes, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        int target = from;
+        while (left < middle && right < to) {
+            // equal rows keep their order
+            indexes[target++] = compare(buffer[right], buffer[left]) < 0 ? buffer[right++] : buffer[left++];
+        }
+        System.arraycopy(buffer, left, indexes, target, middle - left);
+        System.arraycopy(buffer, right, indexes, target, to - right);
+    }
+
+    private static final class SortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RowSorter sorter;
+        private final int[] indexes;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        SortTask(RowSorter sorter, int[] indexes, int[] buffer, int from, int to) {
+            this.sorter = sorter;
+            this.indexes = indexes;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                sorter.mergeSort(indexes, buffer, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(sorter, indexes, buffer, from, middle),
+                    new SortTask(sorter, indexes, buffer, middle, to));
+            sorter.merge(indexes, buffer, from, middle, to);
+        }
+    }
+
+    /**
+     * Sort keys of a column, by row.
+     */
+    private interface ColumnKeys {
+
+        int compare(int row1, int row2);
+    }
+
+    private static final class LongKeys implements ColumnKeys {
+
+        private final byte[] categories;
+        private final long[] keys;
+
+        LongKeys(byte[] categories, long[] keys) {
+            this.categories = categories;
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(int row1, int row2) {
+            if (categories[row1] != categories[row2]) {
+                return categories[row1] - categories[row2];
+            }
+            return categories[row1] == VALUE ? Long.compare(keys[row1], keys[row2]) : 0;
+        }
+    }
+
+    private static final class ObjectKeys implements ColumnKeys {
+
+        private final byte[] categories;
+        private final Object[] keys;
+
+        ObjectKeys(byte[] categories, Object[] keys) {
+            this.categories = categories;
+            this.keys = keys;
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public int compare(int row1, int row2) {
+            if (categories[row1] != categories[row2]) {
+                return categories[row1] - categories[row2];
+            }
+            return categories[row1] == VALUE ? ((Comparable) keys[row1]).compareTo(keys[row2]) : 0;
+        }
+    }
+
+    /**
+     * Values compared by a data type with its own comparison.
+     */
+    private static final class DataTypeKeys implements ColumnKeys {
+
+        private final DataType dataType;
+        private final Object[] values;
+
+        DataTypeKeys(DataType dataType, Object[] values) {
+            this.dataType = dataType;
+            this.values = values;
+        }
+
+        @Override
+        public int compare(int row1, int row2) {
+            Object value1 = values[row1];
+            Object value2 = values[row2];
+            if (value1 == null || value2 == null) {
+                return value1 == null ? (value2 == null ? 0 : -1) : 1;
+            }
+            try {
+                return dataType.compare(value1, value2);
+            } catch (TypeCastException e) {
+                throw new DatabaseUnitRuntimeException(e);
+            }
+        }
+    }
+}
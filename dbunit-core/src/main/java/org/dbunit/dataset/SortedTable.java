@@ -45,13 +45,19 @@ public class SortedTable extends AbstractTable {
 
     private final ITable _table;
     private final Column[] _columns;
-    private Integer[] _indexes;
+    private int[] _indexes;
 
     /**
      * The row comparator which is used for sorting
      */
     private Comparator rowComparator;
 
+    /**
+     * Whether {@link #rowComparator} compares by data type or by string, null
+     * for a comparator set with {@link #setRowComparator(Comparator)}.
+     */
+    private Boolean _useComparable;
+
     /**
      * Sort the decorated table by specified columns order. Resulting table uses
      * column definitions from the specified table's metadata, not the specified
@@ -163,6 +169,7 @@ public class SortedTable extends AbstractTable {
         // The default comparator is the one that sorts by string - for
         // backwards compatibility
         this.rowComparator = new RowComparatorByString(this._table, this._columns);
+        this._useComparable = Boolean.FALSE;
     }
 
     /**
@@ -178,21 +185,34 @@ public class SortedTable extends AbstractTable {
         }
 
         if (_indexes == null) {
-            final Integer[] indexes = new Integer[getRowCount()];
-            for (int i = 0; i < indexes.length; i++) {
-                indexes[i] = new Integer(i);
+            if (_useComparable != null) {
+                // same order as the comparator, with the sort keys read once
+                _indexes = RowSorter.sort(_table, _columns, _useComparable.booleanValue());
+            } else {
+                _indexes = sortWithComparator();
             }
+        }
 
-            try {
-                Arrays.sort(indexes, rowComparator);
-            } catch (final DatabaseUnitRuntimeException e) {
-                throw (DataSetException) e.getCause();
-            }
+        return _indexes[row];
+    }
+
+    private int[] sortWithComparator() throws DataSetException {
+        final Integer[] indexes = new Integer[getRowCount()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = Integer.valueOf(i);
+        }
 
-            _indexes = indexes;
+        try {
+            Arrays.sort(indexes, rowComparator);
+        } catch (final DatabaseUnitRuntimeException e) {
+            throw (DataSetException) e.getCause();
         }
 
-        return _indexes[row].intValue();
+        final int[] result = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            result[i] = indexes[i].intValue();
+        }
+        return result;
     }
 
     /**
@@ -216,6 +236,7 @@ public class SortedTable extends AbstractTable {
         } else {
             setRowComparator(new RowComparatorByString(this._table, this._columns));
         }
+        this._useComparable = Boolean.valueOf(useComparable);
     }
 
     /**
@@ -239,6 +260,7 @@ public class SortedTable extends AbstractTable {
         }
 
         this.rowComparator = comparator;
+        this._useComparable = null;
     }
 
     // //////////////////////////////////////////////////////////////////////////
@@ -269,6 +291,13 @@ public class SortedTable extends AbstractTable {
         return _table.getValue(getOriginalRowIndex(row), columnName);
     }
 
+    @Override
+    public Object getValue(final int row, final int columnIndex) throws DataSetException {
+        assertValidRowIndex(row);
+
+        return _table.getValue(getOriginalRowIndex(row), columnIndex);
+    }
+
     // //////////////////////////////////////////////////////////////////////////
     // Comparator interface
 
@@ -283,6 +312,7 @@ public class SortedTable extends AbstractTable {
         private final Logger logger = LoggerFactory.getLogger(AbstractRowComparator.class);
         private final ITable _table;
         private final Column[] _sortColumns;
+        private int[] _sortColumnIndexes;
 
         /**
          * @param table       The wrapped table to be sorted
@@ -301,11 +331,10 @@ public class SortedTable extends AbstractTable {
             final Integer i2 = (Integer) o2;
 
             try {
+                final int[] sortColumnIndexes = getSortColumnIndexes();
                 for (int i = 0; i < _sortColumns.length; i++) {
-                    final String columnName = _sortColumns[i].getColumnName();
-
-                    final Object value1 = _table.getValue(i1.intValue(), columnName);
-                    final Object value2 = _table.getValue(i2.intValue(), columnName);
+                    final Object value1 = _table.getValue(i1.intValue(), sortColumnIndexes[i]);
+                    final Object value2 = _table.getValue(i2.intValue(), sortColumnIndexes[i]);
 
                     if (value1 == null && value2 == null) {
                         continue;
@@ -333,6 +362,22 @@ public class SortedTable extends AbstractTable {
             return 0;
         }
 
+        /**
+         * Resolves sort columns to positions in the table once, rows are then
+         * compared by position.
+         */
+        private int[] getSortColumnIndexes() throws DataSetException {
+            if (_sortColumnIndexes == null) {
+                final ITableMetaData metaData = _table.getTableMetaData();
+                final int[] sortColumnIndexes = new int[_sortColumns.length];
+                for (int i = 0; i < _sortColumns.length; i++) {
+                    sortColumnIndexes[i] = metaData.getColumnIndex(_sortColumns[i].getColumnName());
+                }
+                _sortColumnIndexes = sortColumnIndexes;
+            }
+            return _sortColumnIndexes;
+        }
+
         /**
          * @param column The column to be compared
          * @param value1 The first value of the given column
@@ -410,7 +455,7 @@ public class SortedTable extends AbstractTable {
 
         sb.append(getClass().getName()).append("[");
         sb.append("_columns=[").append(Arrays.toString(_columns)).append("], ");
-        sb.append("_indexes=[").append(_indexes).append("], ");
+        sb.append("_indexes=[").append(Arrays.toString(_indexes)).append("], ");
         sb.append("_table=[").append(_table).append("]");
         sb.append("]");
 
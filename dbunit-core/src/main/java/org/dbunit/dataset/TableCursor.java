@@ -0,0 +1,64 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.dataset;
+
+/**
+ * Cursor reading rows with {@link ITable#getValue(int, int)}. The end of the
+ * table is found with {@link ITable#getRowCount()}, or for tables not knowing
+ * their row count by probing the next row.
+ */
+public class TableCursor implements ITableCursor {
+
+    private static final int UNKNOWN = -1;
+
+    private final ITable table;
+    private int row = -1;
+    private int rowCount = UNKNOWN;
+    private boolean forwardOnly = false;
+
+    public TableCursor(ITable table) {
+        this.table = table;
+    }
+
+    @Override
+    public boolean next() throws DataSetException {
+        if (rowCount == UNKNOWN && !forwardOnly) {
+            try {
+                rowCount = table.getRowCount();
+            } catch (UnsupportedOperationException e) {
+                forwardOnly = true;
+            }
+        }
+
+        if (!forwardOnly) {
+            if (row + 1 >= rowCount) {
+                row = rowCount;
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        if (table.getTableMetaData().getColumns().length == 0) {
+            return false;
+        }
+        try {
+            table.getValue(row + 1, 0);
+        } catch (RowOutOfBoundsException e) {
+            return false;
+        }
+        row++;
+        return true;
+    }
+
+    @Override
+    public int getRow() {
+        return row;
+    }
+
+    @Override
+    public Object get(int columnIndex) throws DataSetException {
+        return table.getValue(row, columnIndex);
+    }
+}
@@ -41,6 +41,8 @@ import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.stream.DefaultConsumer;
 import org.dbunit.dataset.stream.IDataSetConsumer;
 import org.dbunit.dataset.stream.IDataSetProducer;
+import org.dbunit.util.jfr.DataSetParseEvent;
+import org.dbunit.util.jfr.DbUnitEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -107,6 +109,8 @@ public class CsvProducer implements IDataSetProducer {
     private void produceFromFile(File theDataFile) throws DataSetException, CsvParserException {
         logger.debug("produceFromFile(theDataFile={}) - start", theDataFile);
 
+        DataSetParseEvent event = DbUnitEvents.isEnabled() ? DataSetParseEvent.start("CSV", theDataFile.getPath())
+                : null;
         try {
             CsvParser parser = new CsvParserImpl();
             List readData = parser.parse(theDataFile);
@@ -122,15 +126,20 @@ public class CsvProducer implements IDataSetProducer {
             String tableName = theDataFile.getName().substring(0, theDataFile.getName().indexOf(".csv"));
             ITableMetaData metaData = new DefaultTableMetaData(tableName, columns);
             _consumer.startTable(metaData);
+            long byteCount = 0;
             for (int i = 1; i < readData.size(); i++) {
                 List rowList = (List) readData.get(i);
                 Object[] row = rowList.toArray();
                 for (int col = 0; col < row.length; col++) {
                     row[col] = row[col].equals("null") ? null : row[col];
+                    byteCount += DbUnitEvents.estimateSize((String) row[col]);
                 }
                 _consumer.row(row);
             }
             _consumer.endTable();
+            if (event != null) {
+                event.commit(1, readData.size() - 1, byteCount);
+            }
         } catch (PipelineException e) {
             throw new DataSetException(e);
         } catch (IllegalInputCharacterException e) {
@@ -140,6 +140,33 @@ public abstract class AbstractDataType extends DataType {
         return false;
     }
 
+    /**
+     * Returns whether the data type compares the values cast by
+     * {@link DataType#typeCast(Object)} with
+     * {@link Comparable#compareTo(Object)}, that is whether it does not override
+     * {@link #compare(Object, Object)} or {@link #compareNonNulls(Object, Object)}.
+     *
+     * @param dataType the data type
+     * @return <code>true</code> if cast values are compared by their natural order
+     */
+    public static boolean isComparedByNaturalOrder(DataType dataType) {
+        for (Class<?> type = dataType.getClass(); type != AbstractDataType.class; type = type.getSuperclass()) {
+            if (type == DataType.class || declares(type, "compare") || declares(type, "compareNonNulls")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean declares(Class<?> type, String methodName) {
+        try {
+            type.getDeclaredMethod(methodName, Object.class, Object.class);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     public int getSqlType() {
         logger.debug("getSqlType() - start");
 
@@ -56,6 +56,10 @@ public class DoubleDataType extends AbstractDataType {
             return null;
         }
 
+        if (value instanceof Double) {
+            return value;
+        }
+
         if (value instanceof Number) {
             return new Double(((Number) value).doubleValue());
         }
@@ -57,6 +57,10 @@ public class FloatDataType extends AbstractDataType {
             return null;
         }
 
+        if (value instanceof Float) {
+            return value;
+        }
+
         if (value instanceof Number) {
             return new Float(((Number) value).floatValue());
         }
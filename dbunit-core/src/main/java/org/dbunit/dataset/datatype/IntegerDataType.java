@@ -52,6 +52,10 @@ public class IntegerDataType extends AbstractDataType {
             return null;
         }
 
+        if (value instanceof Integer) {
+            return value;
+        }
+
         if (value instanceof Number) {
             return new Integer(((Number) value).intValue());
         }
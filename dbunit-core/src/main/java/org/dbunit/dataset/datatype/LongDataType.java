@@ -57,6 +57,10 @@ public class LongDataType extends AbstractDataType {
             return null;
         }
 
+        if (value instanceof Long) {
+            return value;
+        }
+
         if (value instanceof Number) {
             return new Long(((Number) value).longValue());
         }
@@ -20,6 +20,8 @@
  */
 package org.dbunit.dataset.stream;
 
+import java.util.concurrent.ThreadFactory;
+
 import org.dbunit.dataset.AbstractDataSet;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.ITable;
@@ -44,10 +46,34 @@ public class StreamingDataSet extends AbstractDataSet {
     private static final Logger logger = LoggerFactory.getLogger(StreamingDataSet.class);
 
     private IDataSetProducer _source;
+    private final int _blockSize;
+    private final int _capacity;
+    private final ThreadFactory _threadFactory;
     private int _iteratorCount;
 
     public StreamingDataSet(IDataSetProducer source) {
+        this(source, StreamingIterator.DEFAULT_BLOCK_SIZE, StreamingIterator.DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * Creates a dataset consuming the specified producer on a thread created by
+     * the specified factory.
+     *
+     * @param source        The source of the data
+     * @param blockSize     The maximum number of table starts and rows handed over
+     *                      at once
+     * @param capacity      The maximum number of blocks waiting to be read before
+     *                      the producer waits
+     * @param threadFactory The factory of the producer thread, or
+     *                      <code>null</code> for a daemon platform thread
+     * @see StreamingIterator#StreamingIterator(IDataSetProducer, int, int,
+     *      ThreadFactory)
+     */
+    public StreamingDataSet(IDataSetProducer source, int blockSize, int capacity, ThreadFactory threadFactory) {
         _source = source;
+        _blockSize = blockSize;
+        _capacity = capacity;
+        _threadFactory = threadFactory;
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -65,7 +91,7 @@ public class StreamingDataSet extends AbstractDataSet {
         }
 
         _iteratorCount++;
-        return new StreamingIterator(_source);
+        return new StreamingIterator(_source, _blockSize, _capacity, _threadFactory);
     }
 
     ////////////////////////////////////////////////////////////////////////////
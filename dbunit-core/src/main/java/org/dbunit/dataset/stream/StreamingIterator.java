@@ -20,22 +20,29 @@
  */
 package org.dbunit.dataset.stream;
 
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
 import org.dbunit.dataset.AbstractTable;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableCursor;
 import org.dbunit.dataset.ITableIterator;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.RowOutOfBoundsException;
-import org.dbunit.util.concurrent.BoundedBuffer;
-import org.dbunit.util.concurrent.Channel;
-import org.dbunit.util.concurrent.Puttable;
-import org.dbunit.util.concurrent.Takable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Asynchronous table iterator that uses a new Thread for asynchronous
  * processing.
+ * <p>
+ * The producer thread hands the table starts and rows over in blocks, through a
+ * bounded queue. The producer waits when the queue is full, and an exception
+ * thrown by the producer is rethrown by the iterator once the rows produced
+ * before it are read.
  *
  * @author Manuel Laflamme
  * @author Last changed by: $Author$
@@ -49,16 +56,24 @@ public class StreamingIterator implements ITableIterator {
      */
     private static final Logger logger = LoggerFactory.getLogger(StreamingIterator.class);
 
+    /**
+     * Default maximum number of table starts and rows in a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /**
+     * Default maximum number of blocks waiting to be read.
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+
     private static final Object EOD = new Object(); // end of dataset marker
 
-    private final Takable _channel;
+    private final BlockingQueue<Object[]> _queue;
+    private Object[] _block;
+    private int _blockIndex;
     private StreamingTable _activeTable;
     private Object _taken = null;
     private boolean _eod = false;
-    /**
-     * Variable to store an exception that might occur in the asynchronous consumer
-     */
-    private Exception _asyncException;
 
     /**
      * Iterator that creates a table iterator by reading the input from the given
@@ -68,30 +83,70 @@ public class StreamingIterator implements ITableIterator {
      * @throws DataSetException
      */
     public StreamingIterator(IDataSetProducer source) throws DataSetException {
-        Channel channel = new BoundedBuffer(30);
-        _channel = channel;
+        this(source, DEFAULT_BLOCK_SIZE, DEFAULT_CAPACITY, null);
+    }
 
-        AsynchronousConsumer consumer = new AsynchronousConsumer(source, channel, this);
-        Thread thread = new Thread(consumer, "StreamingIterator");
-        thread.setDaemon(true);
+    /**
+     * Iterator that creates a table iterator by reading the input from the given
+     * source in an asynchronous way, on a thread created by the specified
+     * factory. On Java 21 and later, <code>Thread.ofVirtual().factory()</code>
+     * runs the producer on a virtual thread.
+     *
+     * @param source        The source of the data
+     * @param blockSize     The maximum number of table starts and rows handed over
+     *                      at once
+     * @param capacity      The maximum number of blocks waiting to be read before
+     *                      the producer waits
+     * @param threadFactory The factory of the producer thread, or
+     *                      <code>null</code> for a daemon platform thread
+     * @throws DataSetException
+     */
+    public StreamingIterator(IDataSetProducer source, int blockSize, int capacity, ThreadFactory threadFactory)
+            throws DataSetException {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1, got " + blockSize);
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1, got " + capacity);
+        }
+        _queue = new ArrayBlockingQueue<>(capacity);
+
+        AsynchronousConsumer consumer = new AsynchronousConsumer(source, _queue, blockSize);
+        Thread thread = threadFactory == null ? newProducerThread(consumer) : threadFactory.newThread(consumer);
         thread.start();
 
         // Take first element from asynchronous handler
-        try {
-            _taken = _channel.take();
-        } catch (InterruptedException e) {
-            logger.debug("Thread '" + Thread.currentThread() + "' was interrupted");
-            throw resolveException(e);
-        }
+        _taken = take();
     }
 
-    private DataSetException resolveException(InterruptedException cause) throws DataSetException {
-        String msg = "Current thread was interrupted (Thread=" + Thread.currentThread() + ")";
-        if (this._asyncException != null) {
-            return new DataSetException(msg, this._asyncException);
-        } else {
-            return new DataSetException(msg, cause);
+    private static Thread newProducerThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "StreamingIterator");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Returns the next table start, row or end of dataset marker handed over by
+     * the producer thread.
+     */
+    private Object take() throws DataSetException {
+        if (_block == null || _blockIndex == _block.length) {
+            try {
+                _block = _queue.take();
+                _blockIndex = 0;
+            } catch (InterruptedException e) {
+                logger.debug("Thread '" + Thread.currentThread() + "' was interrupted");
+                throw new DataSetException(
+                        "Current thread was interrupted (Thread=" + Thread.currentThread() + ")", e);
+            }
+        }
+
+        Object taken = _block[_blockIndex++];
+        if (taken instanceof ProducerFailure) {
+            Exception cause = ((ProducerFailure) taken)._cause;
+            throw new DataSetException("Exception while producing the dataset: " + cause, cause);
         }
+        return taken;
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -142,11 +197,6 @@ public class StreamingIterator implements ITableIterator {
         return _activeTable;
     }
 
-    private void handleException(Exception e) {
-        // Is invoked when the asynchronous thread reports an exception
-        this._asyncException = e;
-    }
-
     ////////////////////////////////////////////////////////////////////////////
     // StreamingTable class
 
@@ -174,19 +224,15 @@ public class StreamingIterator implements ITableIterator {
                 return false;
             }
 
-            try {
-                _taken = _channel.take();
-                if (!(_taken instanceof Object[])) {
-                    _eot = true;
-                    return false;
-                }
-
-                _lastRow++;
-                _rowValues = (Object[]) _taken;
-                return true;
-            } catch (InterruptedException e) {
-                throw resolveException(e);
+            _taken = take();
+            if (!(_taken instanceof Object[])) {
+                _eot = true;
+                return false;
             }
+
+            _lastRow++;
+            _rowValues = (Object[]) _taken;
+            return true;
         }
 
         ////////////////////////////////////////////////////////////////////////
@@ -211,6 +257,11 @@ public class StreamingIterator implements ITableIterator {
             if (logger.isDebugEnabled())
                 logger.debug("getValue(row={}, columnName={}) - start", Integer.toString(row), columnName);
 
+            return getValue(row, getColumnIndex(columnName));
+        }
+
+        @Override
+        public Object getValue(int row, int columnIndex) throws DataSetException {
             // Iterate up to specified row
             while (!_eot && row > _lastRow) {
                 next();
@@ -224,7 +275,44 @@ public class StreamingIterator implements ITableIterator {
                 throw new RowOutOfBoundsException(row + " > " + _lastRow);
             }
 
-            return _rowValues[getColumnIndex(columnName)];
+            return _rowValues[columnIndex];
+        }
+
+        @Override
+        public ITableCursor cursor() {
+            return new ITableCursor() {
+
+                private int row = -1;
+
+                @Override
+                public boolean next() throws DataSetException {
+                    int nextRow = row + 1;
+                    // the row may already be current if it was read by position
+                    while (!_eot && nextRow > _lastRow) {
+                        StreamingTable.this.next();
+                    }
+
+                    if (nextRow < _lastRow) {
+                        throw new UnsupportedOperationException("Cannot go backward!");
+                    }
+
+                    if (_eot) {
+                        return false;
+                    }
+                    row = nextRow;
+                    return true;
+                }
+
+                @Override
+                public int getRow() {
+                    return row;
+                }
+
+                @Override
+                public Object get(int columnIndex) throws DataSetException {
+                    return getValue(row, columnIndex);
+                }
+            };
         }
 
         @Override
@@ -251,15 +339,30 @@ public class StreamingIterator implements ITableIterator {
         private static final Logger logger = LoggerFactory.getLogger(AsynchronousConsumer.class);
 
         private final IDataSetProducer _producer;
-        private final Puttable _channel;
-        private final StreamingIterator _exceptionHandler;
-        private final Thread _invokerThread;
+        private final BlockingQueue<Object[]> _queue;
+        private Object[] _block;
+        private int _blockSize;
 
-        public AsynchronousConsumer(IDataSetProducer source, Puttable channel, StreamingIterator exceptionHandler) {
+        public AsynchronousConsumer(IDataSetProducer source, BlockingQueue<Object[]> queue, int blockSize) {
             _producer = source;
-            _channel = channel;
-            _exceptionHandler = exceptionHandler;
-            _invokerThread = Thread.currentThread();
+            _queue = queue;
+            _block = new Object[blockSize];
+        }
+
+        private void add(Object item) throws InterruptedException {
+            _block[_blockSize++] = item;
+            if (_blockSize == _block.length) {
+                _queue.put(_block);
+                _block = new Object[_block.length];
+                _blockSize = 0;
+            }
+        }
+
+        private void flush() throws InterruptedException {
+            if (_blockSize > 0) {
+                _queue.put(Arrays.copyOf(_block, _blockSize));
+                _blockSize = 0;
+            }
         }
 
         ////////////////////////////////////////////////////////////////////////
@@ -272,9 +375,14 @@ public class StreamingIterator implements ITableIterator {
             try {
                 _producer.produce(this);
             } catch (Exception e) {
-                _exceptionHandler.handleException(e);
-                // Since the invoker thread probably waits tell it that we have finished here
-                _invokerThread.interrupt();
+                // Handed over after the rows already produced, since the invoker thread
+                // probably waits for them
+                try {
+                    add(new ProducerFailure(e));
+                    flush();
+                } catch (InterruptedException ie) {
+                    logger.debug("Thread '" + Thread.currentThread() + "' was interrupted", ie);
+                }
             }
 
             logger.debug("End of thread " + Thread.currentThread());
@@ -292,7 +400,8 @@ public class StreamingIterator implements ITableIterator {
             logger.debug("endDataSet() - start");
 
             try {
-                _channel.put(EOD);
+                add(EOD);
+                flush();
             } catch (InterruptedException e) {
                 throw new DataSetException("Operation was interrupted");
             }
@@ -303,7 +412,7 @@ public class StreamingIterator implements ITableIterator {
             logger.debug("startTable(metaData={}) - start", metaData);
 
             try {
-                _channel.put(metaData);
+                add(metaData);
             } catch (InterruptedException e) {
                 throw new DataSetException("Operation was interrupted");
             }
@@ -318,11 +427,23 @@ public class StreamingIterator implements ITableIterator {
             logger.debug("row(values={}) - start", values);
 
             try {
-                _channel.put(values);
+                add(values);
             } catch (InterruptedException e) {
                 throw new DataSetException("Operation was interrupted");
             }
         }
     }
 
+    /**
+     * Exception thrown by the producer, handed over in place of the remaining
+     * rows.
+     */
+    private static class ProducerFailure {
+
+        private final Exception _cause;
+
+        ProducerFailure(Exception cause) {
+            _cause = cause;
+        }
+    }
 }
@@ -40,6 +40,8 @@ import org.dbunit.dataset.stream.BufferedConsumer;
 import org.dbunit.dataset.stream.DefaultConsumer;
 import org.dbunit.dataset.stream.IDataSetConsumer;
 import org.dbunit.dataset.stream.IDataSetProducer;
+import org.dbunit.util.jfr.DataSetParseEvent;
+import org.dbunit.util.jfr.DbUnitEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.Attributes;
@@ -88,6 +90,10 @@ public class FlatXmlProducer extends DefaultHandler implements IDataSetProducer
      * The current line number
      */
     private int _lineNumberGlobal = 0;
+    /**
+     * The estimated size of the parsed values
+     */
+    private long _byteCount = 0;
     /**
      * Whether the column sensing feature should be used to dynamically recognize
      * new columns during the parse process.
@@ -299,6 +305,9 @@ public class FlatXmlProducer extends DefaultHandler implements IDataSetProducer
     public void produce() throws DataSetException {
         logger.debug("produce() - start");
 
+        DataSetParseEvent event = DbUnitEvents.isEnabled()
+                ? DataSetParseEvent.start("flat XML", _inputSource.getSystemId())
+                : null;
         try {
             SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
             saxParserFactory.setValidating(_validating);
@@ -313,6 +322,10 @@ public class FlatXmlProducer extends DefaultHandler implements IDataSetProducer
             xmlReader.setErrorHandler(this);
             xmlReader.setEntityResolver(_resolver);
             xmlReader.parse(_inputSource);
+            if (event != null) {
+                int tableCount = _orderedTableNameMap == null ? 0 : _orderedTableNameMap.getTableNames().length;
+                event.commit(tableCount, _lineNumberGlobal, _byteCount);
+            }
         } catch (SAXException e) {
             DataSetException exceptionToRethrow = XmlProducer.buildException(e);
             throw exceptionToRethrow;
@@ -396,6 +409,7 @@ public class FlatXmlProducer extends DefaultHandler implements IDataSetProducer
                 Object[] rowValues = new Object[columns.length];
                 for (int i = 0; i < attributesLength; i++) {
                     determineAndSetRowValue(attributes, lastTableMetadata, rowValues, i);
+                    _byteCount += DbUnitEvents.estimateSize(attributes.getValue(i));
                 }
                 _consumer.row(rowValues);
             }
@@ -29,6 +29,9 @@ import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
 import org.dbunit.dataset.datatype.StringDataType;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
+import org.dbunit.operation.MergeUpsertDialect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +43,7 @@ import org.slf4j.LoggerFactory;
  * @since Jul 17, 2003
  * @version $Revision$
  */
-public class Db2DataTypeFactory extends DefaultDataTypeFactory {
+public class Db2DataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
 
     /**
      * Logger for this class
@@ -52,6 +55,8 @@ public class Db2DataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList(new String[] { "db2" });
 
+    private static final IUpsertDialect UPSERT_DIALECT = new MergeUpsertDialect();
+
     static final DataType DB2XML_XMLVARCHAR = new StringDataType("DB2XML.XMLVARCHAR", Types.DISTINCT);
     static final DataType DB2XML_XMLCLOB = new StringDataType("DB2XML.XMLCLOB", Types.DISTINCT);
     static final DataType DB2XML_XMLFILE = new StringDataType("DB2XML.XMLFILE", Types.DISTINCT);
@@ -63,6 +68,11 @@ public class Db2DataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     public DataType createDataType(int sqlType, String sqlTypeName) throws DataTypeException {
         if (logger.isDebugEnabled())
             logger.debug("createDataType(sqlType={}, sqlTypeName={}) - start", String.valueOf(sqlType), sqlTypeName);
@@ -26,6 +26,8 @@ import java.util.Collection;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,7 +39,7 @@ import org.slf4j.LoggerFactory;
  * @version $Revision$ $Date$
  * @since 2.2.1
  */
-public class H2DataTypeFactory extends DefaultDataTypeFactory {
+public class H2DataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
     /**
      * Logger for this class
      */
@@ -47,6 +49,8 @@ public class H2DataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList(new String[] { "h2" });
 
+    private static final IUpsertDialect UPSERT_DIALECT = new H2UpsertDialect();
+
     /**
      * @see org.dbunit.dataset.datatype.IDbProductRelatable#getValidDbProducts()
      */
@@ -55,6 +59,11 @@ public class H2DataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     @Override
     public DataType createDataType(int sqlType, String sqlTypeName) throws DataTypeException {
         if (logger.isDebugEnabled()) {
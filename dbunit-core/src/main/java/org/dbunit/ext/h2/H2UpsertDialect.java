@@ -0,0 +1,30 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.ext.h2;
+
+import org.dbunit.operation.IUpsertDialect;
+
+/**
+ * H2 <code>MERGE INTO ... KEY (...) VALUES (...)</code> statement.
+ */
+public class H2UpsertDialect implements IUpsertDialect {
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeyNames) {
+        StringBuffer sqlBuffer = new StringBuffer(128);
+        sqlBuffer.append("merge into ").append(tableName).append(" (");
+        sqlBuffer.append(String.join(", ", columnNames));
+        sqlBuffer.append(") key (");
+        sqlBuffer.append(String.join(", ", primaryKeyNames));
+        sqlBuffer.append(") values (");
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append("?");
+        }
+        sqlBuffer.append(")");
+        return sqlBuffer.toString();
+    }
+}
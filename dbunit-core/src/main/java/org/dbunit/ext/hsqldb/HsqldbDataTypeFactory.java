@@ -26,6 +26,9 @@ import java.util.Collection;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
+import org.dbunit.operation.MergeUpsertDialect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,7 +40,7 @@ import org.slf4j.LoggerFactory;
  * @version $Revision$ $Date$
  * @since 2.2.0
  */
-public class HsqldbDataTypeFactory extends DefaultDataTypeFactory {
+public class HsqldbDataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
 
     /**
      * Logger for this class
@@ -48,6 +51,8 @@ public class HsqldbDataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList(new String[] { "hsql" });
 
+    private static final IUpsertDialect UPSERT_DIALECT = new MergeUpsertDialect();
+
     /**
      * @see org.dbunit.dataset.datatype.IDbProductRelatable#getValidDbProducts()
      */
@@ -55,6 +60,11 @@ public class HsqldbDataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     public DataType createDataType(int sqlType, String sqlTypeName) throws DataTypeException {
         if (logger.isDebugEnabled())
             logger.debug("createDataType(sqlType={}, sqlTypeName={}) - start", String.valueOf(sqlType), sqlTypeName);
@@ -76,6 +76,8 @@ public class InsertIdentityOperation extends AbstractOperation {
 
     public static final DatabaseOperation REFRESH = new InsertIdentityOperation(DatabaseOperation.REFRESH);
 
+    public static final DatabaseOperation UPSERT = new InsertIdentityOperation(DatabaseOperation.UPSERT);
+
     private static final IColumnFilter DEFAULT_IDENTITY_FILTER = (tableName, column) -> column.getSqlTypeName()
             .endsWith("identity");
 
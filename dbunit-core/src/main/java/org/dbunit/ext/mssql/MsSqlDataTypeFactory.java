@@ -27,6 +27,8 @@ import java.util.Collection;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,7 +39,7 @@ import org.slf4j.LoggerFactory;
  * @since May 19, 2003
  * @version $Revision$
  */
-public class MsSqlDataTypeFactory extends DefaultDataTypeFactory {
+public class MsSqlDataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
 
     /**
      * Logger for this class
@@ -48,6 +50,8 @@ public class MsSqlDataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList("mssql", "Microsoft SQL Server");
 
+    private static final IUpsertDialect UPSERT_DIALECT = new MsSqlUpsertDialect();
+
     private static final DateTimeOffsetType DATE_TIME_OFFSET_TYPE = new DateTimeOffsetType();
 
     public static final int NCHAR = -8;
@@ -63,6 +67,11 @@ public class MsSqlDataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     @Override
     public DataType createDataType(int sqlType, String sqlTypeName) throws DataTypeException {
         if (logger.isDebugEnabled())
@@ -0,0 +1,18 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.ext.mssql;
+
+import org.dbunit.operation.MergeUpsertDialect;
+
+/**
+ * MS SQL Server <code>MERGE</code> statement, which must be terminated by a
+ * semicolon.
+ */
+public class MsSqlUpsertDialect extends MergeUpsertDialect {
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeyNames) {
+        return super.getUpsertSql(tableName, columnNames, primaryKeyNames) + ";";
+    }
+}
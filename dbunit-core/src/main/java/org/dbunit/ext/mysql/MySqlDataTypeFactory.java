@@ -27,6 +27,8 @@ import java.util.Collection;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +40,7 @@ import org.slf4j.LoggerFactory;
  * @version $Revision$ $Date$
  * @since 1.5 (Sep 3, 2003)
  */
-public class MySqlDataTypeFactory extends DefaultDataTypeFactory {
+public class MySqlDataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
     public static final String UNSIGNED_SUFFIX = " UNSIGNED";
     public static final String SQL_TYPE_NAME_TINYINT_UNSIGNED = "TINYINT" + UNSIGNED_SUFFIX;
 
@@ -51,6 +53,8 @@ public class MySqlDataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList(new String[] { "mysql" });
 
+    private static final IUpsertDialect UPSERT_DIALECT = new MySqlUpsertDialect();
+
     /**
      * @see org.dbunit.dataset.datatype.IDbProductRelatable#getValidDbProducts()
      */
@@ -58,6 +62,11 @@ public class MySqlDataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     public DataType createDataType(int sqlType, String sqlTypeName) throws DataTypeException {
         if (logger.isDebugEnabled())
             logger.debug("createDataType(sqlType={}, sqlTypeName={}) - start", String.valueOf(sqlType), sqlTypeName);
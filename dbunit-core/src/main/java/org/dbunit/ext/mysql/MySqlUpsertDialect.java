@@ -0,0 +1,44 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.ext.mysql;
+
+import java.util.Arrays;
+
+import org.dbunit.operation.IUpsertDialect;
+
+/**
+ * MySQL <code>INSERT ... ON DUPLICATE KEY UPDATE</code> statement.
+ */
+public class MySqlUpsertDialect implements IUpsertDialect {
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeyNames) {
+        StringBuffer sqlBuffer = new StringBuffer(128);
+        sqlBuffer.append("insert into ").append(tableName).append(" (");
+        sqlBuffer.append(String.join(", ", columnNames));
+        sqlBuffer.append(") values (");
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append("?");
+        }
+        sqlBuffer.append(") on duplicate key update ");
+
+        String separator = "";
+        for (String columnName : columnNames) {
+            if (!Arrays.asList(primaryKeyNames).contains(columnName)) {
+                sqlBuffer.append(separator);
+                sqlBuffer.append(columnName).append(" = values(").append(columnName).append(")");
+                separator = ", ";
+            }
+        }
+
+        // MySQL requires an assignment even when all columns are primary keys
+        if (separator.isEmpty()) {
+            sqlBuffer.append(primaryKeyNames[0]).append(" = ").append(primaryKeyNames[0]);
+        }
+        return sqlBuffer.toString();
+    }
+}
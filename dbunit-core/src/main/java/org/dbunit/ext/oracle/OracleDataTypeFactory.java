@@ -29,6 +29,8 @@ import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
 import org.dbunit.dataset.datatype.StringDataType;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,7 +41,7 @@ import org.slf4j.LoggerFactory;
  * @since Jul 17, 2003
  * @version $Revision$
  */
-public class OracleDataTypeFactory extends DefaultDataTypeFactory {
+public class OracleDataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
 
     /**
      * Logger for this class
@@ -50,6 +52,8 @@ public class OracleDataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList(new String[] { "oracle" });
 
+    private static final IUpsertDialect UPSERT_DIALECT = new OracleUpsertDialect();
+
     public static final DataType ORACLE_BLOB = new OracleBlobDataType();
     public static final DataType ORACLE_CLOB = new OracleClobDataType();
     public static final DataType ORACLE_NCLOB = new OracleNClobDataType();
@@ -67,6 +71,11 @@ public class OracleDataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     public DataType createDataType(int sqlType, String sqlTypeName) throws DataTypeException {
         if (logger.isDebugEnabled())
             logger.debug("createDataType(sqlType={}, sqlTypeName={}) - start", String.valueOf(sqlType), sqlTypeName);
@@ -0,0 +1,25 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.ext.oracle;
+
+import org.dbunit.operation.MergeUpsertDialect;
+
+/**
+ * Oracle <code>MERGE</code> statement. Oracle has no <code>VALUES</code> table
+ * constructor, the source row is selected from <code>dual</code> instead.
+ */
+public class OracleUpsertDialect extends MergeUpsertDialect {
+
+    @Override
+    protected void appendSource(StringBuffer sqlBuffer, String[] columnNames) {
+        sqlBuffer.append("(select ");
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append("? as ").append(columnNames[i]);
+        }
+        sqlBuffer.append(" from dual) ").append(SOURCE);
+    }
+}
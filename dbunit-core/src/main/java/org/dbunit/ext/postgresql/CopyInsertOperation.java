@@ -0,0 +1,473 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.ext.postgresql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableCursor;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+import org.dbunit.operation.AbstractOperation;
+import org.dbunit.operation.CompositeOperation;
+import org.dbunit.operation.DatabaseOperation;
+import org.dbunit.operation.IOperationMonitor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inserts the dataset contents with <code>COPY table (columns) FROM STDIN</code>,
+ * streaming the rows of each table to the server through the PostgreSQL driver
+ * instead of executing one insert statement per row.
+ * <p>
+ * Values are converted with the column data types of the
+ * {@link PostgresqlDataTypeFactory} and sent in the text or in the binary COPY
+ * format. The binary format is used only for tables whose columns all have a
+ * type with a simple binary representation (integers, floating points,
+ * booleans, character types, enums, bytea, uuid and date); other tables are
+ * copied as text. Tables having a column COPY cannot load, like large object
+ * <code>oid</code> or array columns, and connections which are not PostgreSQL
+ * connections, fall back to {@link DatabaseOperation#INSERT}.
+ * <p>
+ * As with INSERT, columns without value in a row, or <code>null</code> for a
+ * not nullable column with a default, are left out so that the default
+ * applies. A row leaving out different columns than the previous one starts a
+ * new COPY.
+ */
+public class CopyInsertOperation extends AbstractOperation {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CopyInsertOperation.class);
+
+    public static enum Format {
+        TEXT, BINARY
+    }
+
+    public static final DatabaseOperation INSERT = new CopyInsertOperation(Format.TEXT);
+
+    public static final DatabaseOperation BINARY_INSERT = new CopyInsertOperation(Format.BINARY);
+
+    public static final DatabaseOperation CLEAN_INSERT = new CompositeOperation(DatabaseOperation.DELETE_ALL,
+            INSERT);
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private static final byte[] BINARY_SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n',
+            0 };
+
+    private static final long POSTGRES_EPOCH_DAY = 10957; // 2000-01-01
+
+    private final Format _format;
+
+    public CopyInsertOperation(Format format) {
+        _format = format;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // DatabaseOperation class
+
+    @Override
+    public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+            throws DatabaseUnitException, SQLException {
+        logger.debug("execute(connection={}, dataSet={}) - start", connection, dataSet);
+
+        Connection jdbcConnection = connection.getConnection();
+        if (!jdbcConnection.isWrapperFor(PGConnection.class)) {
+            logger.debug("execute: not a PostgreSQL connection, using INSERT");
+            DatabaseOperation.INSERT.execute(connection, dataSet);
+            return;
+        }
+        PGConnection pgConnection = jdbcConnection.unwrap(PGConnection.class);
+
+        IOperationMonitor monitor = getOperationMonitor(connection);
+        long operationStart = System.nanoTime();
+        monitor.operationStarted(this);
+        try {
+            // for each table
+            ITableIterator iterator = dataSet.iterator();
+            while (iterator.next()) {
+                ITable table = iterator.getTable();
+
+                String tableName = table.getTableMetaData().getTableName();
+                logger.trace("execute: processing table='{}'", tableName);
+
+                // Do not process empty table
+                if (isEmpty(table)) {
+                    continue;
+                }
+
+                ITableMetaData metaData = getOperationMetaData(connection, table.getTableMetaData());
+                Format format = getFormat(metaData.getColumns());
+                if (format == null) {
+                    logger.debug("execute: table '{}' has columns COPY cannot load, using INSERT", tableName);
+                    DatabaseOperation.INSERT.execute(connection, new DefaultDataSet(table));
+                    continue;
+                }
+
+                long tableStart = System.nanoTime();
+                monitor.tableStarted(this, tableName);
+                try {
+                    copyTable(connection, monitor, pgConnection, table, metaData, format);
+                } catch (SQLException | IOException e) {
+                    final String msg = "Exception processing table name='" + tableName + "'";
+                    throw new DatabaseUnitException(msg, e);
+                } finally {
+                    monitor.tableFinished(this, tableName, getKnownRowCount(table), System.nanoTime() - tableStart);
+                }
+            }
+        } finally {
+            monitor.operationFinished(this, System.nanoTime() - operationStart);
+        }
+    }
+
+    /**
+     * Returns the format used to copy a table having the specified columns, or
+     * <code>null</code> if it cannot be copied.
+     */
+    Format getFormat(Column[] columns) {
+        Format format = _format;
+        for (Column column : columns) {
+            if (!isTextSupported(column)) {
+                return null;
+            }
+            if (!isBinarySupported(column)) {
+                format = Format.TEXT;
+            }
+        }
+        return format;
+    }
+
+    static boolean isTextSupported(Column column) {
+        DataType dataType = column.getDataType();
+        if (dataType instanceof PostgreSQLOidDataType) {
+            return false;
+        }
+        switch (dataType.getSqlType()) {
+        case Types.ARRAY:
+        case Types.STRUCT:
+        case Types.REF:
+        case Types.JAVA_OBJECT:
+        case Types.DATALINK:
+            return false;
+        default:
+            return true;
+        }
+    }
+
+    static boolean isBinarySupported(Column column) {
+        if (column.getDataType() instanceof GenericEnumType) {
+            return true;
+        }
+        String sqlTypeName = column.getSqlTypeName();
+        if (sqlTypeName == null) {
+            return false;
+        }
+        switch (sqlTypeName.toLowerCase(Locale.ENGLISH)) {
+        case "int2":
+        case "int4":
+        case "int8":
+        case "float4":
+        case "float8":
+        case "bool":
+        case "text":
+        case "varchar":
+        case "bpchar":
+        case "bytea":
+        case "uuid":
+        case "date":
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Copies the rows of the table, each COPY being reported to the monitor as
+     * a batch of its rows.
+     */
+    private void copyTable(AbstractDatabaseConnection connection, IOperationMonitor monitor,
+            PGConnection pgConnection, ITable table, ITableMetaData metaData, Format format)
+            throws DataSetException, SQLException, IOException {
+        Column[] columns = metaData.getColumns();
+        int[] columnIndexes = getColumnIndexes(table, columns);
+        boolean allowEmptyFields = connection.getDatabaseConfig().isAllowEmptyFields();
+        String tableName = metaData.getTableName();
+
+        BitSet ignoreMapping = null;
+        String copySql = null;
+        PGCopyOutputStream copyStream = null;
+        long copyStart = 0;
+        int copyRowCount = 0;
+        long copyByteCount = 0;
+        ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream(256);
+        try {
+            ITableCursor cursor = table.cursor();
+            while (cursor.next()) {
+                Object[] values = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    values[i] = cursor.get(columnIndexes[i]);
+                    if ("".equals(values[i]) && !allowEmptyFields) {
+                        handleColumnHasNoValue(tableName, columns[i].getColumnName());
+                    }
+                }
+
+                // If current row have a different ignore value mapping than
+                // previous one, we start a new copy
+                BitSet rowIgnoreMapping = getIgnoreMapping(columns, values);
+                if (!rowIgnoreMapping.equals(ignoreMapping)) {
+                    if (copyStream != null) {
+                        endCopy(copyStream, format);
+                        monitor.batchExecuted(tableName, copySql, copyRowCount, copyByteCount,
+                                System.nanoTime() - copyStart);
+                    }
+                    ignoreMapping = rowIgnoreMapping;
+                    copySql = getCopySql(connection, tableName, columns, ignoreMapping, format);
+                    copyStart = System.nanoTime();
+                    copyRowCount = 0;
+                    copyByteCount = 0;
+                    copyStream = new PGCopyOutputStream(pgConnection, copySql, BUFFER_SIZE);
+                    if (format == Format.BINARY) {
+                        writeBinaryHeader(copyStream);
+                    }
+                }
+
+                rowBuffer.reset();
+                if (format == Format.BINARY) {
+                    writeBinaryRow(rowBuffer, tableName, columns, ignoreMapping, values);
+                } else {
+                    writeTextRow(rowBuffer, tableName, columns, ignoreMapping, values);
+                }
+                rowBuffer.writeTo(copyStream);
+                copyRowCount++;
+                copyByteCount += rowBuffer.size();
+            }
+
+            if (copyStream != null) {
+                endCopy(copyStream, format);
+                monitor.batchExecuted(tableName, copySql, copyRowCount, copyByteCount, System.nanoTime() - copyStart);
+            }
+        } finally {
+            if (copyStream != null && copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+        }
+    }
+
+    private static BitSet getIgnoreMapping(Column[] columns, Object[] values) {
+        BitSet ignoreMapping = new BitSet();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            Column column = columns[i];
+            if (value == ITable.NO_VALUE || (value == null && column.isNotNullable() && column.hasDefaultValue())) {
+                ignoreMapping.set(i);
+            }
+        }
+        return ignoreMapping;
+    }
+
+    String getCopySql(AbstractDatabaseConnection connection, String tableName, Column[] columns,
+            BitSet ignoreMapping, Format format) {
+        StringBuffer sqlBuffer = new StringBuffer(128);
+        sqlBuffer.append("copy ");
+        sqlBuffer.append(getQualifiedName(connection.getSchema(), tableName, connection));
+        sqlBuffer.append(" (");
+        boolean first = true;
+        for (int i = 0; i < columns.length; i++) {
+            if (!ignoreMapping.get(i)) {
+                if (!first) {
+                    sqlBuffer.append(", ");
+                }
+                first = false;
+                sqlBuffer.append(getQualifiedName(null, columns[i].getColumnName(), connection));
+            }
+        }
+        sqlBuffer.append(") from stdin");
+        if (format == Format.BINARY) {
+            sqlBuffer.append(" (format binary)");
+        }
+        return sqlBuffer.toString();
+    }
+
+    private static void endCopy(PGCopyOutputStream copyStream, Format format) throws IOException, SQLException {
+        if (format == Format.BINARY) {
+            // file trailer
+            new DataOutputStream(copyStream).writeShort(-1);
+        }
+        copyStream.endCopy();
+    }
+
+    private static void writeBinaryHeader(PGCopyOutputStream copyStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(copyStream);
+        out.write(BINARY_SIGNATURE);
+        out.writeInt(0); // flags
+        out.writeInt(0); // header extension length
+    }
+
+    static void writeTextRow(ByteArrayOutputStream rowBuffer, String tableName, Column[] columns,
+            BitSet ignoreMapping, Object[] values) throws TypeCastException {
+        StringBuilder line = new StringBuilder(128);
+        boolean first = true;
+        for (int i = 0; i < columns.length; i++) {
+            if (!ignoreMapping.get(i)) {
+                if (!first) {
+                    line.append('\t');
+                }
+                first = false;
+                Object value = typeCast(tableName, columns[i], values[i]);
+                if (value == null) {
+                    line.append("\\N");
+                } else {
+                    appendTextValue(line, columns[i], value);
+                }
+            }
+        }
+        line.append('\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        rowBuffer.write(bytes, 0, bytes.length);
+    }
+
+    private static void appendTextValue(StringBuilder line, Column column, Object value) {
+        String text;
+        if (value instanceof byte[]) {
+            StringBuilder hex = new StringBuilder(2 + ((byte[]) value).length * 2);
+            hex.append("\\x");
+            for (byte b : (byte[]) value) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            text = hex.toString();
+        } else if (value instanceof BigDecimal) {
+            text = ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Boolean) {
+            boolean bit = "bit".equalsIgnoreCase(column.getSqlTypeName());
+            text = ((Boolean) value).booleanValue() ? (bit ? "1" : "t") : (bit ? "0" : "f");
+        } else {
+            text = value.toString();
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '\\':
+                line.append("\\\\");
+                break;
+            case '\n':
+                line.append("\\n");
+                break;
+            case '\r':
+                line.append("\\r");
+                break;
+            case '\t':
+                line.append("\\t");
+                break;
+            default:
+                line.append(c);
+            }
+        }
+    }
+
+    static void writeBinaryRow(ByteArrayOutputStream rowBuffer, String tableName, Column[] columns,
+            BitSet ignoreMapping, Object[] values) throws TypeCastException, IOException {
+        DataOutputStream out = new DataOutputStream(rowBuffer);
+        out.writeShort(columns.length - ignoreMapping.cardinality());
+        for (int i = 0; i < columns.length; i++) {
+            if (!ignoreMapping.get(i)) {
+                Object value = typeCast(tableName, columns[i], values[i]);
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    writeBinaryValue(out, columns[i], value);
+                }
+            }
+        }
+    }
+
+    private static void writeBinaryValue(DataOutputStream out, Column column, Object value) throws IOException {
+        String sqlTypeName = column.getDataType() instanceof GenericEnumType ? "text"
+                : column.getSqlTypeName().toLowerCase(Locale.ENGLISH);
+        switch (sqlTypeName) {
+        case "int2":
+            out.writeInt(2);
+            out.writeShort(((Number) value).shortValue());
+            break;
+        case "int4":
+            out.writeInt(4);
+            out.writeInt(((Number) value).intValue());
+            break;
+        case "int8":
+            out.writeInt(8);
+            out.writeLong(value instanceof BigInteger ? ((BigInteger) value).longValueExact()
+                    : ((Number) value).longValue());
+            break;
+        case "float4":
+            out.writeInt(4);
+            out.writeFloat(((Number) value).floatValue());
+            break;
+        case "float8":
+            out.writeInt(8);
+            out.writeDouble(((Number) value).doubleValue());
+            break;
+        case "bool":
+            out.writeInt(1);
+            out.writeByte(((Boolean) value).booleanValue() ? 1 : 0);
+            break;
+        case "bytea":
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+            break;
+        case "uuid":
+            UUID uuid = UUID.fromString(value.toString());
+            out.writeInt(16);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            break;
+        case "date":
+            out.writeInt(4);
+            out.writeInt((int) (((java.sql.Date) value).toLocalDate().toEpochDay() - POSTGRES_EPOCH_DAY));
+            break;
+        default:
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static Object typeCast(String tableName, Column column, Object value) throws TypeCastException {
+        try {
+            return column.getDataType().typeCast(value);
+        } catch (TypeCastException e) {
+            final String msg = "Error casting value for table '" + tableName + "' and column '"
+                    + column.getColumnName() + "'";
+            logger.error("execute: {}", msg);
+            throw new TypeCastException(msg, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[_format=" + _format + "]";
+    }
+}
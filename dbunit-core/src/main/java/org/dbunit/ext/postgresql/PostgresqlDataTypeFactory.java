@@ -23,6 +23,8 @@ package org.dbunit.ext.postgresql;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
 import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.operation.IUpsertDialect;
+import org.dbunit.operation.IUpsertDialectProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +43,7 @@ import java.util.Collection;
  * @author Martin Gollogly (zemertz@gmail.com)
  * @since 2.4.5 (Apr 27, 2009)
  */
-public class PostgresqlDataTypeFactory extends DefaultDataTypeFactory {
+public class PostgresqlDataTypeFactory extends DefaultDataTypeFactory implements IUpsertDialectProvider {
     /**
      * Logger for this class
      */
@@ -51,6 +53,8 @@ public class PostgresqlDataTypeFactory extends DefaultDataTypeFactory {
      */
     private static final Collection DATABASE_PRODUCTS = Arrays.asList(new String[] { "PostgreSQL" });
 
+    private static final IUpsertDialect UPSERT_DIALECT = new PostgresqlUpsertDialect();
+
     /**
      * @see org.dbunit.dataset.datatype.IDbProductRelatable#getValidDbProducts()
      */
@@ -59,6 +63,11 @@ public class PostgresqlDataTypeFactory extends DefaultDataTypeFactory {
         return DATABASE_PRODUCTS;
     }
 
+    @Override
+    public IUpsertDialect getUpsertDialect() {
+        return UPSERT_DIALECT;
+    }
+
     public static Collection getDatabaseProducts() {
         return DATABASE_PRODUCTS;
     }
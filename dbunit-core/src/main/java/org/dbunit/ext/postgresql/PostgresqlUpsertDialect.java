@@ -0,0 +1,46 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.ext.postgresql;
+
+import java.util.Arrays;
+
+import org.dbunit.operation.IUpsertDialect;
+
+/**
+ * PostgreSQL <code>INSERT ... ON CONFLICT (...) DO UPDATE</code> statement.
+ */
+public class PostgresqlUpsertDialect implements IUpsertDialect {
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeyNames) {
+        StringBuffer sqlBuffer = new StringBuffer(128);
+        sqlBuffer.append("insert into ").append(tableName).append(" (");
+        sqlBuffer.append(String.join(", ", columnNames));
+        sqlBuffer.append(") values (");
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append("?");
+        }
+        sqlBuffer.append(") on conflict (");
+        sqlBuffer.append(String.join(", ", primaryKeyNames));
+        sqlBuffer.append(")");
+
+        boolean update = false;
+        for (String columnName : columnNames) {
+            if (!Arrays.asList(primaryKeyNames).contains(columnName)) {
+                sqlBuffer.append(update ? ", " : " do update set ");
+                sqlBuffer.append(columnName).append(" = excluded.").append(columnName);
+                update = true;
+            }
+        }
+
+        // nothing to update when all columns are primary keys
+        if (!update) {
+            sqlBuffer.append(" do nothing");
+        }
+        return sqlBuffer.toString();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.junit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation makes class level {@link SqlBefore} scripts run once for all
+ * tests of the class instead of before every test. A savepoint is set after
+ * they run, and each test is rolled back to it.
+ * <p>
+ * Connections must not be in auto commit mode. When a test commits, or runs a
+ * statement committing implicitly like DDL on most databases, the savepoint is
+ * lost and the scripts run again before the next test.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface SavepointIsolation {
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.junit.internal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.dbunit.junit.DatabaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class level data left uncommitted on connections, with the savepoints tests
+ * of that class roll back to.
+ */
+class ClassSeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassSeed.class);
+
+    final Class<?> testClass;
+    private final Map<String, Connection> connections;
+    final Map<String, Savepoint> savepoints;
+
+    /**
+     * @param testClass
+     * @param connections physical connections, by connection name
+     * @param savepoints
+     */
+    ClassSeed(Class<?> testClass, Map<String, Connection> connections, Map<String, Savepoint> savepoints) {
+        this.testClass = testClass;
+        this.connections = connections;
+        this.savepoints = savepoints;
+    }
+
+    /**
+     * @return true if test context uses the same connections and the seeded data is still there
+     */
+    boolean isReusableBy(TestContext testContext) {
+        if (testClass != testContext.getTestClass()) {
+            return false;
+        }
+        try {
+            for (Entry<String, Connection> entry : connections.entrySet()) {
+                Connection jdbcConnection = testContext.getConnection(entry.getKey()).getConnection();
+                if (physical(jdbcConnection) != entry.getValue()) {
+                    return false;
+                }
+                // fails if the transaction holding the seed is gone
+                jdbcConnection.rollback(savepoints.get(entry.getKey()));
+            }
+            return true;
+        } catch (DatabaseException | SQLException | RuntimeException exc) {
+            logger.debug("Seed of {} can not be reused", testClass, exc);
+            return false;
+        }
+    }
+
+    /**
+     * Rolls back seeded data.
+     */
+    void discard() {
+        for (Connection connection : connections.values()) {
+            try {
+                connection.rollback();
+            } catch (SQLException exc) {
+                logger.debug("Seed rollback failed", exc);
+            }
+        }
+    }
+
+    static Connection physical(Connection jdbcConnection) {
+        try {
+            return jdbcConnection.unwrap(Connection.class);
+        } catch (SQLException exc) {
+            return jdbcConnection;
+        }
+    }
+}
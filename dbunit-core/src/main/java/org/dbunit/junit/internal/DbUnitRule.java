@@ -79,6 +79,14 @@ public abstract class DbUnitRule implements MethodRule {
         return testContextDriver.getTestContext();
     }
 
+    /**
+     * Adds a task seeding data for the whole test class, see
+     * {@link org.dbunit.junit.SavepointIsolation}.
+     */
+    public void addClassTaskBefore(DbunitTask task) {
+        getTestContext().addClassTaskBefore(task);
+    }
+
     public void addTaskBefore(DbunitTask task) {
         getTestContext().addTaskBefore(task);
     }
@@ -24,6 +24,7 @@ public class GlobalContext {
     private final AnnotationProcessor annotationProcessor = new AnnotationProcessor();
 
     private boolean reuseDB = true;
+    private ClassSeed classSeed;
 
     private GlobalContext() {
         driverManagerConnectionsFactory = new DriverManagerConnectionsFactory();
@@ -34,6 +35,10 @@ public class GlobalContext {
         return IT;
     }
 
+    public boolean isReuseDB() {
+        return reuseDB;
+    }
+
     void setReuseDB(boolean reuseDB) {
         this.reuseDB = reuseDB;
     }
@@ -45,4 +50,12 @@ public class GlobalContext {
     public AnnotationProcessor getAnnotationProcessor() {
         return annotationProcessor;
     }
+
+    ClassSeed getClassSeed() {
+        return classSeed;
+    }
+
+    void setClassSeed(ClassSeed classSeed) {
+        this.classSeed = classSeed;
+    }
 }
@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.StringTokenizer;
 
 import org.dbunit.database.AbstractDatabaseConnection;
@@ -33,14 +34,28 @@ public final class SqlScriptExecutor {
 
         List<String> sqlStatements = splitIntoStatements(sql);
 
-        for (String sqlStatement : sqlStatements) {
-            try (Statement statement = connection.getConnection().createStatement();) {
-                statement.execute(sqlStatement);
-            } catch (SQLException exc) {
-                throw new DatabaseException("Unable to execute script [" + ddlFile + "]", exc);
+        boolean ddl = false;
+        try {
+            for (String sqlStatement : sqlStatements) {
+                ddl |= isDdl(sqlStatement);
+                try (Statement statement = connection.getConnection().createStatement();) {
+                    statement.execute(sqlStatement);
+                } catch (SQLException exc) {
+                    throw new DatabaseException("Unable to execute script [" + ddlFile + "]", exc);
+                }
+            }
+        } finally {
+            // the cached metadata is shared by all tests
+            if (ddl) {
+                connection.invalidateMetadata();
             }
         }
+    }
 
+    static boolean isDdl(String sqlStatement) {
+        String statement = sqlStatement.toUpperCase(Locale.ENGLISH);
+        return statement.startsWith("CREATE") || statement.startsWith("ALTER") || statement.startsWith("DROP")
+                || statement.startsWith("RENAME") || statement.startsWith("COMMENT");
     }
 
     static String readSqlFromFile(final File ddlFile) throws IOException {
@@ -4,6 +4,9 @@
 package org.dbunit.junit.internal;
 
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -15,12 +18,17 @@ import org.dbunit.database.DatabaseConnection;
 import org.dbunit.junit.ConnectionSource;
 import org.dbunit.junit.DatabaseException;
 import org.dbunit.operation.DbunitTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
  */
 public class TestContext {
 
+    private static final Logger logger = LoggerFactory.getLogger(TestContext.class);
+
+    private List<DbunitTask> classTasksBefore = new ArrayList<>();
     private List<DbunitTask> tasksBefore = new ArrayList<>();
     private List<DbunitTask> tasksAfter = new ArrayList<>();
 
@@ -28,6 +36,9 @@ public class TestContext {
     private Map<String, ConnectionSource> connectionSources = new HashMap<>();
     private Map<String, AbstractDatabaseConnection> connections = new HashMap<>();
     private String schema;
+    private Class<?> testClass;
+    private boolean savepointIsolation;
+    private Map<String, Savepoint> savepoints = new HashMap<>();
 
     public void setDefaultConnectionName(String defaultConnectionName) {
         this.defaultConnectionName = defaultConnectionName;
@@ -114,6 +125,30 @@ public class TestContext {
         this.schema = schema;
     }
 
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    public void setTestClass(Class<?> testClass) {
+        this.testClass = testClass;
+    }
+
+    public boolean isSavepointIsolation() {
+        return savepointIsolation;
+    }
+
+    public void setSavepointIsolation(boolean savepointIsolation) {
+        this.savepointIsolation = savepointIsolation;
+    }
+
+    /**
+     * Adds task seeding data for the whole test class. With savepoint isolation it
+     * only runs when the class data is not already there.
+     */
+    public void addClassTaskBefore(DbunitTask task) {
+        classTasksBefore.add(task);
+    }
+
     public void addTaskBefore(DbunitTask task) {
         tasksBefore.add(task);
     }
@@ -128,6 +163,52 @@ public class TestContext {
         }
     }
 
+    private void runClassTasksBefore() throws Exception {
+        for (DbunitTask task : classTasksBefore) {
+            task.execute(this);
+        }
+    }
+
+    /**
+     * Reuses class data seeded by a previous test of the same class, or seeds it
+     * and sets savepoints on the connections it used.
+     */
+    private void seedClass() throws Exception {
+        GlobalContext globalContext = GlobalContext.getIt();
+        ClassSeed classSeed = globalContext.getClassSeed();
+        if (classSeed != null && classSeed.isReusableBy(this)) {
+            savepoints.putAll(classSeed.savepoints);
+            return;
+        }
+        discardClassSeed();
+
+        runClassTasksBefore();
+
+        Map<String, Connection> seededConnections = new HashMap<>();
+        Map<String, Savepoint> seedSavepoints = new HashMap<>();
+        for (Entry<String, AbstractDatabaseConnection> entry : connections.entrySet()) {
+            Connection jdbcConnection = entry.getValue().getConnection();
+            if (jdbcConnection.getAutoCommit()) {
+                logger.warn("Connection [{}] is in auto commit mode, savepoint isolation disabled for {}",
+                        entry.getKey(), testClass);
+                return;
+            }
+            seededConnections.put(entry.getKey(), ClassSeed.physical(jdbcConnection));
+            seedSavepoints.put(entry.getKey(), jdbcConnection.setSavepoint());
+        }
+        globalContext.setClassSeed(new ClassSeed(testClass, seededConnections, seedSavepoints));
+        savepoints.putAll(seedSavepoints);
+    }
+
+    private static void discardClassSeed() {
+        GlobalContext globalContext = GlobalContext.getIt();
+        ClassSeed classSeed = globalContext.getClassSeed();
+        if (classSeed != null) {
+            classSeed.discard();
+            globalContext.setClassSeed(null);
+        }
+    }
+
     private void runTasksAfter() throws Exception {
         for (DbunitTask task : tasksAfter) {
             task.execute(this);
@@ -139,6 +220,12 @@ public class TestContext {
     }
 
     void beforeTest() throws Exception {
+        if (savepointIsolation) {
+            seedClass();
+        } else {
+            discardClassSeed();
+            runClassTasksBefore();
+        }
         runTasksBefore();
     }
 
@@ -147,8 +234,24 @@ public class TestContext {
     }
 
     void rollbackConnections() {
-        for (AbstractDatabaseConnection connection : connections.values()) {
+        boolean seedLost = false;
+        for (Entry<String, AbstractDatabaseConnection> entry : connections.entrySet()) {
+            AbstractDatabaseConnection connection = entry.getValue();
+            Savepoint savepoint = savepoints.get(entry.getKey());
+            if (savepoint != null) {
+                try {
+                    connection.getConnection().rollback(savepoint);
+                    continue;
+                } catch (SQLException exc) {
+                    // test committed, or executed DDL committing implicitly
+                    logger.info("Rollback to savepoint failed, class data will be seeded again", exc);
+                    seedLost = true;
+                }
+            }
             connection.rollback();
         }
+        if (seedLost) {
+            discardClassSeed();
+        }
     }
 }
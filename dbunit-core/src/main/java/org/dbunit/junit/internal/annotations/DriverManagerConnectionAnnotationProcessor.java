@@ -38,7 +38,8 @@ class DriverManagerConnectionAnnotationProcessor {
                     annotation.url(), annotation.user(), annotation.password());
             UncloseableConnection uncloseableConnection = new UncloseableConnection(jdbcConnection);
             DataSource dataSource = new SingleConnectionDataSource(uncloseableConnection);
-            ConnectionSource connectionSource = new DataSourceConnectionSource(dataSource);
+            // a reused database keeps its structure, a new one may differ
+            ConnectionSource connectionSource = new DataSourceConnectionSource(dataSource, context.isReuseDB());
             testContext.addConnecionSource(annotation.name(), connectionSource);
         }
     }
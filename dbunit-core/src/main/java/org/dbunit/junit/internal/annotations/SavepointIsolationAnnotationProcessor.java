@@ -0,0 +1,18 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.junit.internal.annotations;
+
+import org.dbunit.junit.SavepointIsolation;
+import org.dbunit.junit.internal.TestContext;
+
+/**
+ *
+ */
+class SavepointIsolationAnnotationProcessor {
+
+    public void process(Class<? extends Object> klass, TestContext testContext) {
+        testContext.setTestClass(klass);
+        testContext.setSavepointIsolation(klass.isAnnotationPresent(SavepointIsolation.class));
+    }
+}
@@ -17,7 +17,7 @@ import org.dbunit.junit.internal.TestContext;
 public class SqlAnnotationProcessor {
 
     public void process(Class<? extends Object> klass, Method method, TestContext testContext) {
-        processBeforeAnnotations(testContext, klass.getAnnotationsByType(SqlBefore.class));
+        processClassBeforeAnnotations(testContext, klass.getAnnotationsByType(SqlBefore.class));
         processBeforeAnnotations(testContext, method.getAnnotationsByType(SqlBefore.class));
         processAfterAnnotations(testContext, klass.getAnnotationsByType(SqlAfter.class));
         processAfterAnnotations(testContext, method.getAnnotationsByType(SqlAfter.class));
@@ -32,6 +32,15 @@ public class SqlAnnotationProcessor {
         }
     }
 
+    void processClassBeforeAnnotations(TestContext testContext, SqlBefore[] annotations) {
+        for (SqlBefore annotation : annotations) {
+            testContext.addClassTaskBefore(tc -> {
+                AbstractDatabaseConnection connection = tc.getConnection(annotation.dataSourceName());
+                SqlScriptExecutor.execute(connection, annotation.filePath());
+            });
+        }
+    }
+
     void processAfterAnnotations(TestContext testContext, SqlAfter[] annotations) {
         for (SqlAfter annotation : annotations) {
             testContext.addTaskAfter(tc -> {
@@ -11,6 +11,7 @@ import javax.sql.DataSource;
 import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.DatabaseConnection;
+import org.dbunit.database.metadata.MetadataCache;
 import org.dbunit.database.metadata.MetadataManager;
 import org.dbunit.junit.ConnectionSource;
 import org.dbunit.junit.DatabaseException;
@@ -27,13 +28,26 @@ public class DataSourceConnectionSource implements ConnectionSource {
     private final MetadataManager metadataManager;
 
     public DataSourceConnectionSource(DataSource dataSource) throws DatabaseException {
+        this(dataSource, false);
+    }
+
+    /**
+     * @param dataSource
+     * @param sharedMetadata whether the metadata is cached for all sources of the
+     *                       same database, or only for this one because the
+     *                       database may be recreated or changed by other tools
+     * @throws DatabaseException
+     */
+    public DataSourceConnectionSource(DataSource dataSource, boolean sharedMetadata) throws DatabaseException {
         this.dataSource = dataSource;
         this.config = new DatabaseConfig();
 
         try ( //
                 Connection jdbcConnection = dataSource.getConnection(); //
         ) {
-            this.metadataManager = new MetadataManager(jdbcConnection, config, null, null);
+            MetadataCache cache = sharedMetadata ? MetadataCache.shared(jdbcConnection, null, config)
+                    : new MetadataCache();
+            this.metadataManager = new MetadataManager(jdbcConnection, config, null, null, cache);
         } catch (SQLException exc) {
             throw new DatabaseException(exc);
         }
@@ -61,6 +75,7 @@ public class DataSourceConnectionSource implements ConnectionSource {
     @Override
     public void releaseConnection(AbstractDatabaseConnection connection) {
         try {
+            connection.close();
             connection.getConnection().close();
         } catch (SQLException exc) {
             exc.printStackTrace();
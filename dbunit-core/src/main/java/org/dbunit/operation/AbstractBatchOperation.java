@@ -28,14 +28,13 @@ import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.database.statement.IPreparedBatchStatement;
-import org.dbunit.database.statement.IStatementFactory;
 import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableCursor;
 import org.dbunit.dataset.ITableIterator;
 import org.dbunit.dataset.ITableMetaData;
-import org.dbunit.dataset.RowOutOfBoundsException;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.TypeCastException;
 import org.slf4j.Logger;
@@ -57,26 +56,7 @@ public abstract class AbstractBatchOperation extends AbstractOperation {
 
     private static final BitSet EMPTY_BITSET = new BitSet();
     protected boolean _reverseRowOrder = false;
-
-    static boolean isEmpty(ITable table) throws DataSetException {
-        logger.debug("isEmpty(table={}) - start", table);
-
-        Column[] columns = table.getTableMetaData().getColumns();
-
-        // No columns = empty
-        if (columns.length == 0) {
-            return true;
-        }
-
-        // Try to fetch first table value
-        try {
-            table.getValue(0, columns[0].getColumnName());
-            return false;
-        } catch (RowOutOfBoundsException e) {
-            // Not able to access first row thus empty
-            return true;
-        }
-    }
+    final OperationDataCache _operationDataCache = new OperationDataCache();
 
     /**
      * Returns list of tables this operation is applied to. This method allow
@@ -105,6 +85,13 @@ public abstract class AbstractBatchOperation extends AbstractOperation {
     abstract OperationData getOperationData(ITableMetaData metaData, BitSet ignoreMapping,
             IDatabaseConnection connection) throws DataSetException;
 
+    /**
+     * Returns statements built by this operation, with their hit and miss counts.
+     */
+    public OperationDataCache getOperationDataCache() {
+        return _operationDataCache;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // DatabaseOperation class
 
@@ -113,105 +100,168 @@ public abstract class AbstractBatchOperation extends AbstractOperation {
             throws DatabaseUnitException, SQLException {
         logger.debug("execute(connection={}, dataSet={}) - start", connection, dataSet);
 
-        IStatementFactory factory = connection.getDatabaseConfig().getStatementFactory();
-        boolean allowEmptyFields = connection.getDatabaseConfig().isAllowEmptyFields();
+        IOperationMonitor monitor = getOperationMonitor(connection);
+        long operationStart = System.nanoTime();
+        monitor.operationStarted(this);
+        try {
+            // for each table
+            ITableIterator iterator = iterator(dataSet);
+            while (iterator.next()) {
+                ITable table = iterator.getTable();
 
-        // for each table
-        ITableIterator iterator = iterator(dataSet);
-        while (iterator.next()) {
-            ITable table = iterator.getTable();
+                String tableName = table.getTableMetaData().getTableName();
+                logger.trace("execute: processing table='{}'", tableName);
 
-            String tableName = table.getTableMetaData().getTableName();
-            logger.trace("execute: processing table='{}'", tableName);
+                // Do not process empty table
+                if (isEmpty(table)) {
+                    continue;
+                }
 
-            // Do not process empty table
-            if (isEmpty(table)) {
-                continue;
+                ITableMetaData metaData = getOperationMetaData(connection, table.getTableMetaData());
+                long tableStart = System.nanoTime();
+                monitor.tableStarted(this, tableName);
+                try {
+                    executeTable(connection, table, metaData);
+                } catch (SQLException e) {
+                    final String msg = "Exception processing table name='" + tableName + "'";
+                    throw new DatabaseUnitException(msg, e);
+                } finally {
+                    monitor.tableFinished(this, tableName, getKnownRowCount(table), System.nanoTime() - tableStart);
+                }
             }
+        } finally {
+            monitor.operationFinished(this, System.nanoTime() - operationStart);
+        }
+    }
 
-            ITableMetaData metaData = getOperationMetaData(connection, table.getTableMetaData());
-            BitSet ignoreMapping = null;
-            OperationData operationData = null;
-            IPreparedBatchStatement statement = null;
-
-            try {
-                // For each row
-                int start = _reverseRowOrder ? table.getRowCount() - 1 : 0;
-                int increment = _reverseRowOrder ? -1 : 1;
+    /**
+     * Applies this operation to all rows of the specified non empty table.
+     *
+     * @param connection the database connection
+     * @param table      the dataset table
+     * @param metaData   the operation metadata, as returned by
+     *                   {@link #getOperationMetaData(AbstractDatabaseConnection, ITableMetaData)}
+     */
+    void executeTable(AbstractDatabaseConnection connection, ITable table, ITableMetaData metaData)
+            throws DatabaseUnitException, SQLException {
+        BitSet ignoreMapping = null;
+        OperationData operationData = null;
+        int[] columnIndexes = null;
+        IPreparedBatchStatement statement = null;
 
-                try {
-                    for (int i = start;; i = i + increment) {
-                        int row = i;
-
-                        // If current row have a different ignore value mapping
-                        // than
-                        // previous one, we generate a new statement
-                        if (ignoreMapping == null || !equalsIgnoreMapping(ignoreMapping, table, row)) {
-                            // Execute and close previous statement
-                            if (statement != null) {
-                                statement.executeBatch();
-                                statement.clearBatch();
-                                statement.close();
-                            }
-
-                            ignoreMapping = getIgnoreMapping(table, row);
-                            operationData = getOperationData(metaData, ignoreMapping, connection);
-                            statement = factory.createPreparedBatchStatement(operationData.getSql(), connection);
-                        }
-
-                        // for each column
-                        Column[] columns = operationData.getColumns();
-                        for (int j = 0; j < columns.length; j++) {
-                            // Bind value only if not in ignore mapping
-                            if (!ignoreMapping.get(j)) {
-                                Column column = columns[j];
-                                String columnName = column.getColumnName();
-                                try {
-                                    DataType dataType = column.getDataType();
-                                    Object value = table.getValue(row, columnName);
-
-                                    if ("".equals(value) && !allowEmptyFields) {
-                                        handleColumnHasNoValue(tableName, columnName);
-                                    }
-
-                                    statement.addValue(value, dataType);
-                                } catch (TypeCastException e) {
-                                    final String msg = "Error casting value for table '" + tableName + "' and column '"
-                                            + columnName + "'";
-                                    logger.error("execute: {}", msg);
-                                    throw new TypeCastException(msg, e);
-                                }
-                            }
-                        }
-                        statement.addBatch();
+        try {
+            // For each row
+            ITableCursor cursor = rowCursor(table);
+            while (cursor.next()) {
+                int row = cursor.getRow();
+
+                // If current row have a different ignore value mapping
+                // than
+                // previous one, we generate a new statement
+                if (ignoreMapping == null || !equalsIgnoreMapping(ignoreMapping, table, row)) {
+                    // Execute and close previous statement
+                    if (statement != null) {
+                        statement.executeBatch();
+                        statement.clearBatch();
+                        statement.close();
+                        statement = null;
                     }
-                } catch (RowOutOfBoundsException e) {
-                    // This exception occurs when records are exhausted
-                    // and we reach the end of the table. Ignore this error
 
-                    // end of table
+                    ignoreMapping = getIgnoreMapping(table, row);
+                    BitSet rowIgnoreMapping = ignoreMapping;
+                    operationData = _operationDataCache.get(metaData, ignoreMapping, 1, connection,
+                            () -> getOperationData(metaData, rowIgnoreMapping, connection));
+                    columnIndexes = getColumnIndexes(table, operationData.getColumns());
+                    statement = createPreparedBatchStatement(connection, metaData.getTableName(),
+                            operationData.getSql(), 1);
                 }
 
+                addValues(connection, statement, operationData.getColumns(), columnIndexes, ignoreMapping, table,
+                        row);
+                statement.addBatch();
+            }
+
+            if (statement != null) {
                 statement.executeBatch();
                 statement.clearBatch();
-            } catch (SQLException e) {
-                final String msg = "Exception processing table name='" + tableName + "'";
-                throw new DatabaseUnitException(msg, e);
-            } finally {
-                if (statement != null) {
-                    statement.close();
-                }
+            }
+        } finally {
+            if (statement != null) {
+                statement.close();
             }
         }
     }
 
-    protected void handleColumnHasNoValue(String tableName, String columnName) {
-        final String tableColumnName = tableName + "." + columnName;
-        final String msg = "table.column=" + tableColumnName + " value is empty but must contain a value"
-                + " (to disable this feature check," + " set DatabaseConfig.FEATURE_ALLOW_EMPTY_FIELDS to true)";
-        logger.error("execute: {}", msg);
+    /**
+     * Returns a cursor over the table rows, from the last one when the row order
+     * is reversed.
+     */
+    ITableCursor rowCursor(ITable table) throws DataSetException {
+        if (!_reverseRowOrder) {
+            return table.cursor();
+        }
+
+        return new ITableCursor() {
+
+            private int row = table.getRowCount();
+
+            @Override
+            public boolean next() {
+                if (row <= 0) {
+                    row = -1;
+                    return false;
+                }
+                row--;
+                return true;
+            }
+
+            @Override
+            public int getRow() {
+                return row;
+            }
+
+            @Override
+            public Object get(int columnIndex) throws DataSetException {
+                return table.getValue(row, columnIndex);
+            }
+        };
+    }
+
+    /**
+     * Binds the values of one table row to the specified statement. Columns set
+     * in the ignore mapping are skipped.
+     *
+     * @param columnIndexes positions of the columns in the table, see
+     *                      {@link #getColumnIndexes(ITable, Column[])}
+     */
+    void addValues(IDatabaseConnection connection, IPreparedBatchStatement statement, Column[] columns,
+            int[] columnIndexes, BitSet ignoreMapping, ITable table, int row) throws DataSetException, SQLException {
+        boolean allowEmptyFields = connection.getDatabaseConfig().isAllowEmptyFields();
+        String tableName = table.getTableMetaData().getTableName();
+
+        // for each column
+        for (int j = 0; j < columns.length; j++) {
+            // Bind value only if not in ignore mapping
+            if (!ignoreMapping.get(j)) {
+                Column column = columns[j];
+                String columnName = column.getColumnName();
+                try {
+                    DataType dataType = column.getDataType();
+                    Object value = table.getValue(row, columnIndexes[j]);
+
+                    if ("".equals(value) && !allowEmptyFields) {
+                        handleColumnHasNoValue(tableName, columnName);
+                    }
 
-        throw new IllegalArgumentException(msg);
+                    statement.addValue(value, dataType);
+                } catch (TypeCastException e) {
+                    final String msg = "Error casting value for table '" + tableName + "' and column '" + columnName
+                            + "'";
+                    logger.error("execute: {}", msg);
+                    throw new TypeCastException(msg, e);
+                }
+            }
+        }
     }
 
     @Override
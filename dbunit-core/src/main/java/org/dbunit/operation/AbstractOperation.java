@@ -27,10 +27,15 @@ import java.util.List;
 import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.database.statement.IPreparedBatchStatement;
+import org.dbunit.database.statement.IStatementFactory;
 import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.DefaultTableMetaData;
 import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.RowOutOfBoundsException;
 import org.dbunit.util.QualifiedTableName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +52,51 @@ public abstract class AbstractOperation extends DatabaseOperation {
      */
     private static final Logger logger = LoggerFactory.getLogger(AbstractOperation.class);
 
+    /**
+     * Returns <code>true</code> if the table has no columns or no rows.
+     */
+    protected static boolean isEmpty(ITable table) throws DataSetException {
+        logger.debug("isEmpty(table={}) - start", table);
+
+        Column[] columns = table.getTableMetaData().getColumns();
+
+        // No columns = empty
+        if (columns.length == 0) {
+            return true;
+        }
+
+        // Try to fetch first table value
+        try {
+            table.getValue(0, 0);
+            return false;
+        } catch (RowOutOfBoundsException e) {
+            // Not able to access first row thus empty
+            return true;
+        }
+    }
+
+    /**
+     * Returns the positions of the specified columns in the table, so that row
+     * values are not looked up by name.
+     */
+    protected static int[] getColumnIndexes(ITable table, Column[] columns) throws DataSetException {
+        ITableMetaData tableMetaData = table.getTableMetaData();
+        int[] columnIndexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnIndexes[i] = tableMetaData.getColumnIndex(columns[i].getColumnName());
+        }
+        return columnIndexes;
+    }
+
+    protected void handleColumnHasNoValue(String tableName, String columnName) {
+        final String tableColumnName = tableName + "." + columnName;
+        final String msg = "table.column=" + tableColumnName + " value is empty but must contain a value"
+                + " (to disable this feature check," + " set DatabaseConfig.FEATURE_ALLOW_EMPTY_FIELDS to true)";
+        logger.error("execute: {}", msg);
+
+        throw new IllegalArgumentException(msg);
+    }
+
     protected String getQualifiedName(String prefix, String name, IDatabaseConnection connection) {
         String escapePattern = connection.getDatabaseConfig().getEscapePattern();
         QualifiedTableName qualifiedTbleName = new QualifiedTableName(name, prefix, escapePattern);
@@ -60,14 +110,16 @@ public abstract class AbstractOperation extends DatabaseOperation {
      * @param connection the database connection
      * @param metaData   the XML table metadata
      */
-    static ITableMetaData getOperationMetaData(AbstractDatabaseConnection connection, ITableMetaData metaData)
+    protected static ITableMetaData getOperationMetaData(AbstractDatabaseConnection connection, ITableMetaData metaData)
             throws DatabaseUnitException, SQLException {
         logger.debug("getOperationMetaData(connection={}, metaData={}) - start", connection, metaData);
 
         IDataSet databaseDataSet = connection.createDataSet();
         String tableName = metaData.getTableName();
 
+        long start = System.nanoTime();
         ITableMetaData tableMetaData = databaseDataSet.getTableMetaData(tableName);
+        getOperationMonitor(connection).metadataLookedUp(tableName, System.nanoTime() - start);
         Column[] columns = metaData.getColumns();
 
         List columnList = new ArrayList();
@@ -85,4 +137,50 @@ public abstract class AbstractOperation extends DatabaseOperation {
         return new DefaultTableMetaData(tableMetaData.getTableName(), (Column[]) columnList.toArray(new Column[0]),
                 tableMetaData.getPrimaryKeys());
     }
+
+    /**
+     * Returns the configured operation monitor, emitting flight recorder events
+     * when enabled by the configuration.
+     */
+    protected static IOperationMonitor getOperationMonitor(IDatabaseConnection connection) {
+        IOperationMonitor monitor = connection.getDatabaseConfig().getOperationMonitor();
+        if (connection.getDatabaseConfig().isJfrEvents()) {
+            return new JfrOperationMonitor(monitor);
+        }
+        return monitor;
+    }
+
+    /**
+     * Creates a prepared batch statement through the configured statement
+     * factory. The statement and its batches are reported to the configured
+     * {@link IOperationMonitor}.
+     *
+     * @param rowsPerBatch the number of rows added by each
+     *                     <code>addBatch()</code> of the statement
+     */
+    static IPreparedBatchStatement createPreparedBatchStatement(IDatabaseConnection connection, String tableName,
+            String sql, int rowsPerBatch) throws SQLException {
+        IStatementFactory factory = connection.getDatabaseConfig().getStatementFactory();
+        IOperationMonitor monitor = getOperationMonitor(connection);
+        if (monitor == IOperationMonitor.NONE) {
+            return factory.createPreparedBatchStatement(sql, connection);
+        }
+
+        long start = System.nanoTime();
+        IPreparedBatchStatement statement = factory.createPreparedBatchStatement(sql, connection);
+        monitor.statementPrepared(tableName, sql, System.nanoTime() - start);
+        return new MonitoredPreparedBatchStatement(statement, monitor, tableName, sql, rowsPerBatch);
+    }
+
+    /**
+     * Returns the number of rows of the specified table, or -1 if the table can
+     * only be read forward.
+     */
+    protected static int getKnownRowCount(ITable table) {
+        try {
+            return table.getRowCount();
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
 }
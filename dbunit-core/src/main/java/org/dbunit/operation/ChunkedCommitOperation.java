@@ -0,0 +1,281 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.database.statement.AdaptivePreparedBatchStatement;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableCursor;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates an operation and commits every given number of rows, or of bytes
+ * of values, of each table, instead of running the whole load in one
+ * transaction.
+ * <p>
+ * Only the operations processing the rows in dataset order, like
+ * {@link DatabaseOperation#INSERT}, {@link DatabaseOperation#UPDATE},
+ * {@link DatabaseOperation#REFRESH} or {@link DatabaseOperation#UPSERT}, are
+ * split in chunks. Other operations, like the deletes, are executed at once and
+ * committed. The operations of a {@link CompositeOperation} are executed in
+ * turn.
+ * <p>
+ * The progress is recorded after each commit. If the load fails, executing this
+ * operation again with the same dataset skips what was already committed and
+ * resumes from the last committed chunk of the failed table. The progress can
+ * also be passed to a new instance, for example in another process.
+ */
+public class ChunkedCommitOperation extends DatabaseOperation {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedCommitOperation.class);
+
+    private final DatabaseOperation _operation;
+    private final int _chunkRowCount;
+    private final long _chunkBytes;
+    private volatile Progress _progress;
+
+    /**
+     * Creates a ChunkedCommitOperation that decorates the specified operation.
+     *
+     * @param operation     the decorated operation
+     * @param chunkRowCount the number of rows committed at once
+     * @param chunkBytes    the estimated size of the values committed at once, or
+     *                      0 for no limit
+     */
+    public ChunkedCommitOperation(DatabaseOperation operation, int chunkRowCount, long chunkBytes) {
+        this(operation, chunkRowCount, chunkBytes, Progress.START);
+    }
+
+    /**
+     * Creates a ChunkedCommitOperation resuming a load which failed after the
+     * specified progress.
+     *
+     * @param operation     the decorated operation
+     * @param chunkRowCount the number of rows committed at once
+     * @param chunkBytes    the estimated size of the values committed at once, or
+     *                      0 for no limit
+     * @param progress      the progress of the failed load
+     */
+    public ChunkedCommitOperation(DatabaseOperation operation, int chunkRowCount, long chunkBytes,
+            Progress progress) {
+        if (chunkRowCount < 1) {
+            throw new IllegalArgumentException("chunkRowCount must be at least 1, got " + chunkRowCount);
+        }
+        if (chunkBytes < 0) {
+            throw new IllegalArgumentException("chunkBytes must not be negative, got " + chunkBytes);
+        }
+        _operation = operation;
+        _chunkRowCount = chunkRowCount;
+        _chunkBytes = chunkBytes;
+        _progress = progress;
+    }
+
+    /**
+     * Returns what was committed by the last failed execution, or the start if
+     * the last execution succeeded.
+     */
+    public Progress getProgress() {
+        return _progress;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // DatabaseOperation class
+
+    @Override
+    public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+            throws DatabaseUnitException, SQLException {
+        logger.debug("execute(connection={}, dataSet={}) - start", connection, dataSet);
+
+        Connection jdbcConnection = connection.getConnection();
+
+        if (jdbcConnection.getAutoCommit() == false) {
+            throw new ExclusiveTransactionException();
+        }
+
+        DatabaseOperation[] operations = _operation instanceof CompositeOperation
+                ? ((CompositeOperation) _operation).getActions()
+                : new DatabaseOperation[] { _operation };
+
+        jdbcConnection.setAutoCommit(false);
+        try {
+            for (int i = _progress.getOperationIndex(); i < operations.length; i++) {
+                execute(connection, operations[i], dataSet);
+                _progress = new Progress(i + 1, 0, null, 0);
+            }
+            _progress = Progress.START;
+        } catch (DatabaseUnitException | SQLException | RuntimeException e) {
+            jdbcConnection.rollback();
+            logger.error("Operation failed, committed up to " + _progress);
+            throw e;
+        } finally {
+            jdbcConnection.setAutoCommit(true);
+        }
+    }
+
+    private void execute(AbstractDatabaseConnection connection, DatabaseOperation operation, IDataSet dataSet)
+            throws DatabaseUnitException, SQLException {
+        ITableIterator iterator = getChunkedIterator(operation, dataSet);
+        if (iterator == null) {
+            operation.execute(connection, dataSet);
+            connection.getConnection().commit();
+            return;
+        }
+
+        Progress progress = _progress;
+        for (int tableIndex = 0; iterator.next(); tableIndex++) {
+            if (tableIndex < progress.getTableIndex()) {
+                continue;
+            }
+            int committedRowCount = tableIndex == progress.getTableIndex() ? progress.getRowCount() : 0;
+            executeTable(connection, operation, iterator.getTable(), tableIndex, committedRowCount);
+        }
+    }
+
+    /**
+     * Returns the tables in the order the operation processes them, or
+     * <code>null</code> if the operation cannot be split in chunks.
+     */
+    private static ITableIterator getChunkedIterator(DatabaseOperation operation, IDataSet dataSet)
+            throws DatabaseUnitException {
+        if (operation instanceof AbstractBatchOperation) {
+            AbstractBatchOperation batchOperation = (AbstractBatchOperation) operation;
+            return batchOperation._reverseRowOrder ? null : batchOperation.iterator(dataSet);
+        }
+        if (operation instanceof RefreshOperation) {
+            return dataSet.iterator();
+        }
+        return null;
+    }
+
+    private void executeTable(AbstractDatabaseConnection connection, DatabaseOperation operation, ITable table,
+            int tableIndex, int committedRowCount) throws DatabaseUnitException, SQLException {
+        ITableMetaData metaData = table.getTableMetaData();
+        String tableName = metaData.getTableName();
+        int columnCount = metaData.getColumns().length;
+        int operationIndex = _progress.getOperationIndex();
+
+        if (committedRowCount > 0) {
+            logger.info("Resuming table {} after {} committed rows", tableName, committedRowCount);
+        }
+
+        DefaultTable chunk = new DefaultTable(metaData);
+        int chunkRowCount = 0;
+        long chunkBytes = 0;
+        int rowCount = committedRowCount;
+        ITableCursor cursor = table.cursor();
+        while (cursor.next()) {
+            if (cursor.getRow() < committedRowCount) {
+                continue;
+            }
+
+            Object[] values = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = cursor.get(i);
+                chunkBytes += AdaptivePreparedBatchStatement.estimateSize(values[i]);
+            }
+            chunk.addRow(values);
+            chunkRowCount++;
+
+            if (chunkRowCount >= _chunkRowCount || _chunkBytes > 0 && chunkBytes >= _chunkBytes) {
+                rowCount += chunkRowCount;
+                commitChunk(connection, operation, chunk,
+                        new Progress(operationIndex, tableIndex, tableName, rowCount));
+                chunk = new DefaultTable(metaData);
+                chunkRowCount = 0;
+                chunkBytes = 0;
+            }
+        }
+        rowCount += chunkRowCount;
+        Progress tableDone = new Progress(operationIndex, tableIndex + 1, null, 0);
+        if (chunkRowCount > 0) {
+            commitChunk(connection, operation, chunk, tableDone);
+        } else {
+            _progress = tableDone;
+        }
+        logger.debug("Committed {} rows of table {}", rowCount, tableName);
+    }
+
+    private void commitChunk(AbstractDatabaseConnection connection, DatabaseOperation operation, ITable chunk,
+            Progress progress) throws DatabaseUnitException, SQLException {
+        operation.execute(connection, new DefaultDataSet(chunk));
+        connection.getConnection().commit();
+        _progress = progress;
+        logger.debug("Committed up to {}", progress);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[_operation=" + _operation + ", _chunkRowCount=" + _chunkRowCount
+                + ", _chunkBytes=" + _chunkBytes + ", _progress=" + _progress + "]";
+    }
+
+    /**
+     * What a {@link ChunkedCommitOperation} committed: the operations before the
+     * operation index, the tables of that operation before the table index, and
+     * the first rows of that table.
+     */
+    public static final class Progress {
+
+        /**
+         * Nothing committed yet.
+         */
+        public static final Progress START = new Progress(0, 0, null, 0);
+
+        private final int _operationIndex;
+        private final int _tableIndex;
+        private final String _tableName;
+        private final int _rowCount;
+
+        /**
+         * @param operationIndex the index of the operation in progress, within a
+         *                       {@link CompositeOperation}
+         * @param tableIndex     the index of the table in progress, in the order
+         *                       the operation iterates the dataset
+         * @param tableName      the name of the table in progress, informative only
+         * @param rowCount       the number of committed rows of the table in
+         *                       progress
+         */
+        public Progress(int operationIndex, int tableIndex, String tableName, int rowCount) {
+            _operationIndex = operationIndex;
+            _tableIndex = tableIndex;
+            _tableName = tableName;
+            _rowCount = rowCount;
+        }
+
+        public int getOperationIndex() {
+            return _operationIndex;
+        }
+
+        public int getTableIndex() {
+            return _tableIndex;
+        }
+
+        public String getTableName() {
+            return _tableName;
+        }
+
+        public int getRowCount() {
+            return _rowCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Progress[operationIndex=" + _operationIndex + ", tableIndex=" + _tableIndex + ", tableName="
+                    + _tableName + ", rowCount=" + _rowCount + "]";
+        }
+    }
+}
@@ -23,6 +23,8 @@ package org.dbunit.operation;
 
 import java.sql.SQLException;
 
+import javax.sql.DataSource;
+
 import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.dataset.IDataSet;
@@ -44,6 +46,8 @@ public abstract class DatabaseOperation {
     public static final DatabaseOperation INSERT = new InsertOperation();
     /** @see RefreshOperation */
     public static final DatabaseOperation REFRESH = new RefreshOperation();
+    /** @see UpsertOperation */
+    public static final DatabaseOperation UPSERT = new UpsertOperation();
     /** @see DeleteOperation */
     public static final DatabaseOperation DELETE = new DeleteOperation();
     /** @see DeleteAllOperation */
@@ -62,6 +66,12 @@ public abstract class DatabaseOperation {
         return new TransactionOperation(operation);
     }
 
+    /** @see ParallelOperation */
+    public static final DatabaseOperation PARALLEL(DatabaseOperation operation, DataSource dataSource,
+            int connectionCount) {
+        return new ParallelOperation(operation, dataSource, connectionCount);
+    }
+
     /** @see CloseConnectionOperation */
     public static final DatabaseOperation CLOSE_CONNECTION(DatabaseOperation operation) {
         return new CloseConnectionOperation(operation);
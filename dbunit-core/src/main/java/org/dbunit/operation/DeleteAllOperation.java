@@ -55,6 +55,18 @@ public class DeleteAllOperation extends AbstractOperation {
     @Override
     public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
             throws DatabaseUnitException, SQLException {
+        IOperationMonitor monitor = getOperationMonitor(connection);
+        long operationStart = System.nanoTime();
+        monitor.operationStarted(this);
+        try {
+            executeDeletes(connection, dataSet);
+        } finally {
+            monitor.operationFinished(this, System.nanoTime() - operationStart);
+        }
+    }
+
+    private void executeDeletes(AbstractDatabaseConnection connection, IDataSet dataSet)
+            throws DatabaseUnitException, SQLException {
         IStatementFactory statementFactory = connection.getDatabaseConfig().getStatementFactory();
         IBatchStatement statement = statementFactory.createBatchStatement(connection);
         try {
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+/**
+ * Receives the timings of the database operations, to find which tables take
+ * most of the time. Install it with
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#setOperationMonitor(IOperationMonitor)}.
+ * <p>
+ * Callbacks are made by the operations processing the dataset tables, like
+ * {@link DatabaseOperation#INSERT}, {@link DatabaseOperation#UPDATE},
+ * {@link DatabaseOperation#DELETE}, {@link DatabaseOperation#REFRESH} and
+ * {@link DatabaseOperation#UPSERT}, and around the whole of
+ * {@link DatabaseOperation#DELETE_ALL} and
+ * {@link DatabaseOperation#TRUNCATE_TABLE}. Decorating operations, like
+ * {@link CompositeOperation}, report nothing themselves. Operations executed by
+ * {@link ParallelOperation} call the monitor from several threads.
+ * <p>
+ * All durations are in nanoseconds. Every method does nothing by default.
+ */
+public interface IOperationMonitor {
+
+    /**
+     * Monitor ignoring all callbacks, the default.
+     */
+    IOperationMonitor NONE = new IOperationMonitor() {
+    };
+
+    /**
+     * Called before the operation processes the dataset.
+     */
+    default void operationStarted(DatabaseOperation operation) {
+    }
+
+    /**
+     * Called after the operation processed the dataset, also when it failed.
+     */
+    default void operationFinished(DatabaseOperation operation, long nanos) {
+    }
+
+    /**
+     * Called before the operation processes the rows of a non empty table.
+     */
+    default void tableStarted(DatabaseOperation operation, String tableName) {
+    }
+
+    /**
+     * Called after the operation processed the rows of a table, also when it
+     * failed.
+     *
+     * @param rowCount the number of rows of the dataset table, or -1 if the table
+     *                 can only be read forward
+     */
+    default void tableFinished(DatabaseOperation operation, String tableName, int rowCount, long nanos) {
+    }
+
+    /**
+     * Called after the table metadata of the database was looked up, before the
+     * table is started. The first lookup of a table reads the JDBC metadata,
+     * later ones are usually cached.
+     */
+    default void metadataLookedUp(String tableName, long nanos) {
+    }
+
+    /**
+     * Called after a statement was prepared through the configured statement
+     * factory.
+     */
+    default void statementPrepared(String tableName, String sql, long nanos) {
+    }
+
+    /**
+     * Called after the batch of a prepared statement was executed.
+     *
+     * @param rowCount the number of rows of the batch
+     * @param nanos    the time spent adding the rows to the batch and executing
+     *                 it, where the statements are sent to the database
+     */
+    default void batchExecuted(String tableName, String sql, int rowCount, long nanos) {
+    }
+
+    /**
+     * Called after the batch of a prepared statement was executed, with the
+     * size of its values. Calls {@link #batchExecuted(String, String, int, long)}
+     * by default.
+     *
+     * @param rowCount  the number of rows of the batch
+     * @param byteCount the estimated size of the values bound in the batch
+     * @param nanos     the time spent adding the rows to the batch and executing
+     *                  it, where the statements are sent to the database
+     */
+    default void batchExecuted(String tableName, String sql, int rowCount, long byteCount, long nanos) {
+        batchExecuted(tableName, sql, rowCount, nanos);
+    }
+}
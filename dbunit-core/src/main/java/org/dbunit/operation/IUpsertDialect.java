@@ -0,0 +1,24 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+/**
+ * Generates the database specific statement that inserts a row or updates it
+ * when a row with the same primary key already exists.
+ *
+ * @see UpsertOperation
+ */
+public interface IUpsertDialect {
+
+    /**
+     * Returns the upsert statement for one row. Statement parameters must be
+     * ordered as the specified columns.
+     *
+     * @param tableName       the qualified and escaped table name
+     * @param columnNames     the escaped names of all bound columns
+     * @param primaryKeyNames the escaped names of primary key columns, a subset
+     *                        of <code>columnNames</code>
+     */
+    String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeyNames);
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+/**
+ * Implemented by database specific objects, typically an
+ * {@link org.dbunit.dataset.datatype.IDataTypeFactory}, which know the native
+ * upsert syntax of their database.
+ *
+ * @see UpsertOperation
+ */
+public interface IUpsertDialectProvider {
+
+    IUpsertDialect getUpsertDialect();
+}
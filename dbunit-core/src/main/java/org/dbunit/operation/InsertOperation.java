@@ -21,22 +21,50 @@
 
 package org.dbunit.operation;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.database.metadata.MetadataCache;
+import org.dbunit.database.search.ImportedKeysSearchCallback;
+import org.dbunit.database.statement.IPreparedBatchStatement;
 import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTable;
 import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableCursor;
 import org.dbunit.dataset.ITableMetaData;
-
-import java.util.BitSet;
+import org.dbunit.util.search.IEdge;
+import org.dbunit.util.search.SearchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Inserts the dataset contents into the database. This operation assumes that
  * table data does not exist in the database and fails if this is not the case.
  * To prevent problems with foreign keys, tables must be sequenced appropriately
  * in dataset.
+ * <p>
+ * When {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#getInsertRowsPerStatement()}
+ * is greater than one, consecutive rows sharing the same ignore mapping are
+ * inserted with multi-row <code>insert into ... values (...), (...)</code>
+ * statements. The number of rows per statement is further limited so that the
+ * number of bind parameters never exceeds
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#getMaxBindParameters()}.
+ * <p>
+ * Rows omitting different columns need different statements. Unless the table
+ * references itself, the rows of a table are grouped by the columns they omit
+ * and each group is inserted with one statement batch, the rows of a group
+ * keeping their dataset order. Rows of tables referencing themselves are
+ * inserted in dataset order, a new statement batch starting whenever the
+ * omitted columns change, and so are tables which can only be read forward.
  *
  * @author Manuel Laflamme
  * @version $Revision$
@@ -55,11 +83,287 @@ public class InsertOperation extends AbstractBatchOperation {
     ////////////////////////////////////////////////////////////////////////////
     // AbstractBatchOperation class
 
+    @Override
+    void executeTable(AbstractDatabaseConnection connection, ITable table, ITableMetaData metaData)
+            throws DatabaseUnitException, SQLException {
+        List<RowGroup> groups = groupRows(table);
+        if (groups != null) {
+            if (groups.size() > 1 && isSelfReferencing(connection, metaData.getTableName())) {
+                groups = toRuns(groups, table.getRowCount());
+            }
+            logger.debug("Inserting table {} with {} row groups", metaData.getTableName(), groups.size());
+            for (RowGroup group : groups) {
+                executeGroup(connection, table, metaData, group);
+            }
+            return;
+        }
+
+        if (connection.getDatabaseConfig().getInsertRowsPerStatement() <= 1) {
+            super.executeTable(connection, table, metaData);
+            return;
+        }
+
+        ITableMetaData tableMetaData = table.getTableMetaData();
+        int columnCount = tableMetaData.getColumns().length;
+
+        BitSet ignoreMapping = null;
+        OperationData operationData = null;
+        int[] columnIndexes = null;
+        IPreparedBatchStatement statement = null;
+        int rowsPerStatement = 0;
+        // pending rows are copied, table may be forward only
+        DefaultTable pendingRows = null;
+
+        try {
+            ITableCursor cursor = table.cursor();
+            while (cursor.next()) {
+                int row = cursor.getRow();
+
+                // If current row have a different ignore value mapping than
+                // previous one, we flush pending rows and start a new statement
+                if (ignoreMapping == null || !equalsIgnoreMapping(ignoreMapping, table, row)) {
+                    if (statement != null) {
+                        statement.executeBatch();
+                        statement.clearBatch();
+                        statement.close();
+                        statement = null;
+                    }
+                    executeTail(connection, metaData, ignoreMapping, pendingRows);
+
+                    ignoreMapping = getIgnoreMapping(table, row);
+                    rowsPerStatement = getRowsPerStatement(connection, metaData, ignoreMapping);
+                    pendingRows = new DefaultTable(tableMetaData);
+                    operationData = null;
+                }
+
+                Object[] rowValues = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    rowValues[i] = cursor.get(i);
+                }
+                pendingRows.addRow(rowValues);
+
+                if (pendingRows.getRowCount() == rowsPerStatement) {
+                    // Statement is only prepared once a full set of rows is available
+                    if (statement == null) {
+                        operationData = getCachedOperationData(metaData, ignoreMapping, rowsPerStatement,
+                                connection);
+                        columnIndexes = getColumnIndexes(pendingRows, operationData.getColumns());
+                        statement = createPreparedBatchStatement(connection, metaData.getTableName(),
+                                operationData.getSql(), rowsPerStatement);
+                    }
+                    for (int i = 0; i < rowsPerStatement; i++) {
+                        addValues(connection, statement, operationData.getColumns(), columnIndexes, ignoreMapping,
+                                pendingRows, i);
+                    }
+                    statement.addBatch();
+                    pendingRows = new DefaultTable(tableMetaData);
+                }
+            }
+
+            if (statement != null) {
+                statement.executeBatch();
+                statement.clearBatch();
+            }
+            executeTail(connection, metaData, ignoreMapping, pendingRows);
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the rows of the table grouped by ignore mapping, in the order each
+     * mapping first appears, or <code>null</code> if the table can only be read
+     * forward.
+     */
+    private List<RowGroup> groupRows(ITable table) throws DataSetException {
+        int rowCount;
+        try {
+            rowCount = table.getRowCount();
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+
+        Map<BitSet, RowGroup> groups = new LinkedHashMap<>();
+        for (int row = 0; row < rowCount; row++) {
+            BitSet ignoreMapping = getIgnoreMapping(table, row);
+            RowGroup group = groups.get(ignoreMapping);
+            if (group == null) {
+                group = new RowGroup(ignoreMapping);
+                groups.put(ignoreMapping, group);
+            }
+            group.add(row);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Returns the rows of the groups split again into runs of consecutive rows
+     * sharing an ignore mapping, in dataset order.
+     */
+    private static List<RowGroup> toRuns(List<RowGroup> groups, int rowCount) {
+        RowGroup[] rowGroups = new RowGroup[rowCount];
+        for (RowGroup group : groups) {
+            for (int i = 0; i < group.rowCount; i++) {
+                rowGroups[group.rows[i]] = group;
+            }
+        }
+
+        List<RowGroup> runs = new ArrayList<>();
+        RowGroup run = null;
+        for (int row = 0; row < rowCount; row++) {
+            if (run == null || run.ignoreMapping != rowGroups[row].ignoreMapping) {
+                run = new RowGroup(rowGroups[row].ignoreMapping);
+                runs.add(run);
+            }
+            run.add(row);
+        }
+        return runs;
+    }
+
+    /**
+     * Returns <code>true</code> if the table has a foreign key to itself, in
+     * which case its rows must be inserted in dataset order. The result is kept
+     * in the metadata cache of the connection, so the foreign keys are looked up
+     * once per table and not for every chunk of a refresh.
+     */
+    boolean isSelfReferencing(AbstractDatabaseConnection connection, String tableName) throws DataSetException {
+        MetadataCache cache = connection.getMetadataManager() == null ? null
+                : connection.getMetadataManager().getCache();
+        List<Object> cacheKey = Arrays.asList(InsertOperation.class, "selfReferencing", connection.getSchema(),
+                tableName);
+        Boolean cached = cache == null ? null : (Boolean) cache.getDerived(cacheKey);
+        if (cached != null) {
+            return cached.booleanValue();
+        }
+
+        boolean selfReferencing = false;
+        try {
+            for (Object edge : new ImportedKeysSearchCallback(connection).getEdges(tableName)) {
+                String from = (String) ((IEdge) edge).getFrom();
+                if (from.equalsIgnoreCase((String) ((IEdge) edge).getTo())) {
+                    selfReferencing = true;
+                    break;
+                }
+            }
+        } catch (SearchException e) {
+            throw new DataSetException("Exception while searching the dependent tables.", e);
+        }
+        if (cache != null) {
+            cache.putDerived(cacheKey, Boolean.valueOf(selfReferencing));
+        }
+        return selfReferencing;
+    }
+
+    /**
+     * Inserts the rows of a group with one statement batch, followed by one
+     * smaller statement for the rows that do not fill a complete multi-row
+     * statement.
+     */
+    private void executeGroup(AbstractDatabaseConnection connection, ITable table, ITableMetaData metaData,
+            RowGroup group) throws DataSetException, SQLException {
+        int rowsPerStatement = 1;
+        if (connection.getDatabaseConfig().getInsertRowsPerStatement() > 1) {
+            rowsPerStatement = getRowsPerStatement(connection, metaData, group.ignoreMapping);
+        }
+
+        int fullRowCount = group.rowCount - group.rowCount % rowsPerStatement;
+        if (fullRowCount > 0) {
+            executeRows(connection, table, metaData, group, 0, fullRowCount, rowsPerStatement);
+        }
+        if (fullRowCount < group.rowCount) {
+            executeRows(connection, table, metaData, group, fullRowCount, group.rowCount,
+                    group.rowCount - fullRowCount);
+        }
+    }
+
+    private void executeRows(AbstractDatabaseConnection connection, ITable table, ITableMetaData metaData,
+            RowGroup group, int from, int to, int rowsPerStatement) throws DataSetException, SQLException {
+        OperationData operationData = getCachedOperationData(metaData, group.ignoreMapping, rowsPerStatement,
+                connection);
+        int[] columnIndexes = getColumnIndexes(table, operationData.getColumns());
+        IPreparedBatchStatement statement = createPreparedBatchStatement(connection, metaData.getTableName(),
+                operationData.getSql(), rowsPerStatement);
+        try {
+            for (int i = from; i < to; i++) {
+                addValues(connection, statement, operationData.getColumns(), columnIndexes, group.ignoreMapping,
+                        table, group.rows[i]);
+                if ((i - from + 1) % rowsPerStatement == 0) {
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+            statement.clearBatch();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Inserts the remaining rows that do not fill a complete multi-row statement
+     * with one smaller statement.
+     */
+    private void executeTail(AbstractDatabaseConnection connection, ITableMetaData metaData, BitSet ignoreMapping,
+            ITable pendingRows) throws DataSetException, SQLException {
+        if (pendingRows == null || pendingRows.getRowCount() == 0) {
+            return;
+        }
+
+        int pendingCount = pendingRows.getRowCount();
+        OperationData operationData = getCachedOperationData(metaData, ignoreMapping, pendingCount, connection);
+        int[] columnIndexes = getColumnIndexes(pendingRows, operationData.getColumns());
+        IPreparedBatchStatement statement = createPreparedBatchStatement(connection, metaData.getTableName(),
+                operationData.getSql(), pendingCount);
+        try {
+            for (int i = 0; i < pendingCount; i++) {
+                addValues(connection, statement, operationData.getColumns(), columnIndexes, ignoreMapping,
+                        pendingRows, i);
+            }
+            statement.addBatch();
+            statement.executeBatch();
+            statement.clearBatch();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Returns the number of rows to insert with a single statement, honoring the
+     * configured bind parameters limit.
+     */
+    int getRowsPerStatement(IDatabaseConnection connection, ITableMetaData metaData, BitSet ignoreMapping)
+            throws DataSetException {
+        int rowsPerStatement = connection.getDatabaseConfig().getInsertRowsPerStatement();
+        int maxBindParameters = connection.getDatabaseConfig().getMaxBindParameters();
+
+        int boundColumns = metaData.getColumns().length - ignoreMapping.cardinality();
+        if (boundColumns > 0) {
+            rowsPerStatement = Math.min(rowsPerStatement, maxBindParameters / boundColumns);
+        }
+        return Math.max(1, rowsPerStatement);
+    }
+
     public OperationData getOperationData(ITableMetaData metaData, BitSet ignoreMapping, IDatabaseConnection connection)
             throws DataSetException {
+        return getOperationData(metaData, ignoreMapping, 1, connection);
+    }
+
+    private OperationData getCachedOperationData(ITableMetaData metaData, BitSet ignoreMapping, int rowCount,
+            IDatabaseConnection connection) throws DataSetException {
+        return _operationDataCache.get(metaData, ignoreMapping, rowCount, connection,
+                () -> getOperationData(metaData, ignoreMapping, rowCount, connection));
+    }
+
+    /**
+     * Returns the insert statement for the specified number of rows. Bind
+     * parameters are ordered row by row.
+     */
+    OperationData getOperationData(ITableMetaData metaData, BitSet ignoreMapping, int rowCount,
+            IDatabaseConnection connection) throws DataSetException {
         if (logger.isDebugEnabled()) {
-            logger.debug("getOperationData(metaData={}, ignoreMapping={}, connection={}) - start",
-                    new Object[] { metaData, ignoreMapping, connection });
+            logger.debug("getOperationData(metaData={}, ignoreMapping={}, rowCount={}, connection={}) - start",
+                    new Object[] { metaData, ignoreMapping, rowCount, connection });
         }
 
         Column[] columns = metaData.getColumns();
@@ -83,16 +387,22 @@ public class InsertOperation extends AbstractBatchOperation {
         }
 
         // values
-        sqlBuffer.append(") values (");
-        String valueSeparator = "";
-        for (int i = 0; i < columns.length; i++) {
-            if (!ignoreMapping.get(i)) {
-                sqlBuffer.append(valueSeparator);
-                sqlBuffer.append("?");
-                valueSeparator = ", ";
+        sqlBuffer.append(") values ");
+        for (int row = 0; row < rowCount; row++) {
+            if (row > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append("(");
+            String valueSeparator = "";
+            for (int i = 0; i < columns.length; i++) {
+                if (!ignoreMapping.get(i)) {
+                    sqlBuffer.append(valueSeparator);
+                    sqlBuffer.append("?");
+                    valueSeparator = ", ";
+                }
             }
+            sqlBuffer.append(")");
         }
-        sqlBuffer.append(")");
 
         return new OperationData(sqlBuffer.toString(), columns);
     }
@@ -106,7 +416,7 @@ public class InsertOperation extends AbstractBatchOperation {
         BitSet ignoreMapping = new BitSet();
         for (int i = 0; i < columns.length; i++) {
             Column column = columns[i];
-            Object value = table.getValue(row, column.getColumnName());
+            Object value = table.getValue(row, i);
             if (value == ITable.NO_VALUE || (value == null && column.isNotNullable() && column.hasDefaultValue())) {
                 ignoreMapping.set(i);
             }
@@ -124,7 +434,7 @@ public class InsertOperation extends AbstractBatchOperation {
 
         for (int i = 0; i < columns.length; i++) {
             boolean bit = ignoreMapping.get(i);
-            Object value = table.getValue(row, columns[i].getColumnName());
+            Object value = table.getValue(row, i);
             if ((bit && value != ITable.NO_VALUE) || (!bit && value == ITable.NO_VALUE)) {
                 return false;
             }
@@ -132,4 +442,25 @@ public class InsertOperation extends AbstractBatchOperation {
 
         return true;
     }
+
+    /**
+     * The indexes of the rows sharing an ignore mapping, in dataset order.
+     */
+    private static final class RowGroup {
+
+        final BitSet ignoreMapping;
+        int[] rows = new int[16];
+        int rowCount = 0;
+
+        RowGroup(BitSet ignoreMapping) {
+            this.ignoreMapping = ignoreMapping;
+        }
+
+        void add(int row) {
+            if (rowCount == rows.length) {
+                rows = Arrays.copyOf(rows, rowCount * 2);
+            }
+            rows[rowCount++] = row;
+        }
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import org.dbunit.util.jfr.TableOperationEvent;
+
+/**
+ * Decorates the configured {@link IOperationMonitor} to emit a
+ * {@link TableOperationEvent} for each table processed by an operation. The
+ * batches executed while a table is in progress on a thread are added to its
+ * event.
+ */
+class JfrOperationMonitor implements IOperationMonitor {
+
+    private static final ThreadLocal<TableOperationEvent> currentEvent = new ThreadLocal<>();
+
+    private final IOperationMonitor _monitor;
+
+    JfrOperationMonitor(IOperationMonitor monitor) {
+        _monitor = monitor;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // IOperationMonitor interface
+
+    @Override
+    public void operationStarted(DatabaseOperation operation) {
+        _monitor.operationStarted(operation);
+    }
+
+    @Override
+    public void operationFinished(DatabaseOperation operation, long nanos) {
+        _monitor.operationFinished(operation, nanos);
+    }
+
+    @Override
+    public void tableStarted(DatabaseOperation operation, String tableName) {
+        TableOperationEvent event = new TableOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation.getClass().getSimpleName();
+            event.tableName = tableName;
+            event.begin();
+            currentEvent.set(event);
+        }
+        _monitor.tableStarted(operation, tableName);
+    }
+
+    @Override
+    public void tableFinished(DatabaseOperation operation, String tableName, int rowCount, long nanos) {
+        TableOperationEvent event = currentEvent.get();
+        if (event != null) {
+            currentEvent.remove();
+            event.rowCount = rowCount;
+            event.commit();
+        }
+        _monitor.tableFinished(operation, tableName, rowCount, nanos);
+    }
+
+    @Override
+    public void metadataLookedUp(String tableName, long nanos) {
+        _monitor.metadataLookedUp(tableName, nanos);
+    }
+
+    @Override
+    public void statementPrepared(String tableName, String sql, long nanos) {
+        _monitor.statementPrepared(tableName, sql, nanos);
+    }
+
+    @Override
+    public void batchExecuted(String tableName, String sql, int rowCount, long byteCount, long nanos) {
+        TableOperationEvent event = currentEvent.get();
+        if (event != null) {
+            event.batchCount++;
+            event.batchRowCount += rowCount;
+            event.byteCount += byteCount;
+        }
+        _monitor.batchExecuted(tableName, sql, rowCount, byteCount, nanos);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+/**
+ * SQL:2003 <code>MERGE</code> statement using a <code>VALUES</code> row as
+ * source. Understood by HSQLDB and DB2, subclasses adapt it for other
+ * databases.
+ */
+public class MergeUpsertDialect implements IUpsertDialect {
+
+    protected static final String TARGET = "tgt";
+    protected static final String SOURCE = "src";
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeyNames) {
+        StringBuffer sqlBuffer = new StringBuffer(256);
+        sqlBuffer.append("merge into ").append(tableName).append(" ").append(TARGET);
+        sqlBuffer.append(" using ");
+        appendSource(sqlBuffer, columnNames);
+
+        // on
+        sqlBuffer.append(" on (");
+        for (int i = 0; i < primaryKeyNames.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(" and ");
+            }
+            sqlBuffer.append(TARGET).append(".").append(primaryKeyNames[i]);
+            sqlBuffer.append(" = ");
+            sqlBuffer.append(SOURCE).append(".").append(primaryKeyNames[i]);
+        }
+        sqlBuffer.append(")");
+
+        // update non primary key columns
+        String separator = " when matched then update set ";
+        for (String columnName : columnNames) {
+            if (!contains(primaryKeyNames, columnName)) {
+                sqlBuffer.append(separator);
+                sqlBuffer.append(columnName).append(" = ").append(SOURCE).append(".").append(columnName);
+                separator = ", ";
+            }
+        }
+
+        // insert
+        sqlBuffer.append(" when not matched then insert (");
+        appendList(sqlBuffer, "", columnNames);
+        sqlBuffer.append(") values (");
+        appendList(sqlBuffer, SOURCE + ".", columnNames);
+        sqlBuffer.append(")");
+
+        return sqlBuffer.toString();
+    }
+
+    /**
+     * Appends the single row source table, holding one parameter per column.
+     */
+    protected void appendSource(StringBuffer sqlBuffer, String[] columnNames) {
+        sqlBuffer.append("(values (");
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append("?");
+        }
+        sqlBuffer.append(")) as ").append(SOURCE).append(" (");
+        appendList(sqlBuffer, "", columnNames);
+        sqlBuffer.append(")");
+    }
+
+    protected static void appendList(StringBuffer sqlBuffer, String prefix, String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                sqlBuffer.append(", ");
+            }
+            sqlBuffer.append(prefix).append(names[i]);
+        }
+    }
+
+    protected static boolean contains(String[] names, String name) {
+        for (String candidate : names) {
+            if (candidate.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
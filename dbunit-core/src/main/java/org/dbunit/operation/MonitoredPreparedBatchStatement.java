@@ -0,0 +1,87 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import java.sql.SQLException;
+
+import org.dbunit.database.statement.AdaptivePreparedBatchStatement;
+import org.dbunit.database.statement.IPreparedBatchStatement;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+
+/**
+ * Reports the batches of the decorated statement to an
+ * {@link IOperationMonitor}. The time spent in <code>addBatch()</code> is
+ * included because statements which do not support batches are executed
+ * there.
+ */
+class MonitoredPreparedBatchStatement implements IPreparedBatchStatement {
+
+    private final IPreparedBatchStatement _statement;
+    private final IOperationMonitor _monitor;
+    private final String _tableName;
+    private final String _sql;
+    private final int _rowsPerBatch;
+    private int _rowCount = 0;
+    private long _byteCount = 0;
+    private long _nanos = 0;
+
+    /**
+     * @param rowsPerBatch the number of rows added by each
+     *                     <code>addBatch()</code>, more than one for multi-row
+     *                     statements
+     */
+    MonitoredPreparedBatchStatement(IPreparedBatchStatement statement, IOperationMonitor monitor, String tableName,
+            String sql, int rowsPerBatch) {
+        _statement = statement;
+        _monitor = monitor;
+        _tableName = tableName;
+        _sql = sql;
+        _rowsPerBatch = rowsPerBatch;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // IPreparedBatchStatement interface
+
+    @Override
+    public void addValue(Object value, DataType dataType) throws TypeCastException, SQLException {
+        _statement.addValue(value, dataType);
+        _byteCount += AdaptivePreparedBatchStatement.estimateSize(value);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        long start = System.nanoTime();
+        _statement.addBatch();
+        _nanos += System.nanoTime() - start;
+        _rowCount += _rowsPerBatch;
+    }
+
+    @Override
+    public int executeBatch() throws SQLException {
+        long start = System.nanoTime();
+        int result = _statement.executeBatch();
+        _nanos += System.nanoTime() - start;
+        if (_rowCount > 0) {
+            _monitor.batchExecuted(_tableName, _sql, _rowCount, _byteCount, _nanos);
+        }
+        _rowCount = 0;
+        _byteCount = 0;
+        _nanos = 0;
+        return result;
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        _statement.clearBatch();
+        _rowCount = 0;
+        _byteCount = 0;
+        _nanos = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        _statement.close();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITableMetaData;
+
+/**
+ * Statements built by an operation, keyed by the table shape they were built
+ * for: schema, table, columns, primary keys, ignored columns, number of rows
+ * and escape pattern. Operation constants are shared, so are the statements
+ * they build, across executions and connections.
+ */
+public class OperationDataCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    @FunctionalInterface
+    interface Builder {
+
+        OperationData build() throws DataSetException;
+    }
+
+    private final int maxSize;
+    private final Map<Key, OperationData> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public OperationDataCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public OperationDataCache(int maxSize) {
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<Key, OperationData>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, OperationData> eldest) {
+                return size() > OperationDataCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns statement built for the same table shape, or builds it.
+     */
+    OperationData get(ITableMetaData metaData, BitSet ignoreMapping, int rowCount, IDatabaseConnection connection,
+            Builder builder) throws DataSetException {
+        Key key = new Key(connection.getDatabaseConfig().getEscapePattern(), connection.getSchema(),
+                metaData.getTableName(), metaData.getColumns(), metaData.getPrimaryKeys(), ignoreMapping, rowCount);
+        synchronized (entries) {
+            OperationData operationData = entries.get(key);
+            if (operationData != null) {
+                hitCount.incrementAndGet();
+                return operationData;
+            }
+        }
+
+        missCount.incrementAndGet();
+        OperationData operationData = builder.build();
+        synchronized (entries) {
+            entries.put(key.copy(), operationData);
+        }
+        return operationData;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[size=" + size() + ", hitCount=" + hitCount + ", missCount=" + missCount
+                + "]";
+    }
+
+    private static final class Key {
+
+        private final String escapePattern;
+        private final String schema;
+        private final String tableName;
+        private final Column[] columns;
+        private final Column[] primaryKeys;
+        private final BitSet ignoreMapping;
+        private final int rowCount;
+        private final int hashCode;
+
+        Key(String escapePattern, String schema, String tableName, Column[] columns, Column[] primaryKeys,
+                BitSet ignoreMapping, int rowCount) {
+            this.escapePattern = escapePattern;
+            this.schema = schema;
+            this.tableName = tableName;
+            this.columns = columns;
+            this.primaryKeys = primaryKeys;
+            this.ignoreMapping = ignoreMapping;
+            this.rowCount = rowCount;
+            hashCode = Objects.hash(schema, tableName, Arrays.hashCode(columns), ignoreMapping, rowCount);
+        }
+
+        /**
+         * @return key not sharing mutable state with the caller
+         */
+        Key copy() {
+            return new Key(escapePattern, schema, tableName, columns.clone(), primaryKeys.clone(),
+                    (BitSet) ignoreMapping.clone(), rowCount);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return rowCount == other.rowCount && tableName.equals(other.tableName)
+                    && Objects.equals(schema, other.schema) && Objects.equals(escapePattern, other.escapePattern)
+                    && ignoreMapping.equals(other.ignoreMapping) && Arrays.equals(columns, other.columns)
+                    && Arrays.equals(primaryKeys, other.primaryKeys);
+        }
+    }
+}
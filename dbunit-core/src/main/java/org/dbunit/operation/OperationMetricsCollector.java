@@ -0,0 +1,263 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IOperationMonitor} adding up, in memory, the time spent on each table
+ * by all operations, with a histogram of the batch latencies. Shared by several
+ * configurations, it covers a whole test suite:
+ *
+ * <pre>
+ * OperationMetricsCollector metrics = new OperationMetricsCollector();
+ * config.setOperationMonitor(metrics);
+ * ...
+ * metrics.printSummary(System.out);
+ * </pre>
+ */
+public class OperationMetricsCollector implements IOperationMonitor {
+
+    /**
+     * Upper bounds of the batch latency histogram buckets, the last bucket has
+     * no bound.
+     */
+    static final long[] LATENCY_BOUNDS_NANOS = { TimeUnit.MICROSECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.SECONDS.toNanos(1) };
+    public static final List<String> LATENCY_LABELS = Collections
+            .unmodifiableList(Arrays.asList("<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s"));
+
+    // table names are case insensitive like in the datasets
+    private final Map<String, TableMetrics> _tables = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of the specified table, or <code>null</code> if no
+     * operation processed it.
+     */
+    public TableMetrics getTableMetrics(String tableName) {
+        return _tables.get(tableName.toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns the metrics of all processed tables, by table name.
+     */
+    public Map<String, TableMetrics> getTableMetrics() {
+        Map<String, TableMetrics> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (TableMetrics metrics : _tables.values()) {
+            tables.put(metrics.getTableName(), metrics);
+        }
+        return tables;
+    }
+
+    /**
+     * Forgets all collected metrics.
+     */
+    public void reset() {
+        _tables.clear();
+    }
+
+    /**
+     * Returns one line per table, the slowest table first, with its rows per
+     * second and batch latency histogram.
+     */
+    public String getSummary() {
+        List<TableMetrics> tables = new ArrayList<>(_tables.values());
+        Collections.sort(tables, Comparator.comparingLong(TableMetrics::getNanos).reversed());
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-30s %10s %10s %12s %8s", "table", "rows", "ms", "rows/s", "batches"));
+        for (String label : LATENCY_LABELS) {
+            summary.append(String.format(" %7s", label));
+        }
+        summary.append(System.lineSeparator());
+        for (TableMetrics metrics : tables) {
+            summary.append(metrics.toSummaryLine()).append(System.lineSeparator());
+        }
+        return summary.toString();
+    }
+
+    public void printSummary(PrintStream out) {
+        out.print(getSummary());
+    }
+
+    private TableMetrics metrics(String tableName) {
+        return _tables.computeIfAbsent(tableName.toUpperCase(Locale.ENGLISH), key -> new TableMetrics(tableName));
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // IOperationMonitor interface
+
+    @Override
+    public void tableFinished(DatabaseOperation operation, String tableName, int rowCount, long nanos) {
+        metrics(tableName).tableFinished(rowCount, nanos);
+    }
+
+    @Override
+    public void metadataLookedUp(String tableName, long nanos) {
+        metrics(tableName).metadataLookedUp(nanos);
+    }
+
+    @Override
+    public void statementPrepared(String tableName, String sql, long nanos) {
+        metrics(tableName).statementPrepared(nanos);
+    }
+
+    @Override
+    public void batchExecuted(String tableName, String sql, int rowCount, long byteCount, long nanos) {
+        metrics(tableName).batchExecuted(rowCount, byteCount, nanos);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[_tables=" + _tables.keySet() + "]";
+    }
+
+    /**
+     * Time spent on a table by all operations.
+     */
+    public static final class TableMetrics {
+
+        private final String _tableName;
+        private long _rowCount = 0;
+        private long _nanos = 0;
+        private long _metadataNanos = 0;
+        private int _statementCount = 0;
+        private long _statementNanos = 0;
+        private int _batchCount = 0;
+        private long _batchRowCount = 0;
+        private long _batchByteCount = 0;
+        private long _batchNanos = 0;
+        private final long[] _latencyHistogram = new long[LATENCY_LABELS.size()];
+
+        TableMetrics(String tableName) {
+            _tableName = tableName;
+        }
+
+        synchronized void tableFinished(int rowCount, long nanos) {
+            // forward only tables report no row count
+            if (rowCount > 0) {
+                _rowCount += rowCount;
+            }
+            _nanos += nanos;
+        }
+
+        synchronized void metadataLookedUp(long nanos) {
+            _metadataNanos += nanos;
+        }
+
+        synchronized void statementPrepared(long nanos) {
+            _statementCount++;
+            _statementNanos += nanos;
+        }
+
+        synchronized void batchExecuted(int rowCount, long byteCount, long nanos) {
+            _batchCount++;
+            _batchRowCount += rowCount;
+            _batchByteCount += byteCount;
+            _batchNanos += nanos;
+
+            int bucket = 0;
+            while (bucket < LATENCY_BOUNDS_NANOS.length && nanos >= LATENCY_BOUNDS_NANOS[bucket]) {
+                bucket++;
+            }
+            _latencyHistogram[bucket]++;
+        }
+
+        public String getTableName() {
+            return _tableName;
+        }
+
+        /**
+         * Returns the number of rows processed by the operations, rows of tables
+         * read forward only are not known.
+         */
+        public synchronized long getRowCount() {
+            return _rowCount;
+        }
+
+        /**
+         * Returns the time spent by the operations on the rows of this table,
+         * including the statement preparations and batches but not the metadata
+         * lookups.
+         */
+        public synchronized long getNanos() {
+            return _nanos;
+        }
+
+        public synchronized long getMetadataNanos() {
+            return _metadataNanos;
+        }
+
+        public synchronized int getStatementCount() {
+            return _statementCount;
+        }
+
+        public synchronized long getStatementNanos() {
+            return _statementNanos;
+        }
+
+        public synchronized int getBatchCount() {
+            return _batchCount;
+        }
+
+        public synchronized long getBatchRowCount() {
+            return _batchRowCount;
+        }
+
+        /**
+         * Returns the estimated size of the values bound in the batches.
+         */
+        public synchronized long getBatchByteCount() {
+            return _batchByteCount;
+        }
+
+        public synchronized long getBatchNanos() {
+            return _batchNanos;
+        }
+
+        /**
+         * Returns the number of batches by latency, with the bounds of
+         * {@link OperationMetricsCollector#LATENCY_LABELS}.
+         */
+        public synchronized long[] getLatencyHistogram() {
+            return _latencyHistogram.clone();
+        }
+
+        /**
+         * Returns the number of rows processed per second, or 0 if unknown.
+         */
+        public synchronized double getRowsPerSecond() {
+            if (_nanos == 0) {
+                return 0;
+            }
+            return _rowCount * (double) TimeUnit.SECONDS.toNanos(1) / _nanos;
+        }
+
+        synchronized String toSummaryLine() {
+            StringBuilder line = new StringBuilder();
+            line.append(String.format("%-30s %10d %10d %12.0f %8d", _tableName, _rowCount,
+                    TimeUnit.NANOSECONDS.toMillis(_nanos), getRowsPerSecond(), _batchCount));
+            for (long count : _latencyHistogram) {
+                line.append(String.format(" %7d", count));
+            }
+            return line.toString();
+        }
+
+        @Override
+        public synchronized String toString() {
+            return getClass().getName() + "[_tableName=" + _tableName + ", _rowCount=" + _rowCount + ", _nanos="
+                    + _nanos + ", _batchCount=" + _batchCount + ", _batchNanos=" + _batchNanos + "]";
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.database.CyclicTablesDependencyException;
+import org.dbunit.database.DatabaseDataSet;
+import org.dbunit.database.DatabaseDataSourceConnection;
+import org.dbunit.database.search.TablesDependencyHelper;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.util.search.SearchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates an operation so that the tables of the dataset are processed
+ * concurrently on several connections obtained from a <code>DataSource</code>.
+ * A table is only started once every table it references through a foreign key
+ * is done, or, for delete operations, once every table referencing it is done.
+ * Tables without such relations between them are processed at the same time.
+ * <p>
+ * Each table is committed on its worker connection as soon as it is processed,
+ * so that the rows are visible to the connections loading the tables which
+ * reference it. This operation returns once all tables are done. The work is
+ * therefore not atomic: if a table fails, the tables already processed stay
+ * committed and the tables not started yet are skipped.
+ * <p>
+ * Decorating a {@link CompositeOperation}, like
+ * {@link DatabaseOperation#CLEAN_INSERT}, runs each of its operations in turn
+ * this way. The dataset tables must be accessible in any order, a streaming
+ * dataset should be wrapped in a {@link org.dbunit.dataset.CachedDataSet}.
+ */
+public class ParallelOperation extends DatabaseOperation {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ParallelOperation.class);
+
+    private static final long WORKER_TERMINATION_TIMEOUT_SECONDS = 60;
+
+    private final DatabaseOperation _operation;
+    private final DataSource _dataSource;
+    private final int _connectionCount;
+
+    /**
+     * Creates a ParallelOperation that decorates the specified operation.
+     *
+     * @param operation       the operation to apply on each table
+     * @param dataSource      the source of the worker connections
+     * @param connectionCount the maximum number of tables processed at the same
+     *                        time, and of connections opened
+     */
+    public ParallelOperation(DatabaseOperation operation, DataSource dataSource, int connectionCount) {
+        if (connectionCount < 1) {
+            throw new IllegalArgumentException("connectionCount must be at least 1, got " + connectionCount);
+        }
+        _operation = operation;
+        _dataSource = dataSource;
+        _connectionCount = connectionCount;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // DatabaseOperation class
+
+    @Override
+    public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+            throws DatabaseUnitException, SQLException {
+        logger.debug("execute(connection={}, dataSet={}) - start", connection, dataSet);
+
+        DatabaseOperation[] operations = _operation instanceof CompositeOperation
+                ? ((CompositeOperation) _operation).getActions()
+                : new DatabaseOperation[] { _operation };
+
+        // tables grouped by name, a name may occur several times in a dataset
+        Map<String, List<ITable>> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        ITableIterator iterator = dataSet.iterator();
+        while (iterator.next()) {
+            ITable table = iterator.getTable();
+            tables.computeIfAbsent(table.getTableMetaData().getTableName(), name -> new ArrayList<>()).add(table);
+        }
+        if (tables.isEmpty()) {
+            return;
+        }
+
+        Map<String, Set<String>> dependsOn = getDependsOnTables(connection, tables.keySet());
+        Map<String, Set<String>> dependents = reverse(dependsOn);
+        checkCycles(dependsOn);
+
+        for (DatabaseOperation operation : operations) {
+            boolean delete = operation instanceof DeleteAllOperation || operation instanceof DeleteOperation;
+            execute(connection, operation, tables, delete ? dependents : dependsOn);
+        }
+    }
+
+    /**
+     * Returns, for each of the specified tables, the other specified tables it
+     * references through a foreign key. The metadata of the tables is loaded
+     * here, on the calling thread, so that the worker connections only read it.
+     */
+    Map<String, Set<String>> getDependsOnTables(AbstractDatabaseConnection connection, Set<String> tableNames)
+            throws DataSetException, SQLException {
+        DatabaseDataSet databaseDataSet = connection.createDataSet();
+
+        Map<String, Set<String>> dependsOn = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String tableName : tableNames) {
+            databaseDataSet.getTableMetaData(tableName);
+
+            Set<String> parents = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            try {
+                for (Object parent : TablesDependencyHelper.getDirectDependsOnTables(connection, tableName)) {
+                    // a table referencing itself is loaded by a single connection
+                    if (tableNames.contains(parent) && !tableName.equalsIgnoreCase((String) parent)) {
+                        parents.add((String) parent);
+                    }
+                }
+            } catch (SearchException e) {
+                throw new DataSetException("Exception while searching the dependent tables.", e);
+            }
+            dependsOn.put(tableName, parents);
+        }
+        return dependsOn;
+    }
+
+    private static Map<String, Set<String>> reverse(Map<String, Set<String>> dependsOn) {
+        Map<String, Set<String>> reversed = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String tableName : dependsOn.keySet()) {
+            reversed.put(tableName, new TreeSet<>(String.CASE_INSENSITIVE_ORDER));
+        }
+        for (Map.Entry<String, Set<String>> entry : dependsOn.entrySet()) {
+            for (String parent : entry.getValue()) {
+                reversed.get(parent).add(entry.getKey());
+            }
+        }
+        return reversed;
+    }
+
+    /**
+     * Verifies that all tables can be ordered, before any of them is touched.
+     */
+    static void checkCycles(Map<String, Set<String>> dependsOn) throws CyclicTablesDependencyException {
+        Map<String, Integer> pending = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, Set<String>> dependents = reverse(dependsOn);
+        List<String> ready = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : dependsOn.entrySet()) {
+            pending.put(entry.getKey(), entry.getValue().size());
+            if (entry.getValue().isEmpty()) {
+                ready.add(entry.getKey());
+            }
+        }
+
+        int done = 0;
+        while (!ready.isEmpty()) {
+            String tableName = ready.remove(ready.size() - 1);
+            done++;
+            for (String dependent : dependents.get(tableName)) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (done < dependsOn.size()) {
+            Set<String> cyclicTableNames = new TreeSet<>();
+            pending.forEach((tableName, count) -> {
+                if (count > 0) {
+                    cyclicTableNames.add(tableName);
+                }
+            });
+            throw new CyclicTablesDependencyException(cyclicTableNames.iterator().next(), cyclicTableNames);
+        }
+    }
+
+    /**
+     * Applies the operation to every table, starting a table once all the
+     * tables it waits for are done.
+     */
+    private void execute(AbstractDatabaseConnection connection, DatabaseOperation operation,
+            Map<String, List<ITable>> tables, Map<String, Set<String>> waitsFor)
+            throws DatabaseUnitException, SQLException {
+        Map<String, Set<String>> unblocks = reverse(waitsFor);
+        Map<String, Integer> pending = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<String> ready = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : waitsFor.entrySet()) {
+            pending.put(entry.getKey(), entry.getValue().size());
+            if (entry.getValue().isEmpty()) {
+                ready.add(entry.getKey());
+            }
+        }
+
+        int workerCount = Math.min(_connectionCount, tables.size());
+        List<AbstractDatabaseConnection> opened = new ArrayList<>(workerCount);
+        BlockingQueue<AbstractDatabaseConnection> workers = new ArrayBlockingQueue<>(workerCount);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, new WorkerThreadFactory());
+        Throwable thrown = null;
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                AbstractDatabaseConnection worker = createWorkerConnection(connection);
+                opened.add(worker);
+                workers.add(worker);
+            }
+
+            CompletionService<String> completionService = new ExecutorCompletionService<>(executor);
+            int running = 0;
+            Throwable failure = null;
+            while (!ready.isEmpty() || running > 0) {
+                if (failure == null) {
+                    for (String tableName : ready) {
+                        List<ITable> tableList = tables.get(tableName);
+                        completionService.submit(() -> executeTable(operation, workers, tableList, tableName));
+                        running++;
+                    }
+                }
+                ready.clear();
+
+                try {
+                    String tableName = completionService.take().get();
+                    for (String unblocked : unblocks.get(tableName)) {
+                        if (pending.merge(unblocked, -1, Integer::sum) == 0) {
+                            ready.add(unblocked);
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseUnitException("Interrupted while waiting for tables to be processed", e);
+                } finally {
+                    running--;
+                }
+            }
+
+            if (failure instanceof DatabaseUnitException) {
+                throw (DatabaseUnitException) failure;
+            }
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw new DatabaseUnitException(failure);
+            }
+        } catch (Throwable e) {
+            thrown = e;
+            throw e;
+        } finally {
+            shutdown(executor);
+            closeWorkers(opened, thrown);
+        }
+    }
+
+    /**
+     * Stops the workers, waiting for those interrupted in a database call, so
+     * that their connections are not closed while in use.
+     */
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(WORKER_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Workers still running after {} seconds, closing their connections",
+                        WORKER_TERMINATION_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes the worker connections, with their cached statements. A failure
+     * to close is added to the exception already thrown, if any.
+     */
+    private static void closeWorkers(List<AbstractDatabaseConnection> workers, Throwable thrown)
+            throws SQLException {
+        SQLException closeFailure = null;
+        for (AbstractDatabaseConnection worker : workers) {
+            try {
+                try {
+                    worker.close();
+                } finally {
+                    worker.getConnection().close();
+                }
+            } catch (SQLException e) {
+                if (thrown != null) {
+                    thrown.addSuppressed(e);
+                } else if (closeFailure == null) {
+                    closeFailure = e;
+                } else {
+                    closeFailure.addSuppressed(e);
+                }
+            }
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    /**
+     * Returns a connection to the same database as the specified one, sharing
+     * its configuration and metadata.
+     */
+    AbstractDatabaseConnection createWorkerConnection(AbstractDatabaseConnection connection) throws SQLException {
+        return new DatabaseDataSourceConnection(_dataSource, connection.getDatabaseConfig(), connection.getSchema(),
+                null, null, connection.getMetadataManager());
+    }
+
+    private static String executeTable(DatabaseOperation operation, BlockingQueue<AbstractDatabaseConnection> workers,
+            List<ITable> tables, String tableName) throws Exception {
+        logger.debug("executeTable(operation={}, tableName={}) - start", operation, tableName);
+
+        AbstractDatabaseConnection worker = workers.take();
+        try {
+            Connection jdbcConnection = worker.getConnection();
+            try {
+                for (ITable table : tables) {
+                    operation.execute(worker, new DefaultDataSet(table));
+                }
+                if (!jdbcConnection.getAutoCommit()) {
+                    jdbcConnection.commit();
+                }
+            } catch (DatabaseUnitException | SQLException | RuntimeException e) {
+                if (!jdbcConnection.getAutoCommit()) {
+                    jdbcConnection.rollback();
+                }
+                throw e;
+            }
+        } finally {
+            workers.add(worker);
+        }
+        return tableName;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[_operation=" + _operation + ", _connectionCount=" + _connectionCount + "]";
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger poolNumber = new AtomicInteger();
+
+        private final String prefix = "dbunit-parallel-" + poolNumber.incrementAndGet() + "-";
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -21,25 +21,32 @@
 
 package org.dbunit.operation;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
-import org.dbunit.database.statement.IPreparedBatchStatement;
-import org.dbunit.database.statement.SimplePreparedStatement;
 import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTable;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableCursor;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.NoPrimaryKeyException;
-import org.dbunit.dataset.RowOutOfBoundsException;
-import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.util.SQLHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +55,14 @@ import org.slf4j.LoggerFactory;
  * means that data of existing rows is updated and non-existing row get
  * inserted. Any rows which exist in the database but not in dataset stay
  * unaffected.
+ * <p>
+ * Rows are processed in chunks of
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#getBatchSize()}
+ * rows, further limited so that the primary key probe does not exceed
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#getMaxBindParameters()}.
+ * For each chunk a single select asks the database which of the primary keys
+ * already exist, then the missing rows are inserted and the existing rows are
+ * updated, each as one batch sent through the configured statement factory.
  *
  * @author Manuel Laflamme
  * @version $Revision$
@@ -68,10 +83,6 @@ public class RefreshOperation extends AbstractOperation {
         _updateOperation = (UpdateOperation) DatabaseOperation.UPDATE;
     }
 
-    private boolean isEmpty(ITable table) throws DataSetException {
-        return AbstractBatchOperation.isEmpty(table);
-    }
-
     ////////////////////////////////////////////////////////////////////////////
     // DatabaseOperation class
 
@@ -80,249 +91,265 @@ public class RefreshOperation extends AbstractOperation {
             throws DatabaseUnitException, SQLException {
         logger.debug("execute(connection={}, dataSet) - start", connection);
 
-        // for each table
-        ITableIterator iterator = dataSet.iterator();
-        while (iterator.next()) {
-            ITable table = iterator.getTable();
-
-            String tableName = table.getTableMetaData().getTableName();
-            logger.trace("execute: processing table='{}'", tableName);
-
-            // Do not process empty table
-            if (isEmpty(table)) {
-                continue;
-            }
-
-            ITableMetaData metaData = getOperationMetaData(connection, table.getTableMetaData());
-            RowOperation updateRowOperation = createUpdateOperation(connection, metaData);
-            RowOperation insertRowOperation = new InsertRowOperation(connection, metaData);
+        IOperationMonitor monitor = getOperationMonitor(connection);
+        long operationStart = System.nanoTime();
+        monitor.operationStarted(this);
+        try {
+            // for each table
+            ITableIterator iterator = dataSet.iterator();
+            while (iterator.next()) {
+                ITable table = iterator.getTable();
+
+                String tableName = table.getTableMetaData().getTableName();
+                logger.trace("execute: processing table='{}'", tableName);
+
+                // Do not process empty table
+                if (isEmpty(table)) {
+                    continue;
+                }
 
-            try {
-                // refresh all rows
-                for (int i = 0;; i++) {
-                    if (!updateRowOperation.execute(table, i)) {
-                        insertRowOperation.execute(table, i);
-                    }
+                ITableMetaData metaData = getOperationMetaData(connection, table.getTableMetaData());
+                long tableStart = System.nanoTime();
+                monitor.tableStarted(this, tableName);
+                try {
+                    executeTable(connection, table, metaData);
+                } catch (SQLException e) {
+                    final String msg = "Exception processing table name='" + tableName + "'";
+                    throw new DatabaseUnitException(msg, e);
+                } finally {
+                    monitor.tableFinished(this, tableName, getKnownRowCount(table), System.nanoTime() - tableStart);
                 }
-            } catch (RowOutOfBoundsException e) {
-                // This exception occurs when records are exhausted
-                // and we reach the end of the table. Ignore this error.
-
-                // end of table
-            } catch (SQLException e) {
-                final String msg = "Exception processing table name='" + tableName + "'";
-                throw new DatabaseUnitException(msg, e);
-            } finally {
-                // cleanup
-                updateRowOperation.close();
-                insertRowOperation.close();
             }
+        } finally {
+            monitor.operationFinished(this, System.nanoTime() - operationStart);
         }
 
     }
 
-    private RowOperation createUpdateOperation(IDatabaseConnection connection, ITableMetaData metaData)
-            throws DataSetException, SQLException {
-        logger.debug("createUpdateOperation(connection={}, metaData={}) - start", connection, metaData);
-
-        // update only if columns are not all primary keys
-        if (metaData.getColumns().length > metaData.getPrimaryKeys().length) {
-            return new UpdateRowOperation(connection, metaData);
-        }
-
-        // otherwise, operation only verify if row exist
-        return new RowExistOperation(connection, metaData);
-    }
-
     /**
-     * This class represents a operation executed on a single table row.
+     * Refreshes all rows of the specified non empty table, one chunk at a time.
+     * Each chunk is copied before being processed because the table may be
+     * forward only. A row whose key may be equal in the database to the key of
+     * a row already in the chunk starts a new chunk, so that it is updated after
+     * the previous row has been inserted.
      */
-    class RowOperation {
-
-        /**
-         * Logger for this class
-         */
-        private final Logger logger = LoggerFactory.getLogger(RowOperation.class);
-
-        protected IPreparedBatchStatement _statement;
-        protected OperationData _operationData;
-        protected BitSet _ignoreMapping;
-
-        /**
-         * Execute this operation on the sepcified table row.
-         *
-         * @return <code>true</code> if operation have been executed on the row.
-         */
-        public boolean execute(ITable table, int row) throws DataSetException, SQLException {
-            logger.debug("execute(table={}, row={}) - start", table, String.valueOf(row));
-
-            Column[] columns = _operationData.getColumns();
-            for (int i = 0; i < columns.length; i++) {
-                // Bind value only if not in ignore mapping
-                if (_ignoreMapping == null || !_ignoreMapping.get(i)) {
-                    Object value = table.getValue(row, columns[i].getColumnName());
-                    _statement.addValue(value, columns[i].getDataType());
-                }
-            }
-            _statement.addBatch();
-            int result = _statement.executeBatch();
-            _statement.clearBatch();
+    void executeTable(AbstractDatabaseConnection connection, ITable table, ITableMetaData metaData)
+            throws DatabaseUnitException, SQLException {
+        Column[] primaryKeys = metaData.getPrimaryKeys();
 
-            return result == 1;
+        // cannot identify existing rows if no primary key
+        if (primaryKeys.length == 0) {
+            throw new NoPrimaryKeyException(metaData.getTableName());
         }
 
-        /**
-         * Cleanup this operation state.
-         */
-        public void close() throws SQLException {
-            logger.debug("close() - start");
+        ITableMetaData tableMetaData = table.getTableMetaData();
+        Column[] columns = tableMetaData.getColumns();
+        int[] keyIndexes = AbstractBatchOperation.getColumnIndexes(table, primaryKeys);
+        int chunkSize = getChunkSize(connection, primaryKeys.length);
+
+        ITableCursor cursor = table.cursor();
+        DefaultTable chunk = new DefaultTable(tableMetaData);
+        Set<List<Object>> chunkKeys = new HashSet<>();
+        while (cursor.next()) {
+            Object[] values = new Object[columns.length];
+            for (int j = 0; j < columns.length; j++) {
+                values[j] = cursor.get(j);
+            }
+            List<Object> key = getLooseKey(values, primaryKeys, keyIndexes);
+            if (key != null && !chunkKeys.add(key)) {
+                refreshChunk(connection, chunk, metaData);
+                chunk = new DefaultTable(tableMetaData);
+                chunkKeys.clear();
+                chunkKeys.add(key);
+            }
+            chunk.addRow(values);
 
-            if (_statement != null) {
-                _statement.close();
+            if (chunk.getRowCount() == chunkSize) {
+                refreshChunk(connection, chunk, metaData);
+                chunk = new DefaultTable(tableMetaData);
+                chunkKeys.clear();
             }
         }
+
+        if (chunk.getRowCount() > 0) {
+            refreshChunk(connection, chunk, metaData);
+        }
     }
 
     /**
-     * Insert row operation.
+     * Returns the number of rows probed and written together: the configured
+     * batch size, lowered when the primary key probe would bind more
+     * parameters than allowed.
      */
-    private class InsertRowOperation extends RowOperation {
-
-        /**
-         * Logger for this class
-         */
-        private final Logger logger = LoggerFactory.getLogger(InsertRowOperation.class);
-
-        private IDatabaseConnection _connection;
-        private ITableMetaData _metaData;
+    int getChunkSize(IDatabaseConnection connection, int primaryKeyCount) {
+        int batchSize = connection.getDatabaseConfig().getBatchSize();
+        int maxBindParameters = connection.getDatabaseConfig().getMaxBindParameters();
+        return Math.max(1, Math.min(batchSize, maxBindParameters / primaryKeyCount));
+    }
 
-        public InsertRowOperation(IDatabaseConnection connection, ITableMetaData metaData)
-                throws DataSetException, SQLException {
-            _connection = connection;
-            _metaData = metaData;
+    private void refreshChunk(AbstractDatabaseConnection connection, ITable chunk, ITableMetaData metaData)
+            throws DatabaseUnitException, SQLException {
+        logger.debug("refreshChunk(connection={}, chunk={}, metaData={}) - start", connection, chunk, metaData);
+
+        Column[] primaryKeys = metaData.getPrimaryKeys();
+        int[] keyIndexes = AbstractBatchOperation.getColumnIndexes(chunk, primaryKeys);
+        int rowCount = chunk.getRowCount();
+
+        // rows with a null key cannot exist in the database
+        List<Integer> probedRows = new ArrayList<>(rowCount);
+        List<Object[]> probedKeys = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            Object[] keyValues = getKeyValues(chunk, row, primaryKeys, keyIndexes);
+            if (keyValues != null) {
+                probedRows.add(row);
+                probedKeys.add(keyValues);
+            }
+        }
+        BitSet existingRows = selectExistingRows(connection, metaData, probedRows, probedKeys);
+
+        ITableMetaData tableMetaData = chunk.getTableMetaData();
+        DefaultTable insertTable = new DefaultTable(tableMetaData);
+        DefaultTable updateTable = new DefaultTable(tableMetaData);
+        for (int row = 0; row < rowCount; row++) {
+            DefaultTable target = existingRows.get(row) ? updateTable : insertTable;
+            target.addRow(getRowValues(chunk, row));
         }
 
-        @Override
-        public boolean execute(ITable table, int row) throws DataSetException, SQLException {
-            logger.debug("execute(table={}, row={}) - start", table, String.valueOf(row));
-
-            // If current row has a different ignore value mapping than
-            // previous one, we generate a new statement
-            if (_ignoreMapping == null || !_insertOperation.equalsIgnoreMapping(_ignoreMapping, table, row)) {
-                // Execute and close previous statement
-                if (_statement != null) {
-                    _statement.close();
-                }
-
-                _ignoreMapping = _insertOperation.getIgnoreMapping(table, row);
-                _operationData = _insertOperation.getOperationData(_metaData, _ignoreMapping, _connection);
-                _statement = new SimplePreparedStatement(_operationData.getSql(), _connection.getConnection());
-            }
+        if (insertTable.getRowCount() > 0) {
+            _insertOperation.executeTable(connection, insertTable, metaData);
+        }
 
-            return super.execute(table, row);
+        // update only if columns are not all primary keys
+        if (updateTable.getRowCount() > 0 && metaData.getColumns().length > primaryKeys.length) {
+            _updateOperation.executeTable(connection, updateTable, metaData);
         }
+    }
 
+    private Object[] getRowValues(ITable table, int row) throws DataSetException {
+        int columnCount = table.getTableMetaData().getColumns().length;
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = table.getValue(row, i);
+        }
+        return values;
     }
 
     /**
-     * Update row operation.
+     * Returns the primary key values of the specified row, or <code>null</code>
+     * if any of them is <code>null</code>, such a row cannot exist in the
+     * database.
      */
-    private class UpdateRowOperation extends RowOperation {
-
-        PreparedStatement _countStatement;
-
-        public UpdateRowOperation(IDatabaseConnection connection, ITableMetaData metaData)
-                throws DataSetException, SQLException {
-            // setup update statement
-            _operationData = _updateOperation.getOperationData(metaData, null, connection);
-            _statement = new SimplePreparedStatement(_operationData.getSql(), connection.getConnection());
+    private Object[] getKeyValues(ITable table, int row, Column[] primaryKeys, int[] keyIndexes)
+            throws DataSetException {
+        Object[] keyValues = new Object[primaryKeys.length];
+        for (int i = 0; i < primaryKeys.length; i++) {
+            Object value = table.getValue(row, keyIndexes[i]);
+            keyValues[i] = primaryKeys[i].getDataType().typeCast(value);
+            if (keyValues[i] == null) {
+                return null;
+            }
         }
+        return keyValues;
     }
 
     /**
-     * This operation verify if a row exists in the database.
+     * Returns a key equal for all rows whose primary keys may be equal in the
+     * database, whatever its collation: strings are compared ignoring case and
+     * trailing spaces. Rows with different keys may still be equal in the
+     * database, the key only serves to not write such rows in the same chunk.
      */
-    private class RowExistOperation extends RowOperation {
-
-        /**
-         * Logger for this class
-         */
-        private final Logger logger = LoggerFactory.getLogger(RowExistOperation.class);
-
-        PreparedStatement _countStatement;
-
-        public RowExistOperation(IDatabaseConnection connection, ITableMetaData metaData)
-                throws DataSetException, SQLException {
-            // setup select count statement
-            _operationData = getSelectCountData(metaData, connection);
-            _countStatement = connection.getConnection().prepareStatement(_operationData.getSql());
-        }
-
-        private OperationData getSelectCountData(ITableMetaData metaData, IDatabaseConnection connection)
-                throws DataSetException {
-            logger.debug("getSelectCountData(metaData={}, connection={}) - start", metaData, connection);
-
-            Column[] primaryKeys = metaData.getPrimaryKeys();
-
-            // cannot construct where clause if no primary key
-            if (primaryKeys.length == 0) {
-                throw new NoPrimaryKeyException(metaData.getTableName());
+    private static List<Object> getLooseKey(Object[] values, Column[] primaryKeys, int[] keyIndexes)
+            throws DataSetException {
+        Object[] key = new Object[primaryKeys.length];
+        for (int i = 0; i < primaryKeys.length; i++) {
+            Object value = primaryKeys[i].getDataType().typeCast(values[keyIndexes[i]]);
+            if (value == null) {
+                return null;
             }
-
-            // select count
-            StringBuffer sqlBuffer = new StringBuffer(128);
-            sqlBuffer.append("select COUNT(*) from ");
-            sqlBuffer.append(getQualifiedName(connection.getSchema(), metaData.getTableName(), connection));
-
-            // where
-            sqlBuffer.append(" where ");
-            for (int i = 0; i < primaryKeys.length; i++) {
-                Column column = primaryKeys[i];
-
-                if (i > 0) {
-                    sqlBuffer.append(" and ");
-                }
-                sqlBuffer.append(getQualifiedName(null, column.getColumnName(), connection));
-                sqlBuffer.append(" = ?");
+            if (value instanceof BigDecimal) {
+                value = ((BigDecimal) value).stripTrailingZeros();
+            } else if (value instanceof String) {
+                value = SQLHelper.trimTrailingWhitespace((String) value).toLowerCase(Locale.ROOT);
+            } else if (value instanceof byte[]) {
+                value = ByteBuffer.wrap((byte[]) value);
             }
+            key[i] = value;
+        }
+        return Arrays.asList(key);
+    }
 
-            return new OperationData(sqlBuffer.toString(), primaryKeys);
+    /**
+     * Selects, with a single query, which of the specified rows have a primary
+     * key already existing in the database. The keys are compared by the
+     * database, with the collation of the table.
+     */
+    private BitSet selectExistingRows(IDatabaseConnection connection, ITableMetaData metaData,
+            List<Integer> probedRows, List<Object[]> probedKeys) throws DataSetException, SQLException {
+        BitSet existingRows = new BitSet();
+        if (probedKeys.isEmpty()) {
+            return existingRows;
         }
 
-        ////////////////////////////////////////////////////////////////////////
-        // RowOperation class
-
-        /**
-         * Verify if the specified table row exists in the database.
-         *
-         * @return <code>true</code> if row exists.
-         */
-        @Override
-        public boolean execute(ITable table, int row) throws DataSetException, SQLException {
-            logger.debug("execute(table={}, row={}) - start", table, String.valueOf(row));
-
-            Column[] columns = _operationData.getColumns();
-            for (int i = 0; i < columns.length; i++) {
-                Object value = table.getValue(row, columns[i].getColumnName());
-                DataType dataType = columns[i].getDataType();
-                dataType.setSqlValue(value, i + 1, _countStatement);
+        Column[] primaryKeys = metaData.getPrimaryKeys();
+        String sql = getSelectExistingSql(metaData, probedKeys.size(), connection);
+        PreparedStatement statement = connection.getConnection().prepareStatement(sql);
+        try {
+            int index = 1;
+            for (Object[] keyValues : probedKeys) {
+                for (int i = 0; i < primaryKeys.length; i++) {
+                    primaryKeys[i].getDataType().setSqlValue(keyValues[i], index++, statement);
+                }
             }
 
-            ResultSet resultSet = _countStatement.executeQuery();
+            ResultSet resultSet = statement.executeQuery();
             try {
-                resultSet.next();
-                return resultSet.getInt(1) > 0;
+                while (resultSet.next()) {
+                    if (resultSet.getInt(2) > 0) {
+                        existingRows.set(probedRows.get(resultSet.getInt(1)));
+                    }
+                }
             } finally {
                 resultSet.close();
             }
+        } finally {
+            statement.close();
         }
+        return existingRows;
+    }
 
-        @Override
-        public void close() throws SQLException {
-            logger.debug("close() - start");
+    /**
+     * Returns the primary key probe statement for the specified number of keys.
+     * Each key is counted by its own select, numbered so that results are
+     * matched with rows by position, not by comparing key values outside of the
+     * database.
+     */
+    String getSelectExistingSql(ITableMetaData metaData, int keyCount, IDatabaseConnection connection)
+            throws DataSetException {
+        logger.debug("getSelectExistingSql(metaData={}, keyCount={}, connection={}) - start", metaData, keyCount,
+                connection);
+
+        Column[] primaryKeys = metaData.getPrimaryKeys();
+        String tableName = getQualifiedName(connection.getSchema(), metaData.getTableName(), connection);
+
+        StringBuilder whereBuffer = new StringBuilder(primaryKeys.length * 16);
+        for (int i = 0; i < primaryKeys.length; i++) {
+            if (i > 0) {
+                whereBuffer.append(" and ");
+            }
+            whereBuffer.append(getQualifiedName(null, primaryKeys[i].getColumnName(), connection));
+            whereBuffer.append(" = ?");
+        }
+        String where = whereBuffer.toString();
 
-            _countStatement.close();
+        StringBuilder sqlBuffer = new StringBuilder(keyCount * (where.length() + tableName.length() + 48));
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                sqlBuffer.append(" union all ");
+            }
+            sqlBuffer.append("select ").append(i).append(", count(*) from ").append(tableName);
+            sqlBuffer.append(" where ").append(where);
         }
+        return sqlBuffer.toString();
     }
 
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.Columns;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoPrimaryKeyException;
+import org.dbunit.dataset.datatype.IDataTypeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Refreshes dataset contents into the database like {@link RefreshOperation},
+ * but with the native upsert statement of the database, executed as a batch
+ * through the configured {@link org.dbunit.database.statement.IStatementFactory}.
+ * <p>
+ * The {@link IUpsertDialect} is obtained from the configured data type factory
+ * when it implements {@link IUpsertDialectProvider}. Without dialect this
+ * operation falls back to {@link DatabaseOperation#REFRESH}.
+ * <p>
+ * Like for {@link InsertOperation}, columns with {@link ITable#NO_VALUE} are
+ * left out of the statement: they get their default value when the row is
+ * inserted and stay unchanged when it is updated.
+ */
+public class UpsertOperation extends AbstractBatchOperation {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger logger = LoggerFactory.getLogger(UpsertOperation.class);
+
+    private final InsertOperation _insertOperation;
+
+    UpsertOperation() {
+        _insertOperation = (InsertOperation) DatabaseOperation.INSERT;
+    }
+
+    /**
+     * Returns the upsert dialect for the specified connection or
+     * <code>null</code> if the database has none.
+     */
+    static IUpsertDialect getUpsertDialect(IDatabaseConnection connection) {
+        IDataTypeFactory dataTypeFactory = connection.getDatabaseConfig().getDataTypeFactory();
+        if (dataTypeFactory instanceof IUpsertDialectProvider) {
+            return ((IUpsertDialectProvider) dataTypeFactory).getUpsertDialect();
+        }
+        return null;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // DatabaseOperation class
+
+    @Override
+    public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+            throws DatabaseUnitException, SQLException {
+        if (getUpsertDialect(connection) == null) {
+            logger.debug("execute: no upsert dialect available, falling back to row by row refresh");
+            DatabaseOperation.REFRESH.execute(connection, dataSet);
+            return;
+        }
+
+        super.execute(connection, dataSet);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    // AbstractBatchOperation class
+
+    @Override
+    BitSet getIgnoreMapping(ITable table, int row) throws DataSetException {
+        return _insertOperation.getIgnoreMapping(table, row);
+    }
+
+    @Override
+    boolean equalsIgnoreMapping(BitSet ignoreMapping, ITable table, int row) throws DataSetException {
+        return _insertOperation.equalsIgnoreMapping(ignoreMapping, table, row);
+    }
+
+    @Override
+    OperationData getOperationData(ITableMetaData metaData, BitSet ignoreMapping, IDatabaseConnection connection)
+            throws DataSetException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("getOperationData(metaData={}, ignoreMapping={}, connection={}) - start",
+                    new Object[] { metaData, ignoreMapping, connection });
+        }
+
+        Column[] columns = metaData.getColumns();
+        Column[] primaryKeys = metaData.getPrimaryKeys();
+
+        // cannot match existing rows if no primary key
+        if (primaryKeys.length == 0) {
+            throw new NoPrimaryKeyException(metaData.getTableName());
+        }
+
+        List<String> columnNames = new ArrayList<>(columns.length);
+        List<String> primaryKeyNames = new ArrayList<>(primaryKeys.length);
+        for (int i = 0; i < columns.length; i++) {
+            Column column = columns[i];
+            boolean primaryKey = Columns.getColumn(column.getColumnName(), primaryKeys) != null;
+            if (ignoreMapping.get(i)) {
+                if (primaryKey) {
+                    throw new DataSetException("Primary key column '" + column.getColumnName() + "' of table '"
+                            + metaData.getTableName() + "' must have a value");
+                }
+                continue;
+            }
+
+            // escape column name
+            String columnName = getQualifiedName(null, column.getColumnName(), connection);
+            columnNames.add(columnName);
+            if (primaryKey) {
+                primaryKeyNames.add(columnName);
+            }
+        }
+
+        // cannot match existing rows if a primary key column is missing from dataset
+        if (primaryKeyNames.size() < primaryKeys.length) {
+            throw new DataSetException(
+                    "Dataset table '" + metaData.getTableName() + "' must contain all primary key columns");
+        }
+
+        String tableName = getQualifiedName(connection.getSchema(), metaData.getTableName(), connection);
+        String sql = getUpsertDialect(connection).getUpsertSql(tableName, columnNames.toArray(new String[0]),
+                primaryKeyNames.toArray(new String[0]));
+        return new OperationData(sql, columns);
+    }
+}
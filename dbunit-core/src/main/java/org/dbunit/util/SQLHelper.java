@@ -31,6 +31,7 @@ import java.util.Locale;
 
 import org.dbunit.DatabaseUnitRuntimeException;
 import org.dbunit.database.IMetadataHandler;
+import org.dbunit.database.metadata.ColumnMetadata;
 import org.dbunit.dataset.Column;
 import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.datatype.DataTypeException;
@@ -376,6 +377,21 @@ public class SQLHelper {
         return isSybase;
     }
 
+    /**
+     * Removes the trailing white space of a string, like the blank padding of
+     * <code>CHAR</code> values. Leading white space is kept.
+     *
+     * @param value The string to trim
+     * @return The string without trailing white space
+     */
+    public static String trimTrailingWhitespace(String value) {
+        int length = value.length();
+        while (length > 0 && Character.isWhitespace(value.charAt(length - 1))) {
+            length--;
+        }
+        return value.substring(0, length);
+    }
+
     /**
      * Utility method to create a {@link Column} object from a SQL {@link ResultSet}
      * object.
@@ -395,6 +411,19 @@ public class SQLHelper {
      */
     public static final Column createColumn(ResultSet resultSet, IDataTypeFactory dataTypeFactory,
             boolean datatypeWarning) throws SQLException, DataTypeException {
+        return createColumn(resultSet.getString(3), createColumnMetadata(resultSet), dataTypeFactory,
+                datatypeWarning);
+    }
+
+    /**
+     * Reads the column metadata of the current row of a SQL {@link ResultSet}.
+     *
+     * @param resultSet A result set produced via
+     *                  {@link DatabaseMetaData#getColumns(String, String, String, String)}
+     * @return The column metadata, with the source type of distinct types
+     * @throws SQLException
+     */
+    public static final ColumnMetadata createColumnMetadata(ResultSet resultSet) throws SQLException {
         String tableName = resultSet.getString(3);
         String columnName = resultSet.getString(4);
         int sqlType = resultSet.getInt(5);
@@ -419,13 +448,39 @@ public class SQLHelper {
                     + " because not yet running on Java 1.5 -" + " defaulting to NO. Table={}, Column={}";
             logger.debug(msg, tableName, columnName, e);
         }
+        return new ColumnMetadata(columnName, sqlType, sqlTypeName, nullable, remarks, columnDefaultValue,
+                isAutoIncrement);
+    }
+
+    /**
+     * Utility method to create a {@link Column} object from column metadata read
+     * earlier.
+     *
+     * @param tableName       The name of the table of the column
+     * @param columnMetadata  The column metadata, as read by
+     *                        {@link #createColumnMetadata(ResultSet)}
+     * @param dataTypeFactory The factory used to lookup the {@link DataType} for
+     *                        this column
+     * @param datatypeWarning Whether or not a warning should be printed if the
+     *                        column could not be created because of an unknown
+     *                        datatype.
+     * @return The {@link Column} or <code>null</code> if the column could not be
+     *         initialized because of an unknown datatype.
+     * @throws DataTypeException
+     */
+    public static final Column createColumn(String tableName, ColumnMetadata columnMetadata,
+            IDataTypeFactory dataTypeFactory, boolean datatypeWarning) throws DataTypeException {
+        String columnName = columnMetadata.columnName;
+        int sqlType = columnMetadata.sqlType;
+        String sqlTypeName = columnMetadata.sqlTypeName;
 
         // Convert SQL type to DataType
         DataType dataType = dataTypeFactory.createDataType(sqlType, sqlTypeName, tableName, columnName);
         Column column;
         if (dataType != DataType.UNKNOWN) {
-            column = new Column(columnName, dataType, sqlTypeName, Column.nullableValue(nullable), columnDefaultValue,
-                    remarks, Column.AutoIncrement.autoIncrementValue(isAutoIncrement));
+            column = new Column(columnName, dataType, sqlTypeName, Column.nullableValue(columnMetadata.nullable),
+                    columnMetadata.defaultValue, columnMetadata.remarks,
+                    Column.AutoIncrement.autoIncrementValue(columnMetadata.autoIncrement));
         } else {
             if (datatypeWarning)
                 logger.warn(tableName + "." + columnName + " data type (" + sqlType + ", '" + sqlTypeName
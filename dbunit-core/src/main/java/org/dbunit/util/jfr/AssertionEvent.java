@@ -0,0 +1,46 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The comparison of an expected table with an actual table.
+ */
+@Name("org.dbunit.Assertion")
+@Label("Table Assertion")
+@Category("dbUnit")
+@Description("Comparison of an expected table with an actual table")
+public class AssertionEvent extends jdk.jfr.Event {
+
+    @Label("Table")
+    public String tableName;
+
+    @Label("Expected Rows")
+    public long expectedRowCount;
+
+    @Label("Actual Rows")
+    public long actualRowCount;
+
+    @Label("Compared Columns")
+    public int columnCount;
+
+    @Label("Passed")
+    @Description("No failure was thrown, failure handlers collecting the differences do not throw")
+    public boolean passed;
+
+    /**
+     * Returns a new event, timed from now. Only call it when the events are
+     * enabled.
+     */
+    public static AssertionEvent start(String tableName) {
+        AssertionEvent event = new AssertionEvent();
+        event.tableName = tableName;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The parsing of a dataset, or of one table file of a dataset directory.
+ */
+@Name("org.dbunit.DataSetParse")
+@Label("Dataset Parsing")
+@Category("dbUnit")
+@Description("Parsing of a dataset source")
+public class DataSetParseEvent extends jdk.jfr.Event {
+
+    @Label("Format")
+    public String format;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Tables")
+    public int tableCount;
+
+    @Label("Rows")
+    public long rowCount;
+
+    @Label("Values Size")
+    @Description("Estimated size of the parsed values")
+    @DataAmount
+    public long byteCount;
+
+    /**
+     * Returns a new event, timed from now. Only call it when the events are
+     * enabled.
+     */
+    public static DataSetParseEvent start(String format, String source) {
+        DataSetParseEvent event = new DataSetParseEvent();
+        event.format = format;
+        event.source = source;
+        event.begin();
+        return event;
+    }
+
+    public void commit(int tableCount, long rowCount, long byteCount) {
+        this.tableCount = tableCount;
+        this.rowCount = rowCount;
+        this.byteCount = byteCount;
+        commit();
+    }
+}
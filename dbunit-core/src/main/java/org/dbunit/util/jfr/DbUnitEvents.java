@@ -0,0 +1,40 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.util.jfr;
+
+/**
+ * Switch of the Java Flight Recorder events of dbUnit. Events are only created
+ * when enabled, so that dbUnit runs on JVMs without <code>jdk.jfr</code>, and
+ * are then only recorded when enabled in the flight recording, all in the
+ * <i>dbUnit</i> category.
+ * <p>
+ * Operations and metadata lookups emit events when their connection has the
+ * {@link io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig#setJfrEvents(boolean)}
+ * feature. Dataset parsing and assertions do not use a connection; they emit
+ * events when this switch is on, set with {@link #setEnabled(boolean)} or the
+ * <code>dbunit.jfrEvents</code> system property.
+ */
+public final class DbUnitEvents {
+
+    private static volatile boolean enabled = Boolean.getBoolean("dbunit.jfrEvents");
+
+    private DbUnitEvents() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        DbUnitEvents.enabled = enabled;
+    }
+
+    /**
+     * Returns a rough estimate of the memory held by the specified string value,
+     * reported as the byte size of parsed values.
+     */
+    public static long estimateSize(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDBC metadata query: the tables of a schema, or the columns or primary keys
+ * of a table.
+ */
+@Name("org.dbunit.Metadata")
+@Label("Metadata Lookup")
+@Category("dbUnit")
+@Description("JDBC metadata query made by dbUnit")
+public class MetadataEvent extends jdk.jfr.Event {
+
+    public static final String TABLES = "tables";
+    public static final String COLUMNS = "columns";
+    public static final String PRIMARY_KEYS = "primaryKeys";
+    public static final String FOREIGN_KEYS = "foreignKeys";
+
+    @Label("Lookup")
+    public String lookup;
+
+    @Label("Schema")
+    public String schema;
+
+    @Label("Table")
+    public String tableName;
+
+    @Label("Rows")
+    @Description("Rows of the metadata result set")
+    public long rowCount;
+
+    /**
+     * Returns a new event, timed from now. Only call it when the events are
+     * enabled.
+     */
+    public static MetadataEvent start() {
+        MetadataEvent event = new MetadataEvent();
+        event.begin();
+        return event;
+    }
+
+    public void commit(String lookup, String schema, String tableName, long rowCount) {
+        this.lookup = lookup;
+        this.schema = schema;
+        this.tableName = tableName;
+        this.rowCount = rowCount;
+        commit();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A database operation applied to the rows of one dataset table.
+ */
+@Name("org.dbunit.TableOperation")
+@Label("Table Operation")
+@Category("dbUnit")
+@Description("Database operation applied to the rows of a dataset table")
+public class TableOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Table")
+    public String tableName;
+
+    @Label("Rows")
+    @Description("Rows of the dataset table, -1 if the table is read forward only")
+    public long rowCount;
+
+    @Label("Batches")
+    public int batchCount;
+
+    @Label("Batched Rows")
+    public long batchRowCount;
+
+    @Label("Bound Values Size")
+    @Description("Estimated size of the values bound to the statements")
+    @DataAmount
+    public long byteCount;
+}
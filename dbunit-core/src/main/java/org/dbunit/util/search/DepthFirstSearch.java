@@ -21,9 +21,15 @@
 
 package org.dbunit.util.search;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -37,6 +43,11 @@ import org.dbunit.util.CollectionsHelper;
  * An instance of this class must be used only once, as it maintains the
  * internal state of the search.<br>
  * <br>
+ * Nodes are numbered as they are found, and the search runs over these numbers
+ * with an explicit stack, so that deep graphs do not overflow the thread
+ * stack. The callback is asked only once per node for its edges and whether it
+ * should be searched.<br>
+ * <br>
  * 
  * @author gommma (gommma AT users.sourceforge.net)
  * @author Last changed by: $Author$
@@ -45,9 +56,11 @@ import org.dbunit.util.CollectionsHelper;
  */
 public class DepthFirstSearch implements ISearchAlgorithm {
 
+    private static final int[] NO_NODES = new int[0];
+
     // nodes that were already scanned during the search
-    private Set scannedNodes;
-    private Set reverseScannedNodes;
+    private final BitSet scannedNodes = new BitSet();
+    private final BitSet reverseScannedNodes = new BitSet();
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -55,7 +68,9 @@ public class DepthFirstSearch implements ISearchAlgorithm {
     private LinkedHashSet result;
 
     // input of the search
-    private Set nodesFrom;
+    private int[] nodesFrom = NO_NODES;
+    private int nodesFromSize;
+    private final BitSet nodesFromSet = new BitSet();
 
     // callback used to help the search
     private ISearchCallback callback;
@@ -63,6 +78,16 @@ public class DepthFirstSearch implements ISearchAlgorithm {
     // flag, as one instance cannot be used more than once
     private boolean searching = false;
 
+    // numbering of the nodes
+    private final Map<Object, Integer> nodeIds = new HashMap<>();
+    private final List<Object> nodes = new ArrayList<>();
+
+    // answers of the callback, by node number
+    private final BitSet checkedNodes = new BitSet();
+    private final BitSet searchedNodes = new BitSet();
+    private final List<int[]> toNodes = new ArrayList<>();
+    private final List<int[]> reverseFromNodes = new ArrayList<>();
+
     /**
      * The search depth to be used when recursing through the child nodes
      */
@@ -125,14 +150,9 @@ public class DepthFirstSearch implements ISearchAlgorithm {
         // callback used to help the search
         this.callback = callback;
 
-        this.nodesFrom = new LinkedHashSet();
-
         int sizeNodesFromBefore = 0;
         int sizeResultBefore = 0;
         boolean keepSearching = true;
-        this.scannedNodes = new HashSet();
-        this.reverseScannedNodes = new HashSet();
-        this.scannedNodes = new HashSet();
         do {
 
             // In a traditional depth-first search, the getEdges() method should return only
@@ -145,25 +165,21 @@ public class DepthFirstSearch implements ISearchAlgorithm {
             Iterator iterator = nodesFrom.iterator();
             while (iterator.hasNext()) {
                 Object node = iterator.next();
-                reverseSearch(node, 0);
+                reverseSearch(nodeId(node));
             }
-//        this.nodesFrom = nodesFrom;
 
             // now that the input is adjusted, do the search
-            iterator = this.nodesFrom.iterator();
-
-            while (iterator.hasNext()) {
-                Object node = iterator.next();
-                search(node, 0);
+            for (int i = 0; i < this.nodesFromSize; i++) {
+                search(this.nodesFrom[i]);
             }
 
             nodesFrom = new HashSet(this.result);
 
             // decides if we continue searching
-            boolean sizesDontMatch = this.result.size() != this.nodesFrom.size();
+            boolean sizesDontMatch = this.result.size() != this.nodesFromSize;
             boolean resultChanged = this.result.size() != sizeResultBefore;
-            boolean nodesFromChanged = this.nodesFrom.size() != sizeNodesFromBefore;
-            sizeNodesFromBefore = this.nodesFrom.size();
+            boolean nodesFromChanged = this.nodesFromSize != sizeNodesFromBefore;
+            sizeNodesFromBefore = this.nodesFromSize;
             sizeResultBefore = this.result.size();
             keepSearching = sizesDontMatch && (resultChanged || nodesFromChanged);
 
@@ -174,114 +190,192 @@ public class DepthFirstSearch implements ISearchAlgorithm {
     }
 
     /**
-     * This is the real depth first search algorithm, which is called recursively.
+     * This is the real depth first search algorithm. Nodes are added to the
+     * result after the nodes they depend on.
      * 
-     * @param node               node where the search starts
-     * @param currentSearchDepth the search depth in the recursion
-     * @return true if the node has been already searched before
-     * @throws Exception if an exception occurs while getting the edges
+     * @param root node where the search starts
+     * @throws SearchException if an exception occurs while getting the edges
      */
-    private boolean search(Object node, int currentSearchDepth) throws SearchException {
-        if (this.logger.isDebugEnabled()) {
-            this.logger.debug("search:" + node);
+    private void search(int root) throws SearchException {
+        if (!enter(root, this.scannedNodes, "")) {
+            return;
         }
-        if (this.scannedNodes.contains(node)) {
-            if (this.logger.isDebugEnabled()) {
-                this.logger.debug("already searched; returning true");
+        Stack stack = new Stack();
+        stack.push(root, searchDepth > 0 ? getToNodes(root) : NO_NODES);
+        while (stack.size > 0) {
+            int top = stack.size - 1;
+            int[] edges = stack.edges[top];
+            if (stack.next[top] < edges.length) {
+                // first, search the nodes the node depends on
+                int toNode = edges[stack.next[top]++];
+                if (enter(toNode, this.scannedNodes, "")) {
+                    stack.push(toNode, stack.size < searchDepth ? getToNodes(toNode) : NO_NODES);
+                }
+                continue;
             }
-            return true;
-        }
-        if (!this.callback.searchNode(node)) {
+            stack.size--;
+
+            // finally, add the node to the result
+            Object node = this.nodes.get(stack.nodes[top]);
             if (this.logger.isDebugEnabled()) {
-                this.logger.debug("Callback handler blocked search for node " + node);
+                this.logger.debug("Adding node " + node + " to the final result");
             }
-            return true;
+            // notify the callback a node was added
+            this.callback.nodeAdded(node);
+            this.result.add(node);
         }
+    }
 
-        if (this.logger.isDebugEnabled()) {
-            this.logger.debug("Pushing " + node);
+    /**
+     * Do a reverse search (i.e, searching the other way of the edges) in order to
+     * adjust the input before the real search.
+     * 
+     * @param root node where the search starts
+     * @throws SearchException if an exception occurs while getting the edges
+     */
+    private void reverseSearch(int root) throws SearchException {
+        if (!enter(root, this.reverseScannedNodes, "reverse ")) {
+            return;
         }
-        this.scannedNodes.add(node);
-
-        if (currentSearchDepth < this.searchDepth) {
-            // first, search the nodes the node depends on
-            SortedSet edges = this.callback.getEdges(node);
-            if (edges != null) {
-                Iterator iterator = edges.iterator();
-                while (iterator.hasNext()) {
-                    // and recursively search these nodes
-                    IEdge edge = (IEdge) iterator.next();
-                    Object toNode = edge.getTo();
-                    search(toNode, currentSearchDepth++);
+        Stack stack = new Stack();
+        stack.push(root, searchDepth > 0 ? getReverseFromNodes(root) : NO_NODES);
+        while (stack.size > 0) {
+            int top = stack.size - 1;
+            int[] edges = stack.edges[top];
+            if (stack.next[top] < edges.length) {
+                int fromNode = edges[stack.next[top]++];
+                if (enter(fromNode, this.reverseScannedNodes, "reverse ")) {
+                    stack.push(fromNode, stack.size < searchDepth ? getReverseFromNodes(fromNode) : NO_NODES);
                 }
+                continue;
+            }
+            stack.size--;
+
+            // finally, add the node to the input
+            int node = stack.nodes[top];
+            if (!this.nodesFromSet.get(node)) {
+                this.nodesFromSet.set(node);
+                if (this.nodesFromSize == this.nodesFrom.length) {
+                    this.nodesFrom = Arrays.copyOf(this.nodesFrom, Math.max(16, this.nodesFromSize * 2));
+                }
+                this.nodesFrom[this.nodesFromSize++] = node;
             }
         }
-
-        // finally, add the node to the result
-        if (this.logger.isDebugEnabled()) {
-            this.logger.debug("Adding node " + node + " to the final result");
-        }
-        // notify the callback a node was added
-        this.callback.nodeAdded(node);
-        result.add(node);
-
-        return false;
     }
 
     /**
-     * Do a reverse search (i.e, searching the other way of the edges) in order to
-     * adjust the input before the real search.
+     * Marks the node as scanned, unless it was scanned already or the callback
+     * blocks it.
      * 
-     * @param node               node where the search starts
-     * @param currentSearchDepth the search depth in the recursion
-     * @return true if the node has been already reverse-searched before
-     * @throws Exception if an exception occurs while getting the edges
+     * @return true if the node has to be searched
      */
-    private boolean reverseSearch(Object node, int currentSearchDepth) throws SearchException {
+    private boolean enter(int node, BitSet scanned, String direction) throws SearchException {
         if (this.logger.isDebugEnabled()) {
-            this.logger.debug("reverseSearch:" + node);
+            this.logger.debug(direction + "search:" + this.nodes.get(node));
         }
-        if (this.reverseScannedNodes.contains(node)) {
+        if (scanned.get(node)) {
             if (this.logger.isDebugEnabled()) {
                 this.logger.debug("already searched; returning true");
             }
-            return true;
+            return false;
         }
-
-        if (!this.callback.searchNode(node)) {
+        if (!searchNode(node)) {
             if (this.logger.isDebugEnabled()) {
-                this.logger.debug("callback handler blocked reverse search for node " + node);
+                this.logger.debug("Callback handler blocked " + direction + "search for node " + this.nodes.get(node));
             }
-            return true;
+            return false;
         }
-
         if (this.logger.isDebugEnabled()) {
-            this.logger.debug("Pushing (reverse) " + node);
+            this.logger.debug("Pushing " + direction + this.nodes.get(node));
         }
-        this.reverseScannedNodes.add(node);
-
-        if (currentSearchDepth < this.searchDepth) {
-            // first, search the nodes the node depends on
-            SortedSet edges = this.callback.getEdges(node);
-            if (edges != null) {
-                Iterator iterator = edges.iterator();
-                while (iterator.hasNext()) {
-                    // and recursively search these nodes if we find a match
-                    IEdge edge = (IEdge) iterator.next();
-                    Object toNode = edge.getTo();
-                    if (toNode.equals(node)) {
-                        Object fromNode = edge.getFrom();
-                        reverseSearch(fromNode, currentSearchDepth++);
-                    }
-                }
-            }
+        scanned.set(node);
+        return true;
+    }
+
+    private int nodeId(Object node) {
+        Integer id = this.nodeIds.get(node);
+        if (id == null) {
+            id = this.nodes.size();
+            this.nodeIds.put(node, id);
+            this.nodes.add(node);
+            this.toNodes.add(null);
+            this.reverseFromNodes.add(null);
         }
+        return id;
+    }
 
-        // finally, add the node to the input
-        this.nodesFrom.add(node);
+    private boolean searchNode(int node) throws SearchException {
+        if (!this.checkedNodes.get(node)) {
+            this.checkedNodes.set(node);
+            this.searchedNodes.set(node, this.callback.searchNode(this.nodes.get(node)));
+        }
+        return this.searchedNodes.get(node);
+    }
 
-        return false;
+    /**
+     * Returns the nodes the node has edges to.
+     */
+    private int[] getToNodes(int node) throws SearchException {
+        loadEdges(node);
+        return this.toNodes.get(node);
+    }
 
+    /**
+     * Returns the nodes having edges to the node, among the edges of the node.
+     */
+    private int[] getReverseFromNodes(int node) throws SearchException {
+        loadEdges(node);
+        return this.reverseFromNodes.get(node);
+    }
+
+    private void loadEdges(int node) throws SearchException {
+        if (this.toNodes.get(node) != null) {
+            return;
+        }
+        Object nodeObject = this.nodes.get(node);
+        SortedSet edges = this.callback.getEdges(nodeObject);
+        if (edges == null) {
+            this.toNodes.set(node, NO_NODES);
+            this.reverseFromNodes.set(node, NO_NODES);
+            return;
+        }
+        int[] to = new int[edges.size()];
+        int[] reverseFrom = new int[edges.size()];
+        int reverseFromSize = 0;
+        int i = 0;
+        for (Iterator iterator = edges.iterator(); iterator.hasNext();) {
+            IEdge edge = (IEdge) iterator.next();
+            Object toNode = edge.getTo();
+            to[i++] = nodeId(toNode);
+            if (toNode.equals(nodeObject)) {
+                reverseFrom[reverseFromSize++] = nodeId(edge.getFrom());
+            }
+        }
+        this.toNodes.set(node, to);
+        this.reverseFromNodes.set(node, Arrays.copyOf(reverseFrom, reverseFromSize));
+    }
+
+    /**
+     * Nodes being searched, with the index of their next edge.
+     */
+    private static final class Stack {
+
+        int[] nodes = new int[16];
+        int[][] edges = new int[16][];
+        int[] next = new int[16];
+        int size;
+
+        void push(int node, int[] nodeEdges) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                edges = Arrays.copyOf(edges, size * 2);
+                next = Arrays.copyOf(next, size * 2);
+            }
+            nodes[size] = node;
+            edges[size] = nodeEdges;
+            next[size] = 0;
+            size++;
+        }
     }
 
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.assertion;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import org.dbunit.assertion.comparer.value.ValueComparers;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.ForwardOnlyTable;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Test;
+
+public class UnorderedRowComparerTest {
+
+    private final DbUnitAssert assertion = new DbUnitAssert();
+    private final DiffCollectingFailureHandler failureHandler = new DiffCollectingFailureHandler();
+
+    @Test
+    public void testRowsInAnotherOrder() throws Exception {
+        DefaultTable expected = createTable(DataType.UNKNOWN);
+        expected.addRow(new Object[] { "1.0", "a" });
+        expected.addRow(new Object[] { "2", null });
+        expected.addRow(new Object[] { "1", "a" });
+        DefaultTable actual = createTable(DataType.NUMERIC);
+        actual.addRow(new Object[] { new BigDecimal("2.00"), null });
+        actual.addRow(new Object[] { new BigDecimal("1"), "a" });
+        actual.addRow(new Object[] { new BigDecimal("1.00"), "a" });
+
+        assertion.assertEqualsIgnoreRowOrder(expected, actual, failureHandler, c -> false);
+
+        assertEquals(Collections.emptyList(), failureHandler.getErrors());
+    }
+
+    @Test
+    public void testMissingAndUnexpectedRows() throws Exception {
+        DefaultTable expected = createTable(DataType.NUMERIC);
+        expected.addRow(new Object[] { new BigDecimal(1), "a" });
+        expected.addRow(new Object[] { new BigDecimal(1), "a" });
+        expected.addRow(new Object[] { new BigDecimal(2), "b" });
+        DefaultTable actual = createTable(DataType.NUMERIC);
+        actual.addRow(new Object[] { new BigDecimal(2), "b" });
+        actual.addRow(new Object[] { new BigDecimal(1), "a" });
+        actual.addRow(new Object[] { new BigDecimal(2), "c" });
+
+        assertion.assertEqualsIgnoreRowOrder(expected, actual, failureHandler, c -> false);
+
+        List<DbComparisonFailure> errors = failureHandler.getErrors();
+        assertEquals(2, errors.size());
+        assertEquals("missing row (table=TEST_TABLE, row=1)", errors.get(0).getReason());
+        assertEquals("{ID=1, NAME=a}", errors.get(0).getExpected());
+        assertEquals("unexpected row (table=TEST_TABLE, row=2)", errors.get(1).getReason());
+        assertEquals("{ID=2, NAME=c}", errors.get(1).getActual());
+    }
+
+    @Test
+    public void testColumnNotComparedForEquality() throws Exception {
+        DefaultTable expected = createTable(DataType.INTEGER);
+        expected.addRow(new Object[] { 1, "a" });
+        expected.addRow(new Object[] { 2, "b" });
+        DefaultTable actual = createTable(DataType.INTEGER);
+        actual.addRow(new Object[] { 2, "x" });
+        actual.addRow(new Object[] { 1, "y" });
+        ColumnValueComparerSource columnValueComparerSource = new ColumnValueComparerSource(
+                ValueComparers.isActualEqualToExpected,
+                Collections.singletonMap("NAME", ValueComparers.isActualNotEqualToExpected));
+
+        assertion.assertWithValueComparerIgnoringRowOrder(expected, actual, failureHandler, c -> false,
+                new MessageBuilder(), columnValueComparerSource);
+
+        assertEquals(Collections.emptyList(), failureHandler.getErrors());
+    }
+
+    @Test
+    public void testForwardOnlyActualTable() throws Exception {
+        DefaultTable expected = createTable(DataType.INTEGER);
+        expected.addRow(new Object[] { 1, "a" });
+        expected.addRow(new Object[] { 2, "b" });
+        DefaultTable actual = createTable(DataType.INTEGER);
+        actual.addRow(new Object[] { 2, "b" });
+        actual.addRow(new Object[] { 1, "a" });
+
+        assertion.assertEqualsIgnoreRowOrder(expected, new ForwardOnlyTable(actual), failureHandler, c -> false);
+
+        assertEquals(Collections.emptyList(), failureHandler.getErrors());
+    }
+
+    private static DefaultTable createTable(DataType idDataType) {
+        Column[] columns = { new Column("ID", idDataType), new Column("NAME", DataType.VARCHAR) };
+        return new DefaultTable("TEST_TABLE", columns);
+    }
+}
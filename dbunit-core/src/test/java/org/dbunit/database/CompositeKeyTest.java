@@ -0,0 +1,49 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class CompositeKeyTest {
+
+    @Test
+    public void testNumbersEqualByValue() throws Exception {
+        CompositeKey key = new CompositeKey(1, "a");
+        CompositeKey other = new CompositeKey(1L, "a");
+        CompositeKey decimal = new CompositeKey(new BigDecimal("1.00"), "a");
+
+        assertEquals(0, key.compareTo(other));
+        assertEquals(key, other);
+        assertEquals(key.hashCode(), other.hashCode());
+        assertEquals(0, key.compareTo(decimal));
+        assertEquals(key, decimal);
+        assertEquals(key.hashCode(), decimal.hashCode());
+        assertEquals(1, new HashSet<>(Arrays.asList(key, other, decimal)).size());
+        assertEquals(1, new TreeSet<>(Arrays.asList(key, other, decimal)).size());
+    }
+
+    @Test
+    public void testValuesAreKept() throws Exception {
+        CompositeKey key = new CompositeKey(1L, new BigDecimal("2.50"));
+
+        assertEquals(1L, key.getValue(0));
+        assertEquals(new BigDecimal("2.50"), key.getValue(1));
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        assertTrue(new CompositeKey(2, "a").compareTo(new CompositeKey(10L, "a")) < 0);
+        assertTrue(new CompositeKey(null, "a").compareTo(new CompositeKey(0, "a")) < 0);
+        assertNotEquals(new CompositeKey(1, "a"), new CompositeKey(1, "b"));
+    }
+}
@@ -137,6 +137,35 @@ public class DatabaseTableMetaDataIT extends AbstractDatabaseIT {
         }
     }
 
+    @Test
+    public void testBulkMetadata() throws Exception {
+        io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig newConfig = new io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig();
+        newConfig.apply(environment.getDatabaseConfig());
+        newConfig.setBulkMetadata(true);
+        newConfig.freese();
+
+        DatabaseConnection customizedConnection1 = database.getConnection();
+        MetadataManager metadataManager = new MetadataManager(customizedConnection1.getConnection(), newConfig, null,
+                customizedConnection1.getSchema());
+        DatabaseConnection customizedConnection = new DatabaseConnection(customizedConnection1.getConnection(),
+                newConfig, customizedConnection1.getSchema(), metadataManager);
+        IDataSet dataSet = customizedConnection.createDataSet();
+
+        ITableMetaData metaData = dataSet.getTableMetaData("PK_TABLE");
+        Column[] primaryKeys = metaData.getPrimaryKeys();
+        String[] expected = { "PK0", "PK1", "PK2" };
+        assertEquals("pk count", expected.length, primaryKeys.length);
+        for (int i = 0; i < primaryKeys.length; i++) {
+            assertEquals("name", convertString(expected[i]), primaryKeys[i].getColumnName());
+        }
+        Column[] columns = metaData.getColumns();
+        assertEquals("column count", 5, columns.length);
+        assertEquals(Column.NO_NULLS, Columns.getColumn("PK0", columns).getNullable());
+        assertEquals(Column.NULLABLE, Columns.getColumn("NORMAL0", columns).getNullable());
+
+        assertEquals("pk count", 0, dataSet.getTableMetaData(TEST_TABLE).getPrimaryKeys().length);
+    }
+
     @Test
     public void testUnsupportedColumnDataType() throws Exception {
         IDataTypeFactory dataTypeFactory = new DefaultDataTypeFactory() {
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.dbunit.database.PrimaryKeyFilter.PkTableMap;
+import org.dbunit.database.search.ForeignKeyRelationshipEdge;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class PrimaryKeySearchTest {
+
+    private static final List<String> TABLE_NAMES = Arrays.asList("SHIPMENT", "ORDER_LINE", "ORDERS", "CUSTOMER");
+
+    private static final Pattern SELECT = Pattern.compile("select (.+) from (\\S+) where (.+)");
+
+    private final Map<String, List<Map<String, Object>>> rows = new HashMap<>();
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    private final DatabaseConfig config = new DatabaseConfig();
+    private DefaultDataSet dataSet;
+    private List<ForeignKeyRelationshipEdge> edges;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSet = new DefaultDataSet();
+        addTable("CUSTOMER", new String[] { "ID" }, "ID");
+        addTable("ORDERS", new String[] { "ID", "CUSTOMER_ID" }, "ID");
+        addTable("ORDER_LINE", new String[] { "ORDER_ID", "LINE_NO" }, "ORDER_ID", "LINE_NO");
+        addTable("SHIPMENT", new String[] { "ID", "ORDER_ID", "LINE_NO" }, "ID");
+
+        addRow("CUSTOMER", "ID", 10);
+        addRow("CUSTOMER", "ID", 20);
+        addRow("ORDERS", "ID", 1, "CUSTOMER_ID", 10);
+        addRow("ORDERS", "ID", 2, "CUSTOMER_ID", 10);
+        addRow("ORDERS", "ID", 3, "CUSTOMER_ID", 20);
+        addRow("ORDER_LINE", "ORDER_ID", 1, "LINE_NO", 1);
+        addRow("ORDER_LINE", "ORDER_ID", 1, "LINE_NO", 2);
+        addRow("ORDER_LINE", "ORDER_ID", 3, "LINE_NO", 1);
+        addRow("SHIPMENT", "ID", 100, "ORDER_ID", 1, "LINE_NO", 2);
+
+        edges = Arrays.asList( //
+                new ForeignKeyRelationshipEdge("ORDERS", "CUSTOMER", "CUSTOMER_ID", "ID", "FK_ORDERS"),
+                new ForeignKeyRelationshipEdge("ORDER_LINE", "ORDERS", "ORDER_ID", "ID", "FK_LINE"),
+                // columns in another order than the primary key
+                new ForeignKeyRelationshipEdge("SHIPMENT", "ORDER_LINE", "LINE_NO", "LINE_NO", "FK_SHIPMENT"),
+                new ForeignKeyRelationshipEdge("SHIPMENT", "ORDER_LINE", "ORDER_ID", "ORDER_ID", "FK_SHIPMENT"));
+    }
+
+    @Test
+    public void testImportedKeys() throws Exception {
+        PkTableMap input = new PkTableMap();
+        input.add("SHIPMENT", 100);
+
+        PkTableMap allowed = search(input, false);
+
+        assertEquals(new TreeSet<>(Arrays.asList(100)), allowed.get("SHIPMENT"));
+        assertEquals(new TreeSet<>(Arrays.asList(new CompositeKey(1, 2))), allowed.get("ORDER_LINE"));
+        assertEquals(new TreeSet<>(Arrays.asList(1)), allowed.get("ORDERS"));
+        assertEquals(new TreeSet<>(Arrays.asList(10)), allowed.get("CUSTOMER"));
+        assertEquals(Arrays.asList( //
+                "select ORDER_ID, LINE_NO from SHIPMENT where ID in (?)", //
+                "select ORDER_ID from ORDER_LINE where (ORDER_ID = ? and LINE_NO = ?)", //
+                "select CUSTOMER_ID from ORDERS where ID in (?)"), statements);
+    }
+
+    @Test
+    public void testImportedAndExportedKeys() throws Exception {
+        PkTableMap input = new PkTableMap();
+        input.add("ORDERS", 1);
+
+        PkTableMap allowed = search(input, true);
+
+        assertEquals(new TreeSet<>(Arrays.asList(10)), allowed.get("CUSTOMER"));
+        // the input restricts the orders
+        assertEquals(new TreeSet<>(Arrays.asList(1)), allowed.get("ORDERS"));
+        assertEquals(new TreeSet<>(Arrays.asList(new CompositeKey(1, 1), new CompositeKey(1, 2))),
+                allowed.get("ORDER_LINE"));
+        assertEquals(new TreeSet<>(Arrays.asList(100)), allowed.get("SHIPMENT"));
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        List<Connection> closed = Collections.synchronizedList(new ArrayList<>());
+        DataSource dataSource = proxy(DataSource.class, (method, args) -> {
+            Connection[] worker = new Connection[1];
+            worker[0] = proxy(Connection.class, (connectionMethod, connectionArgs) -> {
+                if (connectionMethod.equals("close")) {
+                    closed.add(worker[0]);
+                    return null;
+                }
+                return prepareStatement((String) connectionArgs[0]);
+            });
+            return worker[0];
+        });
+        PkTableMap input = new PkTableMap();
+        input.add("ORDERS", 1);
+
+        PkTableMap allowed = new PrimaryKeySearch(connection(), dataSource, 2).search(dataSet, TABLE_NAMES, edges,
+                input, true);
+
+        assertEquals(new TreeSet<>(Arrays.asList(10)), allowed.get("CUSTOMER"));
+        assertEquals(new TreeSet<>(Arrays.asList(new CompositeKey(1, 1), new CompositeKey(1, 2))),
+                allowed.get("ORDER_LINE"));
+        assertEquals(new TreeSet<>(Arrays.asList(100)), allowed.get("SHIPMENT"));
+        assertEquals(2, closed.size());
+    }
+
+    @Test
+    public void testConcurrentQueryFailure() throws Exception {
+        List<Connection> closed = Collections.synchronizedList(new ArrayList<>());
+        DataSource dataSource = proxy(DataSource.class, (method, args) -> {
+            Connection[] worker = new Connection[1];
+            worker[0] = proxy(Connection.class, (connectionMethod, connectionArgs) -> {
+                if (connectionMethod.equals("close")) {
+                    closed.add(worker[0]);
+                    throw new SQLException("Closing failed");
+                }
+                String sql = (String) connectionArgs[0];
+                if (sql.contains("from ORDER_LINE")) {
+                    throw new SQLException("Query failed");
+                }
+                return prepareStatement(sql);
+            });
+            return worker[0];
+        });
+        PkTableMap input = new PkTableMap();
+        input.add("ORDERS", 1);
+
+        try {
+            new PrimaryKeySearch(connection(), dataSource, 2).search(dataSet, TABLE_NAMES, edges, input, true);
+            fail("Should not be here!");
+        } catch (SQLException e) {
+            assertEquals("Query failed", e.getMessage());
+            assertEquals(2, e.getSuppressed().length);
+        }
+        assertEquals(2, closed.size());
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        config.setMaxBindParameters(2);
+        rows.get("ORDER_LINE").clear();
+        PkTableMap input = new PkTableMap();
+        input.add("ORDERS", 1);
+        input.add("ORDERS", 2);
+        input.add("ORDERS", 3);
+
+        PkTableMap allowed = search(input, false);
+
+        assertEquals(new TreeSet<>(Arrays.asList(10, 20)), allowed.get("CUSTOMER"));
+        assertNull(allowed.get("ORDER_LINE"));
+        assertEquals(Arrays.asList( //
+                "select CUSTOMER_ID from ORDERS where ID in (?, ?)", //
+                "select CUSTOMER_ID from ORDERS where ID in (?)"), statements);
+    }
+
+    private PkTableMap search(PkTableMap input, boolean reverse) throws Exception {
+        return new PrimaryKeySearch(connection(), null, 1).search(dataSet, TABLE_NAMES, edges, input, reverse);
+    }
+
+    private IDatabaseConnection connection() {
+        return proxy(IDatabaseConnection.class, (method, args) -> {
+            switch (method) {
+            case "getDatabaseConfig":
+                return config;
+            case "getConnection":
+                return proxy(Connection.class, (connectionMethod, connectionArgs) -> {
+                    return prepareStatement((String) connectionArgs[0]);
+                });
+            default:
+                return null;
+            }
+        });
+    }
+
+    private PreparedStatement prepareStatement(String sql) {
+        statements.add(sql);
+        Map<Integer, Object> parameters = new HashMap<>();
+        return proxy(PreparedStatement.class, (method, args) -> {
+            switch (method) {
+            case "setObject":
+                parameters.put((Integer) args[0], args[1]);
+                return null;
+            case "executeQuery":
+                return resultSet(query(sql, parameters));
+            default:
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Runs the queries of the search on the rows of the test.
+     */
+    private List<Object[]> query(String sql, Map<Integer, Object> parameters) {
+        Matcher matcher = SELECT.matcher(sql);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(sql);
+        }
+        String[] columns = matcher.group(1).split(", ");
+        String where = matcher.group(3);
+        List<List<String>> keyColumns = new ArrayList<>();
+        if (where.contains(" in (")) {
+            String column = where.substring(0, where.indexOf(" in ("));
+            for (int i = 0; i < parameters.size(); i++) {
+                keyColumns.add(Arrays.asList(column));
+            }
+        } else {
+            for (String condition : where.split(" or ")) {
+                List<String> conditionColumns = new ArrayList<>();
+                for (String equality : condition.replaceAll("[()]", "").split(" and ")) {
+                    conditionColumns.add(equality.substring(0, equality.indexOf(" = ?")));
+                }
+                keyColumns.add(conditionColumns);
+            }
+        }
+
+        List<Object[]> result = new ArrayList<>();
+        for (Map<String, Object> row : rows.get(matcher.group(2))) {
+            int parameter = 1;
+            boolean matches = false;
+            for (List<String> conditionColumns : keyColumns) {
+                boolean conditionMatches = true;
+                for (String column : conditionColumns) {
+                    conditionMatches &= parameters.get(parameter++).equals(row.get(column));
+                }
+                matches |= conditionMatches;
+            }
+            if (matches) {
+                Object[] values = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    values[i] = row.get(columns[i]);
+                }
+                result.add(values);
+            }
+        }
+        return result;
+    }
+
+    private static ResultSet resultSet(List<Object[]> result) {
+        int[] row = { -1 };
+        return proxy(ResultSet.class, (method, args) -> {
+            switch (method) {
+            case "next":
+                return ++row[0] < result.size();
+            case "getObject":
+                return result.get(row[0])[(Integer) args[0] - 1];
+            default:
+                return null;
+            }
+        });
+    }
+
+    private void addTable(String tableName, String[] columnNames, String... primaryKeys) throws Exception {
+        Column[] columns = new Column[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = new Column(columnNames[i], DataType.INTEGER);
+        }
+        dataSet.addTable(new DefaultTable(new DefaultTableMetaData(tableName, columns, primaryKeys)));
+        rows.put(tableName, new ArrayList<>());
+    }
+
+    private void addRow(String tableName, Object... namesAndValues) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            row.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        rows.get(tableName).add(row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+
+    private interface Handler {
+
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+}
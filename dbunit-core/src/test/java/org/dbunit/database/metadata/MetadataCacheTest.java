@@ -0,0 +1,77 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class MetadataCacheTest {
+
+    @Test
+    public void testSharedByDatabaseUserAndSchema() throws Exception {
+        Connection connection1 = mockConnection("jdbc:test:db1", "SA");
+        Connection connection2 = mockConnection("jdbc:test:db1", "SA");
+        Connection otherUser = mockConnection("jdbc:test:db1", "OTHER");
+
+        DatabaseConfig config = new DatabaseConfig();
+
+        MetadataCache cache = MetadataCache.shared(connection1, "PUBLIC", config);
+
+        assertSame(cache, MetadataCache.shared(connection2, "PUBLIC", new DatabaseConfig()));
+        assertNotSame(cache, MetadataCache.shared(connection2, "OTHER", config));
+        assertNotSame(cache, MetadataCache.shared(otherUser, "PUBLIC", config));
+    }
+
+    @Test
+    public void testSharedByTableSettings() throws Exception {
+        Connection connection = mockConnection("jdbc:test:db2", "SA");
+        DatabaseConfig config = new DatabaseConfig();
+
+        MetadataCache cache = MetadataCache.shared(connection, "PUBLIC", config);
+
+        DatabaseConfig otherTableTypes = new DatabaseConfig();
+        otherTableTypes.setTableTypes(new String[] { "TABLE", "VIEW" });
+        assertNotSame(cache, MetadataCache.shared(connection, "PUBLIC", otherTableTypes));
+        DatabaseConfig otherPredicate = new DatabaseConfig();
+        otherPredicate.setIgnoredTablePredicate(table -> table.tableName.startsWith("BIN$"));
+        assertNotSame(cache, MetadataCache.shared(connection, "PUBLIC", otherPredicate));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        MetadataCache tested = new MetadataCache();
+        SchemaMetadata schema = new SchemaMetadata(null, "PUBLIC");
+        tested.schemas = Collections.singleton(schema);
+        tested.schemaTables.put(schema, Collections.singletonList(new TableMetadata(schema, "T1", "TABLE")));
+        tested.putDerived("key", "value");
+        assertEquals("value", tested.getDerived("key"));
+
+        tested.invalidate();
+
+        assertNull(tested.schemas);
+        assertEquals(0, tested.schemaTables.size());
+        assertNull(tested.getDerived("key"));
+    }
+
+    private Connection mockConnection(String url, String user) throws Exception {
+        DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+        when(databaseMetaData.getURL()).thenReturn(url);
+        when(databaseMetaData.getUserName()).thenReturn(user);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        return connection;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+import org.dbunit.database.AmbiguousTableNameException;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class MetadataLookupTableFinderTest {
+
+    private DatabaseMetaData databaseMetaData;
+    private MetadataLookupTableFinder tested;
+
+    @Before
+    public void setUp() throws Exception {
+        databaseMetaData = mock(DatabaseMetaData.class);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        ResultSet schemas = resultSet(new String[] { "PUBLIC", null }, new String[] { "OTHER", null });
+        when(databaseMetaData.getSchemas()).thenReturn(schemas);
+        when(databaseMetaData.getTables(isNull(), isNull(), anyString(), any())).thenAnswer(i -> resultSet());
+        when(databaseMetaData.getColumns(isNull(), anyString(), anyString(), eq("%"))).thenAnswer(i -> resultSet());
+
+        MetadataManager metadataManager = new MetadataManager(connection, new DatabaseConfig(), null, null);
+        tested = new MetadataLookupTableFinder(metadataManager);
+    }
+
+    @Test
+    public void testLooksUpUpperCasedName() throws Exception {
+        when(databaseMetaData.getTables(isNull(), isNull(), eq("T1"), any()))
+                .thenAnswer(i -> resultSet(new String[] { null, "PUBLIC", "T1", "TABLE" }));
+
+        TableMetadata tableMetadata = tested.nameToTable("t1");
+
+        assertEquals("T1", tableMetadata.tableName);
+        assertEquals("PUBLIC", tableMetadata.schemaMetadata.schema);
+        assertSame(tableMetadata, tested.nameToTable("t1"));
+        verify(databaseMetaData, times(1)).getTables(isNull(), isNull(), eq("T1"), any());
+        // no crawl of the whole database
+        verify(databaseMetaData, never()).getTables(isNull(), eq("PUBLIC"), eq("%"), any());
+    }
+
+    @Test
+    public void testQualifiedName() throws Exception {
+        when(databaseMetaData.getTables(isNull(), isNull(), eq("T1"), any()))
+                .thenAnswer(i -> resultSet(new String[] { null, "PUBLIC", "T1", "TABLE" },
+                        new String[] { null, "OTHER", "T1", "TABLE" }));
+
+        assertEquals("OTHER", tested.nameToTable("other.T1").schemaMetadata.schema);
+        assertEquals("PUBLIC", tested.nameToTable("PUBLIC.T1").schemaMetadata.schema);
+    }
+
+    @Test(expected = AmbiguousTableNameException.class)
+    public void testAmbiguousName() throws Exception {
+        when(databaseMetaData.getTables(isNull(), isNull(), eq("T1"), any()))
+                .thenAnswer(i -> resultSet(new String[] { null, "PUBLIC", "T1", "TABLE" },
+                        new String[] { null, "OTHER", "T1", "TABLE" }));
+
+        tested.nameToTable("T1");
+    }
+
+    private static ResultSet resultSet(String[]... rows) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        int[] row = { -1 };
+        when(resultSet.next()).thenAnswer(i -> ++row[0] < rows.length);
+        when(resultSet.getString(anyInt())).thenAnswer(i -> rows[row[0]][(Integer) i.getArgument(0) - 1]);
+        return resultSet;
+    }
+}
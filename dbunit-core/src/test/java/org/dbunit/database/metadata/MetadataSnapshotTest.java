@@ -0,0 +1,99 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import org.dbunit.database.DatabaseSequenceFilter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetadataSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File file = new File(folder.getRoot(), "test.snapshot");
+        SchemaMetadata schema = new SchemaMetadata(null, "PUBLIC");
+        TableMetadata table = new TableMetadata(schema, "T1", "TABLE");
+        table.columns = new ColumnMetadata[] { new ColumnMetadata("ID", Types.INTEGER, "INTEGER") };
+        table.primaryKeys = new String[] { "ID" };
+        MetadataCache cache = new MetadataCache();
+        cache.schemas = Collections.singleton(schema);
+        cache.schemaTables.put(schema, Collections.singletonList(table));
+        cache.putDerived(Arrays.asList(DatabaseSequenceFilter.class, true, Arrays.asList("T1")),
+                new String[] { "T1" });
+        // can not be serialized, computed again
+        cache.putDerived("other", new Object());
+
+        new MetadataSnapshot(file, "v1").write(cache);
+        MetadataCache tested = new MetadataCache();
+        assertTrue(new MetadataSnapshot(file, "v1").read(tested));
+
+        assertEquals(Collections.singleton(schema), tested.schemas);
+        List<TableMetadata> tables = tested.schemaTables.get(schema);
+        assertEquals(1, tables.size());
+        assertEquals("T1", tables.get(0).tableName);
+        assertEquals("ID", tables.get(0).getColumns()[0].columnName);
+        assertEquals(Types.INTEGER, tables.get(0).getColumns()[0].sqlType);
+        assertEquals("ID", tables.get(0).getPrimaryKeys()[0]);
+        assertEquals("T1",
+                ((String[]) tested.getDerived(Arrays.asList(DatabaseSequenceFilter.class, true, Arrays.asList("T1"))))[0]);
+        assertNull(tested.getDerived("other"));
+    }
+
+    @Test
+    public void testOutdatedSnapshotIsIgnored() throws Exception {
+        File file = new File(folder.getRoot(), "test.snapshot");
+        MetadataCache cache = new MetadataCache();
+        cache.schemas = Collections.singleton(new SchemaMetadata(null, "PUBLIC"));
+        new MetadataSnapshot(file, "v1").write(cache);
+
+        MetadataCache tested = new MetadataCache();
+
+        assertFalse(new MetadataSnapshot(file, "v2").read(tested));
+        assertNull(tested.schemas);
+    }
+
+    @Test
+    public void testOtherClassesAreNotRead() throws Exception {
+        File file = new File(folder.getRoot(), "test.snapshot");
+        try ( //
+                ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file)); //
+        ) {
+            out.writeInt(MetadataSnapshot.FORMAT_VERSION);
+            out.writeUTF("v1");
+            out.writeObject(new HashSet<>(Collections.singleton(new Date())));
+        }
+
+        MetadataCache tested = new MetadataCache();
+
+        assertFalse(new MetadataSnapshot(file, "v1").read(tested));
+        assertNull(tested.schemas);
+    }
+
+    @Test
+    public void testMissingSnapshot() throws Exception {
+        MetadataCache tested = new MetadataCache();
+
+        assertFalse(new MetadataSnapshot(new File(folder.getRoot(), "none.snapshot"), "v1").read(tested));
+        assertNull(tested.schemas);
+    }
+}
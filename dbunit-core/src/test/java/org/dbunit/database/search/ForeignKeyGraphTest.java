@@ -0,0 +1,81 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.search;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+
+import org.dbunit.database.CyclicTablesDependencyException;
+import org.junit.Test;
+
+public class ForeignKeyGraphTest {
+
+    @Test
+    public void testSort() throws Exception {
+        ForeignKeyGraph.Builder builder = new ForeignKeyGraph.Builder();
+        // same foreign keys as hypersonic_fk.sql
+        builder.addForeignKey("A", "D");
+        builder.addForeignKey("B", "C");
+        builder.addForeignKey("B", "E");
+        builder.addForeignKey("B", "H");
+        builder.addForeignKey("C", "A");
+        builder.addForeignKey("C", "F");
+        builder.addForeignKey("E", "A");
+        builder.addForeignKey("E", "G");
+        builder.addForeignKey("F", "D");
+        ForeignKeyGraph tested = builder.build(true);
+
+        String[] sorted = tested.sort(new String[] { "A", "B", "C", "D", "E", "F", "G", "H" }, true);
+
+        assertArrayEquals(new String[] { "D", "A", "F", "C", "G", "E", "H", "B" }, sorted);
+    }
+
+    @Test
+    public void testDependencyThroughUnlistedTable() throws Exception {
+        ForeignKeyGraph.Builder builder = new ForeignKeyGraph.Builder();
+        builder.addForeignKey("A", "B");
+        builder.addForeignKey("B", "C");
+        ForeignKeyGraph tested = builder.build(true);
+
+        String[] sorted = tested.sort(new String[] { "A", "C" }, true);
+
+        assertArrayEquals(new String[] { "C", "A" }, sorted);
+    }
+
+    @Test
+    public void testCaseInsensitiveNames() throws Exception {
+        ForeignKeyGraph.Builder builder = new ForeignKeyGraph.Builder();
+        builder.addForeignKey("A", "B");
+        ForeignKeyGraph tested = builder.build(true);
+
+        String[] sorted = tested.sort(new String[] { "a", "b", "unknown" }, false);
+
+        assertArrayEquals(new String[] { "b", "a", "unknown" }, sorted);
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        ForeignKeyGraph.Builder builder1 = new ForeignKeyGraph.Builder();
+        builder1.addForeignKey("S1.A", "S2.B");
+        ForeignKeyGraph.Builder builder2 = new ForeignKeyGraph.Builder();
+        builder2.addForeignKey("S2.B", "S2.C");
+
+        ForeignKeyGraph tested = ForeignKeyGraph.merge(Arrays.asList(builder1.build(true), builder2.build(true)));
+
+        assertArrayEquals(new String[] { "S2.C", "S2.B", "S1.A" },
+                tested.sort(new String[] { "S1.A", "S2.B", "S2.C" }, true));
+    }
+
+    @Test(expected = CyclicTablesDependencyException.class)
+    public void testCycle() throws Exception {
+        ForeignKeyGraph.Builder builder = new ForeignKeyGraph.Builder();
+        builder.addForeignKey("A", "B");
+        builder.addForeignKey("B", "C");
+        builder.addForeignKey("C", "A");
+        ForeignKeyGraph tested = builder.build(true);
+
+        tested.sort(new String[] { "A", "B", "C" }, true);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveBatchSizePolicyTest {
+
+    private static final String SQL = "insert into T1 (C1) values (?)";
+
+    @Test
+    public void testInitialBatchSizeIsWithinBounds() throws Exception {
+        AdaptiveBatchSizePolicy tested = new AdaptiveBatchSizePolicy(100, 0, 10, 1000);
+
+        assertEquals(1000, tested.getBatchSize(SQL, 5000));
+        assertEquals(10, tested.getBatchSize("insert into T2 (C1) values (?)", 1));
+    }
+
+    @Test
+    public void testSlowBatchShrinksBatchSize() throws Exception {
+        AdaptiveBatchSizePolicy tested = new AdaptiveBatchSizePolicy(100, 0, 10, 1000);
+        tested.getBatchSize(SQL, 100);
+
+        // 25 rows would be executed in 100 ms
+        tested.batchExecuted(SQL, 100, 0, TimeUnit.MILLISECONDS.toNanos(400));
+
+        assertEquals(62, tested.getBatchSize(SQL, 100));
+    }
+
+    @Test
+    public void testFastBatchesGrowBatchSizeUpToMaximum() throws Exception {
+        AdaptiveBatchSizePolicy tested = new AdaptiveBatchSizePolicy(100, 0, 10, 1000);
+        tested.getBatchSize(SQL, 100);
+
+        for (int i = 0; i < 20; i++) {
+            int batchSize = tested.getBatchSize(SQL, 100);
+            tested.batchExecuted(SQL, batchSize, 0, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        assertEquals(1000, tested.getBatchSize(SQL, 100));
+        assertEquals(1000, tested.getBatchSizes().get(SQL).intValue());
+    }
+
+    @Test
+    public void testLargeValuesShrinkBatchSize() throws Exception {
+        AdaptiveBatchSizePolicy tested = new AdaptiveBatchSizePolicy(100, 1000, 1, 1000);
+        tested.getBatchSize(SQL, 100);
+
+        // 50 rows fit in the memory budget
+        tested.batchExecuted(SQL, 100, 2000, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(75, tested.getBatchSize(SQL, 100));
+    }
+
+    @Test
+    public void testStatementExecutesBatchOfPolicySize() throws Exception {
+        AdaptiveBatchSizePolicy policy = new AdaptiveBatchSizePolicy(100, 0, 2, 2);
+        IPreparedBatchStatement statement = mock(IPreparedBatchStatement.class);
+        AdaptivePreparedBatchStatement tested = new AdaptivePreparedBatchStatement(statement, SQL, policy, 2);
+
+        for (int i = 0; i < 5; i++) {
+            tested.addValue("value", null);
+            tested.addBatch();
+        }
+
+        verify(statement, times(2)).executeBatch();
+        tested.executeBatch();
+        verify(statement, times(3)).executeBatch();
+    }
+}
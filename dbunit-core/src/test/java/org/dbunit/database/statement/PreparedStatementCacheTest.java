@@ -0,0 +1,93 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.database.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import org.junit.Test;
+
+public class PreparedStatementCacheTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatementCache tested = new PreparedStatementCache(connection, 2);
+
+    @Test
+    public void testBorrowReturnedStatement() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("insert into T1 (C1) values (?)")).thenReturn(statement);
+
+        PreparedStatement borrowed1 = tested.borrow("insert into T1 (C1) values (?)");
+        tested.release("insert into T1 (C1) values (?)", borrowed1);
+        PreparedStatement borrowed2 = tested.borrow("insert into T1 (C1) values (?)");
+
+        assertSame(statement, borrowed1);
+        assertSame(statement, borrowed2);
+        verify(connection, times(1)).prepareStatement("insert into T1 (C1) values (?)");
+        verify(statement).clearParameters();
+        verify(statement, never()).close();
+    }
+
+    @Test
+    public void testSameSqlBorrowedTwice() throws Exception {
+        PreparedStatement statement1 = mock(PreparedStatement.class);
+        PreparedStatement statement2 = mock(PreparedStatement.class);
+        when(connection.prepareStatement("delete from T1")).thenReturn(statement1, statement2);
+
+        PreparedStatement borrowed1 = tested.borrow("delete from T1");
+        PreparedStatement borrowed2 = tested.borrow("delete from T1");
+        assertNotSame(borrowed1, borrowed2);
+
+        tested.release("delete from T1", borrowed1);
+        tested.release("delete from T1", borrowed2);
+
+        assertEquals(1, tested.size());
+        verify(statement2).close();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedClosed() throws Exception {
+        PreparedStatement statement1 = mock(PreparedStatement.class);
+        PreparedStatement statement2 = mock(PreparedStatement.class);
+        PreparedStatement statement3 = mock(PreparedStatement.class);
+        when(connection.prepareStatement("delete from T1")).thenReturn(statement1);
+        when(connection.prepareStatement("delete from T2")).thenReturn(statement2);
+        when(connection.prepareStatement("delete from T3")).thenReturn(statement3);
+
+        tested.release("delete from T1", tested.borrow("delete from T1"));
+        tested.release("delete from T2", tested.borrow("delete from T2"));
+        tested.release("delete from T1", tested.borrow("delete from T1"));
+        tested.release("delete from T3", tested.borrow("delete from T3"));
+
+        assertEquals(2, tested.size());
+        verify(statement1, never()).close();
+        verify(statement2).close();
+        verify(statement3, never()).close();
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        PreparedStatement statement1 = mock(PreparedStatement.class);
+        PreparedStatement statement2 = mock(PreparedStatement.class);
+        when(connection.prepareStatement("delete from T1")).thenReturn(statement1);
+        when(connection.prepareStatement("delete from T2")).thenReturn(statement2);
+
+        tested.release("delete from T1", tested.borrow("delete from T1"));
+        tested.release("delete from T2", tested.borrow("delete from T2"));
+        tested.clear();
+
+        assertEquals(0, tested.size());
+        verify(statement1).close();
+        verify(statement2).close();
+    }
+}
@@ -92,6 +92,34 @@ public abstract class AbstractTableTest extends AbstractDatabaseTest {
         }
     }
 
+    @Test
+    public void testGetValueByColumnIndex() throws Exception {
+        ITable table = createTable();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            for (int j = 0; j < COLUMN_COUNT; j++) {
+                String expected = "row " + i + " col " + j;
+                Object value = table.getValue(i, j);
+                assertEquals("value", expected, value);
+            }
+        }
+    }
+
+    @Test
+    public void testCursor() throws Exception {
+        ITableCursor cursor = createTable().cursor();
+        int rowCount = 0;
+        while (cursor.next()) {
+            assertEquals("row", rowCount, cursor.getRow());
+            for (int j = 0; j < COLUMN_COUNT; j++) {
+                String expected = "row " + rowCount + " col " + j;
+                assertEquals("value", expected, cursor.get(j));
+            }
+            rowCount++;
+        }
+        assertEquals("row count", ROW_COUNT, rowCount);
+        assertEquals("next after end", false, cursor.next());
+    }
+
     @Test
     public void testGetValueCaseInsensitive() throws Exception {
         ITable table = createTable();
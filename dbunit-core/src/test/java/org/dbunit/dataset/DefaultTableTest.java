@@ -23,8 +23,13 @@ package org.dbunit.dataset;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
 
 import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+import org.junit.Test;
 
 /**
  * @author Manuel Laflamme
@@ -75,4 +80,40 @@ public class DefaultTableTest extends AbstractTableTest {
         assertEquals("no value", expected, table.getValue(0, columnName));
     }
 
+    @Test
+    public void testTypeCast() throws Exception {
+        DefaultTable table = new DefaultTable("myTable", new Column[] { new Column("ID", DataType.UNKNOWN),
+                new Column("AMOUNT", DataType.UNKNOWN), new Column("NAME", DataType.UNKNOWN) });
+        table.addRow(new Object[] { "1", "12.50", "one" });
+        table.addRow(new Object[] { "2", null, ITable.NO_VALUE });
+
+        table.typeCast(new DefaultTableMetaData("MYTABLE", new Column[] { new Column("id", DataType.INTEGER),
+                new Column("amount", DataType.DECIMAL), new Column("other", DataType.VARCHAR) }));
+
+        assertEquals("value", new Integer(1), table.getValue(0, "ID"));
+        assertEquals("value", new BigDecimal("12.50"), table.getValue(0, "AMOUNT"));
+        assertEquals("value", "one", table.getValue(0, "NAME"));
+        assertEquals("value", new Integer(2), table.getValue(1, "ID"));
+        assertEquals("value", null, table.getValue(1, "AMOUNT"));
+        assertEquals("value", ITable.NO_VALUE, table.getValue(1, "NAME"));
+
+        Column[] columns = table.getTableMetaData().getColumns();
+        assertEquals("column name", "ID", columns[0].getColumnName());
+        assertEquals("data type", DataType.INTEGER, columns[0].getDataType());
+        assertEquals("data type", DataType.DECIMAL, columns[1].getDataType());
+        assertEquals("data type", DataType.UNKNOWN, columns[2].getDataType());
+    }
+
+    @Test
+    public void testTypeCastInvalidValue() throws Exception {
+        DefaultTable table = new DefaultTable("myTable", new Column[] { new Column("ID", DataType.UNKNOWN) });
+        table.addRow(new Object[] { "one" });
+
+        try {
+            table.typeCast(new DefaultTableMetaData("myTable", new Column[] { new Column("ID", DataType.INTEGER) }));
+            fail("Should throw a TypeCastException!");
+        } catch (TypeCastException e) {
+        }
+    }
+
 }
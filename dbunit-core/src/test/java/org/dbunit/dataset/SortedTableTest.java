@@ -28,8 +28,10 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Random;
 
 import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
 import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
 import org.dbunit.testutil.TestUtils;
 import org.junit.Test;
@@ -71,6 +73,73 @@ public class SortedTableTest extends AbstractTableTest {
         return table;
     }
 
+    /**
+     * Creates a table large enough to be sorted in parallel, with repeated and
+     * null values.
+     */
+    private ITable createLargeTable() throws Exception {
+        Column[] columns = { new Column("COLUMN0", DataType.BIGINT), new Column("COLUMN1", DataType.VARCHAR),
+                new Column("COLUMN2", DataType.INTEGER) };
+        DefaultTable table = new DefaultTable("TEST_TABLE", columns);
+        Random random = new Random(42);
+        for (int i = 0; i < 3 * RowSorter.PARALLEL_THRESHOLD; i++) {
+            Object value0 = random.nextInt(10) == 0 ? null : Long.valueOf(random.nextInt(1000) - 500);
+            Object value1 = random.nextInt(10) == 0 ? null : "value " + random.nextInt(100);
+            table.addRow(new Object[] { value0, value1, Integer.valueOf(i) });
+        }
+        return table;
+    }
+
+    private void assertSameOrder(SortedTable expected, SortedTable actual) throws Exception {
+        for (int i = 0; i < expected.getRowCount(); i++) {
+            assertEquals("row " + i, expected.getValue(i, "COLUMN2"), actual.getValue(i, "COLUMN2"));
+        }
+    }
+
+    @Test
+    public void testLargeTableSortByComparable() throws Exception {
+        ITable table = createLargeTable();
+        Column[] sortColumns = Columns.getColumns(new String[] { "COLUMN0", "COLUMN1" },
+                table.getTableMetaData().getColumns());
+        SortedTable expected = new SortedTable(table, sortColumns);
+        expected.setRowComparator(new SortedTable.RowComparator(table, sortColumns));
+        SortedTable actual = new SortedTable(table, sortColumns);
+        actual.setUseComparable(true);
+
+        assertSameOrder(expected, actual);
+    }
+
+    @Test
+    public void testLargeTableSortByString() throws Exception {
+        ITable table = createLargeTable();
+        Column[] sortColumns = Columns.getColumns(new String[] { "COLUMN0", "COLUMN1" },
+                table.getTableMetaData().getColumns());
+        SortedTable expected = new SortedTable(table, sortColumns);
+        expected.setRowComparator(new SortedTable.RowComparatorByString(table, sortColumns));
+        SortedTable actual = new SortedTable(table, sortColumns);
+
+        assertSameOrder(expected, actual);
+    }
+
+    @Test
+    public void testLargeTableSortWithInvalidValue() throws Exception {
+        Column[] columns = { new Column("COLUMN0", DataType.INTEGER) };
+        DefaultTable table = new DefaultTable("TEST_TABLE", columns);
+        int rowCount = 4 * RowSorter.PARALLEL_THRESHOLD;
+        for (int i = 0; i < rowCount; i++) {
+            // only in the last part, sorted by another thread than the caller
+            table.addRow(new Object[] { i == rowCount - 10 ? "not a number" : Integer.valueOf(i % 7) });
+        }
+        SortedTable sortedTable = new SortedTable(table, columns);
+        sortedTable.setUseComparable(true);
+
+        try {
+            sortedTable.getValue(0, "COLUMN0");
+            fail("Should not be able to sort a value that can not be cast");
+        } catch (TypeCastException expected) {
+        }
+    }
+
     @Test
     public void testSetUseComparableTooLate() throws Exception {
         ITable table = createTable();
@@ -90,6 +90,13 @@ public class IntegerDataTypeTest extends AbstractDataTypeTest {
         }
     }
 
+    public void testTypeCastInteger() throws Exception {
+        Integer value = new Integer(1234);
+        for (int i = 0; i < TYPES.length; i++) {
+            assertSame("typecast", value, TYPES[i].typeCast(value));
+        }
+    }
+
     /**
      * Empty string should be treated the same as null
      * 
@@ -21,12 +21,21 @@
 package org.dbunit.dataset.stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.FileReader;
 
+import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
 import org.dbunit.dataset.ForwardOnlyDataSetTest;
 import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITableCursor;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.datatype.DataType;
 import org.dbunit.dataset.xml.FlatXmlDataSetTest;
 import org.dbunit.dataset.xml.FlatXmlProducer;
 import org.junit.Test;
@@ -75,6 +84,67 @@ public class StreamingDataSetTest extends ForwardOnlyDataSetTest {
         }
     }
 
+    @Test
+    public void testRowsSpanningSeveralBlocks() throws Exception {
+        MockDataSetProducer source = new MockDataSetProducer();
+        source.setupTableCount(3);
+        source.setupColumnCount(2);
+        source.setupRowCount(10);
+
+        ITableIterator iterator = new StreamingDataSet(source, 3, 1, null).iterator();
+        for (int i = 0; i < 3; i++) {
+            assertTrue("table " + i, iterator.next());
+            assertEquals("table name", "TABLE" + i, iterator.getTableMetaData().getTableName());
+
+            ITableCursor cursor = iterator.getTable().cursor();
+            int rowCount = 0;
+            while (cursor.next()) {
+                assertEquals("value", rowCount + ",1", cursor.get(1));
+                rowCount++;
+            }
+            assertEquals("row count", 10, rowCount);
+        }
+        assertFalse("end of dataset", iterator.next());
+    }
+
+    @Test
+    public void testRowsBeforeExceptionAreReturned() throws Exception {
+        RuntimeException exceptionToThrow = new IllegalStateException("Broken source");
+        IDataSetProducer source = new IDataSetProducer() {
+
+            private IDataSetConsumer consumer;
+
+            @Override
+            public void setConsumer(IDataSetConsumer consumer) throws DataSetException {
+                this.consumer = consumer;
+            }
+
+            @Override
+            public void produce() throws DataSetException {
+                consumer.startDataSet();
+                consumer.startTable(
+                        new DefaultTableMetaData("TABLE", new Column[] { new Column("COLUMN", DataType.UNKNOWN) }));
+                consumer.row(new Object[] { "row 0" });
+                consumer.row(new Object[] { "row 1" });
+                throw exceptionToThrow;
+            }
+        };
+
+        ITableIterator iterator = new StreamingDataSet(source, 2, 1, null).iterator();
+        assertTrue("table", iterator.next());
+        ITableCursor cursor = iterator.getTable().cursor();
+        assertTrue("row 0", cursor.next());
+        assertEquals("value", "row 0", cursor.get(0));
+        assertTrue("row 1", cursor.next());
+        assertEquals("value", "row 1", cursor.get(0));
+        try {
+            cursor.next();
+            fail("Should throw a DataSetException!");
+        } catch (DataSetException expected) {
+            assertSame(exceptionToThrow, expected.getCause());
+        }
+    }
+
     private static class ExceptionThrowingProducer implements IDataSetProducer {
 
         private RuntimeException exceptionToThrow;
@@ -0,0 +1,116 @@
+package org.dbunit.ext.postgresql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.ext.postgresql.CopyInsertOperation.Format;
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class CopyInsertOperationTest {
+
+    @Test
+    public void testWriteTextRow() throws Exception {
+        Column[] columns = { new Column("c1", DataType.INTEGER, "int4", Column.NO_NULLS),
+                new Column("c2", DataType.VARCHAR, "varchar", Column.NULLABLE),
+                new Column("c3", DataType.BOOLEAN, "bool", Column.NULLABLE),
+                new Column("c4", DataType.VARBINARY, "bytea", Column.NULLABLE),
+                new Column("c5", DataType.NUMERIC, "numeric", Column.NULLABLE), };
+
+        ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+        CopyInsertOperation.writeTextRow(rowBuffer, "t", columns, new BitSet(),
+                new Object[] { "1", "a\tb\\c\nd", "true", new byte[] { 0x0a, (byte) 0xff }, "1.50" });
+        CopyInsertOperation.writeTextRow(rowBuffer, "t", columns, new BitSet(),
+                new Object[] { "2", null, null, null, null });
+
+        assertEquals("1\ta\\tb\\\\c\\nd\tt\t\\\\x0aff\t1.50\n2\t\\N\t\\N\t\\N\t\\N\n",
+                new String(rowBuffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteTextRowIgnoredColumn() throws Exception {
+        Column[] columns = { new Column("c1", DataType.INTEGER, "int4", Column.NO_NULLS),
+                new Column("c2", DataType.VARCHAR, "varchar", Column.NULLABLE), };
+        BitSet ignoreMapping = new BitSet();
+        ignoreMapping.set(0);
+
+        ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+        CopyInsertOperation.writeTextRow(rowBuffer, "t", columns, ignoreMapping,
+                new Object[] { ITable.NO_VALUE, "a" });
+
+        assertEquals("a\n", new String(rowBuffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteBinaryRow() throws Exception {
+        Column[] columns = { new Column("c1", DataType.INTEGER, "int4", Column.NO_NULLS),
+                new Column("c2", DataType.BIGINT, "int8", Column.NULLABLE),
+                new Column("c3", DataType.VARCHAR, "text", Column.NULLABLE),
+                new Column("c4", new UuidType(), "uuid", Column.NULLABLE),
+                new Column("c5", DataType.DATE, "date", Column.NULLABLE), };
+
+        ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+        CopyInsertOperation.writeBinaryRow(rowBuffer, "t", columns, new BitSet(), new Object[] { "7", null, "ab",
+                "00000000-0000-0001-0000-000000000002", java.sql.Date.valueOf("2000-01-03") });
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(expected);
+        out.writeShort(5);
+        out.writeInt(4);
+        out.writeInt(7);
+        out.writeInt(-1);
+        out.writeInt(2);
+        out.write(new byte[] { 'a', 'b' });
+        out.writeInt(16);
+        out.writeLong(1);
+        out.writeLong(2);
+        out.writeInt(4);
+        out.writeInt(2);
+        assertArrayEquals(expected.toByteArray(), rowBuffer.toByteArray());
+    }
+
+    @Test
+    public void testGetFormat() throws Exception {
+        Column int4 = new Column("c1", DataType.INTEGER, "int4", Column.NO_NULLS);
+        Column numeric = new Column("c2", DataType.NUMERIC, "numeric", Column.NULLABLE);
+        Column oid = new Column("c3", new PostgreSQLOidDataType(), "oid", Column.NULLABLE);
+
+        CopyInsertOperation binary = new CopyInsertOperation(Format.BINARY);
+        assertEquals(Format.BINARY, binary.getFormat(new Column[] { int4 }));
+        assertEquals(Format.TEXT, binary.getFormat(new Column[] { int4, numeric }));
+        assertNull(binary.getFormat(new Column[] { int4, oid }));
+        assertEquals(Format.TEXT, new CopyInsertOperation(Format.TEXT).getFormat(new Column[] { int4 }));
+    }
+
+    @Test
+    public void testGetCopySql() throws Exception {
+        Column[] columns = { new Column("c1", DataType.INTEGER), new Column("c2", DataType.VARCHAR),
+                new Column("c3", DataType.VARCHAR), };
+        BitSet ignoreMapping = new BitSet();
+        ignoreMapping.set(1);
+
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(new DatabaseConfig());
+        when(connection.getSchema()).thenReturn("schema");
+
+        assertEquals("copy schema.t (c1, c3) from stdin",
+                new CopyInsertOperation(Format.TEXT).getCopySql(connection, "t", columns, ignoreMapping,
+                        Format.TEXT));
+        assertEquals("copy schema.t (c1, c3) from stdin (format binary)",
+                new CopyInsertOperation(Format.BINARY).getCopySql(connection, "t", columns, ignoreMapping,
+                        Format.BINARY));
+    }
+}
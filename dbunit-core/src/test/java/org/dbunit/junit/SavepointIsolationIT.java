@@ -0,0 +1,87 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.dbunit.DdlExecutor;
+import org.junit.BeforeClass;
+import org.junit.FixMethodOrder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import org.junit.runners.model.FrameworkMethod;
+
+/**
+ * Class data is seeded once, tests are rolled back to a savepoint, and seeded
+ * again after a test commits.
+ */
+@SavepointIsolation
+@DriverManagerConnection(driver = "org.hsqldb.jdbcDriver", url = "jdbc:hsqldb:mem:savepointIsolation", user = "sa", password = "")
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class SavepointIsolationIT {
+
+    private static int seedCount;
+
+    @Rule
+    public final DbUnitFacade dbUnit = new DbUnitFacade() {
+
+        @Override
+        protected void before(Object target, FrameworkMethod method) throws Throwable {
+            addClassTaskBefore(tc -> {
+                seedCount++;
+                Connection jdbcConnection = tc.getConnection().getConnection();
+                DdlExecutor.executeSql(jdbcConnection, "delete from TEST_TABLE");
+                DdlExecutor.executeSql(jdbcConnection, "insert into TEST_TABLE values (1, 'NAME1')");
+                DdlExecutor.executeSql(jdbcConnection, "insert into TEST_TABLE values (2, 'NAME2')");
+            });
+        }
+    };
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        try (Connection jdbcConnection = DriverManager.getConnection("jdbc:hsqldb:mem:savepointIsolation", "sa",
+                "")) {
+            DdlExecutor.executeSql(jdbcConnection, "create table TEST_TABLE (ID int primary key, NAME varchar(20))");
+        }
+    }
+
+    @Test
+    public void test1_changesSeededData() throws Exception {
+        assertEquals(1, seedCount);
+        assertEquals(2, countRows());
+
+        DdlExecutor.executeSql(dbUnit.getJdbcConnection(), "delete from TEST_TABLE");
+        assertEquals(0, countRows());
+    }
+
+    @Test
+    public void test2_seesSeededDataAndCommits() throws Exception {
+        assertEquals(1, seedCount);
+        assertEquals(2, countRows());
+
+        DdlExecutor.executeSql(dbUnit.getJdbcConnection(), "insert into TEST_TABLE values (3, 'NAME3')");
+        dbUnit.getJdbcConnection().commit();
+    }
+
+    @Test
+    public void test3_seedsAgainAfterCommit() throws Exception {
+        assertEquals(2, seedCount);
+        assertEquals(2, countRows());
+    }
+
+    private int countRows() throws Exception {
+        try (Statement statement = dbUnit.getJdbcConnection().createStatement();
+                ResultSet rs = statement.executeQuery("select count(1) from TEST_TABLE")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Test;
+
+public class ChunkedCommitOperationTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final Set<String> failingChunks = new HashSet<>();
+
+    private final Connection jdbcConnection = mock(Connection.class);
+    private final AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+
+    public ChunkedCommitOperationTest() throws Exception {
+        when(jdbcConnection.getAutoCommit()).thenReturn(true);
+        when(connection.getConnection()).thenReturn(jdbcConnection);
+    }
+
+    @Test
+    public void testExecuteCommitsEachChunk() throws Exception {
+        ChunkedCommitOperation tested = new ChunkedCommitOperation(new RecordingOperation(), 2, 0);
+
+        tested.execute(connection, createDataSet());
+
+        assertEquals(Arrays.asList("A0+2", "A2+2", "A4+1", "B0+2"), events);
+        verify(jdbcConnection, times(4)).commit();
+        assertEquals(ChunkedCommitOperation.Progress.START.toString(), tested.getProgress().toString());
+    }
+
+    @Test
+    public void testExecuteCommitsChunkOfMaximumBytes() throws Exception {
+        // each value is estimated at 4 bytes
+        ChunkedCommitOperation tested = new ChunkedCommitOperation(new RecordingOperation(), 10, 12);
+
+        tested.execute(connection, createDataSet());
+
+        assertEquals(Arrays.asList("A0+3", "A3+2", "B0+2"), events);
+    }
+
+    @Test
+    public void testExecuteResumesFromLastCommittedChunk() throws Exception {
+        ChunkedCommitOperation tested = new ChunkedCommitOperation(new RecordingOperation(), 2, 0);
+        failingChunks.add("A4+1");
+
+        try {
+            tested.execute(connection, createDataSet());
+            fail("Should throw a SQLException!");
+        } catch (SQLException expected) {
+        }
+        verify(jdbcConnection).rollback();
+        assertEquals(0, tested.getProgress().getTableIndex());
+        assertEquals("A", tested.getProgress().getTableName());
+        assertEquals(4, tested.getProgress().getRowCount());
+
+        events.clear();
+        tested.execute(connection, createDataSet());
+
+        assertEquals(Arrays.asList("A4+1", "B0+2"), events);
+    }
+
+    @Test
+    public void testExecuteSkipsCommittedOperations() throws Exception {
+        DatabaseOperation operation = new CompositeOperation(new RecordingDeleteAllOperation(),
+                new RecordingOperation());
+        ChunkedCommitOperation tested = new ChunkedCommitOperation(operation, 2, 0);
+        failingChunks.add("B0+2");
+
+        try {
+            tested.execute(connection, createDataSet());
+            fail("Should throw a SQLException!");
+        } catch (SQLException expected) {
+        }
+        assertEquals(1, tested.getProgress().getOperationIndex());
+        assertEquals(1, tested.getProgress().getTableIndex());
+
+        events.clear();
+        tested.execute(connection, createDataSet());
+
+        assertEquals(Arrays.asList("B0+2"), events);
+    }
+
+    @Test
+    public void testExecuteCommitsEachRefreshChunk() throws Exception {
+        ChunkedCommitOperation tested = new ChunkedCommitOperation(new RecordingRefreshOperation(), 2, 0);
+        failingChunks.add("A2+2");
+
+        try {
+            tested.execute(connection, createDataSet());
+            fail("Should throw a SQLException!");
+        } catch (SQLException expected) {
+        }
+        assertEquals(2, tested.getProgress().getRowCount());
+
+        tested.execute(connection, createDataSet());
+
+        assertEquals(Arrays.asList("A0+2", "A2+2", "A4+1", "B0+2"), events);
+    }
+
+    @Test
+    public void testExecuteRequiresAutoCommit() throws Exception {
+        when(jdbcConnection.getAutoCommit()).thenReturn(false);
+
+        try {
+            new ChunkedCommitOperation(new RecordingOperation(), 2, 0).execute(connection, createDataSet());
+            fail("Should throw an ExclusiveTransactionException!");
+        } catch (ExclusiveTransactionException expected) {
+        }
+    }
+
+    private IDataSet createDataSet() throws Exception {
+        return new DefaultDataSet(createTable("A", 5), createTable("B", 2));
+    }
+
+    private static ITable createTable(String tableName, int rowCount) throws Exception {
+        DefaultTable table = new DefaultTable(tableName, new Column[] { new Column("ID", DataType.VARCHAR) });
+        for (int i = 0; i < rowCount; i++) {
+            table.addRow(new Object[] { tableName + i });
+        }
+        return table;
+    }
+
+    private class RecordingOperation extends InsertOperation {
+
+        @Override
+        public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+                throws DatabaseUnitException, SQLException {
+            ITable table = dataSet.getTables()[0];
+            String chunk = table.getValue(0, 0) + "+" + table.getRowCount();
+            if (failingChunks.remove(chunk)) {
+                throw new SQLException("Failing " + chunk);
+            }
+            events.add(chunk);
+        }
+    }
+
+    private class RecordingRefreshOperation extends RefreshOperation {
+
+        @Override
+        public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+                throws DatabaseUnitException, SQLException {
+            ITable table = dataSet.getTables()[0];
+            String chunk = table.getValue(0, 0) + "+" + table.getRowCount();
+            if (failingChunks.remove(chunk)) {
+                throw new SQLException("Failing " + chunk);
+            }
+            events.add(chunk);
+        }
+    }
+
+    private class RecordingDeleteAllOperation extends DeleteAllOperation {
+
+        @Override
+        public void execute(AbstractDatabaseConnection connection, IDataSet dataSet)
+                throws DatabaseUnitException, SQLException {
+            events.add("delete all");
+        }
+    }
+}
@@ -248,9 +248,9 @@ public class InsertOperationTest {
         String schemaName = "schema";
         String tableName = "table";
         String[] expected = { "insert into schema.table (c1, c2, c3) values ('toto', 1234, 'false')",
-                "insert into schema.table (c2, c3) values (123.45, 'true')",
                 "insert into schema.table (c1, c2, c3) values ('qwerty1', 1, 'true')",
                 "insert into schema.table (c1, c2, c3) values ('qwerty2', 2, 'false')",
+                "insert into schema.table (c2, c3) values (123.45, 'true')",
                 "insert into schema.table (c3) values ('false')", };
 
         // setup table
@@ -269,12 +269,12 @@ public class InsertOperationTest {
         // setup mock objects
         MockBatchStatement statement = new MockBatchStatement();
         statement.addExpectedBatchStrings(expected);
-        statement.setExpectedExecuteBatchCalls(4);
-        statement.setExpectedClearBatchCalls(4);
-        statement.setExpectedCloseCalls(4);
+        statement.setExpectedExecuteBatchCalls(3);
+        statement.setExpectedClearBatchCalls(3);
+        statement.setExpectedCloseCalls(3);
 
         MockStatementFactory factory = new MockStatementFactory();
-        factory.setExpectedCreatePreparedStatementCalls(4);
+        factory.setExpectedCreatePreparedStatementCalls(3);
         factory.setupStatement(statement);
 
         DatabaseConfig databaseConfig = new DatabaseConfig();
@@ -285,7 +285,7 @@ public class InsertOperationTest {
         when(connection.getSchema()).thenReturn(schemaName);
 
         // execute operation
-        new InsertOperation().execute(connection, dataSet);
+        new NotSelfReferencingInsertOperation().execute(connection, dataSet);
 
         statement.verify();
         factory.verify();
@@ -457,4 +457,198 @@ public class InsertOperationTest {
         statement.verify();
         factory.verify();
     }
+
+    @Test
+    public void testExecuteMultiRow() throws Exception {
+        String schemaName = "schema";
+        String tableName = "table";
+        String[] expected = { "insert into schema.table (c1, c2) values ('a', 1), ('b', 2)",
+                "insert into schema.table (c1, c2) values ('c', 3), ('d', 4)",
+                "insert into schema.table (c1, c2) values ('e', 5)", };
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.VARCHAR), new Column("c2", DataType.NUMERIC), };
+        DefaultTable table = new DefaultTable(tableName, columns);
+        table.addRow(new Object[] { "a", "1" });
+        table.addRow(new Object[] { "b", "2" });
+        table.addRow(new Object[] { "c", "3" });
+        table.addRow(new Object[] { "d", "4" });
+        table.addRow(new Object[] { "e", "5" });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // setup mock objects
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(expected);
+        statement.setExpectedExecuteBatchCalls(2);
+        statement.setExpectedClearBatchCalls(2);
+        statement.setExpectedCloseCalls(2);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(2);
+        factory.setupStatement(statement);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        databaseConfig.setInsertRowsPerStatement(2);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn(schemaName);
+
+        // execute operation
+        new InsertOperation().execute(connection, dataSet);
+
+        statement.verify();
+        factory.verify();
+    }
+
+    @Test
+    public void testExecuteMultiRowLimitedByBindParameters() throws Exception {
+        String schemaName = "schema";
+        String tableName = "table";
+        String[] expected = { "insert into schema.table (c1, c2) values ('a', 1), ('b', 2)",
+                "insert into schema.table (c1, c2) values ('c', 3)", };
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.VARCHAR), new Column("c2", DataType.NUMERIC), };
+        DefaultTable table = new DefaultTable(tableName, columns);
+        table.addRow(new Object[] { "a", "1" });
+        table.addRow(new Object[] { "b", "2" });
+        table.addRow(new Object[] { "c", "3" });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // setup mock objects
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(expected);
+        statement.setExpectedExecuteBatchCalls(2);
+        statement.setExpectedClearBatchCalls(2);
+        statement.setExpectedCloseCalls(2);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(2);
+        factory.setupStatement(statement);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        databaseConfig.setInsertRowsPerStatement(10);
+        databaseConfig.setMaxBindParameters(5);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn(schemaName);
+
+        // execute operation
+        new InsertOperation().execute(connection, dataSet);
+
+        statement.verify();
+        factory.verify();
+    }
+
+    @Test
+    public void testExecuteMultiRowIgnoreNone() throws Exception {
+        String schemaName = "schema";
+        String tableName = "table";
+        String[] expected = { "insert into schema.table (c1, c2) values ('a', 1), ('b', 2)",
+                "insert into schema.table (c1, c2) values ('d', 4)", "insert into schema.table (c2) values (3)", };
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.VARCHAR), new Column("c2", DataType.NUMERIC), };
+        DefaultTable table = new DefaultTable(tableName, columns);
+        table.addRow(new Object[] { "a", "1" });
+        table.addRow(new Object[] { "b", "2" });
+        table.addRow(new Object[] { ITable.NO_VALUE, "3" });
+        table.addRow(new Object[] { "d", "4" });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // setup mock objects
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(expected);
+        statement.setExpectedExecuteBatchCalls(3);
+        statement.setExpectedClearBatchCalls(3);
+        statement.setExpectedCloseCalls(3);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(3);
+        factory.setupStatement(statement);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        databaseConfig.setInsertRowsPerStatement(2);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn(schemaName);
+
+        // execute operation
+        new NotSelfReferencingInsertOperation().execute(connection, dataSet);
+
+        statement.verify();
+        factory.verify();
+    }
+
+    @Test
+    public void testExecuteSelfReferencingIgnoreNone() throws Exception {
+        String schemaName = "schema";
+        String tableName = "table";
+        String[] expected = { "insert into schema.table (c1, c2) values (1, null)",
+                "insert into schema.table (c1) values (2)", "insert into schema.table (c1, c2) values (3, 2)", };
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.NUMERIC), new Column("c2", DataType.NUMERIC), };
+        DefaultTable table = new DefaultTable(tableName, columns);
+        table.addRow(new Object[] { "1", null });
+        table.addRow(new Object[] { "2", ITable.NO_VALUE });
+        table.addRow(new Object[] { "3", "2" });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // setup mock objects
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(expected);
+        statement.setExpectedExecuteBatchCalls(3);
+        statement.setExpectedClearBatchCalls(3);
+        statement.setExpectedCloseCalls(3);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(3);
+        factory.setupStatement(statement);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn(schemaName);
+
+        // execute operation
+        new InsertOperation() {
+
+            @Override
+            boolean isSelfReferencing(AbstractDatabaseConnection connection, String tableName) {
+                return true;
+            }
+        }.execute(connection, dataSet);
+
+        statement.verify();
+        factory.verify();
+    }
+
+    /**
+     * Stands for a table without foreign key to itself, without looking up the
+     * database metadata.
+     */
+    private static class NotSelfReferencingInsertOperation extends InsertOperation {
+
+        @Override
+        boolean isSelfReferencing(AbstractDatabaseConnection connection, String tableName) {
+            return false;
+        }
+    }
 }
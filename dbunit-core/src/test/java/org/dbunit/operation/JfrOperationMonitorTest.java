@@ -0,0 +1,54 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class JfrOperationMonitorTest {
+
+    private static final String SQL = "insert into T1 (C1) values (?)";
+
+    @Test
+    public void testForwardsToConfiguredMonitor() throws Exception {
+        OperationMetricsCollector metrics = new OperationMetricsCollector();
+        JfrOperationMonitor tested = new JfrOperationMonitor(metrics);
+
+        tested.operationStarted(DatabaseOperation.INSERT);
+        tested.metadataLookedUp("T1", 5);
+        tested.tableStarted(DatabaseOperation.INSERT, "T1");
+        tested.statementPrepared("T1", SQL, 7);
+        tested.batchExecuted("T1", SQL, 10, 80, 100);
+        tested.batchExecuted("T1", SQL, 5, 40, 100);
+        tested.tableFinished(DatabaseOperation.INSERT, "T1", 15, 1000);
+        tested.operationFinished(DatabaseOperation.INSERT, 2000);
+
+        OperationMetricsCollector.TableMetrics table = metrics.getTableMetrics("T1");
+        assertEquals(5, table.getMetadataNanos());
+        assertEquals(1, table.getStatementCount());
+        assertEquals(2, table.getBatchCount());
+        assertEquals(15, table.getBatchRowCount());
+        assertEquals(120, table.getBatchByteCount());
+        assertEquals(15, table.getRowCount());
+        assertEquals(1000, table.getNanos());
+    }
+
+    @Test
+    public void testForwardsBatchesToMonitorWithoutByteCount() throws Exception {
+        int[] rowCount = { 0 };
+        IOperationMonitor monitor = new IOperationMonitor() {
+
+            @Override
+            public void batchExecuted(String tableName, String sql, int batchRowCount, long nanos) {
+                rowCount[0] += batchRowCount;
+            }
+        };
+        JfrOperationMonitor tested = new JfrOperationMonitor(monitor);
+
+        tested.batchExecuted("T1", SQL, 10, 80, 100);
+
+        assertEquals(10, rowCount[0]);
+    }
+}
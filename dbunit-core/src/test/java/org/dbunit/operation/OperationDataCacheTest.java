@@ -0,0 +1,91 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.BitSet;
+
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class OperationDataCacheTest {
+
+    private final OperationDataCache tested = new OperationDataCache(2);
+    private final DeleteOperation operation = new DeleteOperation();
+    private final AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+    private final DatabaseConfig databaseConfig = new DatabaseConfig();
+
+    @Before
+    public void setUp() {
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.getSchema()).thenReturn("schema");
+    }
+
+    @Test
+    public void testSameShapeReused() throws Exception {
+        OperationData operationData1 = get(createMetaData("table1"), new BitSet());
+        OperationData operationData2 = get(createMetaData("table1"), new BitSet());
+
+        assertSame(operationData1, operationData2);
+        assertEquals("delete from schema.table1 where c1 = ?", operationData1.getSql());
+        assertEquals(1, tested.getHitCount());
+        assertEquals(1, tested.getMissCount());
+    }
+
+    @Test
+    public void testDifferentShapeBuilt() throws Exception {
+        BitSet ignoreMapping = new BitSet();
+        ignoreMapping.set(1);
+
+        get(createMetaData("table1"), new BitSet());
+        get(createMetaData("table1"), ignoreMapping);
+        get(createMetaData("table2"), new BitSet());
+
+        assertEquals(0, tested.getHitCount());
+        assertEquals(3, tested.getMissCount());
+        assertEquals(2, tested.size());
+    }
+
+    @Test
+    public void testEscapePatternChange() throws Exception {
+        OperationData operationData1 = get(createMetaData("table1"), new BitSet());
+        databaseConfig.setEscapePattern("[?]");
+        OperationData operationData2 = get(createMetaData("table1"), new BitSet());
+
+        assertNotSame(operationData1, operationData2);
+        assertEquals("delete from [schema].[table1] where [c1] = ?", operationData2.getSql());
+    }
+
+    @Test
+    public void testIgnoreMappingCopied() throws Exception {
+        BitSet ignoreMapping = new BitSet();
+        get(createMetaData("table1"), ignoreMapping);
+        ignoreMapping.set(1);
+        get(createMetaData("table1"), new BitSet());
+
+        assertEquals(1, tested.getHitCount());
+    }
+
+    private OperationData get(ITableMetaData metaData, BitSet ignoreMapping) throws Exception {
+        return tested.get(metaData, ignoreMapping, 1, connection,
+                () -> operation.getOperationData(metaData, ignoreMapping, connection));
+    }
+
+    private static ITableMetaData createMetaData(String tableName) {
+        Column[] columns = { new Column("c1", DataType.VARCHAR), new Column("c2", DataType.NUMERIC) };
+        return new DefaultTableMetaData(tableName, columns, new String[] { "c1" });
+    }
+}
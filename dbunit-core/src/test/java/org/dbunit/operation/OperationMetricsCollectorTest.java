@@ -0,0 +1,92 @@
+/*
+ * Copyright (C)2024, Vasiliy Gagin. All rights reserved.
+ */
+package org.dbunit.operation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dbunit.database.statement.IPreparedBatchStatement;
+import org.junit.Test;
+
+public class OperationMetricsCollectorTest {
+
+    private static final String SQL = "insert into T1 (C1) values (?)";
+
+    @Test
+    public void testTableMetrics() throws Exception {
+        OperationMetricsCollector tested = new OperationMetricsCollector();
+
+        tested.metadataLookedUp("T1", 5);
+        tested.statementPrepared("T1", SQL, 7);
+        tested.batchExecuted("T1", SQL, 100, 800, TimeUnit.MICROSECONDS.toNanos(50));
+        tested.batchExecuted("t1", SQL, 100, 800, TimeUnit.MILLISECONDS.toNanos(5));
+        tested.batchExecuted("T1", SQL, 50, 400, TimeUnit.SECONDS.toNanos(2));
+        tested.tableFinished(DatabaseOperation.INSERT, "T1", 250, TimeUnit.MILLISECONDS.toNanos(500));
+
+        OperationMetricsCollector.TableMetrics metrics = tested.getTableMetrics("t1");
+        assertEquals("T1", metrics.getTableName());
+        assertEquals(250, metrics.getRowCount());
+        assertEquals(500, metrics.getRowsPerSecond(), 0.001);
+        assertEquals(5, metrics.getMetadataNanos());
+        assertEquals(1, metrics.getStatementCount());
+        assertEquals(3, metrics.getBatchCount());
+        assertEquals(250, metrics.getBatchRowCount());
+        assertEquals(2000, metrics.getBatchByteCount());
+        assertArrayEquals(new long[] { 1, 0, 1, 0, 0, 1 }, metrics.getLatencyHistogram());
+        assertNull(tested.getTableMetrics("T2"));
+    }
+
+    @Test
+    public void testSummaryListsSlowestTableFirst() throws Exception {
+        OperationMetricsCollector tested = new OperationMetricsCollector();
+        tested.tableFinished(DatabaseOperation.INSERT, "FAST", 10, TimeUnit.MILLISECONDS.toNanos(1));
+        tested.tableFinished(DatabaseOperation.INSERT, "SLOW", 10, TimeUnit.MILLISECONDS.toNanos(100));
+
+        String summary = tested.getSummary();
+
+        assertTrue(summary, summary.indexOf("SLOW") < summary.indexOf("FAST"));
+        assertEquals(2, tested.getTableMetrics().size());
+        tested.reset();
+        assertEquals(0, tested.getTableMetrics().size());
+    }
+
+    @Test
+    public void testForwardOnlyTableRowCountIsIgnored() throws Exception {
+        OperationMetricsCollector tested = new OperationMetricsCollector();
+
+        tested.tableFinished(DatabaseOperation.INSERT, "T1", -1, 10);
+
+        assertEquals(0, tested.getTableMetrics("T1").getRowCount());
+        assertEquals(10, tested.getTableMetrics("T1").getNanos());
+    }
+
+    @Test
+    public void testMonitoredStatementReportsBatchRows() throws Exception {
+        OperationMetricsCollector monitor = new OperationMetricsCollector();
+        IPreparedBatchStatement statement = mock(IPreparedBatchStatement.class);
+        MonitoredPreparedBatchStatement tested = new MonitoredPreparedBatchStatement(statement, monitor, "T1", SQL,
+                2);
+
+        for (int i = 0; i < 3; i++) {
+            tested.addValue("value", null);
+            tested.addBatch();
+        }
+        tested.executeBatch();
+        // nothing pending, not a batch
+        tested.executeBatch();
+
+        verify(statement, times(3)).addBatch();
+        verify(statement, times(2)).executeBatch();
+        assertEquals(1, monitor.getTableMetrics("T1").getBatchCount());
+        assertEquals(6, monitor.getTableMetrics("T1").getBatchRowCount());
+        assertEquals(30, monitor.getTableMetrics("T1").getBatchByteCount());
+    }
+}
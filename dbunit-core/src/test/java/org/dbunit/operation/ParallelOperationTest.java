@@ -0,0 +1,203 @@
+package org.dbunit.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.database.CyclicTablesDependencyException;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class ParallelOperationTest {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testExecuteRespectsDependencies() throws Exception {
+        Map<String, Set<String>> dependsOn = new TreeMap<>();
+        dependsOn.put("A", tables());
+        dependsOn.put("B", tables());
+        dependsOn.put("C", tables("A"));
+        dependsOn.put("D", tables("B", "C"));
+
+        Connection jdbcConnection = mock(Connection.class);
+        when(jdbcConnection.getAutoCommit()).thenReturn(false);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(jdbcConnection);
+
+        DatabaseOperation operation = new CompositeOperation(new RecordingDeleteAllOperation(),
+                new RecordingOperation());
+        new TestParallelOperation(operation, dataSource, dependsOn).execute(createConnection(),
+                createDataSet("A", "B", "C", "D"));
+
+        assertEquals(8, events.size());
+        assertBefore("delete D", "delete B");
+        assertBefore("delete D", "delete C");
+        assertBefore("delete C", "delete A");
+        assertBefore("delete A", "insert A");
+        assertBefore("delete B", "insert A");
+        assertBefore("insert A", "insert C");
+        assertBefore("insert B", "insert D");
+        assertBefore("insert C", "insert D");
+
+        verify(jdbcConnection, times(8)).commit();
+        verify(jdbcConnection, times(4)).close();
+    }
+
+    @Test
+    public void testExecuteStopsAfterFailure() throws Exception {
+        Map<String, Set<String>> dependsOn = new TreeMap<>();
+        dependsOn.put("A", tables());
+        dependsOn.put("FAIL", tables());
+        dependsOn.put("C", tables("A", "FAIL"));
+
+        Connection jdbcConnection = mock(Connection.class);
+        when(jdbcConnection.getAutoCommit()).thenReturn(false);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(jdbcConnection);
+
+        try {
+            new TestParallelOperation(new RecordingOperation(), dataSource, dependsOn).execute(createConnection(),
+                    createDataSet("A", "FAIL", "C"));
+            fail("Should not be here!");
+        } catch (DatabaseUnitException e) {
+        }
+
+        assertTrue(events.contains("insert A"));
+        assertTrue(!events.contains("insert C"));
+        verify(jdbcConnection).rollback();
+        verify(jdbcConnection, times(2)).close();
+    }
+
+    @Test
+    public void testExecuteReportsOtherCheckedFailure() throws Exception {
+        Map<String, Set<String>> dependsOn = new TreeMap<>();
+        dependsOn.put("A", tables());
+        dependsOn.put("CHECKED", tables());
+
+        Connection jdbcConnection = mock(Connection.class);
+        when(jdbcConnection.getAutoCommit()).thenReturn(true);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(jdbcConnection);
+
+        try {
+            new TestParallelOperation(new RecordingOperation(), dataSource, dependsOn).execute(createConnection(),
+                    createDataSet("A", "CHECKED"));
+            fail("Should not be here!");
+        } catch (DatabaseUnitException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+
+        verify(jdbcConnection, times(2)).close();
+    }
+
+    @Test
+    public void testCheckCycles() throws Exception {
+        Map<String, Set<String>> dependsOn = new TreeMap<>();
+        dependsOn.put("A", tables("B"));
+        dependsOn.put("B", tables("A"));
+        dependsOn.put("C", tables());
+
+        try {
+            ParallelOperation.checkCycles(dependsOn);
+            fail("Should not be here!");
+        } catch (CyclicTablesDependencyException e) {
+            assertEquals("Table: A ([A, B])", e.getMessage());
+        }
+    }
+
+    /**
+     * Throws a checked exception not declared by the operation, as a worker
+     * interrupted while waiting for a connection does.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> void sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private void assertBefore(String first, String second) {
+        assertTrue(first + " before " + second, events.indexOf(first) < events.indexOf(second));
+    }
+
+    private static Set<String> tables(String... tableNames) {
+        return new HashSet<>(Arrays.asList(tableNames));
+    }
+
+    private static IDataSet createDataSet(String... tableNames) throws Exception {
+        ITable[] tables = new ITable[tableNames.length];
+        for (int i = 0; i < tableNames.length; i++) {
+            tables[i] = new DefaultTable(tableNames[i], new Column[] { new Column("c1", DataType.VARCHAR) });
+        }
+        return new DefaultDataSet(tables);
+    }
+
+    private static AbstractDatabaseConnection createConnection() {
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(new DatabaseConfig());
+        return connection;
+    }
+
+    private class RecordingOperation extends DatabaseOperation {
+
+        @Override
+        public void execute(AbstractDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException {
+            String tableName = dataSet.getTableNames()[0];
+            if (tableName.equals("FAIL")) {
+                throw new DatabaseUnitException("Failing table " + tableName);
+            }
+            if (tableName.equals("CHECKED")) {
+                ParallelOperationTest.<RuntimeException>sneakyThrow(new InterruptedException(tableName));
+            }
+            events.add("insert " + tableName);
+        }
+    }
+
+    private class RecordingDeleteAllOperation extends DeleteAllOperation {
+
+        @Override
+        public void execute(AbstractDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException {
+            events.add("delete " + dataSet.getTableNames()[0]);
+        }
+    }
+
+    private static class TestParallelOperation extends ParallelOperation {
+
+        private final Map<String, Set<String>> dependsOn;
+
+        TestParallelOperation(DatabaseOperation operation, DataSource dataSource,
+                Map<String, Set<String>> dependsOn) {
+            super(operation, dataSource, 2);
+            this.dependsOn = dependsOn;
+        }
+
+        @Override
+        Map<String, Set<String>> getDependsOnTables(AbstractDatabaseConnection connection, Set<String> tableNames) {
+            return dependsOn;
+        }
+    }
+}
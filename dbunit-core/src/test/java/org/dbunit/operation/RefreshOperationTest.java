@@ -1,9 +1,16 @@
 package org.dbunit.operation;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
 import org.dbunit.database.AbstractDatabaseConnection;
 import org.dbunit.database.DatabaseDataSet;
 import org.dbunit.database.statement.MockBatchStatement;
@@ -23,6 +30,202 @@ import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
 
 public class RefreshOperationTest {
 
+    @Test
+    public void testMockExecute() throws Exception {
+        String schemaName = "schema";
+        String tableName = "table";
+        String[] expected = { "insert into schema.table (c1, c2) values (1, 'a')",
+                "insert into schema.table (c1, c2) values (3, 'c')", "update schema.table set c2 = 'b' where c1 = 2", };
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.NUMERIC), new Column("c2", DataType.VARCHAR), };
+        DefaultTable table = new DefaultTable(
+                new DefaultTableMetaData(tableName, columns, new Column[] { columns[0] }));
+        table.addRow(new Object[] { "1", "a" });
+        table.addRow(new Object[] { "2", "b" });
+        table.addRow(new Object[] { "3", "c" });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // only the second row exists
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getInt(1)).thenReturn(0, 1, 2);
+        when(resultSet.getInt(2)).thenReturn(0, 1, 0);
+        PreparedStatement selectStatement = mock(PreparedStatement.class);
+        when(selectStatement.executeQuery()).thenReturn(resultSet);
+        Connection jdbcConnection = mock(Connection.class);
+        when(jdbcConnection.prepareStatement("select 0, count(*) from schema.table where c1 = ?"
+                + " union all select 1, count(*) from schema.table where c1 = ?"
+                + " union all select 2, count(*) from schema.table where c1 = ?")).thenReturn(selectStatement);
+
+        // setup mock objects
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(expected);
+        statement.setExpectedExecuteBatchCalls(2);
+        statement.setExpectedClearBatchCalls(2);
+        statement.setExpectedCloseCalls(2);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(2);
+        factory.setupStatement(statement);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn(schemaName);
+        when(connection.getConnection()).thenReturn(jdbcConnection);
+
+        // execute operation
+        DatabaseOperation.REFRESH.execute(connection, dataSet);
+
+        statement.verify();
+        factory.verify();
+        verify(selectStatement).close();
+    }
+
+    @Test
+    public void testGetChunkSize() throws Exception {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setBatchSize(100);
+        databaseConfig.setMaxBindParameters(150);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+
+        RefreshOperation operation = new RefreshOperation();
+        assertEquals(100, operation.getChunkSize(connection, 1));
+        assertEquals(75, operation.getChunkSize(connection, 2));
+        assertEquals(1, operation.getChunkSize(connection, 200));
+    }
+
+    /**
+     * A key with trailing spaces is inserted when the database does not find
+     * it, even if it only differs from an existing key by its padding.
+     */
+    @Test
+    public void testExecuteKeyWithTrailingSpaces() throws Exception {
+        DefaultTable table = createStringKeyTable();
+        table.addRow(new Object[] { "a ", "x" });
+
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchString("insert into schema.table (c1, c2) values ('a ', 'x')");
+        statement.setExpectedExecuteBatchCalls(1);
+        statement.setExpectedClearBatchCalls(1);
+        statement.setExpectedCloseCalls(1);
+
+        executeWithProbeResults(table, statement, 0);
+
+        statement.verify();
+    }
+
+    /**
+     * A key found by a case insensitive collation of the database is updated,
+     * not inserted again.
+     */
+    @Test
+    public void testExecuteKeyFoundIgnoringCase() throws Exception {
+        DefaultTable table = createStringKeyTable();
+        table.addRow(new Object[] { "A", "x" });
+
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchString("update schema.table set c2 = 'x' where c1 = 'A'");
+        statement.setExpectedExecuteBatchCalls(1);
+        statement.setExpectedClearBatchCalls(1);
+        statement.setExpectedCloseCalls(1);
+
+        executeWithProbeResults(table, statement, 1);
+
+        statement.verify();
+    }
+
+    /**
+     * Keys that may be equal in the database are probed in separate chunks, the
+     * second row is then updated once the first one has been inserted.
+     */
+    @Test
+    public void testExecuteKeysEqualIgnoringCase() throws Exception {
+        DefaultTable table = createStringKeyTable();
+        table.addRow(new Object[] { "a", "x" });
+        table.addRow(new Object[] { "A", "y" });
+
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(new String[] { "insert into schema.table (c1, c2) values ('a', 'x')",
+                "update schema.table set c2 = 'y' where c1 = 'A'" });
+        statement.setExpectedExecuteBatchCalls(2);
+        statement.setExpectedClearBatchCalls(2);
+        statement.setExpectedCloseCalls(2);
+
+        executeWithProbeResults(table, statement, 0, 1);
+
+        statement.verify();
+    }
+
+    private static DefaultTable createStringKeyTable() {
+        Column[] columns = { new Column("c1", DataType.VARCHAR), new Column("c2", DataType.VARCHAR), };
+        return new DefaultTable(new DefaultTableMetaData("table", columns, new Column[] { columns[0] }));
+    }
+
+    /**
+     * Refreshes the table, the database finding the single key of each probe
+     * the specified number of times.
+     */
+    private static void executeWithProbeResults(DefaultTable table, MockBatchStatement statement, int... counts)
+            throws Exception {
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData("table")).thenReturn(table.getTableMetaData());
+
+        ResultSet resultSet = mock(ResultSet.class);
+        Boolean[] next = new Boolean[counts.length * 2 - 1];
+        Integer[] probeCounts = new Integer[counts.length - 1];
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i % 2 == 0 ? Boolean.FALSE : Boolean.TRUE;
+        }
+        for (int i = 0; i < probeCounts.length; i++) {
+            probeCounts[i] = counts[i + 1];
+        }
+        when(resultSet.next()).thenReturn(true, next);
+        when(resultSet.getInt(1)).thenReturn(0);
+        when(resultSet.getInt(2)).thenReturn(counts[0], probeCounts);
+        PreparedStatement selectStatement = mock(PreparedStatement.class);
+        when(selectStatement.executeQuery()).thenReturn(resultSet);
+        Connection jdbcConnection = mock(Connection.class);
+        when(jdbcConnection.prepareStatement("select 0, count(*) from schema.table where c1 = ?"))
+                .thenReturn(selectStatement);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setupStatement(statement);
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn("schema");
+        when(connection.getConnection()).thenReturn(jdbcConnection);
+
+        DatabaseOperation.REFRESH.execute(connection, dataSet);
+
+        verify(selectStatement, times(counts.length)).close();
+    }
+
+    @Test
+    public void testGetSelectExistingSqlWithCompositeKey() throws Exception {
+        Column[] columns = { new Column("c1", DataType.NUMERIC), new Column("c2", DataType.VARCHAR), };
+        DefaultTableMetaData metaData = new DefaultTableMetaData("table", columns, columns);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.getSchema()).thenReturn("schema");
+
+        assertEquals("select 0, count(*) from schema.table where c1 = ? and c2 = ?"
+                + " union all select 1, count(*) from schema.table where c1 = ? and c2 = ?",
+                new RefreshOperation().getSelectExistingSql(metaData, 2, connection));
+    }
+
     @Test
     public void testExecuteWithEmptyTable() throws Exception {
         Column[] columns = { new Column("c1", DataType.VARCHAR) };
@@ -0,0 +1,144 @@
+package org.dbunit.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.dbunit.database.AbstractDatabaseConnection;
+import org.dbunit.database.DatabaseDataSet;
+import org.dbunit.database.statement.MockBatchStatement;
+import org.dbunit.database.statement.MockStatementFactory;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.NoPrimaryKeyException;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.ext.h2.H2UpsertDialect;
+import org.dbunit.ext.mysql.MySqlUpsertDialect;
+import org.dbunit.ext.oracle.OracleUpsertDialect;
+import org.dbunit.ext.postgresql.PostgresqlDataTypeFactory;
+import org.dbunit.ext.postgresql.PostgresqlUpsertDialect;
+import org.junit.Test;
+
+import io.github.vasiliygagin.dbunit.jdbc.DatabaseConfig;
+
+public class UpsertOperationTest {
+
+    @Test
+    public void testMockExecute() throws Exception {
+        String schemaName = "schema";
+        String tableName = "table";
+        String[] expected = {
+                "insert into schema.table (c1, c2, c3) values (1, 'a', 'x') on conflict (c1) do update set c2 = excluded.c2, c3 = excluded.c3",
+                "insert into schema.table (c1, c2, c3) values (2, 'b', 'y') on conflict (c1) do update set c2 = excluded.c2, c3 = excluded.c3",
+                "insert into schema.table (c1, c2) values (3, 'c') on conflict (c1) do update set c2 = excluded.c2", };
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.NUMERIC), new Column("c2", DataType.VARCHAR),
+                new Column("c3", DataType.VARCHAR), };
+        DefaultTable table = new DefaultTable(
+                new DefaultTableMetaData(tableName, columns, new Column[] { columns[0] }));
+        table.addRow(new Object[] { "1", "a", "x" });
+        table.addRow(new Object[] { "2", "b", "y" });
+        table.addRow(new Object[] { "3", "c", ITable.NO_VALUE });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // setup mock objects
+        MockBatchStatement statement = new MockBatchStatement();
+        statement.addExpectedBatchStrings(expected);
+        statement.setExpectedExecuteBatchCalls(2);
+        statement.setExpectedClearBatchCalls(2);
+        statement.setExpectedCloseCalls(2);
+
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(2);
+        factory.setupStatement(statement);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        databaseConfig.setDataTypeFactory(new PostgresqlDataTypeFactory());
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+        when(connection.getSchema()).thenReturn(schemaName);
+
+        // execute operation
+        DatabaseOperation.UPSERT.execute(connection, dataSet);
+
+        statement.verify();
+        factory.verify();
+    }
+
+    @Test
+    public void testExecuteWithNoPrimaryKey() throws Exception {
+        String tableName = "table";
+
+        // setup table
+        Column[] columns = { new Column("c1", DataType.NUMERIC), new Column("c2", DataType.VARCHAR), };
+        DefaultTable table = new DefaultTable(tableName, columns);
+        table.addRow(new Object[] { "1", "a" });
+        DatabaseDataSet dataSet = mock(DatabaseDataSet.class);
+        when(dataSet.iterator()).thenReturn(new DefaultTableIterator(new ITable[] { table }));
+        when(dataSet.getTableMetaData(tableName)).thenReturn(table.getTableMetaData());
+
+        // setup mock objects
+        MockStatementFactory factory = new MockStatementFactory();
+        factory.setExpectedCreatePreparedStatementCalls(0);
+
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setStatementFactory(factory);
+        databaseConfig.setDataTypeFactory(new PostgresqlDataTypeFactory());
+        AbstractDatabaseConnection connection = mock(AbstractDatabaseConnection.class);
+        when(connection.getDatabaseConfig()).thenReturn(databaseConfig);
+        when(connection.createDataSet()).thenReturn(dataSet);
+
+        // execute operation
+        try {
+            DatabaseOperation.UPSERT.execute(connection, dataSet);
+            fail("Should not be here!");
+        } catch (NoPrimaryKeyException e) {
+
+        }
+
+        factory.verify();
+    }
+
+    @Test
+    public void testUpsertDialects() throws Exception {
+        String[] columnNames = { "c1", "c2" };
+        String[] primaryKeyNames = { "c1" };
+
+        assertEquals("merge into s.t tgt using (values (?, ?)) as src (c1, c2) on (tgt.c1 = src.c1)"
+                + " when matched then update set c2 = src.c2"
+                + " when not matched then insert (c1, c2) values (src.c1, src.c2)",
+                new MergeUpsertDialect().getUpsertSql("s.t", columnNames, primaryKeyNames));
+        assertEquals("merge into s.t tgt using (select ? as c1, ? as c2 from dual) src on (tgt.c1 = src.c1)"
+                + " when matched then update set c2 = src.c2"
+                + " when not matched then insert (c1, c2) values (src.c1, src.c2)",
+                new OracleUpsertDialect().getUpsertSql("s.t", columnNames, primaryKeyNames));
+        assertEquals("merge into s.t (c1, c2) key (c1) values (?, ?)",
+                new H2UpsertDialect().getUpsertSql("s.t", columnNames, primaryKeyNames));
+        assertEquals("insert into s.t (c1, c2) values (?, ?) on conflict (c1) do update set c2 = excluded.c2",
+                new PostgresqlUpsertDialect().getUpsertSql("s.t", columnNames, primaryKeyNames));
+        assertEquals("insert into s.t (c1, c2) values (?, ?) on duplicate key update c2 = values(c2)",
+                new MySqlUpsertDialect().getUpsertSql("s.t", columnNames, primaryKeyNames));
+    }
+
+    @Test
+    public void testUpsertDialectsWithPrimaryKeyColumnsOnly() throws Exception {
+        String[] columnNames = { "c1" };
+
+        assertEquals("merge into s.t tgt using (values (?)) as src (c1) on (tgt.c1 = src.c1)"
+                + " when not matched then insert (c1) values (src.c1)",
+                new MergeUpsertDialect().getUpsertSql("s.t", columnNames, columnNames));
+        assertEquals("insert into s.t (c1) values (?) on conflict (c1) do nothing",
+                new PostgresqlUpsertDialect().getUpsertSql("s.t", columnNames, columnNames));
+        assertEquals("insert into s.t (c1) values (?) on duplicate key update c1 = c1",
+                new MySqlUpsertDialect().getUpsertSql("s.t", columnNames, columnNames));
+    }
+}
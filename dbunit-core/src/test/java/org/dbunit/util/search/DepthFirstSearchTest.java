@@ -21,6 +21,10 @@
 
 package org.dbunit.util.search;
 
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
 /**
  * @author Felipe Leme (dbunit@felipeal.net)
  * @version $Revision$
@@ -174,4 +178,39 @@ public class DepthFirstSearchTest extends AbstractSearchTestCase {
         doIt();
     }
 
+    public void testSearchDepth() throws Exception {
+        setInput(new String[] { A });
+        addEdges(A, new String[] { B, D });
+        addEdges(B, new String[] { C });
+        setOutput(new String[] { B, D, A });
+        final Set actualOutput = new DepthFirstSearch(1).search(this.fInput, getCallback());
+        assertEquals(this.fExpectedOutput, actualOutput);
+    }
+
+    public void testDeepChain() throws Exception {
+        final int length = 100000;
+        final ISearchCallback callback = new ISearchCallback() {
+            public SortedSet getEdges(final Object fromNode) {
+                final int index = ((Integer) fromNode).intValue();
+                final SortedSet edges = new TreeSet();
+                if (index < length - 1) {
+                    edges.add(new Edge((Integer) fromNode, Integer.valueOf(index + 1)));
+                }
+                return edges;
+            }
+
+            public void nodeAdded(final Object fromNode) {
+            }
+
+            public boolean searchNode(final Object node) {
+                return true;
+            }
+        };
+
+        final Set actualOutput = fSearch.search(new Object[] { Integer.valueOf(0) }, callback);
+
+        assertEquals(length, actualOutput.size());
+        assertEquals(Integer.valueOf(length - 1), actualOutput.iterator().next());
+    }
+
 }
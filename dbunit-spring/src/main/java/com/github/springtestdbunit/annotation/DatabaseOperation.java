@@ -43,6 +43,12 @@ public enum DatabaseOperation {
      */
     REFRESH,
 
+    /**
+     * Same as {@link #REFRESH} but using the native upsert statement of the
+     * database when available.
+     */
+    UPSERT,
+
     /**
      * Deletes database table rows that matches rows from the dataset.
      */
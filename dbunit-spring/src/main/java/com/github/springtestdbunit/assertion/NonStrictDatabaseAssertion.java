@@ -56,8 +56,15 @@ class NonStrictDatabaseAssertion implements DatabaseAssertion {
             throws DatabaseUnitException {
         Set<String> ignoredColumns = getColumnsToIgnore(expectedTable.getTableMetaData(),
                 actualTable.getTableMetaData(), columnFilters);
-        Assertion.assertEqualsIgnoreCols(expectedTable, actualTable,
-                ignoredColumns.toArray(new String[ignoredColumns.size()]));
+        assertEqualsIgnoreCols(expectedTable, actualTable, ignoredColumns.toArray(new String[ignoredColumns.size()]));
+    }
+
+    /**
+     * Compares the tables ignoring the specified columns.
+     */
+    protected void assertEqualsIgnoreCols(ITable expectedTable, ITable actualTable, String[] ignoredColumns)
+            throws DatabaseUnitException {
+        Assertion.assertEqualsIgnoreCols(expectedTable, actualTable, ignoredColumns);
     }
 
     private Set<String> getColumnsToIgnore(ITableMetaData expectedMetaData, ITableMetaData actualMetaData,
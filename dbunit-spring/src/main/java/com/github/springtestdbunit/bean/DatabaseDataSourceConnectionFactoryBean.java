@@ -25,6 +25,7 @@ import javax.sql.DataSource;
 import org.dbunit.database.DatabaseConfig;
 import org.dbunit.database.DatabaseDataSourceConnection;
 import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.database.metadata.MetadataCache;
 import org.dbunit.database.metadata.MetadataManager;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -45,6 +46,8 @@ public class DatabaseDataSourceConnectionFactoryBean implements FactoryBean<Data
 
     private boolean transactionAware = true;
 
+    private boolean sharedMetadata = false;
+
     private String username;
 
     private String password;
@@ -70,7 +73,9 @@ public class DatabaseDataSourceConnectionFactoryBean implements FactoryBean<Data
             config = new DatabaseConfig();
         }
         Connection jdbcConnection = dataSource.getConnection(this.username, this.password);
-        MetadataManager metadataManager = new MetadataManager(jdbcConnection, config, null, this.schema);
+        MetadataCache cache = this.sharedMetadata ? MetadataCache.shared(jdbcConnection, this.schema, config)
+                : new MetadataCache();
+        MetadataManager metadataManager = new MetadataManager(jdbcConnection, config, null, this.schema, cache);
         return new DatabaseDataSourceConnection(makeTransactionAwareIfNeeded(this.dataSource), config, this.schema, this.username, this.password,
                 metadataManager);
     }
@@ -152,4 +157,17 @@ public class DatabaseDataSourceConnectionFactoryBean implements FactoryBean<Data
     public void setTransactionAware(boolean transactionAware) {
         this.transactionAware = transactionAware;
     }
+
+    /**
+     * Determines if the database metadata read by the connection created by this
+     * bean is cached for all connections to the same database in the JVM.
+     * Only suitable when the database structure is not changed outside of dbUnit,
+     * or {@link MetadataCache#invalidateAll()} is called after each change.
+     * Defaults to <tt>false</tt>
+     *
+     * @param sharedMetadata If the metadata should be shared
+     */
+    public void setSharedMetadata(boolean sharedMetadata) {
+        this.sharedMetadata = sharedMetadata;
+    }
 }
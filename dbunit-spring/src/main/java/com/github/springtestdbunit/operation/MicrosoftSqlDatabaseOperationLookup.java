@@ -36,6 +36,7 @@ public class MicrosoftSqlDatabaseOperationLookup extends DefaultDatabaseOperatio
 	MSSQL_LOOKUP = new HashMap<DatabaseOperation, org.dbunit.operation.DatabaseOperation>();
 	MSSQL_LOOKUP.put(DatabaseOperation.INSERT, InsertIdentityOperation.INSERT);
 	MSSQL_LOOKUP.put(DatabaseOperation.REFRESH, InsertIdentityOperation.REFRESH);
+	MSSQL_LOOKUP.put(DatabaseOperation.UPSERT, InsertIdentityOperation.UPSERT);
 	MSSQL_LOOKUP.put(DatabaseOperation.CLEAN_INSERT, InsertIdentityOperation.CLEAN_INSERT);
     }
 
@@ -35,6 +35,7 @@ public class DefaultDatabaseOperationLookupTest {
         assertSame(org.dbunit.operation.DatabaseOperation.UPDATE, lookup.get(DatabaseOperation.UPDATE));
         assertSame(org.dbunit.operation.DatabaseOperation.INSERT, lookup.get(DatabaseOperation.INSERT));
         assertSame(org.dbunit.operation.DatabaseOperation.REFRESH, lookup.get(DatabaseOperation.REFRESH));
+        assertSame(org.dbunit.operation.DatabaseOperation.UPSERT, lookup.get(DatabaseOperation.UPSERT));
         assertSame(org.dbunit.operation.DatabaseOperation.DELETE, lookup.get(DatabaseOperation.DELETE));
         assertSame(org.dbunit.operation.DatabaseOperation.DELETE_ALL, lookup.get(DatabaseOperation.DELETE_ALL));
         assertSame(org.dbunit.operation.DatabaseOperation.TRUNCATE_TABLE, lookup.get(DatabaseOperation.TRUNCATE_TABLE));
@@ -36,6 +36,7 @@ public class MicrosoftSqlDatabaseOperationLookupTest {
         assertSame(org.dbunit.operation.DatabaseOperation.UPDATE, lookup.get(DatabaseOperation.UPDATE));
         assertSame(InsertIdentityOperation.INSERT, lookup.get(DatabaseOperation.INSERT));
         assertSame(InsertIdentityOperation.REFRESH, lookup.get(DatabaseOperation.REFRESH));
+        assertSame(InsertIdentityOperation.UPSERT, lookup.get(DatabaseOperation.UPSERT));
         assertSame(org.dbunit.operation.DatabaseOperation.DELETE, lookup.get(DatabaseOperation.DELETE));
         assertSame(org.dbunit.operation.DatabaseOperation.DELETE_ALL, lookup.get(DatabaseOperation.DELETE_ALL));
         assertSame(org.dbunit.operation.DatabaseOperation.TRUNCATE_TABLE, lookup.get(DatabaseOperation.TRUNCATE_TABLE));
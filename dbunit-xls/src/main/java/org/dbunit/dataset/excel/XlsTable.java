@@ -126,9 +126,13 @@ class XlsTable extends AbstractTable {
         if (logger.isDebugEnabled())
             logger.debug("getValue(row={}, columnName={}) - start", Integer.toString(row), column);
 
+        return getValue(row, getColumnIndex(column));
+    }
+
+    @Override
+    public Object getValue(int row, int columnIndex) throws DataSetException {
         assertValidRowIndex(row);
 
-        int columnIndex = getColumnIndex(column);
         Cell cell = _sheet.getRow(row + 1).getCell(columnIndex);
         if (cell == null) {
             return null;